@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.monitor.Statistics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the monitoring sweep of a single device on its own daemon thread, on a fixed delay, and publishes the result as an immutable snapshot. <br>
+ * Readers never block on device I/O and never take a lock: the latest snapshot is read from an {@link AtomicReference}, which the collector thread replaces
+ * as a whole after every sweep. Only the very first read waits, until the first sweep completes.
+ *
+ * @since 1.0.2
+ */
+class BackgroundCollector {
+
+	private static final Log logger = LogFactory.getLog(BackgroundCollector.class);
+
+	/**
+	 * Monitoring sweep of the device.
+	 */
+	@FunctionalInterface
+	interface Sweep {
+		/**
+		 * Retrieves statistics of the device, on the collector thread.
+		 *
+		 * @return statistics, which must not be modified afterwards
+		 * @throws Exception if statistics cannot be retrieved
+		 */
+		List<Statistics> collect() throws Exception;
+	}
+
+	/**
+	 * Immutable result of a sweep.
+	 */
+	static final class Snapshot {
+		final List<Statistics> statistics;
+		final Map<String, Long> sectionTimestamps;
+		final long timestamp;
+		final Exception failure;
+
+		Snapshot(List<Statistics> statistics, Map<String, Long> sectionTimestamps, long timestamp, Exception failure) {
+			this.statistics = statistics != null ? Collections.unmodifiableList(statistics) : null;
+			this.sectionTimestamps = Collections.unmodifiableMap(sectionTimestamps);
+			this.timestamp = timestamp;
+			this.failure = failure;
+		}
+	}
+
+	private final String name;
+	private final Sweep sweep;
+	private final Supplier<Map<String, Long>> sectionTimestamps;
+	private final long interval;
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+	private final CountDownLatch firstSnapshot = new CountDownLatch(1);
+	private ScheduledExecutorService executor;
+
+	/**
+	 * BackgroundCollector constructor
+	 *
+	 * @param name name of the collector thread
+	 * @param sweep monitoring sweep
+	 * @param sectionTimestamps retrieval times of the statistics sections, taken right after every successful sweep
+	 * @param interval delay between the end of a sweep and the start of the next one, in milliseconds
+	 */
+	BackgroundCollector(String name, Sweep sweep, Supplier<Map<String, Long>> sectionTimestamps, long interval) {
+		this.name = name;
+		this.sweep = sweep;
+		this.sectionTimestamps = sectionTimestamps;
+		this.interval = interval;
+	}
+
+	/**
+	 * Starts the collector thread, the first sweep starts right away.
+	 */
+	synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::refresh, 0, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the collector thread, interrupting the sweep in progress (if any). The latest snapshot stays readable.
+	 */
+	synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Retrieves the latest snapshot, without blocking.
+	 *
+	 * @return latest snapshot, or {@code null} if the first sweep has not completed yet
+	 */
+	Snapshot latest() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Retrieves the latest snapshot, waiting for the first sweep to complete if needed.
+	 *
+	 * @param timeout max time to wait for the first sweep, in milliseconds
+	 * @return latest snapshot, or {@code null} if the first sweep did not complete in time
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	Snapshot await(long timeout) throws InterruptedException {
+		Snapshot latest = snapshot.get();
+		if (latest == null && firstSnapshot.await(timeout, TimeUnit.MILLISECONDS)) {
+			latest = snapshot.get();
+		}
+		return latest;
+	}
+
+	/**
+	 * Runs the sweep and publishes its result, a failed sweep publishes its failure.
+	 */
+	void refresh() {
+		long start = System.currentTimeMillis();
+		Snapshot next;
+		try {
+			List<Statistics> statistics = sweep.collect();
+			next = new Snapshot(statistics, sectionTimestamps.get(), start, null);
+		} catch (Exception e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Background sweep " + name + " failed", e);
+			}
+			next = new Snapshot(null, Collections.emptyMap(), start, e);
+		} catch (Error e) {
+			// an error escaping the scheduled task would cancel all further sweeps
+			logger.error("Background sweep " + name + " failed", e);
+			next = new Snapshot(null, Collections.emptyMap(), start, new IllegalStateException(e));
+		}
+		snapshot.set(next);
+		firstSnapshot.countDown();
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed size heap buffers shared by connections of all devices. <br>
+ * Connections take buffers while a request is in progress and return them once idle, so memory is proportional to the number of concurrent requests
+ * rather than the number of devices. Buffers are large enough for a TLS record ({@code SSLSession#getPacketBufferSize()} and
+ * {@code SSLSession#getApplicationBufferSize()}); buffers of other sizes (e.g. enlarged ones) are not pooled.
+ *
+ * @since 1.0.2
+ */
+final class ByteBufferPool {
+
+	static final int BUFFER_SIZE = 32 * 1024;
+	private static final int MAX_POOLED = 64;
+
+	private static final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger pooled = new AtomicInteger();
+
+	private ByteBufferPool() {
+	}
+
+	/**
+	 * Takes a buffer from the pool, allocating one if the pool is empty.
+	 *
+	 * @param minimumSize minimum capacity of the buffer
+	 * @return cleared buffer
+	 */
+	static ByteBuffer acquire(int minimumSize) {
+		if (minimumSize > BUFFER_SIZE) {
+			return ByteBuffer.allocate(minimumSize);
+		}
+		ByteBuffer buffer = free.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocate(BUFFER_SIZE);
+		}
+		pooled.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns buffer to the pool. The buffer must not be used by the caller afterwards.
+	 *
+	 * @param buffer buffer to return, may be {@code null}
+	 */
+	static void release(ByteBuffer buffer) {
+		if (buffer == null || buffer.capacity() != BUFFER_SIZE) {
+			return;
+		}
+		if (pooled.incrementAndGet() <= MAX_POOLED) {
+			free.add(buffer);
+		} else {
+			pooled.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Retrieves number of buffers in the pool.
+	 *
+	 * @return number of free buffers
+	 */
+	static int size() {
+		return pooled.get();
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.dal.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Keeps per-stream media counters between polls, so statistics can be reported for the last poll interval rather than since the call start. <br>
+ * {@code sessionStats} reports cumulative {@code PacketsExpected}/{@code PacketsLost}/{@code Octets*} counters, therefore a burst of loss late in a long call
+ * is diluted to nearly zero when loss percentage is calculated from them. This class remembers previous counters of every stream (identified by stream
+ * {@code Ref}) in primitive fields and calculates interval values from the difference. It also keeps a fixed size ring of recent interval samples for every
+ * stream, with min/max/avg, so the cost of a poll does not depend on the call length.
+ *
+ * @since 1.0.2
+ */
+class CallQualityTracker {
+
+	// sessionStats stream keys
+	private static final String PACKETS_EXPECTED = "PacketsExpected";
+	private static final String PACKETS_LOST = "PacketsLost";
+	private static final String OCTETS_RECEIVED = "OctetsReceived";
+	private static final String OCTETS_SENT = "OctetsSent";
+	private static final String JITTER = "Jitter";
+
+	/** Default number of recent samples kept for every stream. */
+	static final int DEFAULT_RING_SIZE = 30;
+
+	/**
+	 * Interval values calculated for a stream on the last update. <br>
+	 * Values which cannot be calculated (e.g. bit rates on the first sample of the stream) are {@code NaN} or {@code -1}.
+	 */
+	static final class StreamSamples {
+		// previous cumulative counters
+		private long lastTimestamp;
+		private long lastPacketsExpected;
+		private long lastPacketsLost;
+		private long lastOctetsReceived;
+		private long lastOctetsSent;
+		private long generation;
+
+		// last interval values
+		long intervalPacketsExpected;
+		long intervalPacketsLost;
+		float intervalPacketLossPercent = Float.NaN;
+		float jitter = Float.NaN;
+		int bitRateRx = -1;
+		int bitRateTx = -1;
+
+		// recent samples
+		final SampleRing packetLoss;
+		final SampleRing jitters;
+
+		private StreamSamples(int ringSize) {
+			packetLoss = new SampleRing(ringSize);
+			jitters = new SampleRing(ringSize);
+		}
+
+		private void update(long timestamp, long packetsExpected, long packetsLost, long octetsReceived, long octetsSent, float jitter) {
+			if (packetsExpected < lastPacketsExpected || packetsLost < lastPacketsLost) {
+				// counters reset (e.g. stream renegotiated), start over from zero
+				lastTimestamp = 0;
+				lastPacketsExpected = 0;
+				lastPacketsLost = 0;
+				lastOctetsReceived = 0;
+				lastOctetsSent = 0;
+			}
+
+			intervalPacketsExpected = packetsExpected - lastPacketsExpected;
+			intervalPacketsLost = packetsLost - lastPacketsLost;
+			intervalPacketLossPercent = intervalPacketsExpected > 0 ? intervalPacketsLost * 100f / intervalPacketsExpected : Float.NaN;
+
+			long elapsed = timestamp - lastTimestamp;
+			if (lastTimestamp > 0 && elapsed > 0) {
+				// bytes per millisecond * 8 = kilobits per second
+				bitRateRx = octetsReceived >= lastOctetsReceived ? (int) ((octetsReceived - lastOctetsReceived) * 8 / elapsed) : -1;
+				bitRateTx = octetsSent >= lastOctetsSent ? (int) ((octetsSent - lastOctetsSent) * 8 / elapsed) : -1;
+			} else {
+				bitRateRx = -1;
+				bitRateTx = -1;
+			}
+			this.jitter = jitter;
+
+			if (!Float.isNaN(intervalPacketLossPercent)) {
+				packetLoss.add(intervalPacketLossPercent);
+			}
+			if (!Float.isNaN(jitter)) {
+				jitters.add(jitter);
+			}
+
+			lastTimestamp = timestamp;
+			lastPacketsExpected = packetsExpected;
+			lastPacketsLost = packetsLost;
+			lastOctetsReceived = octetsReceived;
+			lastOctetsSent = octetsSent;
+		}
+	}
+
+	/**
+	 * Fixed size ring of float samples with running sum, min and max.
+	 */
+	static final class SampleRing {
+		private final float[] values;
+		private int head;
+		private int count;
+		private double sum;
+		private float min = Float.NaN;
+		private float max = Float.NaN;
+
+		SampleRing(int size) {
+			values = new float[size];
+		}
+
+		void add(float value) {
+			float evicted = Float.NaN;
+			if (count == values.length) {
+				evicted = values[head];
+				sum -= evicted;
+			} else {
+				count++;
+			}
+			values[head] = value;
+			head = (head + 1) % values.length;
+			sum += value;
+
+			if (evicted == min || evicted == max) {
+				// extreme value left the ring, min/max has to be recalculated from the remaining samples
+				recalculateMinMax();
+			} else {
+				if (Float.isNaN(min) || value < min) {
+					min = value;
+				}
+				if (Float.isNaN(max) || value > max) {
+					max = value;
+				}
+			}
+		}
+
+		int size() {
+			return count;
+		}
+
+		float min() {
+			return min;
+		}
+
+		float max() {
+			return max;
+		}
+
+		float avg() {
+			return count > 0 ? (float) (sum / count) : Float.NaN;
+		}
+
+		private void recalculateMinMax() {
+			min = Float.NaN;
+			max = Float.NaN;
+			for (int i = 0; i < count; i++) {
+				float value = values[i];
+				if (Float.isNaN(min) || value < min) {
+					min = value;
+				}
+				if (Float.isNaN(max) || value > max) {
+					max = value;
+				}
+			}
+		}
+	}
+
+	private final int ringSize;
+	private final Map<String, StreamSamples> streams = new HashMap<>();
+	private long generation;
+
+	/**
+	 * CallQualityTracker constructor.
+	 *
+	 * @param ringSize number of recent samples kept for every stream
+	 */
+	CallQualityTracker(int ringSize) {
+		this.ringSize = ringSize;
+	}
+
+	/**
+	 * Starts a new poll. Streams which are not updated until {@link #endPoll()} are considered finished and forgotten.
+	 */
+	void beginPoll() {
+		generation++;
+	}
+
+	/**
+	 * Ends current poll, dropping samples of streams which were not reported during the poll.
+	 */
+	void endPoll() {
+		Iterator<StreamSamples> iterator = streams.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().generation != generation) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Drops samples of all streams (e.g. device is not in call anymore).
+	 */
+	void clear() {
+		streams.clear();
+	}
+
+	/**
+	 * Updates samples of the stream with cumulative counters reported by {@code sessionStats}.
+	 *
+	 * @param ref stream reference
+	 * @param stream stream data
+	 * @param timestamp time the data was retrieved at
+	 * @return samples of the stream, with interval values calculated
+	 */
+	StreamSamples update(String ref, Map<String, ?> stream, long timestamp) {
+		StreamSamples samples = streams.get(ref);
+		if (samples == null) {
+			samples = new StreamSamples(ringSize);
+			streams.put(ref, samples);
+		}
+		samples.generation = generation;
+		samples.update(timestamp, toLong(stream.get(PACKETS_EXPECTED)), toLong(stream.get(PACKETS_LOST)), toLong(stream.get(OCTETS_RECEIVED)),
+				toLong(stream.get(OCTETS_SENT)), toFloat(stream.get(JITTER)));
+		return samples;
+	}
+
+	/**
+	 * Retrieves samples of the stream.
+	 *
+	 * @param ref stream reference
+	 * @return samples of the stream, or {@code null} if stream is not tracked
+	 */
+	StreamSamples get(String ref) {
+		return ref != null ? streams.get(ref) : null;
+	}
+
+	private static long toLong(Object value) {
+		if (value instanceof String && !((String) value).isEmpty()) {
+			try {
+				return Long.parseLong((String) value);
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+		return 0;
+	}
+
+	private static float toFloat(Object value) {
+		if (value instanceof String && !StringUtils.isNullOrEmpty((String) value)) {
+			Float result = StringUtils.convertToFloat((String) value);
+			return result != null ? result : Float.NaN;
+		}
+		return Float.NaN;
+	}
+}
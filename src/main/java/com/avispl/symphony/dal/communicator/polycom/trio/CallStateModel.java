@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory call state of a single Polycom Trio device, shared by call control and monitoring. <br>
+ * The model is updated from {@code api/v1/webCallControl/callStatus} responses (reconciliation), from telephony notification events pushed by the device,
+ * and by dial and hangup commands, and can be rendered back into the same raw format as {@code callStatus} response data, so callers can use either
+ * source interchangeably. <br>
+ * Every change of the state is a transition with a new version number, reported to listeners. Versions also protect newer transitions from older
+ * responses: a {@code callStatus} response is only applied if no transition happened since its request was sent.
+ *
+ * @since 1.0.2
+ */
+class CallStateModel {
+
+	// callStatus data keys, same as in the device response
+	static final String CALL_HANDLE = "CallHandle";
+	static final String CALL_STATE = "CallState";
+	static final String REMOTE_PARTY_NUMBER = "RemotePartyNumber";
+	static final String PROTOCOL = "Protocol";
+
+	/**
+	 * Receives call state transitions.
+	 */
+	@FunctionalInterface
+	interface Listener {
+		/**
+		 * Handles transition, on the thread which made it, after the model is unlocked. Transitions made concurrently may be reported out of order, the
+		 * version tells which one is the latest.
+		 *
+		 * @param version version of the model after the transition
+		 * @param previous call state before the transition, in the {@code callStatus} data format, {@code null} if device was not in call
+		 * @param current call state after the transition, in the {@code callStatus} data format, {@code null} if device is not in call
+		 */
+		void onTransition(long version, Map<String, ?> previous, Map<String, ?> current);
+	}
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private long version;
+	private String callHandle;
+	private String callState;
+	private String remotePartyNumber;
+	private String protocol;
+	private long lastReconciled;
+	private long lastUpdated;
+
+	/**
+	 * Replaces the model state with {@code callStatus} response data.
+	 *
+	 * @param data {@code callStatus} response data, or {@code null} if device is not in call
+	 * @param timestamp time the data was retrieved at
+	 */
+	void reconcile(Map<String, ?> data, long timestamp) {
+		Transition transition;
+		synchronized (this) {
+			transition = doReconcile(data, timestamp);
+		}
+		notifyListeners(transition);
+	}
+
+	/**
+	 * Replaces the model state with {@code callStatus} response data, unless the state changed since the request was sent.
+	 *
+	 * @param data {@code callStatus} response data, or {@code null} if device is not in call
+	 * @param timestamp time the data was retrieved at
+	 * @param requestVersion version of the model when the request was sent
+	 * @return {@code true} if the data was applied, {@code false} if a newer transition happened meanwhile
+	 */
+	boolean reconcile(Map<String, ?> data, long timestamp, long requestVersion) {
+		Transition transition;
+		synchronized (this) {
+			if (version != requestVersion) {
+				return false;
+			}
+			transition = doReconcile(data, timestamp);
+		}
+		notifyListeners(transition);
+		return true;
+	}
+
+	/**
+	 * Applies pushed call event to the model.
+	 *
+	 * @param callHandle call reference reported by the event, may be {@code null}
+	 * @param callState new call state
+	 * @param remotePartyNumber remote party number, may be {@code null} if the event does not report it
+	 * @param timestamp time the event was received at
+	 */
+	void onEvent(String callHandle, String callState, String remotePartyNumber, long timestamp) {
+		Transition transition = null;
+		synchronized (this) {
+			if (isIdleState(callState)) {
+				// event about a call other than the tracked one (e.g. held call dropped) does not affect the tracked call
+				if (callHandle == null || this.callHandle == null || callHandle.equalsIgnoreCase(this.callHandle)) {
+					transition = apply(null, null, null, null);
+				}
+			} else {
+				boolean sameCall = callHandle == null || callHandle.equalsIgnoreCase(this.callHandle);
+				transition = apply(callHandle != null ? callHandle : this.callHandle, callState,
+						remotePartyNumber != null ? remotePartyNumber : (sameCall ? this.remotePartyNumber : null), sameCall ? protocol : null);
+			}
+			lastUpdated = timestamp;
+		}
+		notifyListeners(transition);
+	}
+
+	/**
+	 * Applies accepted dial command to the model. The call handle is not known until the model is reconciled, which is forced on next access.
+	 *
+	 * @param remotePartyNumber dialed number
+	 * @param timestamp time the command was accepted at
+	 */
+	void onDial(String remotePartyNumber, long timestamp) {
+		Transition transition;
+		synchronized (this) {
+			transition = apply(null, "Dialing", remotePartyNumber, null);
+			lastUpdated = timestamp;
+			lastReconciled = 0;
+		}
+		notifyListeners(transition);
+	}
+
+	/**
+	 * Applies accepted hangup command to the model.
+	 *
+	 * @param callHandle handle of the ended call, {@code null} for the current call
+	 * @param timestamp time the command was accepted at
+	 */
+	void onHangup(String callHandle, long timestamp) {
+		Transition transition = null;
+		synchronized (this) {
+			if (callHandle == null || this.callHandle == null || callHandle.equalsIgnoreCase(this.callHandle)) {
+				transition = apply(null, null, null, null);
+				lastUpdated = timestamp;
+			}
+		}
+		notifyListeners(transition);
+	}
+
+	/**
+	 * Adds listener of call state transitions.
+	 *
+	 * @param listener listener
+	 */
+	void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Retrieves version of the model, which changes with every transition.
+	 *
+	 * @return version
+	 */
+	synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Reports whether model was reconciled with the device recently enough to be used instead of {@code callStatus} request.
+	 *
+	 * @param reconcileInterval max time since last reconciliation, in milliseconds
+	 * @param now current time
+	 * @return {@code true} if the model can be used as is, {@code false} if it needs to be reconciled
+	 */
+	synchronized boolean isFresh(long reconcileInterval, long now) {
+		return lastReconciled > 0 && now - lastReconciled < reconcileInterval;
+	}
+
+	/**
+	 * Forces reconciliation on next access.
+	 */
+	synchronized void invalidate() {
+		lastReconciled = 0;
+	}
+
+	/**
+	 * Renders model state in the {@code callStatus} response data format.
+	 *
+	 * @return {@code callStatus} data, or {@code null} if device is not in call
+	 */
+	synchronized Map<String, ?> toCallStatusData() {
+		return render();
+	}
+
+	private Map<String, ?> render() {
+		if (callState == null) {
+			return null;
+		}
+		Map<String, String> data = new HashMap<>(6);
+		data.put(CALL_HANDLE, callHandle);
+		data.put(CALL_STATE, callState);
+		data.put(REMOTE_PARTY_NUMBER, remotePartyNumber);
+		data.put(PROTOCOL, protocol);
+		return data;
+	}
+
+	/**
+	 * Retrieves handle of the current call.
+	 *
+	 * @return call handle, or {@code null} if device is not in call or the handle is not known
+	 */
+	synchronized String getCallHandle() {
+		return callState != null ? callHandle : null;
+	}
+
+	/**
+	 * Retrieves time of the last update (either reconciliation or pushed event).
+	 *
+	 * @return time of the last update
+	 */
+	synchronized long getLastUpdated() {
+		return lastUpdated;
+	}
+
+	private Transition doReconcile(Map<String, ?> data, long timestamp) {
+		Transition transition;
+		if (data == null) {
+			transition = apply(null, null, null, null);
+		} else {
+			transition = apply((String) data.get(CALL_HANDLE), (String) data.get(CALL_STATE), (String) data.get(REMOTE_PARTY_NUMBER), (String) data.get(PROTOCOL));
+		}
+		lastReconciled = timestamp;
+		lastUpdated = timestamp;
+		return transition;
+	}
+
+	/**
+	 * Changes the state, must be called with the model locked.
+	 *
+	 * @return transition, or {@code null} if the state did not change
+	 */
+	private Transition apply(String callHandle, String callState, String remotePartyNumber, String protocol) {
+		if (equals(this.callHandle, callHandle) && equals(this.callState, callState) && equals(this.remotePartyNumber, remotePartyNumber)
+				&& equals(this.protocol, protocol)) {
+			return null;
+		}
+		Map<String, ?> previous = listeners.isEmpty() ? null : render();
+		this.callHandle = callHandle;
+		this.callState = callState;
+		this.remotePartyNumber = remotePartyNumber;
+		this.protocol = protocol;
+		version++;
+		return listeners.isEmpty() ? null : new Transition(version, previous, render());
+	}
+
+	private void notifyListeners(Transition transition) {
+		if (transition == null) {
+			return;
+		}
+		for (Listener listener : listeners) {
+			listener.onTransition(transition.version, transition.previous, transition.current);
+		}
+	}
+
+	private static boolean equals(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Transition to be reported once the model is unlocked.
+	 */
+	private static final class Transition {
+		final long version;
+		final Map<String, ?> previous;
+		final Map<String, ?> current;
+
+		Transition(long version, Map<String, ?> previous, Map<String, ?> current) {
+			this.version = version;
+			this.previous = previous;
+			this.current = current;
+		}
+	}
+
+	private static boolean isIdleState(String callState) {
+		return callState == null || callState.equalsIgnoreCase("Disconnected") || callState.equalsIgnoreCase("Free")
+				|| callState.equalsIgnoreCase("Idle");
+	}
+}
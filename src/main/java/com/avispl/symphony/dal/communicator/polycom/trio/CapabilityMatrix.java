@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.Version;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * API capabilities of the firmware a device runs, by request URI. <br>
+ * URIs known to require a minimum firmware version (e.g. {@code sessionStats}, which freezes Trio firmware before 5.8) are gated by the version alone. Any
+ * other URI is probed once: the first request tells whether the firmware supports it, and a URI the firmware does not support is not requested again until
+ * the device reports a different firmware version. Probe results can be exported to and restored from the device state store.
+ *
+ * @since 1.0.2
+ */
+class CapabilityMatrix {
+
+	// state store value holding the firmware probe results were recorded for
+	static final String FIRMWARE = "firmware";
+
+	private final Map<String, int[]> minimumVersions = new HashMap<>();
+	private final Map<String, Boolean> probed = new LinkedHashMap<>();
+	private String firmware;
+
+	/**
+	 * Registers minimum firmware version required by the URI.
+	 *
+	 * @param uri request URI
+	 * @param major minimum major version
+	 * @param minor minimum minor version of the major version
+	 */
+	synchronized void addMinimumVersion(String uri, int major, int minor) {
+		minimumVersions.put(uri, new int[]{major, minor});
+	}
+
+	/**
+	 * Reports whether the URI may be requested from the device running {@code firmware}. <br>
+	 * URIs with a minimum version are not supported while the firmware version is unknown, URIs which were not probed yet are supported.
+	 *
+	 * @param uri request URI
+	 * @param firmware firmware version of the device, {@code null} if not known yet
+	 * @return {@code true} if the URI may be requested
+	 */
+	synchronized boolean isSupported(String uri, String firmware) {
+		int[] minimumVersion = minimumVersions.get(uri);
+		if (minimumVersion != null && !isAtLeast(firmware, minimumVersion[0], minimumVersion[1])) {
+			return false;
+		}
+		switchFirmware(firmware);
+		return !Boolean.FALSE.equals(probed.get(uri));
+	}
+
+	/**
+	 * Records probe result of the URI.
+	 *
+	 * @param uri request URI
+	 * @param firmware firmware version of the device, {@code null} if not known yet
+	 * @param supported whether the firmware supports the URI
+	 * @return {@code true} if the result is new or differs from the recorded one, so the matrix needs persisting
+	 */
+	synchronized boolean record(String uri, String firmware, boolean supported) {
+		switchFirmware(firmware);
+		return !Boolean.valueOf(supported).equals(probed.put(uri, supported));
+	}
+
+	/**
+	 * Exports probe results for the state store.
+	 *
+	 * @return probe results by URI, and the firmware they hold for
+	 */
+	synchronized Map<String, String> toState() {
+		Map<String, String> state = new HashMap<>(probed.size() * 2 + 2);
+		for (Map.Entry<String, Boolean> entry : probed.entrySet()) {
+			state.put(entry.getKey(), entry.getValue().toString());
+		}
+		if (firmware != null) {
+			state.put(FIRMWARE, firmware);
+		}
+		return state;
+	}
+
+	/**
+	 * Restores probe results exported with {@link #toState()}.
+	 *
+	 * @param state probe results by URI, and the firmware they hold for
+	 */
+	synchronized void restore(Map<String, String> state) {
+		probed.clear();
+		firmware = state.get(FIRMWARE);
+		for (Map.Entry<String, String> entry : state.entrySet()) {
+			if (!FIRMWARE.equals(entry.getKey())) {
+				probed.put(entry.getKey(), Boolean.valueOf(entry.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Reports whether the HTTP status of a failed request means the firmware does not implement the URI.
+	 *
+	 * @param statusCode HTTP status code
+	 * @return {@code true} for Not Found, Method Not Allowed and Not Implemented statuses
+	 */
+	static boolean isUnsupportedStatus(int statusCode) {
+		return statusCode == 404 || statusCode == 405 || statusCode == 501;
+	}
+
+	/**
+	 * Forgets probe results once the device reports another firmware version.
+	 *
+	 * @param firmware firmware version of the device, {@code null} if not known yet
+	 */
+	private void switchFirmware(String firmware) {
+		if (firmware != null && !firmware.equals(this.firmware)) {
+			probed.clear();
+			this.firmware = firmware;
+		}
+	}
+
+	private static boolean isAtLeast(String firmware, int major, int minor) {
+		if (firmware == null) {
+			return false;
+		}
+		Version version = new Version(firmware);
+		Integer versionMajor = version.getMajor();
+		if (versionMajor == null) {
+			return false;
+		}
+		if (versionMajor != major) {
+			return versionMajor > major;
+		}
+		Integer versionMinor = version.getMinor();
+		return versionMinor != null && versionMinor >= minor;
+	}
+}
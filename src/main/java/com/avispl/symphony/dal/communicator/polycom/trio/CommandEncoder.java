@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes bodies of control commands (mute, unmute, dial, endCall) straight to JSON bytes, and reads the {@code Status} of their responses with the
+ * streaming parser, so control round trips do not go through reflection-based data binding. <br>
+ * Bodies of constant commands are encoded once; bodies with arguments are written from byte templates, with string arguments JSON escaped and UTF-8 encoded
+ * into an array allocated at its exact size.
+ *
+ * @since 1.0.2
+ */
+final class CommandEncoder {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final String STATUS = "Status";
+	private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Body of {@code api/v1/callctrl/mute} command muting the device, must not be modified
+	 */
+	static final byte[] MUTE = ascii("{\"data\":{\"state\":\"1\"}}");
+
+	/**
+	 * Body of {@code api/v1/callctrl/mute} command unmuting the device, must not be modified
+	 */
+	static final byte[] UNMUTE = ascii("{\"data\":{\"state\":\"0\"}}");
+
+	private static final byte[] DIAL_DEST = ascii("{\"data\":{\"Dest\":\"");
+	private static final byte[] DIAL_LINE = ascii("\",\"Line\":\"");
+	private static final byte[] DIAL_TYPE = ascii("\",\"Type\":\"");
+	private static final byte[] END_CALL_REF = ascii("{\"data\":{\"Ref\":\"");
+	private static final byte[] END = ascii("\"}}");
+
+	private CommandEncoder() {
+	}
+
+	/**
+	 * Encodes body of {@code api/v1/callctrl/dial} command.
+	 *
+	 * @param dest number or URI to dial
+	 * @param line line to dial on
+	 * @param type call type ({@code SIP}, {@code TEL} or {@code H323}), {@code null} to let the device decide
+	 * @return encoded body
+	 */
+	static byte[] dial(String dest, String line, String type) {
+		int length = DIAL_DEST.length + encodedLength(dest) + DIAL_LINE.length + encodedLength(line) + END.length;
+		if (type != null) {
+			length += DIAL_TYPE.length + encodedLength(type);
+		}
+		byte[] body = new byte[length];
+		int position = put(body, 0, DIAL_DEST);
+		position = putString(body, position, dest);
+		position = put(body, position, DIAL_LINE);
+		position = putString(body, position, line);
+		if (type != null) {
+			position = put(body, position, DIAL_TYPE);
+			position = putString(body, position, type);
+		}
+		put(body, position, END);
+		return body;
+	}
+
+	/**
+	 * Encodes body of {@code api/v1/callctrl/endCall} command.
+	 *
+	 * @param ref handle of the call to end
+	 * @return encoded body
+	 */
+	static byte[] endCall(String ref) {
+		byte[] body = new byte[END_CALL_REF.length + encodedLength(ref) + END.length];
+		int position = put(body, 0, END_CALL_REF);
+		position = putString(body, position, ref);
+		put(body, position, END);
+		return body;
+	}
+
+	/**
+	 * Reads {@code Status} of a command response.
+	 *
+	 * @param response response body
+	 * @return status, empty if the response has none
+	 * @throws IOException if response is not a valid JSON
+	 */
+	static String readStatus(String response) throws IOException {
+		if (response == null) {
+			return "";
+		}
+		try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+			return readStatus(parser);
+		}
+	}
+
+	/**
+	 * Reads {@code Status} of a command response, skipping everything else (e.g. {@code data}) without binding it.
+	 *
+	 * @param parser parser positioned before the response
+	 * @return status, empty if the response has none
+	 * @throws IOException if response is not a valid JSON
+	 */
+	static String readStatus(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			return "";
+		}
+		JsonToken token;
+		while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			token = parser.nextToken();
+			if (STATUS.equals(name) && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+				// status is a string on most firmware versions, a number on some
+				return parser.getText();
+			}
+			parser.skipChildren();
+		}
+		return "";
+	}
+
+	private static int encodedLength(String value) {
+		int length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\' || c == '\b' || c == '\f' || c == '\n' || c == '\r' || c == '\t') {
+				length += 2;
+			} else if (c < 0x20) {
+				length += 6;
+			} else if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				// unpaired surrogate cannot be UTF-8 encoded, it is escaped
+				length += 6;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private static int putString(byte[] body, int position, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				body[position++] = '\\';
+				body[position++] = (byte) c;
+			} else if (c < 0x20) {
+				body[position++] = '\\';
+				switch (c) {
+					case '\b':
+						body[position++] = 'b';
+						break;
+					case '\f':
+						body[position++] = 'f';
+						break;
+					case '\n':
+						body[position++] = 'n';
+						break;
+					case '\r':
+						body[position++] = 'r';
+						break;
+					case '\t':
+						body[position++] = 't';
+						break;
+					default:
+						position = putUnicodeEscape(body, position - 1, c);
+				}
+			} else if (c < 0x80) {
+				body[position++] = (byte) c;
+			} else if (c < 0x800) {
+				body[position++] = (byte) (0xC0 | (c >> 6));
+				body[position++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				body[position++] = (byte) (0xF0 | (codePoint >> 18));
+				body[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				body[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				body[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				position = putUnicodeEscape(body, position, c);
+			} else {
+				body[position++] = (byte) (0xE0 | (c >> 12));
+				body[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				body[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return position;
+	}
+
+	private static int putUnicodeEscape(byte[] body, int position, char c) {
+		body[position++] = '\\';
+		body[position++] = 'u';
+		body[position++] = HEX[(c >> 12) & 0xF];
+		body[position++] = HEX[(c >> 8) & 0xF];
+		body[position++] = HEX[(c >> 4) & 0xF];
+		body[position++] = HEX[c & 0xF];
+		return position;
+	}
+
+	private static int put(byte[] body, int position, byte[] bytes) {
+		System.arraycopy(bytes, 0, body, position, bytes.length);
+		return position + bytes.length;
+	}
+
+	private static byte[] ascii(String value) {
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+}
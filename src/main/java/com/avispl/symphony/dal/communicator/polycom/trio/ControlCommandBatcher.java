@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses a batch of control commands before they are dispatched to the device, one device call per command. <br>
+ * Commands are deduplicated by property, the last command of a property wins and is dispatched at its position in the batch (e.g. of three mute toggles
+ * only the last one is sent). Commands made redundant by another command of the batch (e.g. Restart when Reboot is pending) are dropped. The number of
+ * device calls saved this way is accumulated.
+ *
+ * @since 1.0.2
+ */
+class ControlCommandBatcher {
+
+	private final Map<String, Set<String>> supersedingProperties = new HashMap<>();
+	private final AtomicLong savedCalls = new AtomicLong();
+
+	/**
+	 * Registers rule dropping commands of {@code property} if a command of {@code supersedingProperty} is present in the same batch.
+	 *
+	 * @param property property whose commands become redundant
+	 * @param supersedingProperty property whose commands make them redundant
+	 */
+	void addSupersedingRule(String property, String supersedingProperty) {
+		supersedingProperties.computeIfAbsent(property, key -> new HashSet<>(2)).add(supersedingProperty);
+	}
+
+	/**
+	 * Collapses batch of commands.
+	 *
+	 * @param commands commands in the order they were issued
+	 * @return commands to dispatch, in order
+	 */
+	List<ControllableProperty> collapse(List<ControllableProperty> commands) {
+		Map<String, ControllableProperty> lastCommands = new LinkedHashMap<>(commands.size() * 2);
+		for (ControllableProperty command : commands) {
+			// re-inserting moves the command to the position of its last occurrence
+			lastCommands.remove(command.getProperty());
+			lastCommands.put(command.getProperty(), command);
+		}
+
+		List<ControllableProperty> collapsed = new ArrayList<>(lastCommands.size());
+		for (ControllableProperty command : lastCommands.values()) {
+			if (!isSuperseded(command.getProperty(), lastCommands.keySet())) {
+				collapsed.add(command);
+			}
+		}
+		savedCalls.addAndGet(commands.size() - collapsed.size());
+		return collapsed;
+	}
+
+	/**
+	 * Retrieves number of device calls saved by collapsing batches so far.
+	 *
+	 * @return number of saved device calls
+	 */
+	long getSavedCalls() {
+		return savedCalls.get();
+	}
+
+	private boolean isSuperseded(String property, Set<String> batchProperties) {
+		Set<String> superseding = supersedingProperties.get(property);
+		if (superseding != null) {
+			for (String supersedingProperty : superseding) {
+				if (batchProperties.contains(supersedingProperty)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which an operation (e.g. {@code dial} or a monitoring sweep) must complete, propagated to every device call the operation makes. <br>
+ * Deadlines are bound to the calling thread for the duration of an operation with {@link #call(long, Operation)} or {@link #run(long, VoidOperation)};
+ * nested operations can only shorten the deadline of the enclosing one. Device calls use {@link #current()} to bound their wait for the API lock and their
+ * HTTP timeout, and to discard requests whose deadline has already passed.
+ *
+ * @since 1.0.2
+ */
+final class Deadline {
+
+	private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+	/**
+	 * Operation with a result, executed within a deadline.
+	 *
+	 * @param <T> result type
+	 */
+	@FunctionalInterface
+	interface Operation<T> {
+		/**
+		 * Executes the operation.
+		 *
+		 * @return result of the operation
+		 * @throws Exception if the operation fails
+		 */
+		T execute() throws Exception;
+	}
+
+	/**
+	 * Operation without a result, executed within a deadline.
+	 */
+	@FunctionalInterface
+	interface VoidOperation {
+		/**
+		 * Executes the operation.
+		 *
+		 * @throws Exception if the operation fails
+		 */
+		void execute() throws Exception;
+	}
+
+	private final long expiresAt;
+
+	private Deadline(long expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Executes operation with deadline {@code budget} milliseconds from now bound to the current thread, unless the enclosing deadline expires earlier.
+	 *
+	 * @param budget time budget of the operation, in milliseconds, {@code 0} or less for no deadline (the enclosing one, if any, still applies)
+	 * @param operation operation to execute
+	 * @param <T> result type
+	 * @return result of the operation
+	 * @throws Exception if the operation fails
+	 */
+	static <T> T call(long budget, Operation<T> operation) throws Exception {
+		Deadline previous = enter(budget);
+		try {
+			return operation.execute();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Executes operation with deadline {@code budget} milliseconds from now bound to the current thread, unless the enclosing deadline expires earlier.
+	 *
+	 * @param budget time budget of the operation, in milliseconds, {@code 0} or less for no deadline (the enclosing one, if any, still applies)
+	 * @param operation operation to execute
+	 * @throws Exception if the operation fails
+	 */
+	static void run(long budget, VoidOperation operation) throws Exception {
+		Deadline previous = enter(budget);
+		try {
+			operation.execute();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Binds deadline {@code budget} milliseconds from now to the current thread, unless the enclosing deadline expires earlier.
+	 *
+	 * @param budget time budget of the operation, in milliseconds, {@code 0} or less for no deadline (the enclosing one, if any, still applies)
+	 * @return enclosing deadline, to be restored once the operation completes
+	 */
+	private static Deadline enter(long budget) {
+		Deadline previous = current.get();
+		if (budget > 0) {
+			long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+			if (previous == null || expiresAt - previous.expiresAt < 0) {
+				current.set(new Deadline(expiresAt));
+			}
+		}
+		return previous;
+	}
+
+	/**
+	 * Restores enclosing deadline of the current thread.
+	 *
+	 * @param previous enclosing deadline, {@code null} if there was none
+	 */
+	private static void restore(Deadline previous) {
+		if (previous != null) {
+			current.set(previous);
+		} else {
+			current.remove();
+		}
+	}
+
+	/**
+	 * Retrieves deadline bound to the current thread.
+	 *
+	 * @return current deadline, or {@code null} if there is none
+	 */
+	static Deadline current() {
+		return current.get();
+	}
+
+	/**
+	 * Retrieves time left until the deadline.
+	 *
+	 * @return remaining time, in milliseconds, {@code 0} or less if the deadline has passed
+	 */
+	long remaining() {
+		return TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime());
+	}
+
+	/**
+	 * Reports whether the deadline has passed.
+	 *
+	 * @return {@code true} if the deadline has passed
+	 */
+	boolean isExpired() {
+		return expiresAt - System.nanoTime() <= 0;
+	}
+}
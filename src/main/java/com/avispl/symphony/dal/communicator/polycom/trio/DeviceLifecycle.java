@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reboot lifecycle of a single Polycom Trio device. <br>
+ * Once a restart or reboot is requested by the adapter, or a suspected reboot (e.g. a log line of the device) is confirmed by a probe the device does not
+ * answer, the device is considered rebooting: monitoring sweeps are not made, and a cheap
+ * readiness probe ({@code device/info}) is made instead, with exponential backoff between attempts. The device is running again once the probe proves it
+ * came back: for a reboot, device uptime must be lower than before the reboot; for a restart, which only restarts the application and keeps the uptime,
+ * the device must answer after it was seen down. A device which does not come back within the max reboot duration is considered running again anyway, so
+ * monitoring reports it as it is. A suspected reboot alone never stops monitoring: it only gets the device probed before the next sweep.
+ *
+ * @since 1.0.2
+ */
+class DeviceLifecycle {
+
+	private static final Pattern UPTIME_PATTERN = Pattern.compile("(\\d+)\\sdays?\\s(\\d+):(\\d+):(\\d+)", Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * Lifecycle state of the device.
+	 */
+	enum State {
+		RUNNING, REBOOTING
+	}
+
+	private final long initialProbeDelay;
+	private final long maxProbeDelay;
+	private final long maxRebootDuration;
+
+	private State state = State.RUNNING;
+	// uptime reported before the reboot, in seconds, -1 if unknown
+	private long lastUptime = -1;
+	private long uptimeBeforeReboot = -1;
+	private boolean uptimeResets;
+	private boolean seenDown;
+	private long rebootStartedAt;
+	private long nextProbeAt;
+	private long probeDelay;
+	private boolean rebootSuspected;
+
+	/**
+	 * DeviceLifecycle constructor
+	 *
+	 * @param initialProbeDelay delay of the first readiness probe after the reboot started, in milliseconds
+	 * @param maxProbeDelay max delay between readiness probes, in milliseconds
+	 * @param maxRebootDuration time after which the device is considered running again even if it did not come back, in milliseconds
+	 */
+	DeviceLifecycle(long initialProbeDelay, long maxProbeDelay, long maxRebootDuration) {
+		this.initialProbeDelay = initialProbeDelay;
+		this.maxProbeDelay = maxProbeDelay;
+		this.maxRebootDuration = maxRebootDuration;
+	}
+
+	/**
+	 * Retrieves lifecycle state.
+	 *
+	 * @return lifecycle state
+	 */
+	synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Records uptime reported by the running device, as a reference for the next reboot.
+	 *
+	 * @param uptime device uptime, in seconds, ignored if negative
+	 * @return {@code true} if the uptime went backwards, so the device rebooted (and came back) since the previous uptime
+	 */
+	synchronized boolean recordUptime(long uptime) {
+		if (uptime < 0 || state != State.RUNNING) {
+			return false;
+		}
+		boolean rebooted = lastUptime >= 0 && uptime < lastUptime;
+		lastUptime = uptime;
+		return rebooted;
+	}
+
+	/**
+	 * Records unconfirmed sign of a reboot (e.g. a log line of the device), so the device is probed before the next sweep. The device stays running.
+	 */
+	synchronized void suspectReboot() {
+		if (state == State.RUNNING) {
+			rebootSuspected = true;
+		}
+	}
+
+	/**
+	 * Takes suspected reboot to be confirmed with a probe.
+	 *
+	 * @return {@code true} if a reboot was suspected since the last call, and the device is still running
+	 */
+	synchronized boolean takeSuspectedReboot() {
+		boolean suspected = rebootSuspected && state == State.RUNNING;
+		rebootSuspected = false;
+		return suspected;
+	}
+
+	/**
+	 * Puts device into rebooting state.
+	 *
+	 * @param uptimeResets {@code true} for a reboot, {@code false} for a restart of the application, which keeps device uptime
+	 * @param now current time
+	 */
+	synchronized void beginReboot(boolean uptimeResets, long now) {
+		if (state == State.REBOOTING) {
+			// a reboot requested while restarting resets uptime anyway
+			this.uptimeResets |= uptimeResets;
+			return;
+		}
+		state = State.REBOOTING;
+		rebootSuspected = false;
+		this.uptimeResets = uptimeResets;
+		uptimeBeforeReboot = lastUptime;
+		seenDown = false;
+		rebootStartedAt = now;
+		probeDelay = initialProbeDelay;
+		nextProbeAt = now + initialProbeDelay;
+	}
+
+	/**
+	 * Reports whether a readiness probe is due.
+	 *
+	 * @param now current time
+	 * @return {@code true} if device is rebooting and the backoff delay since the last probe has passed
+	 */
+	synchronized boolean isProbeDue(long now) {
+		return state == State.REBOOTING && now >= nextProbeAt;
+	}
+
+	/**
+	 * Records failed readiness probe: the device is down.
+	 *
+	 * @param now current time
+	 * @return {@code true} if the device is considered running again, since the max reboot duration has passed
+	 */
+	synchronized boolean probeFailed(long now) {
+		seenDown = true;
+		return backOff(now);
+	}
+
+	/**
+	 * Records readiness probe the device answered.
+	 *
+	 * @param uptime uptime reported by the device, in seconds, negative if unknown
+	 * @param now current time
+	 * @return {@code true} if the device is running again
+	 */
+	synchronized boolean probeSucceeded(long uptime, long now) {
+		if (state != State.REBOOTING) {
+			return true;
+		}
+		boolean ready;
+		if (uptimeResets && uptime >= 0) {
+			// without the uptime from before the reboot, the device must have been up for less time than passed since the reboot started
+			long reference = uptimeBeforeReboot >= 0 ? uptimeBeforeReboot : (now - rebootStartedAt) / 1000;
+			ready = uptime < reference;
+		} else {
+			ready = seenDown;
+		}
+		if (ready) {
+			resume(uptime);
+			return true;
+		}
+		// device did not go down yet
+		return backOff(now);
+	}
+
+	private boolean backOff(long now) {
+		if (now - rebootStartedAt >= maxRebootDuration) {
+			resume(-1);
+			return true;
+		}
+		nextProbeAt = now + probeDelay;
+		probeDelay = Math.min(probeDelay * 2, maxProbeDelay);
+		return false;
+	}
+
+	private void resume(long uptime) {
+		state = State.RUNNING;
+		lastUptime = uptime;
+	}
+
+	/**
+	 * Parses uptime reported by {@code device/info} or {@code network/stats}
+	 *
+	 * @param rawUptime uptime in a format of '0 day 0:34:33'
+	 * @return uptime, in seconds, or {@code -1} if it cannot be parsed
+	 */
+	static long parseUptime(String rawUptime) {
+		if (rawUptime == null) {
+			return -1;
+		}
+		Matcher matcher = UPTIME_PATTERN.matcher(rawUptime);
+		if (!matcher.find()) {
+			return -1;
+		}
+		return Long.parseLong(matcher.group(1)) * 86400 + Long.parseLong(matcher.group(2)) * 3600 + Long.parseLong(matcher.group(3)) * 60
+				+ Long.parseLong(matcher.group(4));
+	}
+}
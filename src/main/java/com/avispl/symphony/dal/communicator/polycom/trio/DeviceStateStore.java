@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk store of the per-device state which is expensive to rebuild after a restart (capability profile, config values, last statistics
+ * sections). <br>
+ * Every {@link #put(String, Map, long)} appends a record with the entry key, timestamp and values; on {@link #open(String, String)} the file is replayed and
+ * the last record of every key wins. Records are checksummed, so a record torn by a crash is detected and the file is truncated at the last good record. When
+ * the file grows well beyond the size of the live entries it is compacted by rewriting live entries into a new file which atomically replaces the old one.
+ *
+ * <pre>
+ * record: int length | int crc32 | string key | long timestamp | int count | (string name | string value) * count
+ * string: varint length | UTF-8 bytes
+ * </pre>
+ *
+ * @since 1.0.2
+ */
+class DeviceStateStore implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(DeviceStateStore.class);
+
+	private static final String FILE_EXTENSION = ".state";
+	// compact once the file is this many times bigger than live entries
+	private static final int COMPACTION_RATIO = 4;
+	private static final long MIN_COMPACTION_SIZE = 256 * 1024;
+	// no sane record is that big, larger length means the file is corrupted
+	private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * Stored entry.
+	 */
+	static final class Entry {
+		final Map<String, String> values;
+		final long timestamp;
+
+		Entry(Map<String, String> values, long timestamp) {
+			this.values = Collections.unmodifiableMap(values);
+			this.timestamp = timestamp;
+		}
+	}
+
+	private final Path path;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Map<String, Integer> entrySizes = new HashMap<>();
+	private FileChannel channel;
+	private long liveSize;
+
+	private DeviceStateStore(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Opens (creating if needed) state store of the device.
+	 *
+	 * @param directory directory to keep state files in
+	 * @param deviceId device identifier (e.g. host), used as a file name
+	 * @return opened store with all entries loaded
+	 * @throws IOException if store cannot be opened
+	 */
+	static DeviceStateStore open(String directory, String deviceId) throws IOException {
+		Path dir = Paths.get(directory);
+		Files.createDirectories(dir);
+		DeviceStateStore store = new DeviceStateStore(dir.resolve(deviceId.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION));
+		store.load();
+		return store;
+	}
+
+	/**
+	 * Retrieves entry.
+	 *
+	 * @param key entry key
+	 * @return entry, or {@code null} if there is no such entry
+	 */
+	synchronized Entry get(String key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * Retrieves all entries.
+	 *
+	 * @return copy of all entries, by key
+	 */
+	synchronized Map<String, Entry> getAll() {
+		return new HashMap<>(entries);
+	}
+
+	/**
+	 * Stores entry, appending it to the file.
+	 *
+	 * @param key entry key
+	 * @param values entry values
+	 * @param timestamp entry timestamp
+	 * @throws IOException if entry cannot be written
+	 */
+	synchronized void put(String key, Map<String, String> values, long timestamp) throws IOException {
+		Entry entry = new Entry(new LinkedHashMap<>(values), timestamp);
+		byte[] record = encode(key, entry);
+		channel.write(ByteBuffer.wrap(record), channel.size());
+
+		Integer previousSize = entrySizes.put(key, record.length);
+		liveSize += record.length - (previousSize != null ? previousSize : 0);
+		entries.put(key, entry);
+
+		long fileSize = channel.size();
+		if (fileSize > MIN_COMPACTION_SIZE && fileSize > liveSize * COMPACTION_RATIO) {
+			compact();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	private void load() throws IOException {
+		long goodSize = 0;
+		if (Files.exists(path)) {
+			try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+				while (true) {
+					byte[] payload;
+					try {
+						int length = in.readInt();
+						if (length <= 0 || length > MAX_RECORD_SIZE) {
+							break;
+						}
+						int crc = in.readInt();
+						payload = new byte[length];
+						in.readFully(payload);
+						if (crc != checksum(payload)) {
+							break;
+						}
+					} catch (EOFException e) {
+						// end of file, or record torn by a crash
+						break;
+					}
+					try {
+						decode(payload);
+					} catch (IOException e) {
+						// record which does not decode (e.g. written in an earlier format) ends the good part of the file
+						break;
+					}
+					goodSize += 8 + payload.length;
+				}
+			}
+		}
+
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (channel.size() > goodSize) {
+			// drop torn or corrupted tail, so new records are appended after the last good one
+			if (logger.isWarnEnabled()) {
+				logger.warn("Truncating corrupted state file " + path + " at " + goodSize + " bytes");
+			}
+			channel.truncate(goodSize);
+		}
+	}
+
+	private void decode(byte[] payload) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		String key = readString(in);
+		long timestamp = in.readLong();
+		int count = in.readInt();
+		Map<String, String> values = new LinkedHashMap<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			values.put(readString(in), readString(in));
+		}
+		entries.put(key, new Entry(values, timestamp));
+		Integer previousSize = entrySizes.put(key, payload.length + 8);
+		liveSize += payload.length + 8 - (previousSize != null ? previousSize : 0);
+	}
+
+	private void compact() throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				out.write(ByteBuffer.wrap(encode(entry.getKey(), entry.getValue())));
+			}
+			out.force(true);
+		}
+		channel.close();
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		liveSize = channel.size();
+	}
+
+	private static byte[] encode(String key, Entry entry) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0); // length placeholder
+		out.writeInt(0); // crc placeholder
+		writeString(out, key);
+		out.writeLong(entry.timestamp);
+		out.writeInt(entry.values.size());
+		for (Map.Entry<String, String> value : entry.values.entrySet()) {
+			writeString(out, value.getKey());
+			writeString(out, value.getValue() != null ? value.getValue() : "");
+		}
+		out.flush();
+
+		byte[] record = bytes.toByteArray();
+		int length = record.length - 8;
+		CRC32 crc = new CRC32();
+		crc.update(record, 8, length);
+		ByteBuffer header = ByteBuffer.wrap(record, 0, 8);
+		header.putInt(length);
+		header.putInt((int) crc.getValue());
+		return record;
+	}
+
+	/**
+	 * Writes string as its UTF-8 bytes prefixed with their varint length, as {@link DataOutputStream#writeUTF(String)} fails on strings over 64 KB (e.g. a
+	 * large running config value).
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = bytes.length;
+		while ((length & ~0x7F) != 0) {
+			out.writeByte((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		out.writeByte(length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = 0;
+		for (int shift = 0; ; shift += 7) {
+			if (shift > 28) {
+				throw new IOException("Malformed string length");
+			}
+			byte b = in.readByte();
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+		}
+		if (length < 0 || length > in.available()) {
+			throw new IOException("Malformed string length " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+
+/**
+ * Incremental parser of a single HTTP/1.1 response. <br>
+ * Bytes are fed as they arrive from the channel; the parser consumes bytes up to the end of its response only, so responses to pipelined requests can be
+ * parsed from the same buffer one after another. Bodies delimited by {@code Content-Length}, chunked transfer encoding and connection close are supported. <br>
+ * Body bytes are passed to a {@link BodySink} straight from the backing array of the buffer (so the buffer must be a heap buffer), the sink is chosen by
+ * the response status once headers are parsed.
+ *
+ * @since 1.0.2
+ */
+final class HttpResponseParser {
+
+	private static final int MAX_LINE_LENGTH = 8192;
+
+	/**
+	 * Consumer of response body bytes.
+	 */
+	interface BodySink {
+		/**
+		 * Consumes body bytes. The bytes are only valid during the call, the array is reused afterwards.
+		 *
+		 * @param bytes array holding the bytes
+		 * @param offset offset of the first byte
+		 * @param length number of bytes
+		 */
+		void write(byte[] bytes, int offset, int length);
+	}
+
+	/**
+	 * Sink keeping up to {@code limit} first body bytes, e.g. to report error responses.
+	 */
+	static final class RawBody implements BodySink {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		private final int limit;
+
+		RawBody(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) {
+			int count = Math.min(length, limit - bytes.size());
+			if (count > 0) {
+				bytes.write(buffer, offset, count);
+			}
+		}
+
+		/**
+		 * Retrieves kept body bytes.
+		 *
+		 * @return body bytes
+		 */
+		byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+	}
+
+	private enum State {
+		STATUS_LINE, HEADERS, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS, BODY_UNTIL_CLOSE, DONE
+	}
+
+	private final boolean headRequest;
+	private final IntFunction<BodySink> sinks;
+	private final StringBuilder line = new StringBuilder(128);
+	private BodySink body;
+	private State state = State.STATUS_LINE;
+	private int status;
+	private long remaining;
+	private boolean chunked;
+	private boolean hasContentLength;
+	private boolean keepAlive = true;
+	private boolean started;
+
+	/**
+	 * HttpResponseParser constructor
+	 *
+	 * @param headRequest whether response is for a request which never has a body (e.g. {@code HEAD})
+	 * @param sinks provides body sink for the response status
+	 */
+	HttpResponseParser(boolean headRequest, IntFunction<BodySink> sinks) {
+		this.headRequest = headRequest;
+		this.sinks = sinks;
+	}
+
+	/**
+	 * Consumes response bytes.
+	 *
+	 * @param buffer buffer in read mode, its position is advanced past consumed bytes
+	 * @return {@code true} if the response is complete
+	 * @throws IOException if response is malformed
+	 */
+	boolean feed(ByteBuffer buffer) throws IOException {
+		while (state != State.DONE && buffer.hasRemaining()) {
+			started = true;
+			switch (state) {
+				case STATUS_LINE:
+					if (readLine(buffer)) {
+						parseStatusLine(line.toString());
+						line.setLength(0);
+						state = State.HEADERS;
+					}
+					break;
+				case HEADERS:
+					if (readLine(buffer)) {
+						if (line.length() == 0) {
+							headersComplete();
+						} else {
+							parseHeader(line.toString());
+						}
+						line.setLength(0);
+					}
+					break;
+				case BODY:
+				case CHUNK_DATA:
+					int length = (int) Math.min(remaining, buffer.remaining());
+					body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+					buffer.position(buffer.position() + length);
+					remaining -= length;
+					if (remaining == 0) {
+						state = state == State.BODY ? State.DONE : State.CHUNK_END;
+					}
+					break;
+				case CHUNK_SIZE:
+					if (readLine(buffer)) {
+						remaining = parseChunkSize(line.toString());
+						line.setLength(0);
+						state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+					}
+					break;
+				case CHUNK_END:
+					if (readLine(buffer)) {
+						line.setLength(0);
+						state = State.CHUNK_SIZE;
+					}
+					break;
+				case TRAILERS:
+					if (readLine(buffer)) {
+						state = line.length() == 0 ? State.DONE : State.TRAILERS;
+						line.setLength(0);
+					}
+					break;
+				case BODY_UNTIL_CLOSE:
+					body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+					buffer.position(buffer.limit());
+					break;
+				default:
+					break;
+			}
+		}
+		return state == State.DONE;
+	}
+
+	/**
+	 * Notifies parser that the connection was closed by the peer.
+	 *
+	 * @return {@code true} if the response is complete (i.e. its body is delimited by the connection close)
+	 */
+	boolean endOfStream() {
+		if (state == State.BODY_UNTIL_CLOSE) {
+			state = State.DONE;
+		}
+		return state == State.DONE;
+	}
+
+	/**
+	 * Reports whether any byte of the response was received.
+	 *
+	 * @return {@code true} if response has started
+	 */
+	boolean isStarted() {
+		return started;
+	}
+
+	/**
+	 * Retrieves response status code.
+	 *
+	 * @return status code
+	 */
+	int getStatus() {
+		return status;
+	}
+
+	/**
+	 * Reports whether connection may be reused after the response.
+	 *
+	 * @return {@code true} if connection is persistent
+	 */
+	boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * Retrieves sink the response body was written to.
+	 *
+	 * @return body sink, {@code null} until headers are parsed
+	 */
+	BodySink getBody() {
+		return body;
+	}
+
+	private boolean readLine(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			char c = (char) (buffer.get() & 0xFF);
+			if (c == '\n') {
+				int last = line.length() - 1;
+				if (last >= 0 && line.charAt(last) == '\r') {
+					line.setLength(last);
+				}
+				return true;
+			}
+			if (line.length() >= MAX_LINE_LENGTH) {
+				throw new IOException("HTTP response line is too long");
+			}
+			line.append(c);
+		}
+		return false;
+	}
+
+	private void parseStatusLine(String statusLine) throws IOException {
+		// e.g. "HTTP/1.1 200 OK"
+		int first = statusLine.indexOf(' ');
+		if (!statusLine.startsWith("HTTP/") || first < 0 || statusLine.length() < first + 4) {
+			throw new IOException("Malformed HTTP status line: " + statusLine);
+		}
+		try {
+			status = Integer.parseInt(statusLine.substring(first + 1, first + 4));
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed HTTP status line: " + statusLine, e);
+		}
+		keepAlive = statusLine.startsWith("HTTP/1.1");
+	}
+
+	private void parseHeader(String header) throws IOException {
+		int colon = header.indexOf(':');
+		if (colon <= 0) {
+			throw new IOException("Malformed HTTP header: " + header);
+		}
+		String name = header.substring(0, colon).trim();
+		String value = header.substring(colon + 1).trim();
+		if ("Content-Length".equalsIgnoreCase(name)) {
+			hasContentLength = true;
+			try {
+				remaining = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				throw new IOException("Malformed Content-Length header: " + value, e);
+			}
+		} else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+			chunked = value.toLowerCase().contains("chunked");
+		} else if ("Connection".equalsIgnoreCase(name)) {
+			if ("close".equalsIgnoreCase(value)) {
+				keepAlive = false;
+			} else if ("keep-alive".equalsIgnoreCase(value)) {
+				keepAlive = true;
+			}
+		}
+		if (remaining < 0) {
+			throw new IOException("Negative Content-Length header: " + value);
+		}
+	}
+
+	private void headersComplete() {
+		if (status / 100 != 1) {
+			body = sinks.apply(status);
+		}
+		if (status / 100 == 1) {
+			// interim response, the final one follows
+			state = State.STATUS_LINE;
+			hasContentLength = false;
+			chunked = false;
+			remaining = 0;
+		} else if (headRequest || status == 204 || status == 304) {
+			state = State.DONE;
+		} else if (chunked) {
+			state = State.CHUNK_SIZE;
+		} else if (remaining > 0) {
+			state = State.BODY;
+		} else if (hasContentLength) {
+			state = State.DONE;
+		} else {
+			keepAlive = false;
+			state = State.BODY_UNTIL_CLOSE;
+		}
+	}
+
+	private static long parseChunkSize(String chunkLine) throws IOException {
+		int end = chunkLine.indexOf(';');
+		String size = (end >= 0 ? chunkLine.substring(0, end) : chunkLine).trim();
+		try {
+			long result = Long.parseLong(size, 16);
+			if (result < 0) {
+				throw new IOException("Negative HTTP chunk size: " + chunkLine);
+			}
+			return result;
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed HTTP chunk size: " + chunkLine, e);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Response body sink tokenizing JSON as bytes arrive, with the non-blocking Jackson parser. <br>
+ * Bytes are fed straight from the (pooled) network buffer, and tokens are drained into a {@link TokenBuffer} before the buffer is reused, so the body never
+ * exists on the heap as a byte array or String. Once the response is complete, {@link #decode(JavaType)} binds the buffered tokens to the requested type.
+ * A malformed body does not disturb the connection, the parse failure is reported by {@link #decode(JavaType)}.
+ *
+ * @since 1.0.2
+ */
+final class JsonBodyDecoder implements HttpResponseParser.BodySink {
+
+	private final ObjectMapper objectMapper;
+	private final JsonParser parser;
+	private final ByteArrayFeeder feeder;
+	private final TokenBuffer tokens;
+	private IOException failure;
+	private boolean empty = true;
+
+	/**
+	 * JsonBodyDecoder constructor
+	 *
+	 * @param objectMapper mapper to bind tokens with
+	 */
+	JsonBodyDecoder(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		JsonParser nonBlockingParser = null;
+		try {
+			nonBlockingParser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+		} catch (IOException e) {
+			failure = e;
+		}
+		parser = nonBlockingParser;
+		feeder = parser != null ? (ByteArrayFeeder) parser.getNonBlockingInputFeeder() : null;
+		tokens = new TokenBuffer(objectMapper, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		if (failure != null || length == 0) {
+			return;
+		}
+		try {
+			feeder.feedInput(bytes, offset, offset + length);
+			drain();
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Binds the body to the type.
+	 *
+	 * @param type type to bind the body to
+	 * @param <T> body type
+	 * @return bound body, or {@code null} if body is empty
+	 * @throws IOException if body is not a valid JSON or cannot be bound to the type
+	 */
+	<T> T decode(JavaType type) throws IOException {
+		finish();
+		if (empty) {
+			return null;
+		}
+		try (JsonParser buffered = tokens.asParser(objectMapper)) {
+			return objectMapper.readValue(buffered, type);
+		}
+	}
+
+	/**
+	 * Reads {@code Status} of a command response, without binding the body.
+	 *
+	 * @return status, empty if body is empty or has no status
+	 * @throws IOException if body is not a valid JSON
+	 */
+	String decodeStatus() throws IOException {
+		finish();
+		if (empty) {
+			return "";
+		}
+		try (JsonParser buffered = tokens.asParser()) {
+			return CommandEncoder.readStatus(buffered);
+		}
+	}
+
+	private void finish() throws IOException {
+		if (failure == null) {
+			feeder.endOfInput();
+			drain();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void drain() throws IOException {
+		JsonToken token;
+		while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+			tokens.copyCurrentEvent(parser);
+			empty = false;
+		}
+	}
+}
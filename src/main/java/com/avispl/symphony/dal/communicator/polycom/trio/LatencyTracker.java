@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observed latencies of device calls by request URI, used to derive adaptive per-URI timeouts. <br>
+ * The most recent {@value #WINDOW_SIZE} latencies of every URI are kept (calls which were not answered count at their timeout); once enough of them are
+ * known, the timeout of the URI is a multiple of its high percentile latency, bounded by the configured timeout, so a hung request to a normally fast URI
+ * is abandoned early.
+ *
+ * @since 1.0.2
+ */
+class LatencyTracker {
+
+	static final int WINDOW_SIZE = 64;
+	// samples required before the timeout adapts
+	static final int MIN_SAMPLES = 10;
+	static final double PERCENTILE = 0.99;
+	static final int PERCENTILE_MULTIPLIER = 3;
+
+	/**
+	 * Latency window of a single URI.
+	 */
+	private static final class Window {
+		private final long[] latencies = new long[WINDOW_SIZE];
+		private int next;
+		private int size;
+
+		synchronized void add(long latency) {
+			latencies[next] = latency;
+			next = (next + 1) % latencies.length;
+			if (size < latencies.length) {
+				size++;
+			}
+		}
+
+		synchronized long percentile(double percentile) {
+			if (size < MIN_SAMPLES) {
+				return -1;
+			}
+			long[] sorted = Arrays.copyOf(latencies, size);
+			Arrays.sort(sorted);
+			return sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+		}
+	}
+
+	private final Map<String, Window> windows = new ConcurrentHashMap<>();
+	private final long minTimeout;
+
+	/**
+	 * LatencyTracker constructor
+	 *
+	 * @param minTimeout lower bound of adaptive timeouts, in milliseconds
+	 */
+	LatencyTracker(long minTimeout) {
+		this.minTimeout = minTimeout;
+	}
+
+	/**
+	 * Records latency of a call.
+	 *
+	 * @param uri request URI
+	 * @param latency latency, in milliseconds, or the timeout of a call which was not answered
+	 */
+	void record(String uri, long latency) {
+		windows.computeIfAbsent(uri, key -> new Window()).add(latency);
+	}
+
+	/**
+	 * Retrieves latency percentile of the URI.
+	 *
+	 * @param uri request URI
+	 * @param percentile percentile, in the {@code (0, 1]} range
+	 * @return latency, in milliseconds, or {@code -1} if not enough latencies are known
+	 */
+	long percentile(String uri, double percentile) {
+		Window window = windows.get(uri);
+		return window != null ? window.percentile(percentile) : -1;
+	}
+
+	/**
+	 * Calculates timeout of the URI.
+	 *
+	 * @param uri request URI
+	 * @param maxTimeout configured timeout, in milliseconds, used while latencies of the URI are not known
+	 * @return timeout, in milliseconds
+	 */
+	long timeout(String uri, long maxTimeout) {
+		long latency = percentile(uri, PERCENTILE);
+		if (latency < 0) {
+			return maxTimeout;
+		}
+		return Math.min(maxTimeout, Math.max(minTimeout, latency * PERCENTILE_MULTIPLIER));
+	}
+}
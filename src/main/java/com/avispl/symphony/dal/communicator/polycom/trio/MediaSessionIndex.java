@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Media sessions of the {@code sessionStats} response indexed by session {@code Ref} (which is the call handle of the session's call). <br>
+ * The response is walked once: every session is keyed by its reference, and its first Voice and first Video streams are picked up on the way, so the
+ * session of any call (e.g. one call connected while another one is on hold, or a bridged conference) is found in constant time and its streams do not
+ * need to be scanned again.
+ *
+ * @since 1.0.2
+ */
+class MediaSessionIndex {
+
+	// sessionStats keys and values
+	private static final String REF = "Ref";
+	private static final String STREAMS = "Streams";
+	private static final String CATEGORY = "Category";
+	private static final String VOICE = "Voice";
+	private static final String VIDEO = "Video";
+
+	/**
+	 * Media session with its audio and video streams.
+	 */
+	static final class Session {
+		final String ref;
+		final boolean hasStreams;
+		final Map<String, ?> audioStream;
+		final Map<String, ?> videoStream;
+
+		private Session(String ref, boolean hasStreams, Map<String, ?> audioStream, Map<String, ?> videoStream) {
+			this.ref = ref;
+			this.hasStreams = hasStreams;
+			this.audioStream = audioStream;
+			this.videoStream = videoStream;
+		}
+	}
+
+	private final Map<String, Session> sessions;
+
+	/**
+	 * MediaSessionIndex constructor
+	 *
+	 * @param mediaSessions data of the {@code sessionStats} response
+	 */
+	@SuppressWarnings("unchecked")
+	MediaSessionIndex(List<Map<String, ?>> mediaSessions) {
+		sessions = new LinkedHashMap<>(mediaSessions.size() * 2);
+		for (Map<String, ?> mediaSession : mediaSessions) {
+			Object ref = mediaSession.get(REF);
+			if (ref == null) {
+				continue;
+			}
+			List<Map<String, ?>> streams = (List<Map<String, ?>>) mediaSession.get(STREAMS);
+			Map<String, ?> audioStream = null;
+			Map<String, ?> videoStream = null;
+			if (streams != null) {
+				for (Map<String, ?> stream : streams) {
+					// it has some number in front, not clear what it is, index or identifier
+					// "Category": "0:Voice",
+					// to be safe, compare only suffix
+					Object category = stream.get(CATEGORY);
+					if (category == null) {
+						continue;
+					}
+					if (audioStream == null && category.toString().endsWith(VOICE)) {
+						audioStream = stream;
+					} else if (videoStream == null && category.toString().endsWith(VIDEO)) {
+						videoStream = stream;
+					}
+					if (audioStream != null && videoStream != null) {
+						// both audio and video streams are found, ignore rest of the streams (if any)
+						break;
+					}
+				}
+			}
+			// first session wins if the device reports the same reference twice
+			sessions.putIfAbsent(ref.toString(), new Session(ref.toString(), streams != null && !streams.isEmpty(), audioStream, videoStream));
+		}
+	}
+
+	/**
+	 * Retrieves media session by its reference.
+	 *
+	 * @param ref session reference (call handle)
+	 * @return media session, or {@code null} if there is none
+	 */
+	Session get(String ref) {
+		return ref != null ? sessions.get(ref) : null;
+	}
+
+	/**
+	 * Retrieves all media sessions, in the order of the response.
+	 *
+	 * @return media sessions
+	 */
+	Collection<Session> sessions() {
+		return Collections.unmodifiableCollection(sessions.values());
+	}
+
+	/**
+	 * Indexes rows of a list response (e.g. {@code lineInfo}) by the value of {@code key}, so they can be joined to other responses in linear time.
+	 *
+	 * @param rows response rows
+	 * @param key key to index rows by
+	 * @return rows by key value, the first row wins for duplicate values
+	 */
+	static Map<String, Map<String, ?>> indexBy(List<Map<String, ?>> rows, String key) {
+		Map<String, Map<String, ?>> index = new HashMap<>(rows.size() * 2);
+		for (Map<String, ?> row : rows) {
+			Object value = row.get(key);
+			if (value != null) {
+				index.putIfAbsent(value.toString(), row);
+			}
+		}
+		return index;
+	}
+}
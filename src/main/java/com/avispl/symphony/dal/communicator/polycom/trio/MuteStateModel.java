@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.control.call.MuteStatus;
+
+/**
+ * Last known microphone mute state of a single Polycom Trio device. <br>
+ * The model is written through by mute/unmute commands and reconciled from {@code api/v1/mgmt/media/communicationInfo} responses. The state is bound to
+ * the call it was observed in, so a call change reported by the call state model (e.g. from a pushed telephony event) makes it stale.
+ *
+ * @since 1.0.2
+ */
+class MuteStateModel {
+
+	private MuteStatus state;
+	private String callHandle;
+	private long timestamp;
+
+	/**
+	 * Updates the state.
+	 *
+	 * @param state new mute state, {@code null} if unknown
+	 * @param callHandle handle of the call the state was observed in, {@code null} if device is not in call
+	 * @param timestamp time the state was set or retrieved at
+	 */
+	synchronized void update(MuteStatus state, String callHandle, long timestamp) {
+		this.state = state;
+		this.callHandle = callHandle;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Retrieves the state if it is recent enough and was observed in the current call.
+	 *
+	 * @param currentCallHandle handle of the current call, {@code null} if device is not in call
+	 * @param maxAge max age of the state, in milliseconds
+	 * @param now current time
+	 * @return mute state, or {@code null} if it is unknown or stale
+	 */
+	synchronized MuteStatus get(String currentCallHandle, long maxAge, long now) {
+		if (state == null || now - timestamp >= maxAge) {
+			return null;
+		}
+		if (callHandle == null ? currentCallHandle != null : !callHandle.equalsIgnoreCase(currentCallHandle)) {
+			return null;
+		}
+		return state;
+	}
+
+	/**
+	 * Drops the state, so it is retrieved from the device on next access.
+	 */
+	synchronized void invalidate() {
+		state = null;
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+/**
+ * Converts monotonically increasing network packet counters ({@code RxPackets}/{@code TxPackets} from {@code api/v1/mgmt/network/stats}) into packets per
+ * second rates. <br>
+ * Previous counter values and timestamps are kept in primitive fields. Device reboots are detected from device uptime going backwards, and start new
+ * baselines of the counters. A counter going backwards without a reboot is treated as a wrap only if the counters are known to be 32-bit, and the device
+ * uptime proves it did not reboot; otherwise it is treated as a reset. No rate is reported for the poll a reset is detected in.
+ *
+ * @since 1.0.2
+ */
+class NetworkCounterRateTracker {
+
+	/** Range of 32-bit counters, such as SNMP {@code Counter32} objects. */
+	static final long COUNTER_32_RANGE = 0x1_0000_0000L;
+
+	/**
+	 * Last value and timestamp of a single counter.
+	 */
+	static final class Counter {
+		private final long range;
+		private long lastValue;
+		private long lastTimestamp;
+		private boolean hasBaseline;
+		private long wraps;
+		private long resets;
+
+		/**
+		 * Counter constructor
+		 *
+		 * @param range range the counter wraps around at, or {@code 0} if the counter is not known to wrap
+		 */
+		Counter(long range) {
+			this.range = range;
+		}
+
+		/**
+		 * Updates the counter with new value and calculates the rate since the previous value.
+		 *
+		 * @param value new counter value, negative if not available
+		 * @param timestamp time the value was retrieved at, in milliseconds
+		 * @param rebootExcluded {@code true} if device uptime proves the device did not reboot since the previous value
+		 * @return rate per second, or {@code NaN} if it cannot be calculated (first value, reset, or value not available)
+		 */
+		double update(long value, long timestamp, boolean rebootExcluded) {
+			if (value < 0) {
+				return Double.NaN;
+			}
+
+			double rate = Double.NaN;
+			if (hasBaseline && timestamp > lastTimestamp) {
+				long delta = value - lastValue;
+				if (delta < 0) {
+					if (rebootExcluded && range > 0 && lastValue < range) {
+						// counter wrapped around
+						delta += range;
+						wraps++;
+					} else {
+						// counter was reset, current value is a new baseline
+						delta = -1;
+						resets++;
+					}
+				}
+				if (delta >= 0) {
+					rate = delta * 1000d / (timestamp - lastTimestamp);
+				}
+			}
+
+			lastValue = value;
+			lastTimestamp = timestamp;
+			hasBaseline = true;
+			return rate;
+		}
+
+		/**
+		 * Drops the baseline after the device rebooted, so the next value starts a new one.
+		 */
+		void reset() {
+			if (hasBaseline) {
+				hasBaseline = false;
+				resets++;
+			}
+		}
+
+		/**
+		 * Retrieves number of detected counter wraps.
+		 *
+		 * @return number of wraps
+		 */
+		long getWraps() {
+			return wraps;
+		}
+
+		/**
+		 * Retrieves number of detected counter resets.
+		 *
+		 * @return number of resets
+		 */
+		long getResets() {
+			return resets;
+		}
+	}
+
+	private final Counter receivedPackets;
+	private final Counter transmittedPackets;
+	// device uptime, in seconds, -1 if unknown
+	private long lastUptime = -1;
+	private boolean uptimeKnown;
+
+	/**
+	 * NetworkCounterRateTracker constructor
+	 *
+	 * @param range range the counters wrap around at, {@link #COUNTER_32_RANGE} for 32-bit counters, or {@code 0} if the counters are not known to wrap
+	 */
+	NetworkCounterRateTracker(long range) {
+		receivedPackets = new Counter(range);
+		transmittedPackets = new Counter(range);
+	}
+
+	/**
+	 * Records device uptime retrieved along with the counters, before the counters are updated. Uptime going backwards means the device rebooted, so both
+	 * counters start new baselines.
+	 *
+	 * @param uptime device uptime, in seconds, negative if not available
+	 */
+	void recordUptime(long uptime) {
+		uptimeKnown = uptime >= 0;
+		if (!uptimeKnown) {
+			return;
+		}
+		if (lastUptime >= 0 && uptime < lastUptime) {
+			receivedPackets.reset();
+			transmittedPackets.reset();
+		}
+		lastUptime = uptime;
+	}
+
+	/**
+	 * Updates received packets counter, see {@link Counter#update(long, long, boolean)}.
+	 *
+	 * @param value new counter value, negative if not available
+	 * @param timestamp time the value was retrieved at, in milliseconds
+	 * @return rate per second, or {@code NaN} if it cannot be calculated
+	 */
+	double updateReceivedPackets(long value, long timestamp) {
+		return receivedPackets.update(value, timestamp, uptimeKnown);
+	}
+
+	/**
+	 * Updates transmitted packets counter, see {@link Counter#update(long, long, boolean)}.
+	 *
+	 * @param value new counter value, negative if not available
+	 * @param timestamp time the value was retrieved at, in milliseconds
+	 * @return rate per second, or {@code NaN} if it cannot be calculated
+	 */
+	double updateTransmittedPackets(long value, long timestamp) {
+		return transmittedPackets.update(value, timestamp, uptimeKnown);
+	}
+
+	/**
+	 * Retrieves received packets counter.
+	 *
+	 * @return received packets counter
+	 */
+	Counter getReceivedPackets() {
+		return receivedPackets;
+	}
+
+	/**
+	 * Retrieves transmitted packets counter.
+	 *
+	 * @return transmitted packets counter
+	 */
+	Counter getTransmittedPackets() {
+		return transmittedPackets;
+	}
+
+	/**
+	 * Parses counter value reported by the device.
+	 *
+	 * @param value counter value
+	 * @return parsed value, or {@code -1} if value is not available or is not a valid counter
+	 */
+	static long parseCounter(String value) {
+		if (value == null || value.isEmpty()) {
+			return -1;
+		}
+		long result = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9' || result > Long.MAX_VALUE / 10) {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+}
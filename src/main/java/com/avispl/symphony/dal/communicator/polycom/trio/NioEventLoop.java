@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single I/O thread multiplexing non-blocking channels of many devices with a {@link Selector}. <br>
+ * Loops are shared by all {@link NioHttpTransport} instances of the JVM: {@link #acquire()} hands out loops round robin, starting them on the first use, and
+ * {@link #release()} stops them once the last transport is closed. All channel operations of a handler are executed on the loop thread, other threads submit
+ * work with {@link #execute(Runnable)}.
+ *
+ * @since 1.0.2
+ */
+final class NioEventLoop implements Runnable {
+
+	private static final Log logger = LogFactory.getLog(NioEventLoop.class);
+
+	// select timeout, handlers are checked for expired requests at least this often
+	private static final long SELECT_TIMEOUT = 100;
+	private static final int LOOP_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+	/**
+	 * Handler of a channel registered with the loop.
+	 */
+	interface Handler {
+		/**
+		 * Handles readiness of the channel.
+		 *
+		 * @param key selection key of the channel
+		 */
+		void handle(SelectionKey key);
+
+		/**
+		 * Checks handler for expired requests.
+		 *
+		 * @param now current {@link System#nanoTime()}
+		 */
+		void checkTimeouts(long now);
+	}
+
+	private static final Object groupLock = new Object();
+	private static final AtomicInteger nextLoop = new AtomicInteger();
+	private static NioEventLoop[] loops;
+	private static int references;
+
+	private final Selector selector;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	private NioEventLoop(int index) throws IOException {
+		selector = Selector.open();
+		thread = new Thread(this, "PolycomTrio NIO " + index);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Acquires one of the shared loops, starting loops if they are not running.
+	 *
+	 * @return event loop
+	 * @throws IOException if selector cannot be opened
+	 */
+	static NioEventLoop acquire() throws IOException {
+		synchronized (groupLock) {
+			if (loops == null) {
+				NioEventLoop[] started = new NioEventLoop[LOOP_COUNT];
+				for (int i = 0; i < started.length; i++) {
+					started[i] = new NioEventLoop(i);
+				}
+				loops = started;
+			}
+			references++;
+			return loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+		}
+	}
+
+	/**
+	 * Releases loop acquired with {@link #acquire()}, stopping all loops once there are no more users.
+	 */
+	static void release() {
+		synchronized (groupLock) {
+			if (references > 0 && --references == 0 && loops != null) {
+				for (NioEventLoop loop : loops) {
+					loop.shutdown();
+				}
+				loops = null;
+			}
+		}
+	}
+
+	/**
+	 * Executes task on the loop thread.
+	 *
+	 * @param task task to execute
+	 */
+	void execute(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	/**
+	 * Reports whether current thread is the loop thread.
+	 *
+	 * @return {@code true} if called from the loop thread
+	 */
+	boolean inLoop() {
+		return Thread.currentThread() == thread;
+	}
+
+	/**
+	 * Registers channel with the loop, must be called on the loop thread.
+	 *
+	 * @param channel non-blocking channel
+	 * @param ops interest set
+	 * @param handler channel handler
+	 * @return selection key
+	 * @throws IOException if channel cannot be registered
+	 */
+	SelectionKey register(SelectableChannel channel, int ops, Handler handler) throws IOException {
+		return channel.register(selector, ops, handler);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run() {
+		while (running) {
+			try {
+				selector.select(SELECT_TIMEOUT);
+				runTasks();
+
+				Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+				while (selected.hasNext()) {
+					SelectionKey key = selected.next();
+					selected.remove();
+					if (key.isValid()) {
+						((Handler) key.attachment()).handle(key);
+					}
+				}
+
+				long now = System.nanoTime();
+				// handlers may register channels while checked (a timed out connection reconnects), so the key set is copied
+				for (SelectionKey key : new ArrayList<>(selector.keys())) {
+					if (key.isValid()) {
+						((Handler) key.attachment()).checkTimeouts(now);
+					}
+				}
+			} catch (Exception e) {
+				// a single broken handler must not stop the loop shared by other devices
+				if (logger.isErrorEnabled()) {
+					logger.error("Error in NIO event loop", e);
+				}
+			}
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to close selector", e);
+			}
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			try {
+				task.run();
+			} catch (Exception e) {
+				if (logger.isErrorEnabled()) {
+					logger.error("Error in NIO event loop task", e);
+				}
+			}
+		}
+	}
+
+	private void shutdown() {
+		running = false;
+		selector.wakeup();
+	}
+}
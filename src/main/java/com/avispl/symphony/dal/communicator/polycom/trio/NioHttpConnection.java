@@ -0,0 +1,595 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking keep-alive HTTP/1.1 connection to a single device, optionally secured with {@link SSLEngine}. <br>
+ * All state is confined to the thread of the {@link NioEventLoop} the connection is bound to. Requests are queued with {@link #submit(Exchange)} and written
+ * one at a time, except for consecutive pipelined exchanges which are written back-to-back without waiting for responses (HTTP/1.1 pipelining); responses
+ * are matched to requests in order. The connection is (re)opened on demand. A request which was written to a keep-alive connection closed by the device
+ * before any response byte arrived is retried once on a new connection if it is idempotent. Network buffers are taken from {@link ByteBufferPool} while
+ * the connection has work and returned once it is idle.
+ *
+ * @since 1.0.2
+ */
+final class NioHttpConnection implements NioEventLoop.Handler {
+
+	private static final Log logger = LogFactory.getLog(NioHttpConnection.class);
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	/**
+	 * Response of the device.
+	 */
+	static final class Response {
+		final int status;
+		final HttpResponseParser.BodySink body;
+
+		Response(int status, HttpResponseParser.BodySink body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * Single request/response exchange.
+	 */
+	static final class Exchange {
+		final byte[] request;
+		final boolean idempotent;
+		final long deadline;
+		final IntFunction<HttpResponseParser.BodySink> bodySinks;
+		final CompletableFuture<Response> future = new CompletableFuture<>();
+		boolean pipelined;
+		HttpResponseParser parser;
+		int attempts;
+
+		/**
+		 * Exchange constructor
+		 *
+		 * @param request serialized request (request line, headers and body)
+		 * @param idempotent whether request may be safely repeated (e.g. {@code GET})
+		 * @param deadline {@link System#nanoTime()} the response must be received by
+		 * @param bodySinks provides sink for the response body by response status
+		 */
+		Exchange(byte[] request, boolean idempotent, long deadline, IntFunction<HttpResponseParser.BodySink> bodySinks) {
+			this.request = request;
+			this.idempotent = idempotent;
+			this.deadline = deadline;
+			this.bodySinks = bodySinks;
+		}
+	}
+
+	private final NioEventLoop loop;
+	private final InetSocketAddress address;
+	private final Supplier<SSLEngine> engineFactory;
+	private final Deque<Exchange> queued = new ArrayDeque<>();
+	private final Deque<Exchange> inFlight = new ArrayDeque<>();
+
+	private SocketChannel channel;
+	private SelectionKey key;
+	private SSLEngine engine;
+	private boolean ready;
+	private int completed;
+	private ByteBuffer requestOut;
+	private ByteBuffer netOut;
+	private ByteBuffer netIn;
+	private ByteBuffer appIn;
+	private boolean closed;
+
+	/**
+	 * NioHttpConnection constructor
+	 *
+	 * @param loop event loop to bind the connection to
+	 * @param address device address
+	 * @param engineFactory factory of client mode SSL engines, {@code null} for plain HTTP
+	 */
+	NioHttpConnection(NioEventLoop loop, InetSocketAddress address, Supplier<SSLEngine> engineFactory) {
+		this.loop = loop;
+		this.address = address;
+		this.engineFactory = engineFactory;
+	}
+
+	/**
+	 * Queues exchange for execution.
+	 *
+	 * @param exchange exchange to execute, its future is completed with the response or the failure
+	 */
+	void submit(Exchange exchange) {
+		submitAll(Collections.singletonList(exchange));
+	}
+
+	/**
+	 * Queues exchanges for execution, in order. Exchanges marked as pipelined are written without waiting for responses to previous pipelined exchanges.
+	 *
+	 * @param exchanges exchanges to execute, their futures are completed with the responses or the failures
+	 */
+	void submitAll(List<Exchange> exchanges) {
+		loop.execute(() -> {
+			if (closed) {
+				IOException cause = new IOException("Connection to " + address + " is closed");
+				for (Exchange exchange : exchanges) {
+					exchange.future.completeExceptionally(cause);
+				}
+				return;
+			}
+			queued.addAll(exchanges);
+			try {
+				if (channel == null) {
+					open();
+				} else if (ready) {
+					writeRequests();
+				}
+			} catch (IOException | RuntimeException e) {
+				connectionLost(asIOException(e));
+			}
+		});
+	}
+
+	/**
+	 * Closes the connection, failing all pending exchanges.
+	 */
+	void close() {
+		loop.execute(() -> {
+			closed = true;
+			IOException cause = new IOException("Connection to " + address + " is closed");
+			failAll(inFlight, cause);
+			failAll(queued, cause);
+			closeChannel();
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void handle(SelectionKey selectionKey) {
+		try {
+			if (selectionKey.isConnectable()) {
+				channel.finishConnect();
+				connected();
+			}
+			if (selectionKey.isValid() && selectionKey.isReadable()) {
+				read();
+			}
+			if (selectionKey.isValid() && selectionKey.isWritable()) {
+				if (engine == null) {
+					writeRequests();
+				} else if (flushNetOut()) {
+					if (!ready) {
+						handshake();
+					} else {
+						writeRequests();
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			connectionLost(asIOException(e));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void checkTimeouts(long now) {
+		Exchange current = inFlight.peek();
+		if (current != null && now - current.deadline > 0) {
+			// connection state is unknown once a response is late, drop the connection
+			current.attempts = Integer.MAX_VALUE;
+			connectionLost(new SocketTimeoutException("No response from " + address + " in time"));
+			return;
+		}
+		Iterator<Exchange> iterator = queued.iterator();
+		while (iterator.hasNext()) {
+			Exchange exchange = iterator.next();
+			if (now - exchange.deadline > 0) {
+				iterator.remove();
+				exchange.future.completeExceptionally(new SocketTimeoutException("Request to " + address + " was not sent in time"));
+			}
+		}
+	}
+
+	private void open() throws IOException {
+		completed = 0;
+		channel = SocketChannel.open();
+		channel.configureBlocking(false);
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+		channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+		// resolve the host again on every connect, the device address may have changed
+		if (channel.connect(new InetSocketAddress(address.getHostString(), address.getPort()))) {
+			key = loop.register(channel, SelectionKey.OP_READ, this);
+			connected();
+		} else {
+			key = loop.register(channel, SelectionKey.OP_CONNECT, this);
+		}
+	}
+
+	private void connected() throws IOException {
+		key.interestOps(SelectionKey.OP_READ);
+		if (engineFactory != null) {
+			engine = engineFactory.get();
+		}
+		acquireBuffers();
+		if (engine == null) {
+			ready = true;
+			writeRequests();
+			return;
+		}
+		engine.beginHandshake();
+		handshake();
+	}
+
+	/**
+	 * Takes buffers from the pool, unless they are held already.
+	 */
+	private void acquireBuffers() {
+		if (appIn != null) {
+			return;
+		}
+		if (engine == null) {
+			appIn = ByteBufferPool.acquire(0);
+			return;
+		}
+		int packetSize = engine.getSession().getPacketBufferSize();
+		netOut = ByteBufferPool.acquire(packetSize);
+		netIn = ByteBufferPool.acquire(packetSize);
+		appIn = ByteBufferPool.acquire(engine.getSession().getApplicationBufferSize());
+	}
+
+	/**
+	 * Returns buffers to the pool if the connection is idle and the buffers hold no pending bytes.
+	 */
+	private void releaseIdleBuffers() {
+		if (!ready || appIn == null || !inFlight.isEmpty() || !queued.isEmpty() || requestOut != null || appIn.position() > 0
+				|| engine != null && (netIn.position() > 0 || netOut.position() > 0)) {
+			return;
+		}
+		releaseBuffers();
+	}
+
+	private void releaseBuffers() {
+		ByteBufferPool.release(appIn);
+		ByteBufferPool.release(netIn);
+		ByteBufferPool.release(netOut);
+		appIn = null;
+		netIn = null;
+		netOut = null;
+	}
+
+	private void handshake() throws IOException {
+		while (true) {
+			HandshakeStatus status = engine.getHandshakeStatus();
+			switch (status) {
+				case NEED_TASK:
+					runDelegatedTasks();
+					break;
+				case NEED_WRAP:
+					wrap(EMPTY);
+					if (!flushNetOut()) {
+						return;
+					}
+					break;
+				case NEED_UNWRAP:
+					if (!unwrap()) {
+						return;
+					}
+					break;
+				default:
+					ready = true;
+					writeRequests();
+					return;
+			}
+		}
+	}
+
+	private void writeRequests() throws IOException {
+		acquireBuffers();
+		while (true) {
+			if (requestOut == null) {
+				// requests are written one at a time, the next one after the response to the previous one, unless both are pipelined
+				Exchange next = queued.peek();
+				if (next == null || !inFlight.isEmpty() && !(next.pipelined && inFlight.peekLast().pipelined)) {
+					return;
+				}
+				Exchange exchange = queued.poll();
+				exchange.parser = new HttpResponseParser(false, exchange.bodySinks);
+				exchange.attempts++;
+				inFlight.add(exchange);
+				requestOut = ByteBuffer.wrap(exchange.request);
+			}
+			if (engine == null) {
+				channel.write(requestOut);
+				if (requestOut.hasRemaining()) {
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					return;
+				}
+				key.interestOps(SelectionKey.OP_READ);
+			} else {
+				wrap(requestOut);
+				if (!flushNetOut()) {
+					requestOut = null;
+					return;
+				}
+			}
+			requestOut = null;
+		}
+	}
+
+	private void read() throws IOException {
+		SocketChannel current = channel;
+		while (true) {
+			acquireBuffers();
+			int count;
+			if (engine == null) {
+				count = channel.read(appIn);
+			} else if (!ready) {
+				handshake();
+				return;
+			} else {
+				count = channel.read(netIn);
+				unwrapAll();
+			}
+			processResponses();
+			if (channel != current) {
+				// connection was dropped (and possibly reopened) while processing responses
+				return;
+			}
+			if (count < 0) {
+				endOfStream();
+				return;
+			}
+			if (count == 0) {
+				releaseIdleBuffers();
+				return;
+			}
+		}
+	}
+
+	private void processResponses() throws IOException {
+		appIn.flip();
+		while (appIn.hasRemaining()) {
+			Exchange exchange = inFlight.peek();
+			if (exchange == null) {
+				// unsolicited bytes, nothing to match them with
+				appIn.position(appIn.limit());
+				break;
+			}
+			if (!exchange.parser.feed(appIn)) {
+				break;
+			}
+			inFlight.poll();
+			completed++;
+			exchange.future.complete(new Response(exchange.parser.getStatus(), exchange.parser.getBody()));
+			if (!exchange.parser.isKeepAlive()) {
+				connectionLost(new EOFException("Connection to " + address + " closed after response"));
+				return;
+			}
+		}
+		appIn.compact();
+		writeRequests();
+	}
+
+	private void endOfStream() {
+		Exchange exchange = inFlight.peek();
+		if (exchange != null && exchange.parser.endOfStream()) {
+			inFlight.poll();
+			completed++;
+			exchange.future.complete(new Response(exchange.parser.getStatus(), exchange.parser.getBody()));
+		}
+		connectionLost(new EOFException("Connection closed by " + address));
+	}
+
+	/**
+	 * Drops the connection. Idempotent exchanges which did not receive any response byte on a previously used (keep-alive) connection are retried once on a
+	 * new connection, others fail.
+	 */
+	private void connectionLost(IOException cause) {
+		boolean reused = completed > 0;
+		closeChannel();
+
+		Iterator<Exchange> iterator = inFlight.descendingIterator();
+		while (iterator.hasNext()) {
+			Exchange exchange = iterator.next();
+			iterator.remove();
+			if (reused && exchange.idempotent && exchange.attempts < 2 && !exchange.parser.isStarted()) {
+				queued.addFirst(exchange);
+			} else {
+				exchange.future.completeExceptionally(cause);
+			}
+		}
+		if (!reused) {
+			// connection could not even be established, do not retry queued requests against the same failure
+			failAll(queued, cause);
+		}
+		if (!queued.isEmpty() && !closed) {
+			try {
+				open();
+			} catch (IOException | RuntimeException e) {
+				closeChannel();
+				failAll(queued, asIOException(e));
+			}
+		}
+	}
+
+	private void closeChannel() {
+		ready = false;
+		requestOut = null;
+		if (key != null) {
+			key.cancel();
+			key = null;
+		}
+		if (channel != null) {
+			if (engine != null) {
+				engine.closeOutbound();
+			}
+			try {
+				channel.close();
+			} catch (IOException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to close connection to " + address, e);
+				}
+			}
+			channel = null;
+		}
+		engine = null;
+		releaseBuffers();
+	}
+
+	private IOException asIOException(Exception e) {
+		// e.g. UnresolvedAddressException is unchecked
+		return e instanceof IOException ? (IOException) e : new IOException("Communication with " + address + " failed", e);
+	}
+
+	private static void failAll(Deque<Exchange> exchanges, Throwable cause) {
+		Exchange exchange;
+		while ((exchange = exchanges.poll()) != null) {
+			exchange.future.completeExceptionally(cause);
+		}
+	}
+
+	private void wrap(ByteBuffer source) throws SSLException {
+		do {
+			SSLEngineResult result = engine.wrap(source, netOut);
+			switch (result.getStatus()) {
+				case BUFFER_OVERFLOW:
+					netOut = enlarge(netOut, engine.getSession().getPacketBufferSize());
+					break;
+				case CLOSED:
+					throw new SSLException("SSL engine of " + address + " is closed");
+				default:
+					if (result.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+						runDelegatedTasks();
+					}
+					if (result.bytesConsumed() == 0 && source.hasRemaining()) {
+						throw new SSLException("SSL engine of " + address + " made no progress");
+					}
+					break;
+			}
+		} while (source.hasRemaining());
+	}
+
+	/**
+	 * Unwraps a single TLS record, reading from the channel if needed.
+	 *
+	 * @return {@code false} if more data must arrive from the channel first
+	 */
+	private boolean unwrap() throws IOException {
+		while (true) {
+			netIn.flip();
+			SSLEngineResult result = engine.unwrap(netIn, appIn);
+			netIn.compact();
+			switch (result.getStatus()) {
+				case OK:
+					return true;
+				case BUFFER_OVERFLOW:
+					appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+					break;
+				case BUFFER_UNDERFLOW:
+					if (!netIn.hasRemaining()) {
+						netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+					}
+					int count = channel.read(netIn);
+					if (count < 0) {
+						throw new EOFException("Connection closed by " + address + " during SSL handshake");
+					}
+					if (count == 0) {
+						return false;
+					}
+					break;
+				default:
+					throw new SSLException("SSL engine of " + address + " is closed");
+			}
+		}
+	}
+
+	private void unwrapAll() throws IOException {
+		while (true) {
+			netIn.flip();
+			SSLEngineResult result = engine.unwrap(netIn, appIn);
+			netIn.compact();
+			switch (result.getStatus()) {
+				case BUFFER_OVERFLOW:
+					appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+					continue;
+				case BUFFER_UNDERFLOW:
+					if (!netIn.hasRemaining()) {
+						netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+					}
+					return;
+				case CLOSED:
+					return;
+				default:
+					break;
+			}
+			// post-handshake messages (e.g. session tickets) may require engine attention
+			HandshakeStatus status = result.getHandshakeStatus();
+			if (status == HandshakeStatus.NEED_TASK) {
+				runDelegatedTasks();
+			} else if (status == HandshakeStatus.NEED_WRAP) {
+				wrap(EMPTY);
+				flushNetOut();
+			}
+			if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Writes encrypted bytes to the channel.
+	 *
+	 * @return {@code true} if all bytes were written, {@code false} if the channel is waiting to become writable
+	 */
+	private boolean flushNetOut() throws IOException {
+		netOut.flip();
+		channel.write(netOut);
+		netOut.compact();
+		if (netOut.position() > 0) {
+			key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			return false;
+		}
+		key.interestOps(SelectionKey.OP_READ);
+		return true;
+	}
+
+	private void runDelegatedTasks() {
+		Runnable task;
+		while ((task = engine.getDelegatedTask()) != null) {
+			task.run();
+		}
+	}
+
+	private static ByteBuffer enlarge(ByteBuffer buffer, int minimumSize) {
+		ByteBuffer enlarged = ByteBuffer.allocate(Math.max(minimumSize, buffer.capacity() * 2));
+		buffer.flip();
+		enlarged.put(buffer);
+		ByteBufferPool.release(buffer);
+		return enlarged;
+	}
+}
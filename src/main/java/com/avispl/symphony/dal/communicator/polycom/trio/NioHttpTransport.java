@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+
+/**
+ * {@link TrioTransport} executing requests over a non-blocking {@link NioHttpConnection}, so a handful of shared {@link NioEventLoop} threads serve all devices
+ * instead of one thread per in-flight request. <br>
+ * Bodies are JSON encoded with Jackson; response bodies are tokenized with the non-blocking Jackson parser straight from pooled network buffers (see
+ * {@link JsonBodyDecoder}), unless the raw body is requested as {@code byte[]}. {@code Basic} authentication is sent preemptively. Device certificates are not verified, devices
+ * typically do not have trusted certificates.
+ *
+ * @since 1.0.2
+ */
+class NioHttpTransport implements TrioTransport {
+
+	private static final String JSON = "application/json";
+	// error responses are only kept for the exception message
+	private static final int ERROR_BODY_LIMIT = 4096;
+
+	private final String host;
+	private final String basePath;
+	private final String authorization;
+	private final long timeout;
+	private final ObjectMapper objectMapper;
+	private final NioHttpConnection connection;
+	private boolean closed;
+
+	/**
+	 * NioHttpTransport constructor
+	 *
+	 * @param host device host
+	 * @param port device port, {@code 0} or less for the default port of the protocol
+	 * @param secure {@code true} for HTTPS, {@code false} for plain HTTP
+	 * @param basePath base path prepended to request URIs, may be empty
+	 * @param login login for {@code Basic} authentication, {@code null} or empty to send no credentials
+	 * @param password password for {@code Basic} authentication
+	 * @param timeout default request timeout, in milliseconds
+	 * @param objectMapper mapper to encode and decode bodies with
+	 * @throws IOException if event loop cannot be started
+	 * @throws GeneralSecurityException if SSL context cannot be initialized
+	 */
+	NioHttpTransport(String host, int port, boolean secure, String basePath, String login, String password, long timeout, ObjectMapper objectMapper)
+			throws IOException, GeneralSecurityException {
+		this.host = host;
+		this.basePath = normalizeBasePath(basePath);
+		this.timeout = timeout;
+		this.objectMapper = objectMapper;
+		if (login != null && !login.isEmpty()) {
+			String credentials = login + ":" + (password != null ? password : "");
+			authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+		} else {
+			authorization = null;
+		}
+
+		int effectivePort = port > 0 ? port : secure ? 443 : 80;
+		InetSocketAddress address = InetSocketAddress.createUnresolved(host, effectivePort);
+		if (secure) {
+			SSLContext context = createTrustAllContext();
+			connection = new NioHttpConnection(NioEventLoop.acquire(), address, () -> {
+				SSLEngine engine = context.createSSLEngine(host, effectivePort);
+				engine.setUseClientMode(true);
+				return engine;
+			});
+		} else {
+			connection = new NioHttpConnection(NioEventLoop.acquire(), address, null);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T get(String uri, Type responseType, long timeout) throws Exception {
+		return execute("GET", uri, null, responseType, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T post(String uri, Object request, Type responseType, long timeout) throws Exception {
+		return execute("POST", uri, request, responseType, timeout);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * The body is written as is, and the status is read from the tokenized response without binding it.
+	 */
+	@Override
+	public String postCommand(String uri, byte[] body, long timeout) throws Exception {
+		long effectiveTimeout = effectiveTimeout(timeout);
+		NioHttpConnection.Exchange exchange = new NioHttpConnection.Exchange(encodeRequest("POST", uri, body), false,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(effectiveTimeout), this::createBodySink);
+		connection.submit(exchange);
+		NioHttpConnection.Response response = await(exchange.future, effectiveTimeout);
+		checkSuccess(uri, response);
+		return response.body instanceof JsonBodyDecoder ? ((JsonBodyDecoder) response.body).decodeStatus() : "";
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Requests are pipelined: all of them are written on the keep-alive connection back-to-back, and responses are read in order. If any response has an
+	 * error status, the first such failure is thrown once all responses are received, so the connection stays in sync.
+	 */
+	@Override
+	public Map<String, Object> getAll(Map<String, Type> requests, long timeout, Map<String, Exception> failures) throws InterruptedException {
+		long effectiveTimeout = effectiveTimeout(timeout);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(effectiveTimeout);
+		List<NioHttpConnection.Exchange> exchanges = new ArrayList<>(requests.size());
+		for (String uri : requests.keySet()) {
+			NioHttpConnection.Exchange exchange = new NioHttpConnection.Exchange(encodeRequest("GET", uri, null), true, deadline, bodySinks(requests.get(uri)));
+			exchange.pipelined = true;
+			exchanges.add(exchange);
+		}
+		connection.submitAll(exchanges);
+
+		Map<String, Object> responses = new LinkedHashMap<>(requests.size() * 2);
+		int i = 0;
+		for (Map.Entry<String, Type> request : requests.entrySet()) {
+			try {
+				responses.put(request.getKey(), decode(request.getKey(), await(exchanges.get(i++).future, effectiveTimeout), request.getValue()));
+			} catch (InterruptedIOException e) {
+				throw new InterruptedException(e.getMessage());
+			} catch (Exception e) {
+				failures.put(request.getKey(), e);
+			}
+		}
+		return responses;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() {
+		if (!closed) {
+			closed = true;
+			connection.close();
+			NioEventLoop.release();
+		}
+	}
+
+	private <T> T execute(String method, String uri, Object request, Type responseType, long timeout) throws Exception {
+		long effectiveTimeout = effectiveTimeout(timeout);
+		byte[] body = request instanceof byte[] ? (byte[]) request : request != null ? objectMapper.writeValueAsBytes(request) : null;
+		NioHttpConnection.Exchange exchange = new NioHttpConnection.Exchange(encodeRequest(method, uri, body), "GET".equals(method),
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(effectiveTimeout), bodySinks(responseType));
+		connection.submit(exchange);
+		return decode(uri, await(exchange.future, effectiveTimeout), responseType);
+	}
+
+	private long effectiveTimeout(long timeout) {
+		return timeout > 0 ? timeout : this.timeout;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T decode(String uri, NioHttpConnection.Response response, Type responseType) throws Exception {
+		checkSuccess(uri, response);
+		if (responseType == byte[].class) {
+			return (T) (response.body instanceof HttpResponseParser.RawBody ? ((HttpResponseParser.RawBody) response.body).toByteArray() : new byte[0]);
+		}
+		if (responseType == null || responseType == Void.class || !(response.body instanceof JsonBodyDecoder)) {
+			return null;
+		}
+		JavaType type = objectMapper.getTypeFactory().constructType(responseType);
+		return ((JsonBodyDecoder) response.body).decode(type);
+	}
+
+	private void checkSuccess(String uri, NioHttpConnection.Response response) throws CommandFailureException {
+		if (!isSuccess(response.status)) {
+			String body = response.body instanceof HttpResponseParser.RawBody
+					? new String(((HttpResponseParser.RawBody) response.body).toByteArray(), StandardCharsets.UTF_8) : "";
+			throw new CommandFailureException(host, uri, body, response.status);
+		}
+	}
+
+	/**
+	 * Creates sink for the response body: successful responses are tokenized as they arrive, error responses are kept as raw bytes.
+	 *
+	 * @param status response status
+	 * @return body sink
+	 */
+	private HttpResponseParser.BodySink createBodySink(int status) {
+		return isSuccess(status) ? new JsonBodyDecoder(objectMapper) : new HttpResponseParser.RawBody(ERROR_BODY_LIMIT);
+	}
+
+	/**
+	 * Provides sinks for the response body of a request: raw bytes if the response is requested as {@code byte[]}, see {@link #createBodySink(int)} otherwise.
+	 *
+	 * @param responseType type to convert response body to
+	 * @return body sinks by response status
+	 */
+	private IntFunction<HttpResponseParser.BodySink> bodySinks(Type responseType) {
+		if (responseType == byte[].class) {
+			return status -> new HttpResponseParser.RawBody(isSuccess(status) ? Integer.MAX_VALUE : ERROR_BODY_LIMIT);
+		}
+		return this::createBodySink;
+	}
+
+	private static boolean isSuccess(int status) {
+		return status >= 200 && status < 300;
+	}
+
+	private NioHttpConnection.Response await(CompletableFuture<NioHttpConnection.Response> future, long timeout) throws Exception {
+		try {
+			// connection enforces the timeout, wait a bit longer so its (more specific) failure is reported
+			return future.get(timeout + 1000, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		} catch (TimeoutException e) {
+			throw new SocketTimeoutException("No response from " + host + " in " + timeout + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for response from " + host);
+		}
+	}
+
+	private byte[] encodeRequest(String method, String uri, byte[] body) {
+		StringBuilder head = new StringBuilder(256);
+		head.append(method).append(' ').append(basePath).append(uri.startsWith("/") ? uri.substring(1) : uri).append(" HTTP/1.1\r\n");
+		head.append("Host: ").append(host).append("\r\n");
+		head.append("Accept: ").append(JSON).append("\r\n");
+		head.append("Connection: keep-alive\r\n");
+		if (authorization != null) {
+			head.append("Authorization: ").append(authorization).append("\r\n");
+		}
+		if (body != null) {
+			head.append("Content-Type: ").append(JSON).append("\r\n");
+			head.append("Content-Length: ").append(body.length).append("\r\n");
+		} else if (!"GET".equals(method)) {
+			head.append("Content-Length: 0\r\n");
+		}
+		head.append("\r\n");
+
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+		if (body == null) {
+			return headBytes;
+		}
+		ByteArrayOutputStream request = new ByteArrayOutputStream(headBytes.length + body.length);
+		request.write(headBytes, 0, headBytes.length);
+		request.write(body, 0, body.length);
+		return request.toByteArray();
+	}
+
+	private static String normalizeBasePath(String basePath) {
+		if (basePath == null || basePath.isEmpty() || "/".equals(basePath)) {
+			return "/";
+		}
+		String path = basePath.startsWith("/") ? basePath : "/" + basePath;
+		return path.endsWith("/") ? path : path + "/";
+	}
+
+	private static SSLContext createTrustAllContext() throws GeneralSecurityException {
+		TrustManager trustAll = new X509TrustManager() {
+			@Override
+			public void checkClientTrusted(X509Certificate[] chain, String authType) {
+				// devices typically do not have trusted certificates
+			}
+
+			@Override
+			public void checkServerTrusted(X509Certificate[] chain, String authType) {
+				// devices typically do not have trusted certificates
+			}
+
+			@Override
+			public X509Certificate[] getAcceptedIssuers() {
+				return new X509Certificate[0];
+			}
+		};
+		SSLContext context = SSLContext.getInstance("TLS");
+		context.init(null, new TrustManager[] { trustAll }, new SecureRandom());
+		return context;
+	}
+}
@@ -17,6 +17,7 @@ import com.avispl.symphony.api.dal.dto.control.call.MuteStatus;
 import com.avispl.symphony.api.dal.dto.control.call.PopupMessage;
 import com.avispl.symphony.api.dal.dto.monitor.*;
 import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.avispl.symphony.api.dal.error.ResourceNotReachableException;
 import com.avispl.symphony.api.dal.monitor.Monitorable;
 import com.avispl.symphony.dal.aggregator.parser.AggregatedDeviceProcessor;
 import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
@@ -27,12 +28,28 @@ import com.avispl.symphony.dal.util.StringUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -253,6 +270,20 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 		}
 	}
 
+	/**
+	 * Request retrieving a statistics section from the device.
+	 */
+	@FunctionalInterface
+	interface SectionRetriever {
+		/**
+		 * Retrieves the section.
+		 *
+		 * @return {@link JsonNode} containing the response payload
+		 * @throws Exception if any communication error occurs
+		 */
+		JsonNode retrieve() throws Exception;
+	}
+
 	// API URIs
 	private static final String VERSION_INFO_URI = "api/v1/mgmt/device/info";
 	private static final String CALL_STATUS_URI = "api/v1/webCallControl/callStatus";
@@ -260,6 +291,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	private static final String DIAL_URI = "api/v1/callctrl/dial";
 	private static final String END_CALL_URI = "api/v1/callctrl/endCall";
 	private static final String GET_CONFIG_URI = "api/v1/mgmt/config/get";
+	private static final String SET_CONFIG_URI = "api/v1/mgmt/config/set";
 	private static final String LINE_INFO_URI = "api/v1/mgmt/lineInfo";
 	private static final String MUTE_URI = "api/v1/callctrl/mute";
 	private static final String SESSION_STATS_URI = "api/v1/mgmt/media/sessionStats";
@@ -278,9 +310,9 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	private static final String CALL_HANDLE = "CallHandle";
 	private static final String CALL_STATE = "CallState";
 	private static final String DATA = "data";
-	private static final String DEST = "Dest";
 	private static final String JITTER = "Jitter";
-	private static final String LINE = "Line";
+	private static final String LINE_ID = "LineId";
+	private static final String LINE_NUMBER = "LineNumber";
 	private static final String PACKETS_EXPECTED = "PacketsExpected";
 	private static final String PACKETS_LOST = "PacketsLost";
 	private static final String PACKETS_RECEIVED = "PacketsReceived";
@@ -292,10 +324,8 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	private static final String REMOTE_PARTY_NUMBER = "RemotePartyNumber";
 	private static final String REF = "Ref";
 	private static final String SIP_ADDRESS = "SIPAddress";
-	private static final String STATE = "state";
-	private static final String STREAMS = "Streams";
-	private static final String TYPE = "Type";
 	private static final String TX_CODEC = "TxCodec";
+	private static final String UP_TIME_SINCE_LAST_REBOOT = "UpTimeSinceLastReboot";
 	private static final String VIDEO_RX_ACT_BITRATE_KBPS = "VideoRxActBitrateKbps";
 	private static final String VIDEO_TX_ACT_BITRATE_KBPS = "VideoTxActBitrateKbps";
 	private static final String VIDEO_RX_FRAMERATE = "VideoRxFramerate";
@@ -313,16 +343,82 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	private static final String CONNECTED = "Connected";
 	private static final String REGISTERED = "Registered";
 	private static final String UNREGISTERED = "Unregistered";
-	private static final String VOICE = "Voice";
-	private static final String VIDEO = "Video";
 
 	// Config property names
 	private static final String VIDEO_CALLRATE = "video.callRate";
+	private static final String TEL_NOTIFICATION_URL = "apps.telNotification.URL";
+	private static final String TEL_NOTIFICATION_INCOMING_EVENT = "apps.telNotification.incomingEvent";
+	private static final String TEL_NOTIFICATION_OUTGOING_EVENT = "apps.telNotification.outgoingEvent";
+	private static final String TEL_NOTIFICATION_CALL_STATE_CHANGE_EVENT = "apps.telNotification.callStateChangeEvent";
+
+	// Extended statistics property names
+	private static final String RESTART_DEVICE = "RestartDevice";
+	private static final String REBOOT_DEVICE = "RebootDevice";
+	private static final String SYSLOG_REGISTRATION = "Syslog#Registration";
+	private static final String CONTROL_COMMANDS_SAVED_CALLS = "ControlCommands#SavedDeviceCalls";
+	private static final String DEVICE_INFO_UPTIME = "DeviceInfo#Uptime";
+	private static final String NETWORK_INFO_UPTIME = "NetworkInfo#Uptime";
+	private static final String DEVICE_INFO_FIRMWARE_VERSION = "DeviceInfo#FirmwareVersion";
+	private static final String NETWORK_INFO_RECEIVED_PACKETS = "NetworkInfo#ReceivedPackets";
+	private static final String NETWORK_INFO_TRANSMITTED_PACKETS = "NetworkInfo#TransmittedPackets";
+	private static final String NETWORK_INFO_RECEIVED_PACKETS_RATE = "NetworkInfo#ReceivedPacketsRate(pps)";
+	private static final String NETWORK_INFO_TRANSMITTED_PACKETS_RATE = "NetworkInfo#TransmittedPacketsRate(pps)";
 
 	// API response statuses
 	private static final String STATUS_2000_SUCCESS = "2000";
 	private static final String STATUS_4007_NOT_IN_CALL = "4007";
 
+	// Statistics sections, named after the models in YML mapping
+	private static final String DEVICE_INFO_SECTION = "DeviceInfo";
+	private static final String NETWORK_INFO_SECTION = "NetworkInfo";
+	private static final String RUNNING_CONFIG_SECTION = "RunningConfig";
+	private static final String DEVICE_STATUS_SECTION = "DeviceStatus";
+	private static final String TRANSFER_TYPE_SECTION = "TransferType";
+	// line info and call status, which make up endpoint statistics
+	private static final String CALL_STATUS_SECTION = "CallStatus";
+	// max age (in milliseconds) of call state answered from memory when the device does not push call state changes
+	private static final long UNTRACKED_CALL_STATE_MAX_AGE = 3000L;
+	// call quality samples and media sessions
+	private static final String CALL_QUALITY_SECTION = "CallQuality";
+
+	// State store entry keys
+	private static final String STATE_SECTION_PREFIX = "section:";
+	private static final String STATE_CONFIG = "config";
+	private static final String STATE_PROFILE = "profile";
+	private static final String STATE_FIRMWARE_VERSION = "firmwareVersion";
+	private static final String STATE_CAPABILITIES = "capabilities";
+
+	// media session extended properties, one group per session reference
+	private static final String MEDIA_SESSION_GROUP = "MediaSession_";
+	private static final String MEDIA_SESSIONS_COUNT = "MediaSessions#Count";
+	private static final String SNAPSHOT_GROUP = "Snapshot#";
+	private static final String AGE_SUFFIX = "Age(s)";
+	private static final String POLL_STATUS_STALE_SECTIONS = "PollStatus#StaleSections";
+	private static final String POLL_STATUS_EXPORT_DROPPED = "PollStatus#ExportDroppedSamples";
+	private static final String POLL_STATUS_TIME_SERIES_DROPPED = "PollStatus#TimeSeriesDroppedSamples";
+	private static final String LIFECYCLE_STATE = "Lifecycle#State";
+
+	// values of httpTransport property
+	private static final String HTTP_TRANSPORT_BLOCKING = "blocking";
+	private static final String HTTP_TRANSPORT_NIO = "nio";
+
+	// timeout of an SNMP request attempt, in milliseconds
+	private static final long SNMP_TIMEOUT = 1000L;
+
+	// readiness probe of a rebooting device: request timeout, first and max delays, and time the device is given to come back (in milliseconds)
+	private static final long READINESS_PROBE_TIMEOUT = 2000L;
+	private static final long READINESS_PROBE_INITIAL_DELAY = 10000L;
+	private static final long READINESS_PROBE_MAX_DELAY = 60000L;
+	private static final long MAX_REBOOT_DURATION = 600000L;
+
+	// frequently changing sections are persisted at most that often (in milliseconds)
+	private static final long VOLATILE_SECTION_PERSIST_INTERVAL = 60000L;
+	// max age of rarely changing data restored from the state store, if staticSectionsRefreshInterval is not set
+	private static final long STORED_STATIC_SECTIONS_REFRESH_INTERVAL = 300000L;
+
+	// raw uptime format, e.g. '0 day 0:34:33'
+	private static final Pattern UPTIME_PATTERN = Pattern.compile("(\\d+)\\sday[s]?\\s(\\d+):(\\d+):(\\d+)", Pattern.CASE_INSENSITIVE);
+
 	// max number of attempts to retrieve call id after dialing device
 	private static final int MAX_STATUS_POLL_ATTEMPT = 5;
 
@@ -333,31 +429,342 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 
 	private AggregatedDeviceProcessor devicePropertyProcessor;
 
+	/**
+	 * Initial capacity of the extended statistics map, sized from the YML mapping so the map never rehashes during a poll
+	 */
+	private final int statisticsCapacity;
+
+	/**
+	 * Names of the properties of the YML mapping, the initial dictionary of the statistics export
+	 */
+	private final Collection<String> exportDictionary;
+
+	/**
+	 * Restart and reboot buttons never change, so they are built once per adapter instance
+	 */
+	private final AdvancedControllableProperty restartButton;
+	private final AdvancedControllableProperty rebootButton;
+
+	/**
+	 * Whether {@link #getMultipleStatistics()} should refill the same statistics containers on every poll instead of allocating new ones.
+	 * Only safe for callers which consume the result before requesting the next poll.
+	 */
+	private boolean reuseStatisticsContainers;
+
+	/**
+	 * Containers reused between polls when {@link #reuseStatisticsContainers} is enabled. Polls alternate between the two, so the containers of the last
+	 * complete sweep, reported while the device is rebooting, are never the ones being refilled.
+	 */
+	private final ExtendedStatistics[] reusableExtendedStatistics = new ExtendedStatistics[2];
+
+	/**
+	 * Call state of the device, updated by callStatus responses, dial and hangup commands and, if enabled, by call events pushed by the device
+	 */
+	private final CallStateModel callStateModel = new CallStateModel();
+
+	/**
+	 * Port to receive telephony notification events on, {@code 0} disables push-based call state updates
+	 */
+	private int telNotificationPort;
+
+	/**
+	 * URL of the telephony notification listener as seen by the device. If set, the device is configured to send call events to this URL.
+	 */
+	private String telNotificationUrl;
+
+	/**
+	 * Max time (in milliseconds) the pushed call state is trusted before it is reconciled with callStatus response
+	 */
+	private long callStatusReconcileInterval = 300000L;
+
+	private TelephonyNotificationListener telNotificationListener;
+	private String telNotificationDeviceAddress;
+	private volatile boolean telNotificationProvisioned;
+
+	/**
+	 * Port of the embedded syslog receiver (UDP and TCP), {@code 0} if disabled
+	 */
+	private int syslogPort;
+
+	private SyslogReceiver syslogReceiver;
+	private String syslogDeviceAddress;
+	// registered once, so unregistering removes the registration of this instance only
+	private final SyslogReceiver.Listener syslogListener = this::onSyslogEvent;
+
+	/**
+	 * Last registration event reported in syslog, {@code null} if none
+	 */
+	private volatile SyslogReceiver.Event syslogRegistrationEvent;
+
+	/**
+	 * Mute state, written through by mute/unmute commands
+	 */
+	private final MuteStateModel muteStateModel = new MuteStateModel();
+
+	/**
+	 * Reboot lifecycle, sweeps are not made while the device is rebooting
+	 */
+	private final DeviceLifecycle deviceLifecycle = new DeviceLifecycle(READINESS_PROBE_INITIAL_DELAY, READINESS_PROBE_MAX_DELAY, MAX_REBOOT_DURATION);
+
+	/**
+	 * Statistics of the last complete sweep, reported while the device is rebooting
+	 */
+	private volatile List<Statistics> lastStatistics;
+
+	/**
+	 * Publisher of sections refreshed by monitoring sweeps
+	 */
+	private final StatisticsPublisher statisticsPublisher = new StatisticsPublisher();
+
+	/**
+	 * Max time (in milliseconds) the known mute state is trusted before it is reconciled with communicationInfo response
+	 */
+	private long muteStateReconcileInterval = 300000L;
+
+	/**
+	 * Previous media counters and recent interval samples of the streams of the current call
+	 */
+	private final CallQualityTracker callQualityTracker = new CallQualityTracker(CallQualityTracker.DEFAULT_RING_SIZE);
+
+	/**
+	 * Keys of the audio and video streams of the current call in {@link #callQualityTracker}, {@code null} if there is no such stream
+	 */
+	private String audioStreamKey;
+	private String videoStreamKey;
+
+	/**
+	 * Extended properties of all media sessions of the last poll, by {@code MediaSession_<Ref>} group
+	 */
+	private final Map<String, String> sessionStatistics = new LinkedHashMap<>();
+
+	/**
+	 * {@code callStatus} and {@code lineInfo} data of the current poll, indexed by call handle and line number to be joined to media sessions
+	 */
+	private Map<String, Map<String, ?>> callsByHandle = Collections.emptyMap();
+	private Map<String, Map<String, ?>> linesByNumber = Collections.emptyMap();
+
+	/**
+	 * All calls of the last {@code callStatus} response (e.g. one call connected while another one is on hold)
+	 */
+	private volatile List<Map<String, ?>> callStatusEntries = Collections.emptyList();
+
+	/**
+	 * Previous values of network packet counters, used to report packet rates, one tracker per source of the counters (totals of {@code network/stats}
+	 * differ from the SNMP interface totals, so a rate across a source switch would be wrong)
+	 */
+	// neither network/stats totals nor the SNMP totals unwrapped per interface are 32-bit counters
+	private final NetworkCounterRateTracker networkCounterRateTracker = new NetworkCounterRateTracker(0);
+	private final NetworkCounterRateTracker snmpCounterRateTracker = new NetworkCounterRateTracker(0);
+
+	/**
+	 * Last retrieved properties of every statistics section
+	 */
+	private final SectionCache sectionCache = new SectionCache();
+
+	/**
+	 * Max age (in milliseconds) of rarely changing data (running config, config values, firmware version) before it is retrieved from the device again.
+	 * {@code 0} (default) disables caching, so the data is retrieved on every poll, unless the state store is enabled, see
+	 * {@link #staticSectionsRefreshInterval()}.
+	 */
+	private long staticSectionsRefreshInterval;
+
+	/**
+	 * Directory of the on-disk state store, the store is disabled if not set
+	 */
+	private String stateStoreDirectory;
+
+	private DeviceStateStore stateStore;
+
+	/**
+	 * Directory to record exchanges with the device in, recording is disabled if not set
+	 */
+	private String trafficRecordingDirectory;
+
+	/**
+	 * Target to export statistics of every sweep to ({@code tcp://<host>:<port>}, or a directory), export is disabled if not set
+	 */
+	private String statisticsExportTarget;
+
+	private StatisticsExporter statisticsExporter;
+
+	/**
+	 * Directory to log numeric samples of every sweep in (in a subdirectory named after the device host), the log is disabled if not set
+	 */
+	private String timeSeriesDirectory;
+
+	/**
+	 * Max size (in bytes) of a time series log segment file
+	 */
+	private int timeSeriesSegmentSize = 4 * 1024 * 1024;
+
+	private TimeSeriesLog timeSeriesLog;
+
+	/**
+	 * Firmware version reported by the device, along with the time it was retrieved at
+	 */
+	private volatile String firmwareVersion;
+
+	/**
+	 * URIs supported by the firmware of the device
+	 */
+	private final CapabilityMatrix capabilityMatrix = new CapabilityMatrix();
+	private volatile long firmwareVersionTimestamp;
+
+	/**
+	 * Video call rate from the device config, along with the time it was retrieved at
+	 */
+	private volatile Integer videoCallRate;
+	private volatile long videoCallRateTimestamp;
+
+	/**
+	 * Transport to use for REST API calls, either {@code blocking} (default) or {@code nio}
+	 */
+	private String httpTransport = HTTP_TRANSPORT_BLOCKING;
+
+	/**
+	 * Transport executing REST API calls, all API calls go through {@link #executeGet(String, Type)} and {@link #executePost(String, Object, Type)}
+	 */
+	private volatile TrioTransport transport;
+
+	/**
+	 * Template executing requests of the blocking transport through {@link TimeoutRequestFactory}, replacing the template of {@link RestCommunicator}
+	 */
+	private RestTemplate timeoutRestTemplate;
+
+	/**
+	 * Template of {@link RestCommunicator} {@link #timeoutRestTemplate} was built for, it is rebuilt once {@link RestCommunicator} replaces its template
+	 */
+	private RestTemplate replacedRestTemplate;
+
+	/** Lock guarding {@link #timeoutRestTemplate} and {@link #replacedRestTemplate} */
+	private final Object restTemplateLock = new Object();
+
+	/**
+	 * Whether requests of the monitoring sweep are pipelined on a single keep-alive connection
+	 */
+	private boolean pipelinedSweep;
+
+	/**
+	 * Set once the device answered a pipelined request with an error, monitoring sweep requests are sent one at a time afterwards
+	 */
+	private volatile boolean pipeliningRejected;
+
+	/**
+	 * Responses retrieved by pipelined monitoring sweep running on the current thread, by request URI, consumed by {@link #executeGet(String, Type)}. <br>
+	 * Set for the duration of the sweep only, so requests made by control commands (e.g. call status of a dial or hangup), which run on other threads or
+	 * after the sweep, are always sent to the device.
+	 */
+	private final ThreadLocal<Map<String, Object>> prefetchedResponses = new ThreadLocal<>();
+
+	/**
+	 * Collapses batches of control commands, see {@link #controlProperties(List)}
+	 */
+	private final ControlCommandBatcher controlCommandBatcher = new ControlCommandBatcher();
+
+	/**
+	 * Time budget (in milliseconds) of call control and device control operations, from entry point to the last device call
+	 */
+	private long controlDeadline = 30000L;
+
+	/**
+	 * Time budget (in milliseconds) of a monitoring sweep ({@link #getMultipleStatistics()})
+	 */
+	private long monitoringDeadline = 60000L;
+
+	/**
+	 * Whether request timeouts are derived from observed latencies of every URI
+	 */
+	private boolean adaptiveTimeouts = true;
+
+	/**
+	 * Observed latencies of device calls, by URI
+	 */
+	private final LatencyTracker latencyTracker = new LatencyTracker(2000L);
+
+	/**
+	 * Timeout (in milliseconds) of the reachability probe made before the monitoring sweep, {@code 0} (default) disables the probe
+	 */
+	private int reachabilityTimeout = 0;
+
+	/**
+	 * Time (in milliseconds) the result of the reachability probe is reused for
+	 */
+	private long reachabilityCacheInterval = 10000L;
+
+	/**
+	 * Reachability probe of the device, {@code null} if disabled
+	 */
+	private ReachabilityProbe reachabilityProbe;
+
+	/**
+	 * SNMP v2c read community of the device, network counters are collected over SNMP instead of the {@code network/stats} call if set
+	 */
+	private String snmpCommunity;
+
+	/**
+	 * SNMP agent port of the device
+	 */
+	private int snmpPort = 161;
+
+	/**
+	 * SNMP collector of network counters, {@code null} if disabled
+	 */
+	private SnmpNetworkCollector snmpCollector;
+
+	/**
+	 * Delay (in milliseconds) between monitoring sweeps made in background, {@code 0} makes {@link #getMultipleStatistics()} run the sweep itself
+	 */
+	private long backgroundCollectionInterval;
+
+	/**
+	 * Background collector of the device, {@code null} if disabled
+	 */
+	private volatile BackgroundCollector backgroundCollector;
+
+	/**
+	 * Max duration (in milliseconds) of a monitoring sweep returning partial results, {@code 0} makes the sweep fail on the first failed section
+	 */
+	private long pollBudget;
+
+	/**
+	 * Endpoint statistics of the last sweep which retrieved them, reported again when they cannot be retrieved within {@link #pollBudget}
+	 */
+	private EndpointStatistics lastEndpointStatistics;
+
 
 	@Override
 	public void controlProperty(ControllableProperty controllableProperty) throws Exception {
-		String property = controllableProperty.getProperty();
+		Deadline.run(controlDeadline, () -> {
+			String property = controllableProperty.getProperty();
 
-		switch (property) {
-			case "RestartDevice":
-				restartDevice();
-				break;
-			case "RebootDevice":
-				rebootDevice();
-				break;
-			default:
-				break;
-		}
+			switch (property) {
+				case RESTART_DEVICE:
+					restartDevice();
+					break;
+				case REBOOT_DEVICE:
+					rebootDevice();
+					break;
+				default:
+					break;
+			}
+		});
 	}
 
 	@Override
 	public void controlProperties(List<ControllableProperty> list) throws Exception {
-		if (CollectionUtils.isEmpty(list)) {
-			throw new IllegalArgumentException("Controllable properties cannot be null or empty");
-		}
-		for (ControllableProperty controllableProperty : list) {
-			controlProperty(controllableProperty);
-		}
+		Deadline.run(controlDeadline, () -> {
+			if (CollectionUtils.isEmpty(list)) {
+				throw new IllegalArgumentException("Controllable properties cannot be null or empty");
+			}
+			// duplicate and redundant commands (e.g. Restart followed by Reboot) are collapsed, so each remaining one costs a single device call
+			List<ControllableProperty> commands = controlCommandBatcher.collapse(list);
+			if (commands.size() < list.size() && logger.isDebugEnabled()) {
+				logger.debug("Collapsed " + list.size() + " control commands to " + commands.size() + " for device " + host);
+			}
+			for (ControllableProperty controllableProperty : commands) {
+				controlProperty(controllableProperty);
+			}
+		});
 	}
 
 	/**
@@ -388,6 +795,14 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 
 		Map<String, PropertiesMapping> mapping = new PropertiesMappingParser().loadYML("mapping/model-mapping.yml", getClass());
 		devicePropertyProcessor = new AggregatedDeviceProcessor(mapping);
+		statisticsCapacity = calculateStatisticsCapacity(mapping);
+		exportDictionary = StatisticsExporter.dictionaryOf(mapping);
+		restartButton = createButton(RESTART_DEVICE, "Restart", "Restarting...", 30000L);
+		rebootButton = createButton(REBOOT_DEVICE, "Reboot", "Rebooting...", 30000L);
+		controlCommandBatcher.addSupersedingRule(RESTART_DEVICE, REBOOT_DEVICE);
+		callStateModel.addListener(this::publishCallState);
+		// older versions of Trio (before 5.8) will freeze if in-call statistics are retrieved
+		capabilityMatrix.addMinimumVersion(SESSION_STATS_URI, 5, 8);
 		adapterProperties = new Properties();
 		adapterProperties.load(getClass().getResourceAsStream("/version.properties"));
 
@@ -396,149 +811,1624 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	}
 
 	/**
-	 * {@inheritDoc} <br>
-	 * Note that corresponding {@code PolycomnTrio} API does not return call id when dialing. This class will make best effort to retrieve call id after the
-	 * call is placed, but, if if such attempts fail after max allowed wait time (5 seconds by default), {@code null} call id will be returned.
+	 * Retrieves {@code reuseStatisticsContainers} property.
+	 *
+	 * @return the {@code reuseStatisticsContainers} property
 	 */
-	@Override
-	public String dial(DialDevice device) throws Exception {
-		/*
-		Description:
-		This API enables a user to initiate a call to a given number. Moreover, this API initiates the call and returns a response as an acknowledgment of request received.
+	public boolean isReuseStatisticsContainers() {
+		return reuseStatisticsContainers;
+	}
 
-		Method: POST
-		Path: /api/v1/callctrl/dial
-		Input JSON:
-		{
-		  "data": {
-		    "Dest": "<NUMBER/SIP_URI>", // Mandatory
-		    "Line": "<LINE_NUMBER>", // Mandatory, default is Line 1
-		    "Type": "<SIP/TEL/H323>" // Optional, default is TEL
-		  }
-		}
+	/**
+	 * Sets {@code reuseStatisticsContainers} property. <br>
+	 * When enabled, {@link #getMultipleStatistics()} returns one of two {@link ExtendedStatistics} instances (with its map and controls list cleared and
+	 * refilled) on every poll, therefore, the caller must be done with the previous result before requesting the next one.
+	 *
+	 * @param reuseStatisticsContainers the {@code reuseStatisticsContainers} to set
+	 */
+	public void setReuseStatisticsContainers(boolean reuseStatisticsContainers) {
+		this.reuseStatisticsContainers = reuseStatisticsContainers;
+	}
 
-		Success Response:
-		{
-		  "Status": 2000
-		}
+	/**
+	 * Retrieves {@code telNotificationPort} property.
+	 *
+	 * @return the {@code telNotificationPort} property
+	 */
+	public int getTelNotificationPort() {
+		return telNotificationPort;
+	}
 
-		Failure Response:
-		{
-			"Status": <4xxx/5xxx>
-		}
+	/**
+	 * Sets {@code telNotificationPort} property. <br>
+	 * When set to a non-zero value, the adapter listens on this port for telephony notification events, and call state is answered from memory, with
+	 * callStatus requests only made every {@code callStatusReconcileInterval}.
+	 *
+	 * @param telNotificationPort the {@code telNotificationPort} to set
+	 */
+	public void setTelNotificationPort(int telNotificationPort) {
+		this.telNotificationPort = telNotificationPort;
+	}
 
-		Applicable return codes 2000, 4000, 4002, 5000, 4002
-		*/
+	/**
+	 * Retrieves {@code syslogPort} property.
+	 *
+	 * @return the {@code syslogPort} property
+	 */
+	public int getSyslogPort() {
+		return syslogPort;
+	}
 
-		String dialString = device.getDialString().trim();
+	/**
+	 * Sets {@code syslogPort} property. <br>
+	 * When set to a non-zero value, the adapter receives syslog of the device (the device must be configured to send syslog to this port of the adapter
+	 * host, see {@code RunningConfigSyslog#*} properties). Call setup and teardown in the log drop the call state held in memory, so it is reconciled
+	 * with a callStatus request on next access; log lines never answer for the call state themselves. A logged reboot gets the device probed before the
+	 * next poll, and the device is only considered rebooting if it does not answer; registration loss is reported as soon as it is logged.
+	 *
+	 * @param syslogPort the {@code syslogPort} to set
+	 */
+	public void setSyslogPort(int syslogPort) {
+		this.syslogPort = syslogPort;
+	}
 
-		Map<String, String> data = new HashMap<>(3, 1);
-		data.put(DEST, dialString);
-		data.put(LINE, "1"); // Always line 1? we are not handling multiline calls
+	/**
+	 * Retrieves {@code telNotificationUrl} property.
+	 *
+	 * @return the {@code telNotificationUrl} property
+	 */
+	public String getTelNotificationUrl() {
+		return telNotificationUrl;
+	}
 
-		// check for Protocol
-		Protocol protocol = device.getProtocol();
-		if (protocol != null) {
-			String protocolString;
-			if (protocol == Protocol.ISDN) {
-				protocolString = TEL;
-			} else {
-				// since SIP and H323 are spelled the same as what device expects doing toString
-				protocolString = protocol.toString();
-			}
-			data.put(TYPE, protocolString); // possible protocols for Trio: SIP/TEL/H323
-		}
-		// if there is no protocol, let device to decide (it has Auto protocol option)
+	/**
+	 * Sets {@code telNotificationUrl} property, e.g. {@code http://10.0.0.5:8090/telNotification}.
+	 *
+	 * @param telNotificationUrl the {@code telNotificationUrl} to set
+	 */
+	public void setTelNotificationUrl(String telNotificationUrl) {
+		this.telNotificationUrl = telNotificationUrl;
+	}
 
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doPost(DIAL_URI, new Message<>(data), Message.class);
-		} finally {
-			apiLock.unlock();
-		}
-		checkResponseStatus(response.getStatus(), DIAL_URI);
+	/**
+	 * Retrieves {@code callStatusReconcileInterval} property.
+	 *
+	 * @return the {@code callStatusReconcileInterval} property
+	 */
+	public long getCallStatusReconcileInterval() {
+		return callStatusReconcileInterval;
+	}
 
-		// Unfortunately, response does not contain the call id and we need to send another command to retrieve it
-		// Need to wait for device to connect before getting the call id
-		for (int i = 0; i < MAX_STATUS_POLL_ATTEMPT; i++) {
-			Thread.sleep(1000);
-			Map<String, ?> callStatusData = retrieveRawCallStatusData();
-			if (callStatusData != null) {
-				String callHandle = (String) callStatusData.get(CALL_HANDLE);
-				if (!StringUtils.isNullOrEmpty(callHandle)) {
-					// determine if device is in call with expected remote address
-					String remoteAddress = ((String) callStatusData.get(REMOTE_PARTY_NUMBER));
-					if (!StringUtils.isNullOrEmpty(remoteAddress)) {
-						remoteAddress = remoteAddress.trim();
-						// remote party number might include protocol: as a prefix
-						int ind = remoteAddress.indexOf(':');
-						if (ind > 0) {
-							remoteAddress = remoteAddress.substring(ind + 1);
-						}
+	/**
+	 * Sets {@code callStatusReconcileInterval} property.
+	 *
+	 * @param callStatusReconcileInterval the {@code callStatusReconcileInterval} to set
+	 */
+	public void setCallStatusReconcileInterval(long callStatusReconcileInterval) {
+		this.callStatusReconcileInterval = callStatusReconcileInterval;
+	}
 
-						if (remoteAddress.equalsIgnoreCase(dialString)) {
-							return callHandle;
+	/**
+	 * Retrieves {@code muteStateReconcileInterval} property.
+	 *
+	 * @return the {@code muteStateReconcileInterval} property
+	 */
+	public long getMuteStateReconcileInterval() {
+		return muteStateReconcileInterval;
+	}
+
+	/**
+	 * Sets {@code muteStateReconcileInterval} property. <br>
+	 * Mute state set by {@link #mute()}/{@link #unmute()} or retrieved by {@link #retrieveMuteStatus()} is reported by in-call polls for up to this
+	 * interval (as long as the call does not change), instead of requesting communicationInfo on every poll.
+	 *
+	 * @param muteStateReconcileInterval the {@code muteStateReconcileInterval} to set
+	 */
+	public void setMuteStateReconcileInterval(long muteStateReconcileInterval) {
+		this.muteStateReconcileInterval = muteStateReconcileInterval;
+	}
+
+	/**
+	 * Retrieves {@code staticSectionsRefreshInterval} property.
+	 *
+	 * @return the {@code staticSectionsRefreshInterval} property
+	 */
+	public long getStaticSectionsRefreshInterval() {
+		return staticSectionsRefreshInterval;
+	}
+
+	/**
+	 * Sets {@code staticSectionsRefreshInterval} property. <br>
+	 * Running config, config values and the firmware version are reused for up to this many milliseconds before they are retrieved from the device again.
+	 * {@code 0} (default) retrieves them on every poll; with {@code stateStoreDirectory} set, {@code 0} stands for 5 minutes instead, so the data restored
+	 * from the store is used.
+	 *
+	 * @param staticSectionsRefreshInterval the {@code staticSectionsRefreshInterval} to set
+	 */
+	public void setStaticSectionsRefreshInterval(long staticSectionsRefreshInterval) {
+		this.staticSectionsRefreshInterval = staticSectionsRefreshInterval;
+	}
+
+	/**
+	 * Retrieves {@code stateStoreDirectory} property.
+	 *
+	 * @return the {@code stateStoreDirectory} property
+	 */
+	public String getStateStoreDirectory() {
+		return stateStoreDirectory;
+	}
+
+	/**
+	 * Sets {@code stateStoreDirectory} property. <br>
+	 * When set, firmware version, config values and last statistics sections are persisted in this directory, so after a restart the adapter resumes
+	 * with warm caches and only retrieves frequently changing sections on the first poll. Restored data is used for {@code staticSectionsRefreshInterval},
+	 * 5 minutes if it is not set.
+	 *
+	 * @param stateStoreDirectory the {@code stateStoreDirectory} to set
+	 */
+	public void setStateStoreDirectory(String stateStoreDirectory) {
+		this.stateStoreDirectory = stateStoreDirectory;
+	}
+
+	/**
+	 * Retrieves {@code trafficRecordingDirectory} property.
+	 *
+	 * @return the {@code trafficRecordingDirectory} property
+	 */
+	public String getTrafficRecordingDirectory() {
+		return trafficRecordingDirectory;
+	}
+
+	/**
+	 * Sets {@code trafficRecordingDirectory} property. <br>
+	 * When set, every exchange with the device (URI, status, latency and response body) is recorded to a new file in this directory each time the adapter
+	 * is initialized, named after the device host and the time, for replaying with {@code ReplayServer} of the tests.
+	 *
+	 * @param trafficRecordingDirectory the {@code trafficRecordingDirectory} to set
+	 */
+	public void setTrafficRecordingDirectory(String trafficRecordingDirectory) {
+		this.trafficRecordingDirectory = trafficRecordingDirectory;
+	}
+
+	/**
+	 * Retrieves {@code statisticsExportTarget} property.
+	 *
+	 * @return the {@code statisticsExportTarget} property
+	 */
+	public String getStatisticsExportTarget() {
+		return statisticsExportTarget;
+	}
+
+	/**
+	 * Sets {@code statisticsExportTarget} property. <br>
+	 * When set, extended statistics of every monitoring sweep are exported in a compact binary format (see {@link StatisticsExporter}), either to a socket
+	 * ({@code tcp://<host>:<port>}), or to a new file in the given directory each time the adapter is initialized, named after the device host and the time.
+	 *
+	 * @param statisticsExportTarget the {@code statisticsExportTarget} to set
+	 */
+	public void setStatisticsExportTarget(String statisticsExportTarget) {
+		this.statisticsExportTarget = statisticsExportTarget;
+	}
+
+	/**
+	 * Retrieves {@code timeSeriesDirectory} property.
+	 *
+	 * @return the {@code timeSeriesDirectory} property
+	 */
+	public String getTimeSeriesDirectory() {
+		return timeSeriesDirectory;
+	}
+
+	/**
+	 * Sets {@code timeSeriesDirectory} property. <br>
+	 * When set, numeric samples of every monitoring sweep (audio and video jitter, packet loss, bitrates and frame rates, call quality and network
+	 * statistics) are appended to a compressed time series log in a subdirectory named after the device host, see {@link TimeSeriesLog}.
+	 *
+	 * @param timeSeriesDirectory the {@code timeSeriesDirectory} to set
+	 */
+	public void setTimeSeriesDirectory(String timeSeriesDirectory) {
+		this.timeSeriesDirectory = timeSeriesDirectory;
+	}
+
+	/**
+	 * Retrieves {@code timeSeriesSegmentSize} property.
+	 *
+	 * @return the {@code timeSeriesSegmentSize} property
+	 */
+	public int getTimeSeriesSegmentSize() {
+		return timeSeriesSegmentSize;
+	}
+
+	/**
+	 * Sets {@code timeSeriesSegmentSize} property. <br>
+	 * Time series log rolls over to a new segment file once the current one reaches this size, in bytes (64 KiB at least).
+	 *
+	 * @param timeSeriesSegmentSize the {@code timeSeriesSegmentSize} to set
+	 */
+	public void setTimeSeriesSegmentSize(int timeSeriesSegmentSize) {
+		this.timeSeriesSegmentSize = timeSeriesSegmentSize;
+	}
+
+	/**
+	 * Retrieves {@code httpTransport} property.
+	 *
+	 * @return the {@code httpTransport} property
+	 */
+	public String getHttpTransport() {
+		return httpTransport;
+	}
+
+	/**
+	 * Sets {@code httpTransport} property. <br>
+	 * {@code blocking} (default) executes REST API calls with the {@code RestTemplate} of {@link RestCommunicator}, tying a thread to every in-flight
+	 * request; {@code nio} executes them over a non-blocking keep-alive connection served by I/O threads shared by all devices. The {@code nio} transport
+	 * supports {@code Basic} authentication only.
+	 *
+	 * @param httpTransport the {@code httpTransport} to set
+	 */
+	public void setHttpTransport(String httpTransport) {
+		this.httpTransport = httpTransport;
+	}
+
+	/**
+	 * Retrieves {@code controlDeadline} property.
+	 *
+	 * @return the {@code controlDeadline} property
+	 */
+	public long getControlDeadline() {
+		return controlDeadline;
+	}
+
+	/**
+	 * Sets {@code controlDeadline} property. <br>
+	 * Call control ({@code dial}, {@code hangup}, {@code mute}, {@code unmute}, {@code retrieveCallStatus}, {@code retrieveMuteStatus}) and device control
+	 * operations give up once this many milliseconds passed since they were invoked: waiting for the API lock (e.g. behind a monitoring sweep) and HTTP
+	 * timeouts are bounded by the time left, and requests are not sent to the device once it is over. {@code 0} disables the deadline.
+	 *
+	 * @param controlDeadline the {@code controlDeadline} to set
+	 */
+	public void setControlDeadline(long controlDeadline) {
+		this.controlDeadline = controlDeadline;
+	}
+
+	/**
+	 * Retrieves {@code monitoringDeadline} property.
+	 *
+	 * @return the {@code monitoringDeadline} property
+	 */
+	public long getMonitoringDeadline() {
+		return monitoringDeadline;
+	}
+
+	/**
+	 * Sets {@code monitoringDeadline} property. <br>
+	 * Same as {@code controlDeadline}, for {@link #getMultipleStatistics()}. {@code 0} disables the deadline.
+	 *
+	 * @param monitoringDeadline the {@code monitoringDeadline} to set
+	 */
+	public void setMonitoringDeadline(long monitoringDeadline) {
+		this.monitoringDeadline = monitoringDeadline;
+	}
+
+	/**
+	 * Retrieves {@code adaptiveTimeouts} property.
+	 *
+	 * @return the {@code adaptiveTimeouts} property
+	 */
+	public boolean isAdaptiveTimeouts() {
+		return adaptiveTimeouts;
+	}
+
+	/**
+	 * Sets {@code adaptiveTimeouts} property. <br>
+	 * When enabled, timeout of every request URI is derived from the 99th percentile of its recent latencies (but never exceeds {@code timeout}), so a hung
+	 * request to a normally fast URI is abandoned early.
+	 *
+	 * @param adaptiveTimeouts the {@code adaptiveTimeouts} to set
+	 */
+	public void setAdaptiveTimeouts(boolean adaptiveTimeouts) {
+		this.adaptiveTimeouts = adaptiveTimeouts;
+	}
+
+	/**
+	 * Retrieves {@code reachabilityTimeout} property.
+	 *
+	 * @return the {@code reachabilityTimeout} property
+	 */
+	public int getReachabilityTimeout() {
+		return reachabilityTimeout;
+	}
+
+	/**
+	 * Sets {@code reachabilityTimeout} property. <br>
+	 * Before the monitoring sweep the device is probed with an ICMP echo or, failing that, a TCP connect to its port, each bounded by this timeout (in
+	 * milliseconds). If the device does not answer, the sweep fails right away instead of waiting for HTTP timeouts. {@code 0} (default) disables the probe;
+	 * enable it only where ICMP or TCP connects to the device are not filtered, otherwise a device which is up is reported as not reachable.
+	 *
+	 * @param reachabilityTimeout the {@code reachabilityTimeout} to set
+	 */
+	public void setReachabilityTimeout(int reachabilityTimeout) {
+		this.reachabilityTimeout = reachabilityTimeout;
+	}
+
+	/**
+	 * Retrieves {@code reachabilityCacheInterval} property.
+	 *
+	 * @return the {@code reachabilityCacheInterval} property
+	 */
+	public long getReachabilityCacheInterval() {
+		return reachabilityCacheInterval;
+	}
+
+	/**
+	 * Sets {@code reachabilityCacheInterval} property. <br>
+	 * Time (in milliseconds) the result of the reachability probe is reused for. When it expires, all devices of the fleet with expired results are probed
+	 * in parallel.
+	 *
+	 * @param reachabilityCacheInterval the {@code reachabilityCacheInterval} to set
+	 */
+	public void setReachabilityCacheInterval(long reachabilityCacheInterval) {
+		this.reachabilityCacheInterval = reachabilityCacheInterval;
+	}
+
+	/**
+	 * Retrieves {@code snmpCommunity} property.
+	 *
+	 * @return the {@code snmpCommunity} property
+	 */
+	public String getSnmpCommunity() {
+		return snmpCommunity;
+	}
+
+	/**
+	 * Sets {@code snmpCommunity} property. <br>
+	 * If set, {@code NetworkInfo} properties are collected with a single SNMP v2c GETBULK request using this read community, which is much cheaper for the
+	 * device than the {@code network/stats} REST call. The REST call is still made if the SNMP request fails.
+	 *
+	 * @param snmpCommunity the {@code snmpCommunity} to set
+	 */
+	public void setSnmpCommunity(String snmpCommunity) {
+		this.snmpCommunity = snmpCommunity;
+	}
+
+	/**
+	 * Retrieves {@code snmpPort} property.
+	 *
+	 * @return the {@code snmpPort} property
+	 */
+	public int getSnmpPort() {
+		return snmpPort;
+	}
+
+	/**
+	 * Sets {@code snmpPort} property.
+	 *
+	 * @param snmpPort the {@code snmpPort} to set
+	 */
+	public void setSnmpPort(int snmpPort) {
+		this.snmpPort = snmpPort;
+	}
+
+	/**
+	 * Retrieves {@code backgroundCollectionInterval} property.
+	 *
+	 * @return the {@code backgroundCollectionInterval} property
+	 */
+	public long getBackgroundCollectionInterval() {
+		return backgroundCollectionInterval;
+	}
+
+	/**
+	 * Sets {@code backgroundCollectionInterval} property. <br>
+	 * When set to a non-zero value, the monitoring sweep runs on a thread of its own, this many milliseconds after the previous one completed, and
+	 * {@link #getMultipleStatistics()} returns the statistics of the latest sweep without any device I/O. Age of the statistics and of every section is
+	 * reported in {@code Snapshot#*} properties. Failure of the latest sweep is reported by {@link #getMultipleStatistics()} as usual.
+	 *
+	 * @param backgroundCollectionInterval the {@code backgroundCollectionInterval} to set
+	 */
+	public void setBackgroundCollectionInterval(long backgroundCollectionInterval) {
+		this.backgroundCollectionInterval = backgroundCollectionInterval;
+	}
+
+	/**
+	 * Retrieves {@code pollBudget} property.
+	 *
+	 * @return the {@code pollBudget} property
+	 */
+	public long getPollBudget() {
+		return pollBudget;
+	}
+
+	/**
+	 * Sets {@code pollBudget} property. <br>
+	 * When set to a non-zero value, the monitoring sweep takes no longer than this many milliseconds and returns partial results: sections are retrieved in
+	 * priority order (call status first, running config last), and every section which fails or is not retrieved within the budget is filled with its last
+	 * retrieved value and listed in {@code PollStatus#StaleSections}.
+	 *
+	 * @param pollBudget the {@code pollBudget} to set
+	 */
+	public void setPollBudget(long pollBudget) {
+		this.pollBudget = pollBudget;
+	}
+
+	/**
+	 * Retrieves {@code pipelinedSweep} property.
+	 *
+	 * @return the {@code pipelinedSweep} property
+	 */
+	public boolean isPipelinedSweep() {
+		return pipelinedSweep;
+	}
+
+	/**
+	 * Sets {@code pipelinedSweep} property. <br>
+	 * When enabled (with {@code nio} transport), independent GET requests of the monitoring sweep (device info, network stats, running config, status,
+	 * transfer type, line info and call status) are written back-to-back on one keep-alive connection and responses are read in order, instead of waiting
+	 * for every response before sending the next request. If the device answers a pipelined request with an error, the adapter falls back to sequential
+	 * requests.
+	 *
+	 * @param pipelinedSweep the {@code pipelinedSweep} to set
+	 */
+	public void setPipelinedSweep(boolean pipelinedSweep) {
+		this.pipelinedSweep = pipelinedSweep;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void internalInit() throws Exception {
+		super.internalInit();
+
+		transport = createTransport();
+		if (StringUtils.isNotNullOrEmpty(trafficRecordingDirectory)) {
+			Path recording = Paths.get(trafficRecordingDirectory, host + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".trio");
+			try {
+				transport = TrafficRecorder.open(transport, new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false), recording);
+			} catch (IOException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to record traffic of device " + host + " to " + recording + ", continuing without recording", e);
+				}
+			}
+		}
+		if (StringUtils.isNotNullOrEmpty(statisticsExportTarget)) {
+			String target = statisticsExportTarget.startsWith("tcp://") ? statisticsExportTarget
+					: Paths.get(statisticsExportTarget, host + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".tstx").toString();
+			try {
+				statisticsExporter = StatisticsExporter.open(target, host, exportDictionary);
+			} catch (IOException | IllegalArgumentException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to export statistics of device " + host + " to " + target + ", continuing without export", e);
+				}
+			}
+		}
+		if (StringUtils.isNotNullOrEmpty(timeSeriesDirectory)) {
+			try {
+				timeSeriesLog = new TimeSeriesLog(Paths.get(timeSeriesDirectory, host), timeSeriesSegmentSize, "PolycomTrio time series " + host);
+			} catch (IOException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to log time series of device " + host + " in " + timeSeriesDirectory + ", continuing without the log", e);
+				}
+			}
+		}
+		pipeliningRejected = false;
+		if (reachabilityTimeout > 0) {
+			reachabilityProbe = ReachabilityProbe.register(host, getPort(), reachabilityTimeout, reachabilityCacheInterval);
+		}
+		if (StringUtils.isNotNullOrEmpty(snmpCommunity)) {
+			try {
+				snmpCollector = SnmpNetworkCollector.register(host, snmpPort, snmpCommunity, SNMP_TIMEOUT);
+			} catch (IOException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to open SNMP session for device " + host + ", continuing with REST network statistics", e);
+				}
+			}
+		}
+
+		if (StringUtils.isNotNullOrEmpty(stateStoreDirectory)) {
+			try {
+				stateStore = DeviceStateStore.open(stateStoreDirectory, host);
+				restoreState();
+			} catch (IOException e) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to open state store in " + stateStoreDirectory + " for device " + host + ", continuing without it", e);
+				}
+			}
+		}
+
+		if (telNotificationPort > 0) {
+			// events are routed by the sender address, while host can be a name
+			telNotificationDeviceAddress = InetAddress.getByName(host).getHostAddress();
+			telNotificationListener = TelephonyNotificationListener.register(telNotificationPort, telNotificationDeviceAddress, callStateModel);
+		}
+		if (syslogPort > 0) {
+			// syslog is routed by the sender address, while host can be a name
+			syslogDeviceAddress = InetAddress.getByName(host).getHostAddress();
+			syslogReceiver = SyslogReceiver.register(syslogPort, syslogDeviceAddress, syslogListener);
+		}
+		if (backgroundCollectionInterval > 0) {
+			BackgroundCollector collector = new BackgroundCollector("PolycomTrio collector " + host, this::collectStatistics, this::retrieveSectionTimestamps,
+					backgroundCollectionInterval);
+			backgroundCollector = collector;
+			collector.start();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void internalDestroy() {
+		BackgroundCollector collector = backgroundCollector;
+		if (collector != null) {
+			collector.stop();
+			backgroundCollector = null;
+		}
+		statisticsPublisher.close();
+		if (statisticsExporter != null) {
+			statisticsExporter.close();
+			statisticsExporter = null;
+		}
+		if (timeSeriesLog != null) {
+			timeSeriesLog.close();
+			timeSeriesLog = null;
+		}
+		if (syslogReceiver != null) {
+			syslogReceiver.unregister(syslogDeviceAddress, syslogListener);
+			syslogReceiver = null;
+		}
+		if (reachabilityProbe != null) {
+			reachabilityProbe.unregister();
+			reachabilityProbe = null;
+		}
+		if (snmpCollector != null) {
+			snmpCollector.unregister();
+			snmpCollector = null;
+		}
+		if (telNotificationListener != null) {
+			telNotificationListener.unregister(telNotificationDeviceAddress, callStateModel);
+			telNotificationListener = null;
+		}
+		if (stateStore != null) {
+			try {
+				stateStore.close();
+			} catch (IOException e) {
+				logger.warn("Unable to close state store of device " + host, e);
+			}
+			stateStore = null;
+		}
+		if (transport != null) {
+			try {
+				transport.close();
+			} catch (IOException e) {
+				logger.warn("Unable to close transport of device " + host, e);
+			}
+			transport = null;
+		}
+
+		super.internalDestroy();
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Note that corresponding {@code PolycomnTrio} API does not return call id when dialing. This class will make best effort to retrieve call id after the
+	 * call is placed, but, if if such attempts fail after max allowed wait time (5 seconds by default), {@code null} call id will be returned.
+	 */
+	@Override
+	public String dial(DialDevice device) throws Exception {
+		return Deadline.call(controlDeadline, () -> {
+			/*
+			Description:
+			This API enables a user to initiate a call to a given number. Moreover, this API initiates the call and returns a response as an acknowledgment of request received.
+
+			Method: POST
+			Path: /api/v1/callctrl/dial
+			Input JSON:
+			{
+			  "data": {
+			    "Dest": "<NUMBER/SIP_URI>", // Mandatory
+			    "Line": "<LINE_NUMBER>", // Mandatory, default is Line 1
+			    "Type": "<SIP/TEL/H323>" // Optional, default is TEL
+			  }
+			}
+
+			Success Response:
+			{
+			  "Status": 2000
+			}
+
+			Failure Response:
+			{
+				"Status": <4xxx/5xxx>
+			}
+
+			Applicable return codes 2000, 4000, 4002, 5000, 4002
+			*/
+
+			String dialString = device.getDialString().trim();
+
+			// check for Protocol
+			String protocolString = null;
+			Protocol protocol = device.getProtocol();
+			if (protocol != null) {
+				if (protocol == Protocol.ISDN) {
+					protocolString = TEL;
+				} else {
+					// since SIP and H323 are spelled the same as what device expects doing toString
+					protocolString = protocol.toString();
+				}
+				// possible protocols for Trio: SIP/TEL/H323
+			}
+			// if there is no protocol, let device to decide (it has Auto protocol option)
+
+			// Always line 1? we are not handling multiline calls
+			byte[] body = CommandEncoder.dial(dialString, "1", protocolString);
+
+			// all API calls must be synchronized (see comments to apiLock)
+			String status;
+			acquireApiLock();
+			try {
+				status = executeCommand(DIAL_URI, body);
+			} finally {
+				apiLock.unlock();
+			}
+			checkResponseStatus(status, DIAL_URI);
+			callStateModel.onDial(dialString, System.currentTimeMillis());
+
+			// Unfortunately, response does not contain the call id and we need to send another command to retrieve it
+			// Need to wait for device to connect before getting the call id
+			for (int i = 0; i < MAX_STATUS_POLL_ATTEMPT; i++) {
+				Thread.sleep(1000);
+				Map<String, ?> callStatusData = retrieveRawCallStatusData();
+				if (callStatusData != null) {
+					String callHandle = (String) callStatusData.get(CALL_HANDLE);
+					if (!StringUtils.isNullOrEmpty(callHandle)) {
+						// determine if device is in call with expected remote address
+						String remoteAddress = ((String) callStatusData.get(REMOTE_PARTY_NUMBER));
+						if (!StringUtils.isNullOrEmpty(remoteAddress)) {
+							remoteAddress = remoteAddress.trim();
+							// remote party number might include protocol: as a prefix
+							int ind = remoteAddress.indexOf(':');
+							if (ind > 0) {
+								remoteAddress = remoteAddress.substring(ind + 1);
+							}
+
+							if (remoteAddress.equalsIgnoreCase(dialString)) {
+								return callHandle;
+							}
 						}
 					}
 				}
 			}
+
+			// cannot retrieve call id
+			return null;
+		});
+	}
+
+	/**
+	 * Provides publisher of statistics updates: every section refreshed by a monitoring sweep (made by {@link #getMultipleStatistics()}, or in background
+	 * if {@code backgroundCollectionInterval} is set) is published to its subscribers as soon as it is retrieved. Subscribing does not trigger sweeps. <br>
+	 * The {@code CallStatus} section is published as {@link EndpointStatistics}, all other sections as {@link ExtendedStatistics} with properties of the
+	 * section only: {@code DeviceInfo}, {@code NetworkInfo}, {@code RunningConfig}, {@code DeviceStatus}, {@code TransferType} and {@code CallQuality}
+	 * (call quality samples and media sessions). Subscribers receive no more updates than they requested; a subscriber which falls behind receives the
+	 * latest update of every section, rather than all of them. Subscriptions are completed when the adapter is destroyed.
+	 *
+	 * @param sections names of the sections to publish, all sections if none
+	 * @return statistics publisher
+	 */
+	public StatisticsFlow.Publisher<Statistics> statisticsPublisher(String... sections) {
+		Set<String> filter = new HashSet<>(Arrays.asList(sections));
+		return subscriber -> statisticsPublisher.subscribe(subscriber, filter);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * <br>
+	 * Note that {@code PolycomTrio} APIs only support retrieving media channel statistics starting with version {@code 5.8}, therefore, result of this call to
+	 * older versions of {@code PolycomTrio} will not contain {@link AudioChannelStats} and {@link VideoChannelStats}.
+	 */
+	@Override
+	public List<Statistics> getMultipleStatistics() throws Exception {
+		BackgroundCollector collector = backgroundCollector;
+		if (collector != null) {
+			return readSnapshot(collector);
+		}
+		return collectStatistics();
+	}
+
+	/**
+	 * Retrieves statistics of the latest background sweep, waiting for the first sweep if it has not completed yet. <br>
+	 * Snapshot containers are shared by all reads, so every read gets its own copy of the extended statistics, with ages of the snapshot and of its sections
+	 * added.
+	 *
+	 * @param collector background collector of the device
+	 * @return statistics of the latest sweep
+	 * @throws Exception if the latest sweep failed, or the first sweep did not complete within the monitoring deadline
+	 */
+	private List<Statistics> readSnapshot(BackgroundCollector collector) throws Exception {
+		BackgroundCollector.Snapshot snapshot = collector.await(Math.max(monitoringDeadline, getTimeout()));
+		if (snapshot == null) {
+			throw new TimeoutException("First monitoring sweep of device " + host + " is still in progress");
+		}
+		if (snapshot.failure != null) {
+			throw snapshot.failure;
+		}
+
+		long now = System.currentTimeMillis();
+		List<Statistics> statistics = new ArrayList<>(snapshot.statistics.size());
+		for (Statistics item : snapshot.statistics) {
+			if (!(item instanceof ExtendedStatistics)) {
+				statistics.add(item);
+				continue;
+			}
+			ExtendedStatistics source = (ExtendedStatistics) item;
+			Map<String, String> statisticsMap = new HashMap<>(statisticsCapacity + snapshot.sectionTimestamps.size() * 2);
+			statisticsMap.putAll(source.getStatistics());
+			statisticsMap.put(SNAPSHOT_GROUP + AGE_SUFFIX, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(now - snapshot.timestamp)));
+			for (Map.Entry<String, Long> section : snapshot.sectionTimestamps.entrySet()) {
+				statisticsMap.put(SNAPSHOT_GROUP + section.getKey() + AGE_SUFFIX, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(now - section.getValue())));
+			}
+			ExtendedStatistics extendedStatistics = new ExtendedStatistics();
+			extendedStatistics.setStatistics(statisticsMap);
+			extendedStatistics.setControllableProperties(new ArrayList<>(source.getControllableProperties()));
+			statistics.add(extendedStatistics);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Retrieves times the statistics sections were retrieved at, for the snapshot of the background sweep.
+	 *
+	 * @return retrieval times, by section name
+	 */
+	private Map<String, Long> retrieveSectionTimestamps() {
+		Map<String, SectionCache.Section> sections = sectionCache.getAll();
+		Map<String, Long> timestamps = new HashMap<>(sections.size() * 2);
+		for (Map.Entry<String, SectionCache.Section> section : sections.entrySet()) {
+			timestamps.put(section.getKey(), section.getValue().timestamp);
+		}
+		return timestamps;
+	}
+
+	/**
+	 * Runs the monitoring sweep: retrieves all statistics of the device, on the caller's thread or, if {@code backgroundCollectionInterval} is set, on
+	 * the thread of the background collector.
+	 *
+	 * @return endpoint and extended statistics of the device
+	 * @throws Exception if statistics cannot be retrieved
+	 */
+	private List<Statistics> collectStatistics() throws Exception {
+		return Deadline.call(monitoringDeadline, () -> Deadline.call(pollBudget, this::sweep));
+	}
+
+	/**
+	 * Makes the monitoring sweep, within the deadlines set by {@link #collectStatistics()}.
+	 *
+	 * @return endpoint and extended statistics of the device
+	 * @throws Exception if statistics cannot be retrieved
+	 */
+	private List<Statistics> sweep() throws Exception {
+		if (deviceLifecycle.takeSuspectedReboot()) {
+			verifySuspectedReboot();
+		}
+		// rebooting device is not polled, only probed for readiness now and then
+		if (deviceLifecycle.getState() == DeviceLifecycle.State.REBOOTING && !probeReadiness()) {
+			return reportRebooting();
+		}
+
+		// device which is down fails the poll in a sub-second probe, rather than in a series of HTTP timeouts
+		ReachabilityProbe probe = reachabilityProbe;
+		if (probe != null && !probe.isReachable()) {
+			throw new ResourceNotReachableException("Device " + host + " is not reachable");
+		}
+
+		provisionTelNotifications();
+
+		ExtendedStatistics extendedStatistics = obtainExtendedStatistics();
+		Map<String, String> extendedStatisticsMap = extendedStatistics.getStatistics();
+		List<AdvancedControllableProperty> advancedControllableProperties = extendedStatistics.getControllableProperties();
+
+		try {
+			Set<String> staleSections = new LinkedHashSet<>(4);
+			EndpointStatistics endpointStatistics = null;
+			if (pollBudget > 0) {
+				try {
+					prefetchedResponses.set(prefetchSweep());
+				} catch (TimeoutException e) {
+					// budget is spent waiting for the API lock, sections are filled with last retrieved values
+					if (logger.isDebugEnabled()) {
+						logger.debug("Pipelined sweep of device " + host + " is over the poll budget", e);
+					}
+				}
+				// call status is the most important section, it goes first
+				endpointStatistics = retrieveEndpointStatistics(staleSections);
+			} else {
+				prefetchedResponses.set(prefetchSweep());
+			}
+
+			populateStatistics(extendedStatisticsMap, staleSections);
+			populateControllableProperties(extendedStatisticsMap, advancedControllableProperties);
+			populateSyslogStatistics(extendedStatisticsMap);
+
+			if (endpointStatistics == null) {
+				endpointStatistics = retrieveEndpointStatistics(staleSections);
+			}
+			if (statisticsPublisher.hasSubscribers()) {
+				Map<String, String> callQuality = new HashMap<>();
+				populateCallQualityStatistics(callQuality);
+				extendedStatisticsMap.putAll(callQuality);
+				publishSection(CALL_QUALITY_SECTION, callQuality);
+			} else {
+				populateCallQualityStatistics(extendedStatisticsMap);
+			}
+			if (!staleSections.isEmpty()) {
+				extendedStatisticsMap.put(POLL_STATUS_STALE_SECTIONS, String.join(",", staleSections));
+			}
+
+			StatisticsExporter exporter = statisticsExporter;
+			if (exporter != null && exporter.getDropped() > 0) {
+				extendedStatisticsMap.put(POLL_STATUS_EXPORT_DROPPED, String.valueOf(exporter.getDropped()));
+			}
+			TimeSeriesLog log = timeSeriesLog;
+			if (log != null && log.getDropped() > 0) {
+				extendedStatisticsMap.put(POLL_STATUS_TIME_SERIES_DROPPED, String.valueOf(log.getDropped()));
+			}
+
+			List<Statistics> statistics = Arrays.asList(endpointStatistics, extendedStatistics);
+			lastStatistics = statistics;
+			if (exporter != null) {
+				exporter.export(System.currentTimeMillis(), extendedStatisticsMap);
+			}
+			if (log != null) {
+				log.append(System.currentTimeMillis(), collectTimeSeriesSample(endpointStatistics, extendedStatisticsMap));
+			}
+			return statistics;
+		} finally {
+			prefetchedResponses.remove();
+		}
+	}
+
+	/**
+	 * Probes rebooting device for readiness with a single {@code device/info} request, if the backoff delay since the last probe has passed. Once the device
+	 * is running again, everything cached about it is dropped, as its state and firmware may have changed.
+	 *
+	 * @return {@code true} if the device is running again
+	 * @throws InterruptedException if interrupted while waiting for the API lock
+	 */
+	private boolean probeReadiness() throws InterruptedException {
+		long now = System.currentTimeMillis();
+		if (!deviceLifecycle.isProbeDue(now)) {
+			return false;
+		}
+		boolean ready;
+		try {
+			JsonNode deviceInfo;
+			// all API calls must be synchronized (see comments to apiLock)
+			acquireApiLock();
+			try {
+				deviceInfo = obtainTransport().get(DEVICE_INFO_URI, JsonNode.class, withinDeadline(READINESS_PROBE_TIMEOUT, "readiness probe"));
+			} finally {
+				apiLock.unlock();
+			}
+			ready = deviceLifecycle.probeSucceeded(DeviceLifecycle.parseUptime(deviceInfo.path(DATA).path(UP_TIME_SINCE_LAST_REBOOT).asText(null)),
+					System.currentTimeMillis());
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Device " + host + " is not ready yet: " + e);
+			}
+			ready = deviceLifecycle.probeFailed(System.currentTimeMillis());
+		}
+		if (ready) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Device " + host + " is back after reboot, resuming monitoring");
+			}
+			invalidateDeviceState();
+		}
+		return ready;
+	}
+
+	/**
+	 * Probes the device after a reboot was suspected (e.g. reported in syslog). The device is considered rebooting only if it does not answer; if it
+	 * answers with a lower uptime, it already rebooted and came back, so only cached state is dropped.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for the API lock
+	 */
+	private void verifySuspectedReboot() throws InterruptedException {
+		long uptime;
+		try {
+			JsonNode deviceInfo;
+			// all API calls must be synchronized (see comments to apiLock)
+			acquireApiLock();
+			try {
+				deviceInfo = obtainTransport().get(DEVICE_INFO_URI, JsonNode.class, withinDeadline(READINESS_PROBE_TIMEOUT, "reboot probe"));
+			} finally {
+				apiLock.unlock();
+			}
+			uptime = DeviceLifecycle.parseUptime(deviceInfo.path(DATA).path(UP_TIME_SINCE_LAST_REBOOT).asText(null));
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Device " + host + " does not answer after a reboot was reported, it is rebooting: " + e);
+			}
+			long now = System.currentTimeMillis();
+			invalidateDeviceState();
+			deviceLifecycle.beginReboot(true, now);
+			deviceLifecycle.probeFailed(now);
+			return;
+		}
+		if (deviceLifecycle.recordUptime(uptime)) {
+			invalidateDeviceState();
+		}
+	}
+
+	/**
+	 * Reports statistics of the last complete sweep, while the device is rebooting.
+	 *
+	 * @return endpoint statistics (not in call), and extended statistics of the last sweep with lifecycle state
+	 */
+	private List<Statistics> reportRebooting() {
+		ExtendedStatistics extendedStatistics = new ExtendedStatistics();
+		Map<String, String> statistics = new HashMap<>(statisticsCapacity);
+		List<AdvancedControllableProperty> controls = new ArrayList<>(2);
+		List<Statistics> last = lastStatistics;
+		ExtendedStatistics lastExtendedStatistics = last != null ? (ExtendedStatistics) last.get(1) : null;
+		if (lastExtendedStatistics != null) {
+			statistics.putAll(lastExtendedStatistics.getStatistics());
+			controls.addAll(lastExtendedStatistics.getControllableProperties());
+		} else {
+			populateControllableProperties(statistics, controls);
+		}
+		statistics.put(LIFECYCLE_STATE, "Rebooting");
+		extendedStatistics.setStatistics(statistics);
+		extendedStatistics.setControllableProperties(controls);
+
+		EndpointStatistics endpointStatistics = new EndpointStatistics();
+		endpointStatistics.setInCall(false);
+		return Arrays.asList(endpointStatistics, extendedStatistics);
+	}
+
+	/**
+	 * Drops everything cached about the device, so it is retrieved again by the next sweep
+	 */
+	private void invalidateDeviceState() {
+		callStateModel.invalidate();
+		muteStateModel.invalidate();
+		sectionCache.invalidateAll();
+		// firmware may have been upgraded
+		firmwareVersionTimestamp = 0;
+	}
+
+	/**
+	 * Retrieves registration status (from line info) and call status of the device. <br>
+	 * If {@link #pollBudget} is set, failure is not fatal: endpoint statistics of the last sweep which retrieved them are reported again, and the section is
+	 * marked stale.
+	 *
+	 * @param staleSections to add the section to, if it is stale
+	 * @return endpoint statistics
+	 * @throws Exception if endpoint statistics cannot be retrieved, and {@link #pollBudget} is not set
+	 */
+	private EndpointStatistics retrieveEndpointStatistics(Set<String> staleSections) throws Exception {
+		try {
+			// all API calls must be synchronized (see comments to apiLock)
+			ListMessage listResponse;
+			acquireApiLock();
+			try {
+				listResponse = executeGet(LINE_INFO_URI, ListMessage.class);
+			} finally {
+				apiLock.unlock();
+			}
+			checkResponseStatus(listResponse.getStatus(), LINE_INFO_URI);
+
+			EndpointStatistics endpointStatistics = parseEndpointStats(listResponse.getData());
+			lastEndpointStatistics = endpointStatistics;
+			statisticsPublisher.publish(CALL_STATUS_SECTION, endpointStatistics);
+			return endpointStatistics;
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			if (pollBudget <= 0) {
+				throw e;
+			}
+			logStaleSection(CALL_STATUS_SECTION, e);
+			staleSections.add(CALL_STATUS_SECTION);
+			EndpointStatistics endpointStatistics = lastEndpointStatistics;
+			return endpointStatistics != null ? endpointStatistics : new EndpointStatistics();
+		}
+	}
+
+	/**
+	 * Retrieves responses to all GET requests of the monitoring sweep in one pipelined batch, if {@code pipelinedSweep} is enabled. <br>
+	 * Requests answered from caches (fresh running config, call state pushed by the device) and URIs unsupported by the firmware are left out. A failed
+	 * request leaves only its own response to be retrieved on its own; an error status from the device (other than an unsupported URI) also disables
+	 * pipelining for this device.
+	 *
+	 * @return responses by request URI, {@code null} if the sweep is not pipelined
+	 * @throws Exception if the deadline of the sweep passes while waiting for the API lock
+	 */
+	private Map<String, Object> prefetchSweep() throws Exception {
+		if (!pipelinedSweep || pipeliningRejected) {
+			return null;
+		}
+
+		long now = System.currentTimeMillis();
+		Map<String, Type> requests = new LinkedHashMap<>(16);
+		requests.put(DEVICE_INFO_URI, JsonNode.class);
+		SnmpNetworkCollector collector = snmpCollector;
+		if (collector == null || collector.isBackedOff(now)) {
+			requests.put(NETWORK_STATS_URI, JsonNode.class);
+		}
+		SectionCache.Section runningConfig = sectionCache.get(RUNNING_CONFIG_SECTION);
+		if (runningConfig == null || !runningConfig.isFresh(staticSectionsRefreshInterval(), now)) {
+			requests.put(RUNNING_CONFIG_URI, JsonNode.class);
+		}
+		requests.put(STATUS_URI, JsonNode.class);
+		requests.put(TRANSFER_TYPE_URI, JsonNode.class);
+		// URIs the firmware does not support are not requested at all
+		requests.keySet().removeIf(uri -> !capabilityMatrix.isSupported(uri, firmwareVersion));
+		requests.put(LINE_INFO_URI, ListMessage.class);
+		if (!isCallStateFresh(now)) {
+			requests.put(CALL_STATUS_URI, JsonNode.class);
+		}
+
+		Map<String, Exception> failures = new LinkedHashMap<>(4);
+		Map<String, Object> responses;
+		// all API calls must be synchronized (see comments to apiLock)
+		acquireApiLock();
+		try {
+			responses = obtainTransport().getAll(requests, withinDeadline(getTimeout(), "pipelined sweep"), failures);
+		} catch (TimeoutException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Pipelined requests to device " + host + " are past the deadline, retrieving responses one at a time", e);
+			}
+			return null;
+		} finally {
+			apiLock.unlock();
+		}
+
+		for (Map.Entry<String, Exception> failure : failures.entrySet()) {
+			Exception e = failure.getValue();
+			if (e instanceof CommandFailureException && !CapabilityMatrix.isUnsupportedStatus(((CommandFailureException) e).getStatusCode())) {
+				pipeliningRejected = true;
+				if (logger.isWarnEnabled()) {
+					logger.warn("Device " + host + " rejected pipelined request " + failure.getKey() + ", falling back to sequential requests", e);
+				}
+			} else if (logger.isDebugEnabled()) {
+				// a URI not supported by the firmware is recorded once requested on its own
+				logger.debug("Pipelined request " + failure.getKey() + " to device " + host + " failed, retrieving it on its own", e);
+			}
+		}
+		return responses;
+	}
+
+	/**
+	 * Adds recent call quality samples (min/max/avg of interval packet loss and jitter) of the current call streams
+	 *
+	 * @param statistics to add statistics properties to
+	 */
+	private void populateCallQualityStatistics(Map<String, String> statistics) {
+		populateStreamQualityStatistics(statistics, callQualityTracker.get(audioStreamKey), "CallQuality#Audio");
+		populateStreamQualityStatistics(statistics, callQualityTracker.get(videoStreamKey), "CallQuality#Video");
+		statistics.putAll(sessionStatistics);
+	}
+
+	/**
+	 * Adds recent samples of the stream
+	 *
+	 * @param statistics to add statistics properties to
+	 * @param samples stream samples, may be {@code null}
+	 * @param prefix property name prefix
+	 */
+	private void populateStreamQualityStatistics(Map<String, String> statistics, CallQualityTracker.StreamSamples samples, String prefix) {
+		if (samples == null) {
+			return;
+		}
+		putSample(statistics, prefix + "PacketLossInterval(%)", samples.intervalPacketLossPercent);
+		if (samples.packetLoss.size() > 0) {
+			putSample(statistics, prefix + "PacketLossMin(%)", samples.packetLoss.min());
+			putSample(statistics, prefix + "PacketLossMax(%)", samples.packetLoss.max());
+			putSample(statistics, prefix + "PacketLossAvg(%)", samples.packetLoss.avg());
+		}
+		if (samples.jitters.size() > 0) {
+			putSample(statistics, prefix + "JitterMin(ms)", samples.jitters.min());
+			putSample(statistics, prefix + "JitterMax(ms)", samples.jitters.max());
+			putSample(statistics, prefix + "JitterAvg(ms)", samples.jitters.avg());
+		}
+	}
+
+	/**
+	 * Collects numeric values of the sweep for the time series log: channel statistics of the call, and numeric properties of the call quality and network
+	 * sections.
+	 *
+	 * @param endpointStatistics endpoint statistics of the sweep
+	 * @param statistics extended statistics of the sweep
+	 * @return values by series name
+	 */
+	private static Map<String, Double> collectTimeSeriesSample(EndpointStatistics endpointStatistics, Map<String, String> statistics) {
+		Map<String, Double> sample = new LinkedHashMap<>();
+		putChannelSample(sample, "Audio#", endpointStatistics.getAudioChannelStats());
+		VideoChannelStats video = endpointStatistics.getVideoChannelStats();
+		putChannelSample(sample, "Video#", video);
+		if (video != null) {
+			putSample(sample, "Video#FrameRateRx", video.getFrameRateRx());
+			putSample(sample, "Video#FrameRateTx", video.getFrameRateTx());
+		}
+		for (Map.Entry<String, String> property : statistics.entrySet()) {
+			String name = property.getKey();
+			if (name.startsWith(CALL_QUALITY_SECTION + "#") || name.startsWith(NETWORK_INFO_SECTION + "#")) {
+				try {
+					sample.put(name, Double.parseDouble(property.getValue()));
+				} catch (NumberFormatException | NullPointerException e) {
+					// not a numeric property (e.g. uptime)
+				}
+			}
+		}
+		return sample;
+	}
+
+	/**
+	 * Puts numeric values of the channel statistics
+	 *
+	 * @param sample to put values to
+	 * @param prefix series name prefix
+	 * @param channelStats channel statistics, may be {@code null}
+	 */
+	private static void putChannelSample(Map<String, Double> sample, String prefix, ChannelStats channelStats) {
+		if (channelStats == null) {
+			return;
+		}
+		putSample(sample, prefix + "BitRateRx", channelStats.getBitRateRx());
+		putSample(sample, prefix + "BitRateTx", channelStats.getBitRateTx());
+		putSample(sample, prefix + "JitterRx", channelStats.getJitterRx());
+		putSample(sample, prefix + "JitterTx", channelStats.getJitterTx());
+		putSample(sample, prefix + "PacketLossRx", channelStats.getPacketLossRx());
+		putSample(sample, prefix + "PacketLossTx", channelStats.getPacketLossTx());
+		putSample(sample, prefix + "PercentPacketLossRx", channelStats.getPercentPacketLossRx());
+		putSample(sample, prefix + "PercentPacketLossTx", channelStats.getPercentPacketLossTx());
+	}
+
+	private static void putSample(Map<String, Double> sample, String name, Number value) {
+		if (value != null) {
+			sample.put(name, value.doubleValue());
+		}
+	}
+
+	/**
+	 * Puts sample value rounded to 2 decimal places, unless the value is not available
+	 *
+	 * @param statistics to add statistics property to
+	 * @param name property name
+	 * @param value sample value, {@code NaN} if not available
+	 */
+	private static void putSample(Map<String, String> statistics, String name, float value) {
+		if (!Float.isNaN(value)) {
+			statistics.put(name, String.valueOf(Math.round(value * 100) / 100f));
+		}
+	}
+
+	/**
+	 * Configures the device to post telephony notification events to {@code telNotificationUrl}. <br>
+	 * Done once per adapter instance, failures are logged and provisioning is retried on the next poll.
+	 *
+	 * @throws Exception if the deadline of the poll passes while waiting for the API lock
+	 */
+	private void provisionTelNotifications() throws Exception {
+		if (telNotificationProvisioned || telNotificationListener == null || StringUtils.isNullOrEmpty(telNotificationUrl, true)) {
+			return;
+		}
+
+		Map<String, String> data = new HashMap<>(6, 1);
+		data.put(TEL_NOTIFICATION_URL, telNotificationUrl);
+		data.put(TEL_NOTIFICATION_INCOMING_EVENT, "1");
+		data.put(TEL_NOTIFICATION_OUTGOING_EVENT, "1");
+		data.put(TEL_NOTIFICATION_CALL_STATE_CHANGE_EVENT, "1");
+
+		// all API calls must be synchronized (see comments to apiLock)
+		acquireApiLock();
+		try {
+			Message<?> response = executePost(SET_CONFIG_URI, new Message<>(data), Message.class);
+			checkResponseStatus(response.getStatus(), SET_CONFIG_URI);
+			telNotificationProvisioned = true;
+		} catch (Exception e) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Unable to configure telephony notifications on device " + host, e);
+			}
+		} finally {
+			apiLock.unlock();
+		}
+	}
+
+	/**
+	 * Provides statistics containers for the current poll: either brand new ones, or, if {@link #reuseStatisticsContainers} is enabled, reused containers
+	 * cleared for refilling, other than the ones of the last complete sweep.
+	 *
+	 * @return extended statistics with empty statistics map and controls list
+	 */
+	private ExtendedStatistics obtainExtendedStatistics() {
+		// snapshots of the background collector are read while the next sweep is running, so they never share containers
+		if (!reuseStatisticsContainers || backgroundCollector != null) {
+			Arrays.fill(reusableExtendedStatistics, null);
+			return createExtendedStatistics();
+		}
+
+		List<Statistics> last = lastStatistics;
+		Statistics lastExtendedStatistics = last != null ? last.get(1) : null;
+		for (int i = 0; i < reusableExtendedStatistics.length; i++) {
+			ExtendedStatistics extendedStatistics = reusableExtendedStatistics[i];
+			if (extendedStatistics == null) {
+				extendedStatistics = createExtendedStatistics();
+				reusableExtendedStatistics[i] = extendedStatistics;
+				return extendedStatistics;
+			}
+			if (extendedStatistics != lastExtendedStatistics) {
+				extendedStatistics.getStatistics().clear();
+				extendedStatistics.getControllableProperties().clear();
+				return extendedStatistics;
+			}
+		}
+		throw new IllegalStateException("No statistics container to reuse");
+	}
+
+	/**
+	 * Creates statistics containers sized for the YML mapping.
+	 *
+	 * @return extended statistics with empty statistics map and controls list
+	 */
+	private ExtendedStatistics createExtendedStatistics() {
+		ExtendedStatistics extendedStatistics = new ExtendedStatistics();
+		extendedStatistics.setStatistics(new HashMap<>(statisticsCapacity));
+		extendedStatistics.setControllableProperties(new ArrayList<>(2));
+		return extendedStatistics;
+	}
+
+	/**
+	 * Calculates initial capacity of the extended statistics map, so it can hold all properties from the YML mapping, plus properties added by the adapter,
+	 * without being resized.
+	 *
+	 * @param mapping YML properties mapping
+	 * @return initial capacity of the extended statistics map
+	 */
+	private static int calculateStatisticsCapacity(Map<String, PropertiesMapping> mapping) {
+		int size = 2; // RestartDevice and RebootDevice
+		for (PropertiesMapping propertiesMapping : mapping.values()) {
+			Map<String, String> properties = propertiesMapping.getProperties();
+			if (properties != null) {
+				size += properties.size();
+			}
 		}
+		return (int) (size / 0.75f) + 1;
+	}
 
-		// cannot retrieve call id
-		return null;
+	/**
+	 * Add controllable properties, that are not covered by the YML mapping. <br>
+	 * Sections are retrieved in priority order, running config goes last.
+	 *
+	 * @param statistics to add statistics properties to
+	 * @param staleSections to add sections filled with their last retrieved values to
+	 */
+	private void populateStatistics(Map<String, String> statistics, Set<String> staleSections) throws Exception {
+		// SNMP request is in flight while device info is retrieved
+		SnmpNetworkCollector collector = snmpCollector;
+		CompletableFuture<Map<String, String>> snmpNetworkInfo = collector != null && !collector.isBackedOff(System.currentTimeMillis()) ? collector.collect() : null;
+
+		populateSection(statistics, staleSections, DEVICE_INFO_SECTION, DEVICE_INFO_URI, this::retrieveDeviceInfo);
+		if (!staleSections.contains(DEVICE_INFO_SECTION)) {
+			updateFirmwareVersion(statistics.get(DEVICE_INFO_FIRMWARE_VERSION), System.currentTimeMillis());
+			if (deviceLifecycle.recordUptime(DeviceLifecycle.parseUptime(statistics.get(DEVICE_INFO_UPTIME)))) {
+				// device rebooted unnoticed since the last sweep
+				invalidateDeviceState();
+			}
+		}
+		boolean snmp = snmpNetworkInfo != null && populateSnmpNetworkInfo(statistics, snmpNetworkInfo, collector.getMaxResponseTime());
+		if (!snmp) {
+			populateSection(statistics, staleSections, NETWORK_INFO_SECTION, NETWORK_STATS_URI, this::retrieveNetworkStats);
+		}
+		// both trackers need to know about reboots, whichever source is used now
+		long uptime = staleSections.contains(DEVICE_INFO_SECTION) ? -1 : DeviceLifecycle.parseUptime(statistics.get(DEVICE_INFO_UPTIME));
+		networkCounterRateTracker.recordUptime(uptime);
+		snmpCounterRateTracker.recordUptime(uptime);
+		// rates of counters retrieved by an earlier sweep would be taken over the wrong interval
+		if (!staleSections.contains(NETWORK_INFO_SECTION)) {
+			populateNetworkRates(statistics, snmp ? snmpCounterRateTracker : networkCounterRateTracker, System.currentTimeMillis());
+			publishNetworkInfo(statistics);
+		}
+
+		populateSection(statistics, staleSections, DEVICE_STATUS_SECTION, STATUS_URI, this::retrieveStatus);
+		populateSection(statistics, staleSections, TRANSFER_TYPE_SECTION, TRANSFER_TYPE_URI, this::retrieveTransferType);
+
+		// running config rarely changes, it is only retrieved every staticSectionsRefreshInterval
+		SectionCache.Section runningConfig = sectionCache.get(RUNNING_CONFIG_SECTION);
+		if (runningConfig != null && runningConfig.isFresh(staticSectionsRefreshInterval(), System.currentTimeMillis())) {
+			statistics.putAll(runningConfig.properties);
+		} else {
+			populateSection(statistics, staleSections, RUNNING_CONFIG_SECTION, RUNNING_CONFIG_URI, this::retrieveRunningConfig);
+		}
+
+		String deviceUptime = statistics.get(DEVICE_INFO_UPTIME);
+		if (StringUtils.isNotNullOrEmpty(deviceUptime)) {
+			statistics.put(DEVICE_INFO_UPTIME, normalizeDeviceUptime(deviceUptime));
+		}
+		String networkUptime = statistics.get(NETWORK_INFO_UPTIME);
+		if (StringUtils.isNotNullOrEmpty(networkUptime)) {
+			statistics.put(NETWORK_INFO_UPTIME, normalizeDeviceUptime(networkUptime));
+		}
 	}
 
 	/**
-	 * {@inheritDoc} <br>
-	 * <br>
-	 * Note that {@code PolycomTrio} APIs only support retrieving media channel statistics starting with version {@code 5.8}, therefore, result of this call to
-	 * older versions of {@code PolycomTrio} will not contain {@link AudioChannelStats} and {@link VideoChannelStats}.
+	 * Retrieves statistics section from the device, see {@link #populateSection(Map, String, String, SectionRetriever)}. <br>
+	 * If {@link #pollBudget} is set, failure is not fatal: the section is filled with its last retrieved value (if any) and marked stale.
+	 *
+	 * @param statistics to add statistics properties to
+	 * @param staleSections to add the section to, if it is stale
+	 * @param section section (and YML mapping model) name
+	 * @param uri request URI of the section
+	 * @param retriever request retrieving the section from the device
+	 * @throws Exception if any communication error occurs, and {@link #pollBudget} is not set
 	 */
-	@Override
-	public List<Statistics> getMultipleStatistics() throws Exception {
-		ExtendedStatistics extendedStatistics = new ExtendedStatistics();
-		Map<String, String> extendedStatisticsMap = new HashMap<>();
-		List<AdvancedControllableProperty> advancedControllableProperties = new ArrayList<>();
-		extendedStatistics.setControllableProperties(advancedControllableProperties);
-		extendedStatistics.setStatistics(extendedStatisticsMap);
+	private void populateSection(Map<String, String> statistics, Set<String> staleSections, String section, String uri, SectionRetriever retriever)
+			throws Exception {
+		try {
+			populateSection(statistics, section, uri, retriever);
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			if (pollBudget <= 0) {
+				throw e;
+			}
+			logStaleSection(section, e);
+			staleSections.add(section);
+			SectionCache.Section lastRetrieved = sectionCache.get(section);
+			if (lastRetrieved != null) {
+				statistics.putAll(lastRetrieved.properties);
+			}
+		}
+	}
 
-		populateStatistics(extendedStatisticsMap);
-		populateControllableProperties(extendedStatisticsMap, advancedControllableProperties);
+	private void logStaleSection(String section, Exception cause) {
+		if (logger.isDebugEnabled()) {
+			logger.debug(section + " section of device " + host + " is not retrieved within the poll budget, reporting its last retrieved value", cause);
+		}
+	}
 
-		// get registration status (from line info)
-		// all API calls must be synchronized (see comments to apiLock)
-		ListMessage listResponse;
-		apiLock.lock();
+	/**
+	 * Retrieves statistics section from the device, maps it with the YML mapping model of the same name and caches the result. <br>
+	 * Sections whose URI the firmware of the device does not support are skipped, the first request answered with a status meaning the URI is not
+	 * implemented marks the URI unsupported in {@link #capabilityMatrix} until the firmware changes.
+	 *
+	 * @param statistics to add statistics properties to
+	 * @param section section (and YML mapping model) name
+	 * @param uri request URI of the section
+	 * @param retriever request retrieving the section from the device
+	 * @throws Exception if any communication error occurs
+	 */
+	private void populateSection(Map<String, String> statistics, String section, String uri, SectionRetriever retriever) throws Exception {
+		String firmware = firmwareVersion;
+		if (!capabilityMatrix.isSupported(uri, firmware)) {
+			return;
+		}
+		JsonNode response;
 		try {
-			listResponse = doGet(LINE_INFO_URI, ListMessage.class);
-		} finally {
-			apiLock.unlock();
+			response = retriever.retrieve();
+		} catch (CommandFailureException e) {
+			if (!CapabilityMatrix.isUnsupportedStatus(e.getStatusCode())) {
+				throw e;
+			}
+			if (logger.isInfoEnabled()) {
+				logger.info("Firmware " + firmware + " of device " + host + " does not support " + uri + ", " + section + " section is skipped");
+			}
+			recordCapability(uri, firmware, false);
+			return;
 		}
-		checkResponseStatus(listResponse.getStatus(), LINE_INFO_URI);
+		recordCapability(uri, firmware, true);
+
+		Map<String, String> properties = new HashMap<>();
+		devicePropertyProcessor.applyProperties(properties, response, section);
+		statistics.putAll(properties);
 
-		return Arrays.asList(parseEndpointStats(listResponse.getData()), extendedStatistics);
+		SectionCache.Section current = sectionCache.put(section, properties, System.currentTimeMillis());
+		persistSection(section, current);
+		// network info is published along with the rates calculated from it
+		if (!NETWORK_INFO_SECTION.equals(section)) {
+			publishSection(section, current.properties);
+		}
 	}
 
 	/**
-	 * Add controllable properties, that are not covered by the YML mapping
+	 * Publishes refreshed section to the subscribers of {@link #statisticsPublisher}, if any
+	 *
+	 * @param section section name
+	 * @param properties section properties, which must not be modified afterwards
+	 */
+	private void publishSection(String section, Map<String, String> properties) {
+		if (!statisticsPublisher.hasSubscribers()) {
+			return;
+		}
+		ExtendedStatistics update = new ExtendedStatistics();
+		update.setStatistics(Collections.unmodifiableMap(properties));
+		statisticsPublisher.publish(section, update);
+	}
+
+	/**
+	 * Publishes refreshed {@code NetworkInfo} section, with packet rates, to the subscribers of {@link #statisticsPublisher}, if any
+	 *
+	 * @param statistics statistics the section and the rates were added to
+	 */
+	private void publishNetworkInfo(Map<String, String> statistics) {
+		SectionCache.Section networkInfo = sectionCache.get(NETWORK_INFO_SECTION);
+		if (networkInfo == null || !statisticsPublisher.hasSubscribers()) {
+			return;
+		}
+		Map<String, String> properties = new HashMap<>(networkInfo.properties.size() * 2 + 4);
+		properties.putAll(networkInfo.properties);
+		for (String rate : new String[]{NETWORK_INFO_RECEIVED_PACKETS_RATE, NETWORK_INFO_TRANSMITTED_PACKETS_RATE}) {
+			String value = statistics.get(rate);
+			if (value != null) {
+				properties.put(rate, value);
+			}
+		}
+		publishSection(NETWORK_INFO_SECTION, properties);
+	}
+
+	/**
+	 * Adds {@code NetworkInfo} section collected over SNMP, caching it the same way as the section retrieved with the REST call
+	 *
 	 * @param statistics to add statistics properties to
+	 * @param snmpNetworkInfo pending SNMP response
+	 * @param maxResponseTime time to wait for the response, in milliseconds
+	 * @return {@code true} if the section was collected, {@code false} if it has to be retrieved with the REST call
+	 * @throws Exception if the deadline of the poll has passed, or the poll is interrupted
 	 */
-	private void populateStatistics(Map<String, String> statistics) throws Exception {
-		devicePropertyProcessor.applyProperties(statistics, retrieveDeviceInfo(), "DeviceInfo");
-		devicePropertyProcessor.applyProperties(statistics, retrieveNetworkStats(), "NetworkInfo");
-		devicePropertyProcessor.applyProperties(statistics, retrieveRunningConfig(), "RunningConfig");
-		devicePropertyProcessor.applyProperties(statistics, retrieveStatus(), "DeviceStatus");
-		devicePropertyProcessor.applyProperties(statistics, retrieveTransferType(), "TransferType");
+	private boolean populateSnmpNetworkInfo(Map<String, String> statistics, CompletableFuture<Map<String, String>> snmpNetworkInfo, long maxResponseTime)
+			throws Exception {
+		Map<String, String> properties;
+		try {
+			properties = snmpNetworkInfo.get(withinDeadline(maxResponseTime, "SNMP request"), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to collect network statistics of device " + host + " over SNMP, retrieving them with REST call", e);
+			}
+			return false;
+		}
+		if (properties.isEmpty()) {
+			return false;
+		}
+		statistics.putAll(properties);
+		persistSection(NETWORK_INFO_SECTION, sectionCache.put(NETWORK_INFO_SECTION, properties, System.currentTimeMillis()));
+		return true;
+	}
 
-		String deviceUptime = statistics.get("DeviceInfo#Uptime");
-		if (StringUtils.isNotNullOrEmpty(deviceUptime)) {
-			statistics.put("DeviceInfo#Uptime", normalizeDeviceUptime(deviceUptime));
+	/**
+	 * Records probe result of the URI, persisting {@link #capabilityMatrix} if it changed
+	 *
+	 * @param uri request URI
+	 * @param firmware firmware version the result holds for
+	 * @param supported whether the firmware supports the URI
+	 */
+	private void recordCapability(String uri, String firmware, boolean supported) {
+		if (capabilityMatrix.record(uri, firmware, supported)) {
+			persistState(STATE_CAPABILITIES, capabilityMatrix.toState(), System.currentTimeMillis());
 		}
-		String networkUptime = statistics.get("NetworkInfo#Uptime");
-		if (StringUtils.isNotNullOrEmpty(networkUptime)) {
-			statistics.put("NetworkInfo#Uptime", normalizeDeviceUptime(networkUptime));
+	}
+
+	/**
+	 * Retrieves max age of rarely changing data: {@link #staticSectionsRefreshInterval} if set, otherwise
+	 * {@link #STORED_STATIC_SECTIONS_REFRESH_INTERVAL} if the state store is enabled (data restored from the store would never be used with caching
+	 * disabled), otherwise {@code 0}.
+	 *
+	 * @return max age of rarely changing data, in milliseconds, {@code 0} if it is not cached
+	 */
+	private long staticSectionsRefreshInterval() {
+		if (staticSectionsRefreshInterval > 0 || stateStore == null) {
+			return staticSectionsRefreshInterval;
+		}
+		return STORED_STATIC_SECTIONS_REFRESH_INTERVAL;
+	}
+
+	/**
+	 * Persists section in the state store (if enabled). Sections which changed since last persisted are written at most every
+	 * {@link #VOLATILE_SECTION_PERSIST_INTERVAL}, unchanged sections are only written to refresh their timestamp once they are about to become stale.
+	 *
+	 * @param section section name
+	 * @param current current value of the section
+	 */
+	private void persistSection(String section, SectionCache.Section current) {
+		if (stateStore == null) {
+			return;
+		}
+		String key = STATE_SECTION_PREFIX + section;
+		DeviceStateStore.Entry persisted = stateStore.get(key);
+		if (persisted == null) {
+			persistState(key, current.properties, current.timestamp);
+			return;
+		}
+		long age = current.timestamp - persisted.timestamp;
+		boolean changed = persisted.values.hashCode() != current.hash;
+		if (changed ? age >= VOLATILE_SECTION_PERSIST_INTERVAL || RUNNING_CONFIG_SECTION.equals(section) : age >= staticSectionsRefreshInterval() / 2) {
+			persistState(key, current.properties, current.timestamp);
+		}
+	}
+
+	/**
+	 * Writes entry into the state store (if enabled), logging any error
+	 *
+	 * @param key entry key
+	 * @param values entry values
+	 * @param timestamp entry timestamp
+	 */
+	private void persistState(String key, Map<String, String> values, long timestamp) {
+		if (stateStore == null) {
+			return;
+		}
+		try {
+			stateStore.put(key, values, timestamp);
+		} catch (IOException e) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Unable to persist " + key + " state of device " + host, e);
+			}
+		}
+	}
+
+	/**
+	 * Restores caches from the state store
+	 */
+	private void restoreState() {
+		for (Map.Entry<String, DeviceStateStore.Entry> entry : stateStore.getAll().entrySet()) {
+			String key = entry.getKey();
+			DeviceStateStore.Entry value = entry.getValue();
+			if (key.startsWith(STATE_SECTION_PREFIX)) {
+				sectionCache.put(key.substring(STATE_SECTION_PREFIX.length()), new HashMap<>(value.values), value.timestamp);
+			} else if (key.equals(STATE_PROFILE)) {
+				firmwareVersion = value.values.get(STATE_FIRMWARE_VERSION);
+				firmwareVersionTimestamp = value.timestamp;
+			} else if (key.equals(STATE_CAPABILITIES)) {
+				capabilityMatrix.restore(value.values);
+			} else if (key.equals(STATE_CONFIG)) {
+				videoCallRate = StringUtils.convertToInteger(value.values.get(VIDEO_CALLRATE));
+				videoCallRateTimestamp = value.timestamp;
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Restored state of device " + host + ": sections " + sectionCache.getAll().keySet() + ", firmware " + firmwareVersion);
+		}
+	}
+
+	/**
+	 * Remembers firmware version reported by the device, persisting it if it changed
+	 *
+	 * @param version firmware version, ignored if {@code null} or empty
+	 * @param timestamp time the version was retrieved at
+	 */
+	private void updateFirmwareVersion(String version, long timestamp) {
+		if (StringUtils.isNullOrEmpty(version)) {
+			return;
+		}
+		boolean changed = !version.equals(firmwareVersion);
+		firmwareVersion = version;
+		firmwareVersionTimestamp = timestamp;
+		if (changed) {
+			persistState(STATE_PROFILE, singletonMap(STATE_FIRMWARE_VERSION, version), timestamp);
+		}
+	}
+
+	/**
+	 * Add packets per second rates calculated from the network packet counters
+	 * @param statistics to add statistics properties to
+	 * @param tracker tracker of the source the counters were retrieved from, with device uptime recorded
+	 * @param timestamp time the network counters were retrieved at
+	 */
+	private void populateNetworkRates(Map<String, String> statistics, NetworkCounterRateTracker tracker, long timestamp) {
+		double receivedRate = tracker.updateReceivedPackets(
+				NetworkCounterRateTracker.parseCounter(statistics.get(NETWORK_INFO_RECEIVED_PACKETS)), timestamp);
+		if (!Double.isNaN(receivedRate)) {
+			putSample(statistics, NETWORK_INFO_RECEIVED_PACKETS_RATE, (float) receivedRate);
+		}
+		double transmittedRate = tracker.updateTransmittedPackets(
+				NetworkCounterRateTracker.parseCounter(statistics.get(NETWORK_INFO_TRANSMITTED_PACKETS)), timestamp);
+		if (!Double.isNaN(transmittedRate)) {
+			putSample(statistics, NETWORK_INFO_TRANSMITTED_PACKETS_RATE, (float) transmittedRate);
 		}
 	}
 
@@ -548,11 +2438,107 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * @param controls to add advanced controllable properties to
 	 */
 	private void populateControllableProperties(Map<String, String> statistics, List<AdvancedControllableProperty> controls) {
-		statistics.put("RestartDevice", "");
-		controls.add(createButton("RestartDevice", "Restart", "Restarting...", 30000L));
+		statistics.put(RESTART_DEVICE, "");
+		controls.add(restartButton);
+
+		statistics.put(REBOOT_DEVICE, "");
+		controls.add(rebootButton);
 
-		statistics.put("RebootDevice", "");
-		controls.add(createButton("RebootDevice", "Reboot", "Rebooting...", 30000L));
+		long savedCalls = controlCommandBatcher.getSavedCalls();
+		if (savedCalls > 0) {
+			statistics.put(CONTROL_COMMANDS_SAVED_CALLS, String.valueOf(savedCalls));
+		}
+	}
+
+	/**
+	 * Adds device state reported in syslog
+	 *
+	 * @param statistics to add statistics properties to
+	 */
+	private void populateSyslogStatistics(Map<String, String> statistics) {
+		SyslogReceiver.Event registrationEvent = syslogRegistrationEvent;
+		if (registrationEvent != null) {
+			statistics.put(SYSLOG_REGISTRATION, registrationEvent == SyslogReceiver.Event.REGISTERED ? "Registered" : "Lost");
+		}
+	}
+
+	/**
+	 * Applies device event received in syslog, on the syslog receiver thread
+	 *
+	 * @param event device event
+	 * @param timestamp time the event was received at
+	 */
+	private void onSyslogEvent(SyslogReceiver.Event event, long timestamp) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Syslog event " + event + " of device " + host);
+		}
+		switch (event) {
+			case CALL_SETUP:
+			case CALL_TEARDOWN:
+				// log lines do not carry enough call details, the state is reconciled on next access
+				callStateModel.invalidate();
+				muteStateModel.invalidate();
+				break;
+			case REBOOT:
+				// keywords may match unrelated log lines, the device is only considered rebooting once a probe confirms it
+				deviceLifecycle.suspectReboot();
+				break;
+			case REGISTRATION_LOST:
+			case REGISTERED:
+				syslogRegistrationEvent = event;
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Reports whether device pushes call state changes with telephony notifications, so call state model can be used instead of {@code callStatus}
+	 * requests while it is fresh. Syslog does not count: call keywords in log lines are a hint which only forces the next {@code callStatus} request.
+	 *
+	 * @return {@code true} if call state changes are pushed by the device
+	 */
+	private boolean isCallStateTracked() {
+		return telNotificationListener != null;
+	}
+
+	/**
+	 * Reports whether call state model can answer for the device. Pushed call state is trusted for {@code callStatusReconcileInterval}, otherwise only
+	 * a state reconciled within the last few seconds (e.g. by the sweep answering a hangup, or the other way round) is used.
+	 *
+	 * @param now current time
+	 * @return {@code true} if call state model is fresh
+	 */
+	private boolean isCallStateFresh(long now) {
+		return callStateModel.isFresh(isCallStateTracked() ? callStatusReconcileInterval : UNTRACKED_CALL_STATE_MAX_AGE, now);
+	}
+
+	/**
+	 * Publishes call state transition as {@code CallStatus} section, with registration status of the last sweep. Statistics of the call are published by
+	 * the next sweep.
+	 *
+	 * @param version version of the call state
+	 * @param previous call state before the transition
+	 * @param current call state after the transition
+	 */
+	private void publishCallState(long version, Map<String, ?> previous, Map<String, ?> current) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Call state of device " + host + " changed to " + (current != null ? current.get(CALL_STATE) : "Idle") + " (version " + version + ")");
+		}
+		if (!statisticsPublisher.hasSubscribers()) {
+			return;
+		}
+		EndpointStatistics endpointStatistics = new EndpointStatistics();
+		EndpointStatistics last = lastEndpointStatistics;
+		if (last != null) {
+			endpointStatistics.setRegistrationStatus(last.getRegistrationStatus());
+		}
+		CallStats callStats = current != null ? parseCallStatsData(current) : null;
+		if (callStats != null) {
+			endpointStatistics.setCallStats(callStats);
+			endpointStatistics.setInCall(true);
+		}
+		statisticsPublisher.publish(CALL_STATUS_SECTION, endpointStatistics);
 	}
 
 	/**
@@ -562,7 +2548,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * @throws Exception if any communication error occurs
 	 */
 	private JsonNode retrieveDeviceInfo () throws Exception {
-		return doGet(DEVICE_INFO_URI, JsonNode.class);
+		return executeGet(DEVICE_INFO_URI, JsonNode.class);
 	}
 
 	/**
@@ -572,7 +2558,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * @throws Exception if any communication error occurs
 	 */
 	private JsonNode retrieveNetworkStats() throws Exception {
-		return doGet(NETWORK_STATS_URI, JsonNode.class);
+		return executeGet(NETWORK_STATS_URI, JsonNode.class);
 	}
 
 	/**
@@ -582,45 +2568,291 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * @throws Exception if any communication error occurs
 	 */
 	private JsonNode retrieveRunningConfig() throws Exception {
-		return doGet(RUNNING_CONFIG_URI, JsonNode.class);
+		return executeGet(RUNNING_CONFIG_URI, JsonNode.class);
+	}
+
+	/**
+	 * Request transfer type status of the device
+	 * @return {@link JsonNode} containing the response payload
+	 *
+	 * @throws Exception if any communication error occurs
+	 */
+	private JsonNode retrieveStatus() throws Exception {
+		return executeGet(STATUS_URI, JsonNode.class);
 	}
 
 	/**
 	 * Request transfer type status of the device
 	 * @return {@link JsonNode} containing the response payload
 	 *
-	 * @throws Exception if any communication error occurs
+	 * @throws Exception if any communication error occurs
+	 */
+	private JsonNode retrieveTransferType() throws Exception {
+		return executeGet(TRANSFER_TYPE_URI, JsonNode.class);
+	}
+
+	/**
+	 * Request to reboot the device
+	 *
+	 * @throws Exception if any communication error occurs
+	 */
+	private void restartDevice() throws Exception {
+		executePost(RESTART_URI, null, null);
+		deviceLifecycle.beginReboot(false, System.currentTimeMillis());
+	}
+
+	/**
+	 * Request to reboot the device
+	 *
+	 * @throws Exception if any communication error occurs
+	 */
+	private void rebootDevice() throws Exception {
+		executePost(REBOOT_URI, null, null);
+		deviceLifecycle.beginReboot(true, System.currentTimeMillis());
+	}
+
+	/**
+	 * Executes GET request with the configured transport, unless the response was already retrieved by the pipelined monitoring sweep.
+	 *
+	 * @param uri request URI
+	 * @param responseType type to convert response body to
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T executeGet(String uri, Type responseType) throws Exception {
+		Map<String, Object> prefetchedSweep = prefetchedResponses.get();
+		Object prefetched = prefetchedSweep != null ? prefetchedSweep.remove(uri) : null;
+		if (prefetched != null) {
+			return (T) prefetched;
+		}
+		long timeout = requestTimeout(uri);
+		long start = System.nanoTime();
+		T response;
+		try {
+			response = obtainTransport().get(uri, responseType, timeout);
+		} catch (Exception e) {
+			recordLatency(uri, start, timeout, e);
+			throw e;
+		}
+		recordLatency(uri, start, timeout, null);
+		return response;
+	}
+
+	/**
+	 * Executes POST request with the configured transport.
+	 *
+	 * @param uri request URI
+	 * @param request request body, may be {@code null}
+	 * @param responseType type to convert response body to, {@code null} if response body is not needed
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	private <T> T executePost(String uri, Object request, Type responseType) throws Exception {
+		long timeout = requestTimeout(uri);
+		long start = System.nanoTime();
+		T response;
+		try {
+			response = obtainTransport().post(uri, request, responseType, timeout);
+		} catch (Exception e) {
+			recordLatency(uri, start, timeout, e);
+			throw e;
+		}
+		recordLatency(uri, start, timeout, null);
+		return response;
+	}
+
+	/**
+	 * Executes POST request of a control command with the configured transport.
+	 *
+	 * @param uri request URI
+	 * @param body request body, encoded by {@link CommandEncoder}
+	 * @return response status
+	 * @throws Exception if any communication error occurs
+	 */
+	private String executeCommand(String uri, byte[] body) throws Exception {
+		long timeout = requestTimeout(uri);
+		long start = System.nanoTime();
+		String status;
+		try {
+			status = obtainTransport().postCommand(uri, body, timeout);
+		} catch (Exception e) {
+			recordLatency(uri, start, timeout, e);
+			throw e;
+		}
+		recordLatency(uri, start, timeout, null);
+		return status;
+	}
+
+	/**
+	 * Records latency of the request in {@link #latencyTracker}. A request the device did not answer (e.g. timed out, or the connection failed) is recorded
+	 * at its timeout, so adaptive timeouts grow again on a degrading link rather than only ever shrinking; a request the device answered with an error
+	 * status is recorded at its actual latency.
+	 *
+	 * @param uri request URI
+	 * @param start time the request was sent at, from {@link System#nanoTime()}
+	 * @param timeout timeout of the request, in milliseconds
+	 * @param failure failure of the request, {@code null} if it succeeded
+	 */
+	private void recordLatency(String uri, long start, long timeout, Exception failure) {
+		if (failure instanceof InterruptedException || failure instanceof InterruptedIOException) {
+			// says nothing about the device
+			return;
+		}
+		long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		if (failure != null && !(failure instanceof CommandFailureException)) {
+			latency = Math.max(latency, timeout);
+		}
+		latencyTracker.record(uri, latency);
+	}
+
+	/**
+	 * Calculates timeout of the request: adaptive timeout of the URI (if enabled), bounded by the time left until the deadline of the current operation.
+	 *
+	 * @param uri request URI
+	 * @return request timeout, in milliseconds
+	 * @throws TimeoutException if the deadline has already passed, so the request must not be sent
+	 */
+	private long requestTimeout(String uri) throws TimeoutException {
+		long timeout = adaptiveTimeouts ? latencyTracker.timeout(uri, getTimeout()) : getTimeout();
+		return withinDeadline(timeout, uri);
+	}
+
+	/**
+	 * Bounds timeout by the time left until the deadline of the current operation.
+	 *
+	 * @param timeout timeout, in milliseconds
+	 * @param request request (URI or lock) the timeout is for, used in the error message
+	 * @return bounded timeout, in milliseconds
+	 * @throws TimeoutException if the deadline has already passed
+	 */
+	private long withinDeadline(long timeout, String request) throws TimeoutException {
+		Deadline deadline = Deadline.current();
+		if (deadline == null) {
+			return timeout;
+		}
+		long remaining = deadline.remaining();
+		if (remaining <= 0) {
+			throw new TimeoutException("Deadline passed, " + request + " of device " + host + " is discarded");
+		}
+		return Math.min(timeout, remaining);
+	}
+
+	/**
+	 * Acquires {@link #apiLock}, waiting no longer than the deadline of the current operation allows.
+	 *
+	 * @throws TimeoutException if the deadline passes before the lock is acquired
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void acquireApiLock() throws TimeoutException, InterruptedException {
+		if (Deadline.current() == null) {
+			apiLock.lock();
+			return;
+		}
+		if (!apiLock.tryLock(withinDeadline(Long.MAX_VALUE, "API lock wait"), TimeUnit.MILLISECONDS)) {
+			throw new TimeoutException("Deadline passed while waiting for API lock of device " + host);
+		}
+	}
+
+	/**
+	 * Retrieves transport created on init, falling back to the blocking transport if adapter was not initialized.
+	 *
+	 * @return transport
 	 */
-	private JsonNode retrieveStatus() throws Exception {
-		return doGet(STATUS_URI, JsonNode.class);
+	private TrioTransport obtainTransport() {
+		TrioTransport current = transport;
+		return current != null ? current : new RestTemplateTransport();
 	}
 
 	/**
-	 * Request transfer type status of the device
-	 * @return {@link JsonNode} containing the response payload
+	 * Creates transport according to {@code httpTransport} property.
 	 *
-	 * @throws Exception if any communication error occurs
+	 * @return transport
+	 * @throws Exception if transport cannot be created
 	 */
-	private JsonNode retrieveTransferType() throws Exception {
-		return doGet(TRANSFER_TYPE_URI, JsonNode.class);
+	private TrioTransport createTransport() throws Exception {
+		if (!HTTP_TRANSPORT_NIO.equalsIgnoreCase(httpTransport)) {
+			return new RestTemplateTransport();
+		}
+		AuthenticationScheme scheme = getAuthenticationScheme();
+		if (scheme != AuthenticationScheme.Basic && scheme != AuthenticationScheme.None) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("NIO transport does not support " + scheme + " authentication, using blocking transport for device " + host);
+			}
+			return new RestTemplateTransport();
+		}
+		ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return new NioHttpTransport(host, getPort(), !"http".equalsIgnoreCase(getProtocol()), getBaseUri(),
+				scheme == AuthenticationScheme.Basic ? getLogin() : null, getPassword(), getTimeout(), objectMapper);
 	}
 
 	/**
-	 * Request to reboot the device
+	 * {@inheritDoc}
 	 *
-	 * @throws Exception if any communication error occurs
+	 * The template of {@link RestCommunicator} has the timeouts of its HTTP client fixed when the client is created, it is replaced by a template with the
+	 * same message converters and interceptors executing requests through {@link TimeoutRequestFactory}, so requests of the blocking transport time out
+	 * after their own (adaptive, deadline bounded) timeout.
 	 */
-	private void restartDevice() throws Exception {
-		doPost(RESTART_URI, null);
+	@Override
+	protected RestTemplate obtainRestTemplate() throws Exception {
+		synchronized (restTemplateLock) {
+			RestTemplate restTemplate = super.obtainRestTemplate();
+			if (timeoutRestTemplate == null || restTemplate != replacedRestTemplate) {
+				RestTemplate replacement = new RestTemplate(restTemplate.getMessageConverters());
+				replacement.setInterceptors(restTemplate.getInterceptors());
+				// obtaining the client makes RestCommunicator build a new template, it is the one replaced from now on
+				HttpClient httpClient = obtainHttpClient(false);
+				replacement.setRequestFactory(new TimeoutRequestFactory(httpClient, getAuthenticationScheme() == AuthenticationScheme.Basic
+						&& StringUtils.isNotNullOrEmpty(getLogin()) ? new HttpHost(host, getPort(), getProtocol()) : null));
+				timeoutRestTemplate = replacement;
+				replacedRestTemplate = super.obtainRestTemplate();
+			}
+			return timeoutRestTemplate;
+		}
 	}
 
 	/**
-	 * Request to reboot the device
-	 *
-	 * @throws Exception if any communication error occurs
+	 * Transport delegating to the blocking {@code RestTemplate} based implementation of {@link RestCommunicator}, with the timeout of every request applied by
+	 * {@link TimeoutRequestFactory}.
 	 */
-	private void rebootDevice() throws Exception {
-		doPost(REBOOT_URI, null);
+	private class RestTemplateTransport implements TrioTransport {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T get(String uri, Type responseType, long timeout) throws Exception {
+			return TimeoutRequestFactory.call(timeout, () -> {
+				if (responseType instanceof Class) {
+					return doGet(uri, (Class<T>) responseType);
+				}
+				return doGet(uri, ParameterizedTypeReference.<T>forType(responseType));
+			});
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T post(String uri, Object request, Type responseType, long timeout) throws Exception {
+			return TimeoutRequestFactory.call(timeout, () -> {
+				if (responseType == null) {
+					if (request == null) {
+						doPost(uri, (String) null);
+					} else {
+						doPost(uri, request);
+					}
+					return null;
+				}
+				if (responseType instanceof Class) {
+					return doPost(uri, request, (Class<T>) responseType);
+				}
+				return doPost(uri, request, ParameterizedTypeReference.<T>forType(responseType));
+			});
+		}
+
+		@Override
+		public void close() {
+			// RestTemplate is owned by RestCommunicator
+		}
 	}
 
 	/**
@@ -634,8 +2866,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	private String normalizeDeviceUptime (String rawUptime) {
 		StringBuilder uptime = new StringBuilder();
-		Pattern pattern = Pattern.compile("(\\d+)\\sday[s]?\\s(\\d+):(\\d+):(\\d+)", Pattern.CASE_INSENSITIVE);
-		Matcher matcher = pattern.matcher(rawUptime);
+		Matcher matcher = UPTIME_PATTERN.matcher(rawUptime);
 		if (matcher.find()) {
 			uptime.append(matcher.group(1)).append(" day(s) ")
 					.append(matcher.group(2)).append(" hour(s) ")
@@ -655,59 +2886,62 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	@Override
 	public void hangup(String callId) throws Exception {
-		/*
-		 Description:
-		 This API ends an active call.
-
-		 Method: POST
-		 Path: /api/v1/callctrl/endCall
-		 Input JSON:
-		 {
-		   "data": {
-		     "Ref": "<CALL_REFERENCE>" // Mandatory
-		   }
-		 }
-
-		Success Response:
-		{
-		  "Status": 2000
-		}
+		Deadline.run(controlDeadline, () -> {
+			/*
+			 Description:
+			 This API ends an active call.
+
+			 Method: POST
+			 Path: /api/v1/callctrl/endCall
+			 Input JSON:
+			 {
+			   "data": {
+			     "Ref": "<CALL_REFERENCE>" // Mandatory
+			   }
+			 }
+
+			Success Response:
+			{
+			  "Status": 2000
+			}
 
-		Failure Response:
-		{
-			"Status": <4xxx/5xxx>
-		}
+			Failure Response:
+			{
+				"Status": <4xxx/5xxx>
+			}
 
-		Applicable return codes 2000, 4000, 4003, 4007, 5000
-		*/
+			Applicable return codes 2000, 4000, 4003, 4007, 5000
+			*/
 
-		if (StringUtils.isNullOrEmpty(callId)) {
-			// retrieve call id from the device
-			Map<String, ?> callStatusData = retrieveRawCallStatusData();
-			if (callStatusData != null) {
-				callId = (String) callStatusData.get(CALL_HANDLE);
-			}
+			String ref = callId;
+			if (StringUtils.isNullOrEmpty(ref)) {
+				// retrieve call id from the call state, or the device if the state is not fresh
+				Map<String, ?> callStatusData = resolveCallStatusData();
+				if (callStatusData != null) {
+					ref = (String) callStatusData.get(CALL_HANDLE);
+				}
 
-			if (StringUtils.isNullOrEmpty(callId)) {
-				// no call reported from the device - nothing to disconnect
-				return;
+				if (StringUtils.isNullOrEmpty(ref)) {
+					// no call reported from the device - nothing to disconnect
+					return;
+				}
 			}
-		}
 
-		Map<String, String> data = new HashMap<>(1, 1);
-		data.put(REF, callId);
+			byte[] body = CommandEncoder.endCall(ref);
 
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doPost(END_CALL_URI, new Message<>(data), Message.class);
-		} finally {
-			apiLock.unlock();
-		}
+			// all API calls must be synchronized (see comments to apiLock)
+			String status;
+			acquireApiLock();
+			try {
+				status = executeCommand(END_CALL_URI, body);
+			} finally {
+				apiLock.unlock();
+			}
 
-		// Ignoring 4007 status that indicates that device is already in a call
-		checkResponseStatus(response.getStatus(), END_CALL_URI, STATUS_4007_NOT_IN_CALL);
+			// Ignoring 4007 status that indicates that device is already in a call
+			checkResponseStatus(status, END_CALL_URI, STATUS_4007_NOT_IN_CALL);
+			callStateModel.onHangup(StringUtils.isNullOrEmpty(callId) ? null : ref, System.currentTimeMillis());
+		});
 	}
 
 	/**
@@ -715,45 +2949,49 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	@Override
 	public void mute() throws Exception {
-		/*
-		 Description:
-		 This API enables a user to mute the phone
-
-		 Method: POST
-		 Path: /api/v1/callctrl/mute
-		 Input JSON:
-		 {
-		   "data": {
-		     "state": "1" // Mandatory
-		   }
-		 }
-
-		 Success Response:
-		 {
-		   "Status": 2000
-		 }
-
-		 Failure Response:
-		 {
-		 	"Status": <4xxx/5xxx>
-		 }
-
-		 Applicable return codes 2000, 4000, 4003, 4007, 5000
-		 */
-
-		Map<String, String> data = new HashMap<>(1, 1);
-		data.put(STATE, "1");
-
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doPost(MUTE_URI, new Message<>(data), Message.class);
-		} finally {
-			apiLock.unlock();
-		}
+		Deadline.run(controlDeadline, () -> {
+			/*
+			 Description:
+			 This API enables a user to mute the phone
+
+			 Method: POST
+			 Path: /api/v1/callctrl/mute
+			 Input JSON:
+			 {
+			   "data": {
+			     "state": "1" // Mandatory
+			   }
+			 }
+
+			 Success Response:
+			 {
+			   "Status": 2000
+			 }
+
+			 Failure Response:
+			 {
+			 	"Status": <4xxx/5xxx>
+			 }
+
+			 Applicable return codes 2000, 4000, 4003, 4007, 5000
+			 */
+
+			// all API calls must be synchronized (see comments to apiLock)
+			String status;
+			acquireApiLock();
+			try {
+				status = executeCommand(MUTE_URI, CommandEncoder.MUTE);
+			} catch (Exception e) {
+				// command may or may not have reached the device
+				muteStateModel.invalidate();
+				throw e;
+			} finally {
+				apiLock.unlock();
+			}
 
-		checkResponseStatus(response.getStatus(), MUTE_URI);
+			checkResponseStatus(status, MUTE_URI);
+			muteStateModel.update(MuteStatus.Muted, callStateModel.getCallHandle(), System.currentTimeMillis());
+		});
 	}
 
 	/**
@@ -761,60 +2999,62 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	@Override
 	public CallStatus retrieveCallStatus(String callId) throws Exception {
-		/*
-		Method: GET
-		Path: /api/v1/webCallControl/callStatus
-		Success Response:
-		{
-		  "data": {
-		    "CallHandle": "0xb53e57c0",
-		    "Type": "Incoming",
-		    "Protocol": "Auto",
-		    "CallState": "Connected",
-		    "LineId": "1",
-		    "RemotePartyName": "nh-sx80@nh.vnoc1.com",
-		    "RemotePartyNumber": "nh-sx80",
-		    "DurationInSeconds": "308"
-		  },
-		  "Status": "2000"
-		}
+		return Deadline.call(controlDeadline, () -> {
+			/*
+			Method: GET
+			Path: /api/v1/webCallControl/callStatus
+			Success Response:
+			{
+			  "data": {
+			    "CallHandle": "0xb53e57c0",
+			    "Type": "Incoming",
+			    "Protocol": "Auto",
+			    "CallState": "Connected",
+			    "LineId": "1",
+			    "RemotePartyName": "nh-sx80@nh.vnoc1.com",
+			    "RemotePartyNumber": "nh-sx80",
+			    "DurationInSeconds": "308"
+			  },
+			  "Status": "2000"
+			}
 
-		Failure Response:
-		{
-			“Status": <4xxx/5xxx>
-		}
+			Failure Response:
+			{
+				“Status": <4xxx/5xxx>
+			}
 
-		Applicable return codes: 2000, 4007, 5000
-		*/
+			Applicable return codes: 2000, 4007, 5000
+			*/
 
-		CallStatus callStatus = new CallStatus();
-		Map<String, ?> callStatusData = retrieveRawCallStatusData();
-		if (callStatusData != null) {
-			String callState = (String) callStatusData.get(CALL_STATE);
-			if (callState != null && callState.equalsIgnoreCase(CONNECTED)) {
-				String callIdFromCallStats = (String) callStatusData.get(CALL_HANDLE);
-				if (callId != null) {
-					// asked for specific call id, need to compare it with the one from call status
-					if (!StringUtils.isNullOrEmpty(callIdFromCallStats) && callIdFromCallStats.equalsIgnoreCase(callId)) {
+			CallStatus callStatus = new CallStatus();
+			Map<String, ?> callStatusData = resolveCallStatusData();
+			if (callStatusData != null) {
+				String callState = (String) callStatusData.get(CALL_STATE);
+				if (callState != null && callState.equalsIgnoreCase(CONNECTED)) {
+					String callIdFromCallStats = (String) callStatusData.get(CALL_HANDLE);
+					if (callId != null) {
+						// asked for specific call id, need to compare it with the one from call status
+						if (!StringUtils.isNullOrEmpty(callIdFromCallStats) && callIdFromCallStats.equalsIgnoreCase(callId)) {
+							callStatus.setCallId(callIdFromCallStats);
+							callStatus.setCallStatusState(CallStatusState.Connected);
+						} else {
+							// not our call
+							callStatus.setCallStatusState(CallStatusState.Disconnected);
+						}
+					} else {
+						// specific call id is not asked, return status of currently connected call
 						callStatus.setCallId(callIdFromCallStats);
 						callStatus.setCallStatusState(CallStatusState.Connected);
-					} else {
-						// not our call
-						callStatus.setCallStatusState(CallStatusState.Disconnected);
 					}
 				} else {
-					// specific call id is not asked, return status of currently connected call
-					callStatus.setCallId(callIdFromCallStats);
-					callStatus.setCallStatusState(CallStatusState.Connected);
+					callStatus.setCallStatusState(CallStatusState.Disconnected);
 				}
 			} else {
 				callStatus.setCallStatusState(CallStatusState.Disconnected);
 			}
-		} else {
-			callStatus.setCallStatusState(CallStatusState.Disconnected);
-		}
 
-		return callStatus;
+			return callStatus;
+		});
 	}
 
 	/**
@@ -822,55 +3062,71 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	@Override
 	public MuteStatus retrieveMuteStatus() throws Exception {
-		/*
-		 Description:
-		 This API retrieves mute status by extracting value of PhoneMuteState from response
-
-		 Method: GET
-		 Path: /api/v1/mgmt/media/communicationInfo
-		 Success Response:
-		 {
-		   "data": {
-		     "CommunicationType": [
-		       "RxTx",
-		       "RxTx",
-		       "RxTx"
-		     ],
-		     "FarEndMuteState": [],
-		     "PhoneMuteState": "False"
-		   },
-		   "Status": "2000"
-		 }
-
-		 Failure Response:
-		 {
-		 	“Status": <4xxx/5xxx>
-		 }
-
-		 Applicable return codes: 2000, 4007, 5000
-		*/
-
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doGet(COMMUNICATION_INFO_URI, Message.class);
-		} finally {
-			apiLock.unlock();
-		}
+		return Deadline.call(controlDeadline, () -> {
+			/*
+			 Description:
+			 This API retrieves mute status by extracting value of PhoneMuteState from response
+
+			 Method: GET
+			 Path: /api/v1/mgmt/media/communicationInfo
+			 Success Response:
+			 {
+			   "data": {
+			     "CommunicationType": [
+			       "RxTx",
+			       "RxTx",
+			       "RxTx"
+			     ],
+			     "FarEndMuteState": [],
+			     "PhoneMuteState": "False"
+			   },
+			   "Status": "2000"
+			 }
+
+			 Failure Response:
+			 {
+			 	“Status": <4xxx/5xxx>
+			 }
+
+			 Applicable return codes: 2000, 4007, 5000
+			*/
+
+			// all API calls must be synchronized (see comments to apiLock)
+			Message<?> response;
+			acquireApiLock();
+			try {
+				response = executeGet(COMMUNICATION_INFO_URI, Message.class);
+			} finally {
+				apiLock.unlock();
+			}
 
-		checkResponseStatus(response.getStatus(), COMMUNICATION_INFO_URI);
+			checkResponseStatus(response.getStatus(), COMMUNICATION_INFO_URI);
 
-		Map<String, ?> data = response.getData();
-		String phoneMuteState = (String) data.get(PHONE_MUTE_STATE);
-		if (!StringUtils.isNullOrEmpty(phoneMuteState, true)) {
-			if (phoneMuteState.equalsIgnoreCase("True")) {
-				return MuteStatus.Muted;
-			} else if (phoneMuteState.equalsIgnoreCase("False")) {
-				return MuteStatus.Unmuted;
+			Map<String, ?> data = response.getData();
+			String phoneMuteState = (String) data.get(PHONE_MUTE_STATE);
+			MuteStatus muteStatus = null;
+			if (!StringUtils.isNullOrEmpty(phoneMuteState, true)) {
+				if (phoneMuteState.equalsIgnoreCase("True")) {
+					muteStatus = MuteStatus.Muted;
+				} else if (phoneMuteState.equalsIgnoreCase("False")) {
+					muteStatus = MuteStatus.Unmuted;
+				}
 			}
-		}
-		return null;
+			muteStateModel.update(muteStatus, callStateModel.getCallHandle(), System.currentTimeMillis());
+			return muteStatus;
+		});
+	}
+
+	/**
+	 * Provides mute status of the device from the mute state model if it is fresh (see {@code muteStateReconcileInterval}), otherwise retrieves it with
+	 * {@link #retrieveMuteStatus()}.
+	 *
+	 * @return mute status, or {@code null} if it cannot be determined
+	 * @throws Exception if any error occurs
+	 */
+	private MuteStatus resolveMuteStatus() throws Exception {
+		MuteStatus muteStatus = muteStateModel.get(callStateModel.getCallHandle(), muteStateReconcileInterval, System.currentTimeMillis());
+		return muteStatus != null ? muteStatus : retrieveMuteStatus();
 	}
 
 	/**
@@ -908,11 +3164,17 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 		Applicable return codes: 2000, 4007, 5000
 		*/
 
+		// firmware version is reported by device info section of every poll, use it while it is fresh
+		String cachedVersion = firmwareVersion;
+		if (cachedVersion != null && System.currentTimeMillis() - firmwareVersionTimestamp < staticSectionsRefreshInterval()) {
+			return new Version(cachedVersion);
+		}
+
 		// all API calls must be synchronized (see comments to apiLock)
 		Message<?> response;
-		apiLock.lock();
+		acquireApiLock();
 		try {
-			response = doGet(VERSION_INFO_URI, Message.class);
+			response = executeGet(VERSION_INFO_URI, Message.class);
 		} finally {
 			apiLock.unlock();
 		}
@@ -920,7 +3182,11 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 		String status = response.getStatus();
 		checkResponseStatus(status, VERSION_INFO_URI, STATUS_4007_NOT_IN_CALL);
 
-		return parseVersionData(response.getData());
+		Version version = parseVersionData(response.getData());
+		if (version != null) {
+			updateFirmwareVersion(version.getVersion(), System.currentTimeMillis());
+		}
+		return version;
 	}
 
 	/**
@@ -937,45 +3203,49 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	@Override
 	public void unmute() throws Exception {
-		/*
-		 Description:
-		 This API enables a user to unmute the phone
-
-		 Method: POST
-		 Path: /api/v1/callctrl/mute
-		 Input JSON:
-		 {
-		   "data": {
-		     "state": "0" // Mandatory
-		   }
-		 }
-
-		 Success Response:
-		 {
-		   "Status": 2000
-		 }
-
-		 Failure Response:
-		 {
-		 	"Status": <4xxx/5xxx>
-		 }
-
-		 Applicable return codes 2000, 4000, 4003, 4007, 5000
-		 */
-
-		Map<String, String> data = new HashMap<>(1, 1);
-		data.put(STATE, "0");
-
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doPost(MUTE_URI, new Message<>(data), Message.class);
-		} finally {
-			apiLock.unlock();
-		}
+		Deadline.run(controlDeadline, () -> {
+			/*
+			 Description:
+			 This API enables a user to unmute the phone
+
+			 Method: POST
+			 Path: /api/v1/callctrl/mute
+			 Input JSON:
+			 {
+			   "data": {
+			     "state": "0" // Mandatory
+			   }
+			 }
+
+			 Success Response:
+			 {
+			   "Status": 2000
+			 }
+
+			 Failure Response:
+			 {
+			 	"Status": <4xxx/5xxx>
+			 }
+
+			 Applicable return codes 2000, 4000, 4003, 4007, 5000
+			 */
+
+			// all API calls must be synchronized (see comments to apiLock)
+			String status;
+			acquireApiLock();
+			try {
+				status = executeCommand(MUTE_URI, CommandEncoder.UNMUTE);
+			} catch (Exception e) {
+				// command may or may not have reached the device
+				muteStateModel.invalidate();
+				throw e;
+			} finally {
+				apiLock.unlock();
+			}
 
-		checkResponseStatus(response.getStatus(), MUTE_URI);
+			checkResponseStatus(status, MUTE_URI);
+			muteStateModel.update(MuteStatus.Unmuted, callStateModel.getCallHandle(), System.currentTimeMillis());
+		});
 	}
 
 	/**
@@ -989,7 +3259,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	/**
 	 * Reports whether device supports retrieving in-call statistics. <br>
 	 * PolycomTrio supports retrieving in-call statistics starting with firmware version 5.8. If such call is made to older versions, device will freeze and
-	 * require reboot.
+	 * require reboot. The version gate is an entry of {@link #capabilityMatrix}.
 	 *
 	 * @return {@code true} if device supports retrieving in-call statistics, {@code false} otherwise
 	 * @throws Exception if any error occurs
@@ -997,24 +3267,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 */
 	protected boolean canRetrieveInCallStats() throws Exception {
 		Version version = retrieveSoftwareVersion();
-		if (null != version) {
-			Integer major = version.getMajor();
-			if (null != major) {
-				int value = major.intValue();
-				if (value > 5) {
-					return true;
-				}
-
-				if (value == 5) {
-					Integer minor = version.getMinor();
-					if (null != minor && minor.intValue() >= 8) {
-						return true;
-					}
-				}
-			}
-		}
-
-		return false;
+		return capabilityMatrix.isSupported(SESSION_STATS_URI, null != version ? version.getVersion() : null);
 	}
 
 	/**
@@ -1037,8 +3290,19 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * @throws Exception if any error occurs
 	 */
 	Integer determineVideoCallRateFromConfig() throws Exception {
+		long now = System.currentTimeMillis();
+		if (null != videoCallRate && now - videoCallRateTimestamp < staticSectionsRefreshInterval()) {
+			return videoCallRate;
+		}
+
 		ConfigPropertyWrapper propertyWrapper = retrieveConfigData(singletonList(VIDEO_CALLRATE)).get(VIDEO_CALLRATE);
-		return null != propertyWrapper ? StringUtils.convertToInteger(propertyWrapper.getValue()) : null;
+		Integer callRate = null != propertyWrapper ? StringUtils.convertToInteger(propertyWrapper.getValue()) : null;
+		if (null != callRate) {
+			videoCallRate = callRate;
+			videoCallRateTimestamp = now;
+			persistState(STATE_CONFIG, singletonMap(VIDEO_CALLRATE, callRate.toString()), now);
+		}
+		return callRate;
 	}
 
 	/**
@@ -1176,6 +3440,8 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 			endpointStatistics.setRegistrationStatus(registrationStatus);
 		}
 
+		linesByNumber = MediaSessionIndex.indexBy(stream, LINE_NUMBER);
+
 		// get call statistics
 		CallStats callStats = retrieveCallStats();
 		if (callStats != null) {
@@ -1187,6 +3453,7 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 			}
 		} else {
 			endpointStatistics.setInCall(false);
+			clearCallQuality();
 		}
 		return endpointStatistics;
 	}
@@ -1201,100 +3468,248 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	void parseInCallStats(EndpointStatistics endpointStatistics, List<Map<String, ?>> mediaSessions) throws Exception {
 		if (!mediaSessions.isEmpty()) {
 			final CallStats callStats = endpointStatistics.getCallStats();
-			final String callId = callStats.getCallId();
-			AudioChannelStats audioChannelStats = null;
-			VideoChannelStats videoChannelStats = null;
-			Integer requestedCallRate = null;
-			for (Map<String, ?> mediaSession : mediaSessions) {
-				// in case if there are multiple media sessions returned, we need to match media session reference to call id
-				// example: one call is connected, another one is on hold - two media sessions returned
-				if (callId.equals(mediaSession.get(REF))) {
-					Integer expectedAudioPackets = null;
-					Integer expectedVideoPackets = null;
-					@SuppressWarnings("unchecked")
-					List<Map<String, ?>> streams = (List<Map<String, ?>>) mediaSession.get(STREAMS);
-					if (streams != null && !streams.isEmpty()) {
-						for (Map<String, ?> stream : streams) {
-							String category = (String) stream.get(CATEGORY);
-							// it has some number in front, not clear what it is, index or identifier
-							// "Category": "0:Voice",
-							// to be safe, compare only suffix
-							if (category.endsWith(VOICE)) {
-								audioChannelStats = parseAudioChannelStats(stream);
-
-								// we will need this for calculating percent packet loss below
-								String packetsExpected = (String) stream.get(PACKETS_EXPECTED);
-								if (!StringUtils.isNullOrEmpty(packetsExpected)) {
-									expectedAudioPackets = StringUtils.convertToInteger(packetsExpected);
-								}
-
-								// add mute status
-								MuteStatus muteStatus = retrieveMuteStatus();
-								if (null != muteStatus) {
-									audioChannelStats.setMuteTx(muteStatus == MuteStatus.Muted ? Boolean.TRUE : Boolean.FALSE);
-								}
-
-								if (videoChannelStats != null) {
-									// both audio and video statistics are collected, ignore rest of the streams (if any)
-									break;
-								}
-							} else if (category.endsWith(VIDEO)) {
-								VideoChannelStatsWrapper videoChannelStatsWrapper = parseVideoChannelStats(stream);
-								videoChannelStats = videoChannelStatsWrapper.videoChannelStats;
-
-								if (null != videoChannelStats) {
-									requestedCallRate = videoChannelStatsWrapper.requestedCallRate;
-
-									// there is a bug in Polycom Trio 5.8 API which reports crazy value for requested video rate
-									// to fix it, override the value with one retrieved from device config
-									// TODO if future versions of Polycom Trio API returns correct values, this call can be removed
-									if (null == requestedCallRate) {
-										requestedCallRate = determineVideoCallRateFromConfig();
-									}
-
-									// we will need this for calculating percent packet loss below
-									String packetsExpected = (String) stream.get(PACKETS_EXPECTED);
-									if (!StringUtils.isNullOrEmpty(packetsExpected)) {
-										expectedVideoPackets = StringUtils.convertToInteger(packetsExpected);
-									}
-								}
-
-								if (audioChannelStats != null) {
-									// both audio and video statistics are collected, ignore rest of the streams (if any)
-									break;
-								}
-							}
-						}
+			MediaSessionIndex sessionIndex = new MediaSessionIndex(mediaSessions);
+			callQualityTracker.beginPoll();
+			audioStreamKey = null;
+			videoStreamKey = null;
+			sessionStatistics.clear();
+			long now = System.currentTimeMillis();
+
+			// in case if there are multiple media sessions returned, media session reference is matched to call id
+			// example: one call is connected, another one is on hold - two media sessions returned
+			MediaSessionIndex.Session callSession = sessionIndex.get(callStats.getCallId());
+			if (callSession != null && callSession.hasStreams) {
+				Integer expectedAudioPackets = null;
+				Integer expectedVideoPackets = null;
+				AudioChannelStats audioChannelStats = null;
+				VideoChannelStats videoChannelStats = null;
+				Map<String, ?> audioStream = callSession.audioStream;
+				Map<String, ?> videoStream = null;
+				Integer requestedCallRate = null;
+
+				if (null != audioStream) {
+					audioChannelStats = parseAudioChannelStats(audioStream);
+
+					// we will need this for calculating percent packet loss below
+					String packetsExpected = (String) audioStream.get(PACKETS_EXPECTED);
+					if (!StringUtils.isNullOrEmpty(packetsExpected)) {
+						expectedAudioPackets = StringUtils.convertToInteger(packetsExpected);
+					}
 
-						// calculate call rates and packet loss percentage and set them into the callStats
+					// add mute status
+					MuteStatus muteStatus = resolveMuteStatus();
+					if (null != muteStatus) {
+						audioChannelStats.setMuteTx(muteStatus == MuteStatus.Muted ? Boolean.TRUE : Boolean.FALSE);
+					}
+				}
+				if (null != callSession.videoStream) {
+					VideoChannelStatsWrapper videoChannelStatsWrapper = parseVideoChannelStats(callSession.videoStream);
+					videoChannelStats = videoChannelStatsWrapper.videoChannelStats;
+
+					if (null != videoChannelStats) {
+						requestedCallRate = videoChannelStatsWrapper.requestedCallRate;
+						videoStream = callSession.videoStream;
+
+						// there is a bug in Polycom Trio 5.8 API which reports crazy value for requested video rate
+						// to fix it, override the value with one retrieved from device config
+						// TODO if future versions of Polycom Trio API returns correct values, this call can be removed
+						if (null == requestedCallRate) {
+							requestedCallRate = determineVideoCallRateFromConfig();
+						}
 
-						// Polycom VVX (as some other endpoints) only report bit rates for video
-						if (null != videoChannelStats) {
-							callStats.setCallRateRx(videoChannelStats.getBitRateRx());
-							callStats.setCallRateTx(videoChannelStats.getBitRateTx());
-							callStats.setRequestedCallRate(requestedCallRate);
+						// we will need this for calculating percent packet loss below
+						String packetsExpected = (String) videoStream.get(PACKETS_EXPECTED);
+						if (!StringUtils.isNullOrEmpty(packetsExpected)) {
+							expectedVideoPackets = StringUtils.convertToInteger(packetsExpected);
 						}
+					}
+				}
 
-						callStats.setPercentPacketLossRx(
-								StatisticsUtils.calculatePacketLossPercentage(null != audioChannelStats ? audioChannelStats.getPacketLossRx() : null,
-										null != videoChannelStats ? videoChannelStats.getPacketLossRx() : null, expectedAudioPackets, expectedVideoPackets));
+				// calculate call rates and packet loss percentage and set them into the callStats
 
-						endpointStatistics.setCallStats(callStats);
-						endpointStatistics.setAudioChannelStats(audioChannelStats);
-						endpointStatistics.setVideoChannelStats(videoChannelStats);
-					}
+				// Polycom VVX (as some other endpoints) only report bit rates for video
+				if (null != videoChannelStats) {
+					callStats.setCallRateRx(videoChannelStats.getBitRateRx());
+					callStats.setCallRateTx(videoChannelStats.getBitRateTx());
+					callStats.setRequestedCallRate(requestedCallRate);
+				}
 
-					// we matched this media session to call id, no need to continue
-					break;
+				// packet loss percentage is calculated for the last poll interval, not since the call start,
+				// otherwise loss burst late in a long call is diluted to nearly zero
+				CallQualityTracker.StreamSamples audioSamples = null;
+				CallQualityTracker.StreamSamples videoSamples = null;
+				if (null != audioStream) {
+					audioStreamKey = streamKey(audioStream);
+					audioSamples = callQualityTracker.update(audioStreamKey, audioStream, now);
+					applyIntervalStats(audioChannelStats, audioSamples, true);
+				}
+				if (null != videoStream) {
+					videoStreamKey = streamKey(videoStream);
+					videoSamples = callQualityTracker.update(videoStreamKey, videoStream, now);
+					applyIntervalStats(videoChannelStats, videoSamples, false);
 				}
+
+				callStats.setPercentPacketLossRx(StatisticsUtils.calculatePacketLossPercentage(
+						null != audioSamples ? Integer.valueOf((int) audioSamples.intervalPacketsLost) : null,
+						null != videoSamples ? Integer.valueOf((int) videoSamples.intervalPacketsLost) : null,
+						null != audioSamples ? Integer.valueOf((int) audioSamples.intervalPacketsExpected) : expectedAudioPackets,
+						null != videoSamples ? Integer.valueOf((int) videoSamples.intervalPacketsExpected) : expectedVideoPackets));
+				Integer audioPacketLoss = null != audioChannelStats ? audioChannelStats.getPacketLossRx() : null;
+				Integer videoPacketLoss = null != videoChannelStats ? videoChannelStats.getPacketLossRx() : null;
+				if (null != audioPacketLoss || null != videoPacketLoss) {
+					callStats.setTotalPacketLossRx((null != audioPacketLoss ? audioPacketLoss : 0) + (null != videoPacketLoss ? videoPacketLoss : 0));
+				}
+
+				endpointStatistics.setCallStats(callStats);
+				endpointStatistics.setAudioChannelStats(audioChannelStats);
+				endpointStatistics.setVideoChannelStats(videoChannelStats);
+
+				putSessionStatistics(callSession, audioChannelStats, audioSamples, videoChannelStats, videoSamples);
+			}
+
+			// rest of the sessions (held calls, bridged conference legs) are reported as extended properties
+			for (MediaSessionIndex.Session session : sessionIndex.sessions()) {
+				if (session != callSession && session.hasStreams) {
+					parseSessionStats(session, now);
+				}
+			}
+			if (!sessionStatistics.isEmpty()) {
+				sessionStatistics.put(MEDIA_SESSIONS_COUNT, String.valueOf(sessionIndex.sessions().size()));
 			}
+			callQualityTracker.endPoll();
 		} else {
 			// not in call anymore
 			endpointStatistics.setInCall(false);
 			endpointStatistics.setCallStats(null);
+			clearCallQuality();
+		}
+	}
+
+	/**
+	 * Parses statistics of a media session other than the one of the call reported by {@code callStatus} into {@link #sessionStatistics}. <br>
+	 * Unlike the session of the reported call, no device calls are made for these sessions (mute status and requested call rate are not reported).
+	 *
+	 * @param session media session
+	 * @param now poll timestamp
+	 * @throws Exception if any error occurs
+	 */
+	private void parseSessionStats(MediaSessionIndex.Session session, long now) throws Exception {
+		AudioChannelStats audioChannelStats = null;
+		CallQualityTracker.StreamSamples audioSamples = null;
+		if (null != session.audioStream) {
+			audioChannelStats = parseAudioChannelStats(session.audioStream);
+			audioSamples = callQualityTracker.update(streamKey(session.audioStream), session.audioStream, now);
+			applyIntervalStats(audioChannelStats, audioSamples, true);
+		}
+		VideoChannelStats videoChannelStats = null;
+		CallQualityTracker.StreamSamples videoSamples = null;
+		if (null != session.videoStream) {
+			videoChannelStats = parseVideoChannelStats(session.videoStream).videoChannelStats;
+			if (null != videoChannelStats) {
+				videoSamples = callQualityTracker.update(streamKey(session.videoStream), session.videoStream, now);
+				applyIntervalStats(videoChannelStats, videoSamples, false);
+			}
+		}
+		putSessionStatistics(session, audioChannelStats, audioSamples, videoChannelStats, videoSamples);
+	}
+
+	/**
+	 * Puts extended properties of the media session into {@link #sessionStatistics}. Call state, remote party and line of the session are joined by call
+	 * handle from the {@code callStatus} and {@code lineInfo} data of the current poll, when the device reports them.
+	 *
+	 * @param session media session
+	 * @param audioChannelStats audio statistics of the session, may be {@code null}
+	 * @param audioSamples audio stream samples, may be {@code null}
+	 * @param videoChannelStats video statistics of the session, may be {@code null}
+	 * @param videoSamples video stream samples, may be {@code null}
+	 */
+	private void putSessionStatistics(MediaSessionIndex.Session session, AudioChannelStats audioChannelStats, CallQualityTracker.StreamSamples audioSamples,
+			VideoChannelStats videoChannelStats, CallQualityTracker.StreamSamples videoSamples) {
+		String prefix = MEDIA_SESSION_GROUP + session.ref + "#";
+		Map<String, ?> call = callsByHandle.get(session.ref);
+		if (call != null) {
+			putSessionProperty(prefix + "CallState", call.get(CALL_STATE));
+			putSessionProperty(prefix + "RemotePartyNumber", call.get(REMOTE_PARTY_NUMBER));
+			Object lineId = call.get(LINE_ID);
+			Map<String, ?> line = lineId != null ? linesByNumber.get(lineId.toString()) : null;
+			putSessionProperty(prefix + "Line", line != null ? line.get(SIP_ADDRESS) : lineId);
+		}
+		if (null != audioChannelStats) {
+			putSessionProperty(prefix + "AudioCodec", audioChannelStats.getCodec());
+			putSessionProperty(prefix + "AudioPacketLoss", audioChannelStats.getPacketLossRx());
+			putSessionProperty(prefix + "AudioJitter(ms)", audioChannelStats.getJitterRx());
+			if (null != audioSamples) {
+				putSample(sessionStatistics, prefix + "AudioPacketLossInterval(%)", audioSamples.intervalPacketLossPercent);
+			}
+		}
+		if (null != videoChannelStats) {
+			putSessionProperty(prefix + "VideoCodec", videoChannelStats.getCodec());
+			putSessionProperty(prefix + "VideoBitRateRx(kbps)", videoChannelStats.getBitRateRx());
+			putSessionProperty(prefix + "VideoBitRateTx(kbps)", videoChannelStats.getBitRateTx());
+			putSessionProperty(prefix + "VideoFrameSizeRx", videoChannelStats.getFrameSizeRx());
+			putSessionProperty(prefix + "VideoPacketLoss", videoChannelStats.getPacketLossRx());
+			if (null != videoSamples) {
+				putSample(sessionStatistics, prefix + "VideoPacketLossInterval(%)", videoSamples.intervalPacketLossPercent);
+			}
+		}
+	}
+
+	/**
+	 * Puts media session property into {@link #sessionStatistics}, unless the value is not available
+	 *
+	 * @param name property name
+	 * @param value property value, may be {@code null}
+	 */
+	private void putSessionProperty(String name, Object value) {
+		if (value != null) {
+			sessionStatistics.put(name, value.toString());
+		}
+	}
+
+	/**
+	 * Builds key of the stream in {@link #callQualityTracker}. <br>
+	 * Stream reference alone is not used as a key since some firmware versions report the same reference for audio and video streams.
+	 *
+	 * @param stream stream data
+	 * @return stream key
+	 */
+	private static String streamKey(Map<String, ?> stream) {
+		return stream.get(REF) + "/" + stream.get(CATEGORY);
+	}
+
+	/**
+	 * Sets interval values calculated from the stream samples into the channel statistics
+	 *
+	 * @param channelStats channel statistics to update
+	 * @param samples stream samples
+	 * @param applyBitRates whether to set bit rates calculated from octet counters (audio streams do not report bit rates)
+	 */
+	private static void applyIntervalStats(ChannelStats channelStats, CallQualityTracker.StreamSamples samples, boolean applyBitRates) {
+		if (!Float.isNaN(samples.intervalPacketLossPercent)) {
+			channelStats.setPercentPacketLossRx(samples.intervalPacketLossPercent);
+		}
+		if (applyBitRates || channelStats.getBitRateRx() == null) {
+			if (samples.bitRateRx >= 0) {
+				channelStats.setBitRateRx(samples.bitRateRx);
+			}
+		}
+		if (applyBitRates || channelStats.getBitRateTx() == null) {
+			if (samples.bitRateTx >= 0) {
+				channelStats.setBitRateTx(samples.bitRateTx);
+			}
 		}
 	}
 
+	/**
+	 * Forgets samples of the previous call
+	 */
+	private void clearCallQuality() {
+		callQualityTracker.clear();
+		sessionStatistics.clear();
+		audioStreamKey = null;
+		videoStreamKey = null;
+	}
+
 	/**
 	 * Response from device for version is returned as a map (data param). We query it for the specific firmware relase key and set value of that entry to the
 	 * version return object
@@ -1591,9 +4006,9 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 
 		// all API calls must be synchronized (see comments to apiLock)
 		ListMessage listResponse;
-		apiLock.lock();
+		acquireApiLock();
 		try {
-			listResponse = doGet(SESSION_STATS_URI, ListMessage.class);
+			listResponse = executeGet(SESSION_STATS_URI, ListMessage.class);
 		} finally {
 			apiLock.unlock();
 		}
@@ -1639,23 +4054,19 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 		Applicable return codes: 2000, 4007, 5000
 		*/
 
-		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
-		try {
-			response = doGet(CALL_STATUS_URI, Message.class);
-		} finally {
-			apiLock.unlock();
-		}
-
-		String status = response.getStatus();
-		checkResponseStatus(status, CALL_STATUS_URI, STATUS_4007_NOT_IN_CALL);
-
-		if (status.equals(STATUS_4007_NOT_IN_CALL)) {
-			return null;
+		Map<String, ?> callStatusData = resolveCallStatusData();
+		if (callStatusData != null) {
+			Map<String, Map<String, ?>> calls = MediaSessionIndex.indexBy(callStatusEntries, CALL_HANDLE);
+			// call state model may be newer than the last response (e.g. pushed events)
+			Object callHandle = callStatusData.get(CALL_HANDLE);
+			if (callHandle != null) {
+				calls.put(callHandle.toString(), callStatusData);
+			}
+			callsByHandle = calls;
 		} else {
-			return parseCallStatsData(response.getData());
+			callsByHandle = Collections.emptyMap();
 		}
+		return callStatusData != null ? parseCallStatsData(callStatusData) : null;
 	}
 
 	/**
@@ -1703,10 +4114,10 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 
 		// all API calls must be synchronized (see comments to apiLock)
 		Message<ConfigPropertyWrapper> response;
-		apiLock.lock();
+		acquireApiLock();
 		try {
-			response = doPost(GET_CONFIG_URI, data, new ParameterizedTypeReference<Message<ConfigPropertyWrapper>>() {
-			});
+			response = executePost(GET_CONFIG_URI, data, new ParameterizedTypeReference<Message<ConfigPropertyWrapper>>() {
+			}.getType());
 		} finally {
 			apiLock.unlock();
 		}
@@ -1721,6 +4132,8 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 	 * <br>
 	 * if device returns "4007 Call Does Not Exist" response, or a "CallState" other than "Connected" or "OnHold", this method will return {@code null}
 	 *
+	 * When the device is in several calls at once, all of them are kept in {@link #callStatusEntries} and the first connected one is returned.
+	 *
 	 * @return instance of {@link CallStats} object with only the {@code callId} and {@code remoteAddress} properties, or {@code null} if device not in call
 	 * @throws Exception if any error occurs
 	 */
@@ -1751,18 +4164,81 @@ public class PolycomTrio extends RestCommunicator implements CallController, Mon
 		Applicable return codes: 2000, 4007, 5000
 		*/
 
+		// transitions made while the request is in flight (e.g. pushed events) are newer than its response
+		long version = callStateModel.getVersion();
+
 		// all API calls must be synchronized (see comments to apiLock)
-		Message<?> response;
-		apiLock.lock();
+		JsonNode response;
+		acquireApiLock();
 		try {
-			response = doGet(CALL_STATUS_URI, Message.class);
+			response = executeGet(CALL_STATUS_URI, JsonNode.class);
 		} finally {
 			apiLock.unlock();
 		}
 
-		String status = response.getStatus();
+		String status = response.path("Status").asText();
 		checkResponseStatus(status, CALL_STATUS_URI, STATUS_4007_NOT_IN_CALL);
-		return response.getData();
+
+		List<Map<String, ?>> entries = status.equals(STATUS_4007_NOT_IN_CALL) ? Collections.emptyList() : parseCallStatusEntries(response.get(DATA));
+		callStatusEntries = entries;
+		Map<String, ?> data = entries.isEmpty() ? null : selectCall(entries);
+		if (!callStateModel.reconcile(data, System.currentTimeMillis(), version)) {
+			return callStateModel.toCallStatusData();
+		}
+		return data;
+	}
+
+	/**
+	 * Parses {@code callStatus} response data into call entries. Firmware reports a single call as an object, and several simultaneous calls (e.g. one call
+	 * connected while another one is on hold) as a list of objects.
+	 *
+	 * @param data {@code data} of the response, may be {@code null}
+	 * @return call entries, in the order of the response
+	 */
+	static List<Map<String, ?>> parseCallStatusEntries(JsonNode data) {
+		if (data == null || !(data.isObject() || data.isArray())) {
+			return Collections.emptyList();
+		}
+		List<Map<String, ?>> entries = new ArrayList<>(data.isArray() ? data.size() : 1);
+		for (JsonNode call : data.isArray() ? data : singletonList(data)) {
+			if (!call.isObject()) {
+				continue;
+			}
+			Map<String, String> entry = new LinkedHashMap<>(16);
+			call.fields().forEachRemaining(field -> entry.put(field.getKey(), field.getValue().isValueNode() ? field.getValue().asText() : field.getValue().toString()));
+			entries.add(entry);
+		}
+		return entries;
+	}
+
+	/**
+	 * Selects the call tracked by the call state model among simultaneous calls: the first connected call, or the first call if none is connected.
+	 *
+	 * @param entries call entries, not empty
+	 * @return selected call
+	 */
+	private static Map<String, ?> selectCall(List<Map<String, ?>> entries) {
+		for (Map<String, ?> entry : entries) {
+			if (CONNECTED.equalsIgnoreCase(String.valueOf(entry.get(CALL_STATE)))) {
+				return entry;
+			}
+		}
+		return entries.get(0);
+	}
+
+	/**
+	 * Provides call status data of the device. If the call state model is fresh (reconciled within {@code callStatusReconcileInterval} when call state
+	 * changes are pushed by the device, within a few seconds otherwise), data is answered from memory, otherwise
+	 * "api/v1/webCallControl/callStatus" API call is made.
+	 *
+	 * @return call status data, or {@code null} if device is not in call
+	 * @throws Exception if any error occurs
+	 */
+	private Map<String, ?> resolveCallStatusData() throws Exception {
+		if (isCallStateFresh(System.currentTimeMillis())) {
+			return callStateModel.toCallStatusData();
+		}
+		return retrieveRawCallStatusData();
 	}
 }
 
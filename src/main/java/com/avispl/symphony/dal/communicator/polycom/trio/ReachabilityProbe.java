@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.icmp4j.IcmpPingResponse;
+import org.icmp4j.IcmpPingUtil;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cheap reachability check of a device, made before the HTTPS requests of a monitoring sweep so a device which is down costs a sub-second probe rather than
+ * a series of HTTP timeouts. <br>
+ * The device is probed with an ICMP echo (icmp4j) and, if there is no echo reply (ICMP is often filtered, or not available to the process), with a TCP
+ * connect to its HTTPS port; a refused connection still proves the device is up. Results are cached for every host and port, shared by all adapter instances
+ * of the same device. Whenever a device needs probing, all registered devices with stale results are probed with it in one parallel batch, so a sweep over
+ * the whole fleet finds their results ready.
+ *
+ * @since 1.0.2
+ */
+class ReachabilityProbe {
+
+	private static final Log logger = LogFactory.getLog(ReachabilityProbe.class);
+
+	private static final int ICMP_PACKET_SIZE = 32;
+	private static final int MAX_PARALLEL_PROBES = 16;
+
+	private static final Map<String, ReachabilityProbe> probes = new HashMap<>();
+	private static final ThreadPoolExecutor executor;
+	// icmp4j needs the ping tool or native ICMP support, it is not tried again once it failed for a reason other than timeout
+	static volatile boolean icmpAvailable = true;
+
+	static {
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(MAX_PARALLEL_PROBES, MAX_PARALLEL_PROBES, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "PolycomTrio reachability " + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	private final String host;
+	private final int port;
+	private final String key;
+	private volatile int timeout;
+	private volatile long cacheTtl;
+	private volatile boolean reachable = true;
+	private volatile long checkedAt;
+	private CompletableFuture<Boolean> pending;
+	private int references;
+
+	private ReachabilityProbe(String host, int port, String key) {
+		this.host = host;
+		this.port = port;
+		this.key = key;
+	}
+
+	/**
+	 * Registers device for reachability checks, sharing the probe of the same host and port with other adapter instances.
+	 *
+	 * @param host device host
+	 * @param port TCP port to connect to if there is no ICMP echo reply
+	 * @param timeout timeout of each probe, in milliseconds
+	 * @param cacheTtl time a probe result is reused for, in milliseconds
+	 * @return probe of the device
+	 */
+	static ReachabilityProbe register(String host, int port, int timeout, long cacheTtl) {
+		String key = host + ":" + port;
+		synchronized (probes) {
+			ReachabilityProbe probe = probes.get(key);
+			if (probe == null) {
+				probe = new ReachabilityProbe(host, port, key);
+				probes.put(key, probe);
+			}
+			probe.references++;
+			probe.timeout = timeout;
+			probe.cacheTtl = cacheTtl;
+			return probe;
+		}
+	}
+
+	/**
+	 * Unregisters device, dropping its probe if no more adapter instances use it.
+	 */
+	void unregister() {
+		synchronized (probes) {
+			if (--references <= 0) {
+				probes.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Reports whether the device is reachable, probing it (and all other registered devices with stale results) if the cached result is stale.
+	 *
+	 * @return {@code true} if the device is reachable
+	 * @throws InterruptedException if interrupted while waiting for the probe
+	 */
+	boolean isReachable() throws InterruptedException {
+		long now = System.currentTimeMillis();
+		if (now - checkedAt < cacheTtl) {
+			return reachable;
+		}
+
+		CompletableFuture<Boolean> probe = refresh();
+		probeStale(now);
+		try {
+			// ICMP echo and TCP connect, each bounded by the timeout
+			return probe.get(2L * timeout + 500L, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to check reachability of device " + key + ", assuming it is reachable", e);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Starts probes of all registered devices whose results are stale.
+	 *
+	 * @param now current time
+	 */
+	private static void probeStale(long now) {
+		synchronized (probes) {
+			for (ReachabilityProbe probe : probes.values()) {
+				if (now - probe.checkedAt >= probe.cacheTtl) {
+					probe.refresh();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts probe of the device, unless one is in progress already.
+	 *
+	 * @return result of the probe
+	 */
+	private synchronized CompletableFuture<Boolean> refresh() {
+		if (pending == null || pending.isDone()) {
+			pending = CompletableFuture.supplyAsync(this::probe, executor);
+		}
+		return pending;
+	}
+
+	/**
+	 * Probes the device and caches the result.
+	 *
+	 * @return {@code true} if the device is reachable
+	 */
+	private boolean probe() {
+		long start = System.nanoTime();
+		boolean result = echo() || connect();
+		reachable = result;
+		checkedAt = System.currentTimeMillis();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Device " + key + " is " + (result ? "reachable" : "not reachable") + ", probed in "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		}
+		return result;
+	}
+
+	private boolean echo() {
+		if (!icmpAvailable) {
+			return false;
+		}
+		try {
+			IcmpPingResponse response = IcmpPingUtil.executePingRequest(host, ICMP_PACKET_SIZE, timeout);
+			if (response.getSuccessFlag()) {
+				return true;
+			}
+			if (!response.getTimeoutFlag() && response.getThrowable() != null) {
+				disableIcmp(response.getThrowable());
+			}
+		} catch (RuntimeException | LinkageError e) {
+			disableIcmp(e);
+		}
+		return false;
+	}
+
+	private boolean connect() {
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(host, port), timeout);
+			return true;
+		} catch (ConnectException e) {
+			// connection refused by the device itself, it is up; a connect which timed out is not a refusal
+			return !(e.getCause() instanceof SocketTimeoutException);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static void disableIcmp(Throwable cause) {
+		icmpAvailable = false;
+		if (logger.isInfoEnabled()) {
+			logger.info("ICMP echo is not available, devices are only probed with TCP connect: " + cause);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known properties of every statistics section (device info, network info, running config etc.) of a single device, along with the time they were
+ * retrieved at and their hash, so unchanged sections can be detected cheaply.
+ *
+ * @since 1.0.2
+ */
+class SectionCache {
+
+	/**
+	 * Immutable properties of a single section.
+	 */
+	static final class Section {
+		final Map<String, String> properties;
+		final long timestamp;
+		final int hash;
+
+		Section(Map<String, String> properties, long timestamp) {
+			this.properties = Collections.unmodifiableMap(properties);
+			this.timestamp = timestamp;
+			this.hash = properties.hashCode();
+		}
+
+		/**
+		 * Reports whether section was retrieved less than {@code maxAge} milliseconds ago.
+		 *
+		 * @param maxAge max age of the section, in milliseconds
+		 * @param now current time
+		 * @return {@code true} if section is fresh, {@code false} otherwise
+		 */
+		boolean isFresh(long maxAge, long now) {
+			return now - timestamp < maxAge;
+		}
+	}
+
+	private final Map<String, Section> sections = new ConcurrentHashMap<>();
+
+	/**
+	 * Retrieves section.
+	 *
+	 * @param name section name
+	 * @return section, or {@code null} if the section was never retrieved
+	 */
+	Section get(String name) {
+		return sections.get(name);
+	}
+
+	/**
+	 * Stores section properties.
+	 *
+	 * @param name section name
+	 * @param properties section properties, the map must not be modified afterwards
+	 * @param timestamp time the properties were retrieved at
+	 * @return stored section
+	 */
+	Section put(String name, Map<String, String> properties, long timestamp) {
+		Section section = new Section(properties, timestamp);
+		sections.put(name, section);
+		return section;
+	}
+
+	/**
+	 * Drops section, so it is retrieved from the device on the next poll.
+	 *
+	 * @param name section name
+	 */
+	void invalidate(String name) {
+		sections.remove(name);
+	}
+
+	/**
+	 * Drops all sections.
+	 */
+	void invalidateAll() {
+		sections.clear();
+	}
+
+	/**
+	 * Retrieves all sections.
+	 *
+	 * @return unmodifiable view of all sections, by section name
+	 */
+	Map<String, Section> getAll() {
+		return Collections.unmodifiableMap(sections);
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the network counters behind the {@code NetworkInfo#*} properties over SNMP v2c, as a cheaper alternative to the {@code network/stats} REST
+ * call. <br>
+ * Every collection is a single GETBULK request: {@code sysUpTime} as non-repeater, and the packet counter columns of {@code ifTable} (with
+ * {@code ifType}, so loopback interfaces are left out of the totals) as repeaters. All devices share one SNMP session with one UDP socket: requests are sent
+ * without blocking the caller and responses of the whole fleet are dispatched by the single listener thread of the session. <br>
+ * The {@code ifTable} columns are {@code Counter32} objects, so a sum of them does not wrap at 2^32 and cannot be unwrapped by the caller. Every interface
+ * counter is unwrapped on its own instead, while {@code sysUpTime} proves the device did not restart, and the reported totals are sums of the unwrapped
+ * counters. <br>
+ * A device which does not answer SNMP would cost the SNMP timeout on every poll, so after a failed request the device is not asked again for a backoff
+ * period, doubling with every consecutive failure.
+ *
+ * @since 1.0.2
+ */
+class SnmpNetworkCollector {
+
+	private static final Log logger = LogFactory.getLog(SnmpNetworkCollector.class);
+
+	// NetworkInfo properties, same as the ones mapped from network/stats
+	static final String RECEIVED_PACKETS = "NetworkInfo#ReceivedPackets";
+	static final String TRANSMITTED_PACKETS = "NetworkInfo#TransmittedPackets";
+	static final String UPTIME = "NetworkInfo#Uptime";
+
+	// SNMPv2-MIB and IF-MIB objects
+	static final OID SYS_UP_TIME = new OID("1.3.6.1.2.1.1.3");
+	static final OID IF_TYPE = new OID("1.3.6.1.2.1.2.2.1.3");
+	static final OID IF_IN_UCAST_PKTS = new OID("1.3.6.1.2.1.2.2.1.11");
+	static final OID IF_IN_NUCAST_PKTS = new OID("1.3.6.1.2.1.2.2.1.12");
+	static final OID IF_OUT_UCAST_PKTS = new OID("1.3.6.1.2.1.2.2.1.17");
+	static final OID IF_OUT_NUCAST_PKTS = new OID("1.3.6.1.2.1.2.2.1.18");
+	private static final OID[] COLUMNS = {IF_TYPE, IF_IN_UCAST_PKTS, IF_IN_NUCAST_PKTS, IF_OUT_UCAST_PKTS, IF_OUT_NUCAST_PKTS};
+
+	private static final int IF_TYPE_SOFTWARE_LOOPBACK = 24;
+	// phones have a handful of interfaces (ethernet, PC port, loopback, wifi)
+	private static final int MAX_REPETITIONS = 8;
+	private static final int RETRIES = 1;
+	private static final long COUNTER_32_RANGE = 0x1_0000_0000L;
+	private static final long MIN_BACKOFF = TimeUnit.MINUTES.toMillis(1);
+	private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(30);
+
+	private static Snmp session;
+	private static int references;
+
+	private final String host;
+	private final int port;
+	private final OctetString community;
+	private final long timeout;
+	private boolean registered = true;
+
+	// ifIndex -> {last ifIn*, last ifOut*, unwrapped ifIn*, unwrapped ifOut*}, guarded by this
+	private final Map<Integer, long[]> interfaces = new HashMap<>(MAX_REPETITIONS * 2);
+	// sysUpTime of the last response, in milliseconds, -1 if unknown
+	private long lastUptime = -1;
+	private long backoff;
+	private volatile long backoffUntil;
+
+	private SnmpNetworkCollector(String host, int port, String community, long timeout) {
+		this.host = host;
+		this.port = port;
+		this.community = new OctetString(community);
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Registers device for SNMP collection, opening the shared SNMP session if needed.
+	 *
+	 * @param host device host
+	 * @param port SNMP agent port of the device
+	 * @param community SNMP v2c read community
+	 * @param timeout timeout of a request attempt, in milliseconds
+	 * @return collector of the device
+	 * @throws IOException if SNMP session cannot be opened
+	 */
+	static SnmpNetworkCollector register(String host, int port, String community, long timeout) throws IOException {
+		synchronized (SnmpNetworkCollector.class) {
+			if (session == null) {
+				Snmp snmp = new Snmp(new DefaultUdpTransportMapping());
+				snmp.listen();
+				session = snmp;
+			}
+			references++;
+			return new SnmpNetworkCollector(host, port, community, timeout);
+		}
+	}
+
+	/**
+	 * Unregisters device, closing the shared SNMP session if no more devices use it.
+	 */
+	void unregister() {
+		synchronized (SnmpNetworkCollector.class) {
+			if (!registered) {
+				return;
+			}
+			registered = false;
+			if (--references <= 0 && session != null) {
+				try {
+					session.close();
+				} catch (IOException e) {
+					logger.warn("Unable to close SNMP session", e);
+				}
+				session = null;
+			}
+		}
+	}
+
+	/**
+	 * Reports whether the device is not asked over SNMP after failed requests.
+	 *
+	 * @param now current time, in milliseconds
+	 * @return {@code true} if the network counters have to be retrieved some other way
+	 */
+	boolean isBackedOff(long now) {
+		return now < backoffUntil;
+	}
+
+	/**
+	 * Sends GETBULK request for the network counters of the device.
+	 *
+	 * @return {@code NetworkInfo#*} properties, completed by the listener thread of the session once the device responds
+	 */
+	CompletableFuture<Map<String, String>> collect() {
+		CompletableFuture<Map<String, String>> result = new CompletableFuture<>();
+		try {
+			Snmp snmp;
+			synchronized (SnmpNetworkCollector.class) {
+				snmp = session;
+			}
+			if (snmp == null) {
+				throw new IOException("SNMP session is closed");
+			}
+
+			CommunityTarget<UdpAddress> target = new CommunityTarget<>(new UdpAddress(InetAddress.getByName(host), port), community);
+			target.setVersion(SnmpConstants.version2c);
+			target.setTimeout(timeout);
+			target.setRetries(RETRIES);
+
+			PDU pdu = new PDU();
+			pdu.setType(PDU.GETBULK);
+			pdu.setNonRepeaters(1);
+			pdu.setMaxRepetitions(MAX_REPETITIONS);
+			pdu.add(new VariableBinding(SYS_UP_TIME));
+			for (OID column : COLUMNS) {
+				pdu.add(new VariableBinding(column));
+			}
+
+			snmp.send(pdu, target, null, new ResponseListener() {
+				@Override
+				public <A extends Address> void onResponse(ResponseEvent<A> event) {
+					// the request must be cancelled, otherwise it is kept until timeout and retried
+					((Snmp) event.getSource()).cancel(event.getRequest(), this);
+					PDU response = event.getResponse();
+					if (event.getError() != null) {
+						fail(result, event.getError());
+					} else if (response == null) {
+						fail(result, new IOException("SNMP request to " + host + ":" + port + " timed out"));
+					} else if (response.getErrorStatus() != PDU.noError) {
+						fail(result, new IOException("SNMP request to " + host + ":" + port + " failed: " + response.getErrorStatusText()));
+					} else {
+						result.complete(parse(response.getVariableBindings()));
+					}
+				}
+			});
+		} catch (IOException | RuntimeException e) {
+			fail(result, e);
+		}
+		return result;
+	}
+
+	/**
+	 * Fails the collection, and backs off from asking the device again.
+	 *
+	 * @param result result of the collection
+	 * @param cause cause of the failure
+	 */
+	private void fail(CompletableFuture<Map<String, String>> result, Exception cause) {
+		long period;
+		synchronized (this) {
+			backoff = backoff == 0 ? MIN_BACKOFF : Math.min(backoff * 2, MAX_BACKOFF);
+			backoffUntil = System.currentTimeMillis() + backoff;
+			period = backoff;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("SNMP request to " + host + ":" + port + " failed, not asking the device again for " + period + " ms");
+		}
+		result.completeExceptionally(cause);
+	}
+
+	/**
+	 * Maximum time the response to {@link #collect()} can take, including retries.
+	 *
+	 * @return time, in milliseconds
+	 */
+	long getMaxResponseTime() {
+		return timeout * (RETRIES + 1);
+	}
+
+	/**
+	 * Parses GETBULK response into {@code NetworkInfo#*} properties, unwrapping the counters of every interface.
+	 *
+	 * @param bindings response variable bindings
+	 * @return network properties
+	 */
+	synchronized Map<String, String> parse(List<? extends VariableBinding> bindings) {
+		backoff = 0;
+		backoffUntil = 0;
+		Map<String, String> properties = new HashMap<>(4);
+		long uptime = -1;
+		// ifIndex -> {ifType, ifInUcastPkts, ifInNUcastPkts, ifOutUcastPkts, ifOutNUcastPkts}
+		Map<Integer, long[]> rows = new HashMap<>(MAX_REPETITIONS * 2);
+		for (VariableBinding binding : bindings) {
+			OID oid = binding.getOid();
+			Variable variable = binding.getVariable();
+			if (variable.isException()) {
+				// end of MIB view, or object not supported
+				continue;
+			}
+			if (oid.startsWith(SYS_UP_TIME) && variable instanceof TimeTicks) {
+				uptime = ((TimeTicks) variable).toMilliseconds();
+				properties.put(UPTIME, formatUptime(uptime));
+				continue;
+			}
+			for (int column = 0; column < COLUMNS.length; column++) {
+				if (oid.size() == COLUMNS[column].size() + 1 && oid.startsWith(COLUMNS[column])) {
+					long[] row = rows.computeIfAbsent(oid.last(), index -> new long[COLUMNS.length]);
+					row[column] = variable.toLong();
+					break;
+				}
+			}
+		}
+
+		// counters of a device which restarted (or whose uptime is not known) are not unwrapped, they start new baselines
+		boolean restartExcluded = uptime >= 0 && lastUptime >= 0 && uptime >= lastUptime;
+		if (!restartExcluded) {
+			interfaces.clear();
+		}
+		lastUptime = uptime;
+
+		if (!rows.isEmpty()) {
+			long received = 0;
+			long transmitted = 0;
+			for (Map.Entry<Integer, long[]> row : rows.entrySet()) {
+				long[] values = row.getValue();
+				if (values[0] != IF_TYPE_SOFTWARE_LOOPBACK) {
+					long[] counters = interfaces.computeIfAbsent(row.getKey(), index -> new long[]{-1, -1, 0, 0});
+					received += unwrap(counters, 0, (values[1] + values[2]) % COUNTER_32_RANGE);
+					transmitted += unwrap(counters, 1, (values[3] + values[4]) % COUNTER_32_RANGE);
+				}
+			}
+			// interfaces which disappeared are not tracked any longer
+			interfaces.keySet().retainAll(rows.keySet());
+			properties.put(RECEIVED_PACKETS, String.valueOf(received));
+			properties.put(TRANSMITTED_PACKETS, String.valueOf(transmitted));
+		}
+		return properties;
+	}
+
+	/**
+	 * Unwraps 32-bit packet count of an interface. Unicast and non-unicast counts of the interface are summed modulo 2^32 before, so the sum wraps the same
+	 * way as each of them.
+	 *
+	 * @param counters last and unwrapped counts of the interface
+	 * @param direction {@code 0} for received, {@code 1} for transmitted packets
+	 * @param value current 32-bit count
+	 * @return unwrapped count
+	 */
+	private static long unwrap(long[] counters, int direction, long value) {
+		long last = counters[direction];
+		if (last < 0) {
+			counters[direction + 2] = value;
+		} else {
+			long delta = value - last;
+			counters[direction + 2] += delta < 0 ? delta + COUNTER_32_RANGE : delta;
+		}
+		counters[direction] = value;
+		return counters[direction + 2];
+	}
+
+	/**
+	 * Formats uptime the same way as {@code network/stats} reports it, e.g. {@code 0 day 0:34:33}
+	 *
+	 * @param uptime uptime, in milliseconds
+	 * @return formatted uptime
+	 */
+	private static String formatUptime(long uptime) {
+		long seconds = TimeUnit.MILLISECONDS.toSeconds(uptime);
+		return String.format("%d day %d:%02d:%02d", seconds / 86400, seconds / 3600 % 24, seconds / 60 % 60, seconds % 60);
+	}
+}
@@ -0,0 +1,573 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.dal.aggregator.parser.PropertiesMapping;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports statistics of every monitoring sweep to a local file or a TCP socket, in a compact binary format for analytics. <br>
+ * The stream starts with a header (magic {@code TSTX}, version, device host) and the dictionary of property names, seeded with the names from
+ * {@code model-mapping.yml}; names are referenced by their dictionary id afterwards, and names first seen in a later sweep are added to the dictionary
+ * before the sample using them. Values are typed: integers are written as zigzag varints, decimals as floats (doubles if they have more than 6 significant
+ * digits), and other text as an index into the enumeration of values of the property, defined when the value is first seen. Properties with more than
+ * {@value #MAX_ENUM_VALUES} distinct values are written as plain strings; strings are length-prefixed UTF-8. {@link Reader} decodes the stream. <br>
+ * Samples are written on a dedicated daemon thread, so the sweep never waits for I/O; samples arriving while {@value #QUEUE_CAPACITY} others are waiting are
+ * dropped. A socket is connected lazily and reconnected after failures, starting a new stream with a new header and dictionary. A file which cannot be
+ * written stops the export.
+ *
+ * @since 1.0.2
+ */
+class StatisticsExporter implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(StatisticsExporter.class);
+
+	// "TSTX"
+	static final int MAGIC = 0x54535458;
+	static final int VERSION = 2;
+
+	// record types
+	static final byte DICTIONARY = 1;
+	static final byte ENUM_VALUE = 2;
+	static final byte SAMPLE = 3;
+
+	// value tags
+	static final byte INT = 0;
+	static final byte FLOAT = 1;
+	static final byte DOUBLE = 2;
+	static final byte ENUM = 3;
+	static final byte STRING = 4;
+
+	static final int MAX_ENUM_VALUES = 256;
+	static final int QUEUE_CAPACITY = 16;
+	private static final int CONNECT_TIMEOUT = 5000;
+	private static final long RECONNECT_DELAY = 10000L;
+	private static final String TCP = "tcp://";
+	// more significant digits than this do not survive the float round trip
+	private static final int FLOAT_DIGITS = 6;
+	// more digits than this may overflow long
+	private static final int MAX_INT_DIGITS = 18;
+
+	/**
+	 * Decoded sample.
+	 */
+	static final class Sample {
+		final long timestamp;
+		final Map<String, Object> values;
+
+		Sample(long timestamp, Map<String, Object> values) {
+			this.timestamp = timestamp;
+			this.values = values;
+		}
+	}
+
+	private final String host;
+	private final Collection<String> names;
+	private final Path file;
+	private final InetSocketAddress address;
+	private final ThreadPoolExecutor executor;
+	private final AtomicLong dropped = new AtomicLong();
+
+	// state of the stream, confined to the writer thread
+	private DataOutputStream out;
+	private Socket socket;
+	private boolean headerWritten;
+	private boolean failed;
+	private long nextConnect;
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final Map<String, Map<String, Integer>> enums = new HashMap<>();
+	private final ByteArrayOutputStream sampleBuffer = new ByteArrayOutputStream(4096);
+	private final DataOutputStream sample = new DataOutputStream(sampleBuffer);
+
+	private StatisticsExporter(String host, Collection<String> names, Path file, InetSocketAddress address) {
+		this.host = host;
+		this.names = names;
+		this.file = file;
+		this.address = address;
+		executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+			Thread thread = new Thread(r, "PolycomTrio exporter " + host);
+			thread.setDaemon(true);
+			return thread;
+		}, (r, e) -> dropped.incrementAndGet());
+	}
+
+	/**
+	 * Creates exporter of the device statistics.
+	 *
+	 * @param target {@code tcp://<host>:<port>} to send samples to a socket, or a file to write samples to (replaced if it exists)
+	 * @param host device host, written to the stream header
+	 * @param names names of the initial dictionary
+	 * @return exporter
+	 * @throws IOException if the file cannot be created
+	 * @throws IllegalArgumentException if the socket address is malformed
+	 */
+	static StatisticsExporter open(String target, String host, Collection<String> names) throws IOException {
+		if (target.startsWith(TCP)) {
+			String authority = target.substring(TCP.length());
+			int separator = authority.lastIndexOf(':');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Export target " + target + " has no port");
+			}
+			InetSocketAddress address = new InetSocketAddress(authority.substring(0, separator), Integer.parseInt(authority.substring(separator + 1)));
+			return new StatisticsExporter(host, names, null, address);
+		}
+
+		Path file = Paths.get(target);
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		StatisticsExporter exporter = new StatisticsExporter(host, names, file, null);
+		// file is created right away, so a wrong path is reported on init rather than by the writer thread
+		exporter.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+		return exporter;
+	}
+
+	/**
+	 * Queues sample for export.
+	 *
+	 * @param timestamp time of the sample
+	 * @param statistics statistics of the sample, copied before this method returns
+	 */
+	void export(long timestamp, Map<String, String> statistics) {
+		Map<String, String> copy = new HashMap<>(statistics);
+		executor.execute(() -> write(timestamp, copy));
+	}
+
+	/**
+	 * Retrieves number of samples which were not exported, because the writer thread fell behind or the target failed.
+	 *
+	 * @return number of dropped samples
+	 */
+	long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Writes queued samples and closes the stream.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		closeStream();
+	}
+
+	private void write(long timestamp, Map<String, String> statistics) {
+		if (failed) {
+			return;
+		}
+		try {
+			if (out == null) {
+				if (file != null || System.currentTimeMillis() < nextConnect) {
+					dropped.incrementAndGet();
+					return;
+				}
+				connect();
+			}
+			if (!headerWritten) {
+				writeHeader();
+				headerWritten = true;
+			}
+			writeSample(timestamp, statistics);
+			out.flush();
+		} catch (IOException e) {
+			if (file != null) {
+				// unlike a socket, a file does not recover by reopening it (disk full, permissions), retrying would only repeat the warning
+				logger.warn("Unable to write statistics export " + file + ", export is stopped", e);
+				failed = true;
+			} else {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Unable to send statistics of device " + host + " to " + address + ", reconnecting in " + RECONNECT_DELAY + " ms", e);
+				}
+				nextConnect = System.currentTimeMillis() + RECONNECT_DELAY;
+			}
+			dropped.incrementAndGet();
+			closeStream();
+		}
+	}
+
+	private void connect() throws IOException {
+		Socket connected = new Socket();
+		try {
+			connected.connect(address, CONNECT_TIMEOUT);
+			connected.setTcpNoDelay(true);
+			out = new DataOutputStream(new BufferedOutputStream(connected.getOutputStream()));
+		} catch (IOException e) {
+			connected.close();
+			throw e;
+		}
+		socket = connected;
+	}
+
+	private void closeStream() {
+		// new stream starts from scratch, with a header and a full dictionary
+		headerWritten = false;
+		ids.clear();
+		enums.clear();
+		try {
+			if (out != null) {
+				out.close();
+			}
+			if (socket != null) {
+				socket.close();
+			}
+		} catch (IOException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to close statistics export of device " + host, e);
+			}
+		}
+		out = null;
+		socket = null;
+	}
+
+	private void writeHeader() throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		writeString(out, host);
+		out.writeByte(DICTIONARY);
+		writeVarInt(out, names.size());
+		for (String name : names) {
+			int id = ids.size();
+			ids.put(name, id);
+			writeVarInt(out, id);
+			writeString(out, name);
+		}
+	}
+
+	private void writeSample(long timestamp, Map<String, String> statistics) throws IOException {
+		sampleBuffer.reset();
+		int count = 0;
+		for (Map.Entry<String, String> property : statistics.entrySet()) {
+			String value = property.getValue();
+			if (value == null) {
+				continue;
+			}
+			writeVarInt(sample, id(property.getKey()));
+			writeValue(property.getKey(), value);
+			count++;
+		}
+		// dictionary and enumeration records the sample refers to are already written
+		out.writeByte(SAMPLE);
+		out.writeLong(timestamp);
+		writeVarInt(out, count);
+		sampleBuffer.writeTo(out);
+	}
+
+	private int id(String name) throws IOException {
+		Integer id = ids.get(name);
+		if (id == null) {
+			id = ids.size();
+			ids.put(name, id);
+			out.writeByte(DICTIONARY);
+			writeVarInt(out, 1);
+			writeVarInt(out, id);
+			writeString(out, name);
+		}
+		return id;
+	}
+
+	private void writeValue(String name, String value) throws IOException {
+		int digits = countDigits(value);
+		if (digits > 0) {
+			if (value.indexOf('.') < 0) {
+				sample.writeByte(INT);
+				writeVarLong(sample, zigzag(Long.parseLong(value)));
+			} else if (digits <= FLOAT_DIGITS) {
+				sample.writeByte(FLOAT);
+				sample.writeFloat(Float.parseFloat(value));
+			} else {
+				sample.writeByte(DOUBLE);
+				sample.writeDouble(Double.parseDouble(value));
+			}
+			return;
+		}
+
+		Map<String, Integer> values = enums.computeIfAbsent(name, key -> new HashMap<>());
+		Integer index = values.get(value);
+		if (index == null) {
+			if (values.size() >= MAX_ENUM_VALUES) {
+				sample.writeByte(STRING);
+				writeString(sample, value);
+				return;
+			}
+			index = values.size();
+			values.put(value, index);
+			out.writeByte(ENUM_VALUE);
+			writeVarInt(out, ids.get(name));
+			writeVarInt(out, index);
+			writeString(out, value);
+		}
+		sample.writeByte(ENUM);
+		writeVarInt(sample, index);
+	}
+
+	/**
+	 * Counts significant digits of a plain decimal number ({@code -12}, {@code 0.25}), which is written as a number.
+	 *
+	 * @param value value
+	 * @return number of significant digits, {@code 0} if the value is not a plain decimal number (e.g. {@code 007}, {@code 1.2.3}, {@code 1e5}), or does not
+	 * fit a long
+	 */
+	private static int countDigits(String value) {
+		int start = value.startsWith("-") ? 1 : 0;
+		int length = value.length();
+		if (start == length) {
+			return 0;
+		}
+		int digits = 0;
+		int point = -1;
+		boolean significant = false;
+		for (int i = start; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '.') {
+				if (point >= 0 || i == start || i == length - 1) {
+					return 0;
+				}
+				point = i;
+			} else if (c >= '0' && c <= '9') {
+				if (c != '0' || significant) {
+					significant = true;
+					digits++;
+				}
+			} else {
+				return 0;
+			}
+		}
+		boolean leadingZero = value.charAt(start) == '0' && length - start > 1 && value.charAt(start + 1) != '.';
+		if (leadingZero || (point < 0 && length - start > MAX_INT_DIGITS)) {
+			// leading zeros are part of the text (e.g. a phone number)
+			return 0;
+		}
+		return Math.max(digits, 1);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		writeVarLong(out, value & 0xFFFFFFFFL);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * Writes string as its UTF-8 bytes prefixed with their varint length, as {@link DataOutputStream#writeUTF(String)} fails on strings over 64 KB.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		long length = readVarLong(in);
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Malformed string length " + length);
+		}
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Decoder of an exported stream.
+	 */
+	static final class Reader implements Closeable {
+		private final DataInputStream in;
+		private final String host;
+		private final List<String> dictionary = new ArrayList<>();
+		private final Map<Integer, List<String>> enums = new HashMap<>();
+
+		/**
+		 * Reader constructor, reads the stream header.
+		 *
+		 * @param in exported stream
+		 * @throws IOException if the stream cannot be read, or is not an export
+		 */
+		Reader(InputStream in) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(in));
+			if (this.in.readInt() != MAGIC) {
+				throw new IOException("Stream is not a statistics export");
+			}
+			int version = this.in.readUnsignedByte();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of statistics export");
+			}
+			host = readString(this.in);
+		}
+
+		/**
+		 * Retrieves host of the exported device.
+		 *
+		 * @return device host
+		 */
+		String getHost() {
+			return host;
+		}
+
+		/**
+		 * Retrieves dictionary of property names read so far, indexed by id.
+		 *
+		 * @return property names
+		 */
+		List<String> getDictionary() {
+			return dictionary;
+		}
+
+		/**
+		 * Reads next sample, applying dictionary and enumeration records on the way.
+		 *
+		 * @return sample, with {@link Long}, {@link Float}, {@link Double} and {@link String} values, or {@code null} at the end of the stream
+		 * @throws IOException if the stream cannot be read, or is malformed
+		 */
+		Sample next() throws IOException {
+			while (true) {
+				int type = in.read();
+				if (type < 0) {
+					return null;
+				}
+				try {
+					if (type == DICTIONARY) {
+						int count = (int) readVarLong(in);
+						for (int i = 0; i < count; i++) {
+							int id = (int) readVarLong(in);
+							String name = readString(in);
+							while (dictionary.size() <= id) {
+								dictionary.add(null);
+							}
+							dictionary.set(id, name);
+						}
+					} else if (type == ENUM_VALUE) {
+						int id = (int) readVarLong(in);
+						int index = (int) readVarLong(in);
+						List<String> values = enums.computeIfAbsent(id, key -> new ArrayList<>());
+						while (values.size() <= index) {
+							values.add(null);
+						}
+						values.set(index, readString(in));
+					} else if (type == SAMPLE) {
+						return readSample();
+					} else {
+						throw new IOException("Unknown record type " + type);
+					}
+				} catch (EOFException e) {
+					// stream cut in the middle of a record, e.g. the adapter was stopped abruptly
+					return null;
+				}
+			}
+		}
+
+		private Sample readSample() throws IOException {
+			long timestamp = in.readLong();
+			int count = (int) readVarLong(in);
+			Map<String, Object> values = new LinkedHashMap<>(count * 2);
+			for (int i = 0; i < count; i++) {
+				int id = (int) readVarLong(in);
+				Object value;
+				byte tag = in.readByte();
+				switch (tag) {
+					case INT:
+						long zigzag = readVarLong(in);
+						value = (zigzag >>> 1) ^ -(zigzag & 1);
+						break;
+					case FLOAT:
+						value = in.readFloat();
+						break;
+					case DOUBLE:
+						value = in.readDouble();
+						break;
+					case ENUM:
+						value = enums.get(id).get((int) readVarLong(in));
+						break;
+					case STRING:
+						value = readString(in);
+						break;
+					default:
+						throw new IOException("Unknown value tag " + tag);
+				}
+				values.put(dictionary.get(id), value);
+			}
+			return new Sample(timestamp, values);
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * Collects names of the properties of the YML mapping, for the initial dictionary.
+	 *
+	 * @param mapping YML properties mapping
+	 * @return property names, sorted
+	 */
+	static Collection<String> dictionaryOf(Map<String, PropertiesMapping> mapping) {
+		TreeSet<String> names = new TreeSet<>();
+		for (PropertiesMapping propertiesMapping : mapping.values()) {
+			Map<String, String> properties = propertiesMapping.getProperties();
+			if (properties != null) {
+				names.addAll(properties.keySet());
+			}
+		}
+		return new ArrayList<>(names);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+/**
+ * Reactive streams interfaces of the statistics updates published by {@link PolycomTrio#statisticsPublisher(String...)}. <br>
+ * The adapter targets Java 8, which has no {@code java.util.concurrent.Flow}, so the interfaces mirror {@code Flow.Publisher}, {@code Flow.Subscriber}
+ * and {@code Flow.Subscription} method for method, with the same contract: a subscriber receives {@code onSubscribe} first, then at most as many
+ * {@code onNext} signals as it requested, never concurrently, and finally {@code onComplete} or {@code onError} unless it cancelled. Adapting them to
+ * {@code Flow} (or to {@code org.reactivestreams}) is a one line lambda on either side.
+ *
+ * @since 1.0.2
+ */
+public interface StatisticsFlow {
+
+	/**
+	 * Producer of items received by subscribers, see {@code Flow.Publisher}.
+	 *
+	 * @param <T> published item type
+	 */
+	@FunctionalInterface
+	interface Publisher<T> {
+		/**
+		 * Adds subscriber, which receives {@link Subscriber#onSubscribe(Subscription)} first.
+		 *
+		 * @param subscriber subscriber
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * Receiver of items, see {@code Flow.Subscriber}.
+	 *
+	 * @param <T> received item type
+	 */
+	interface Subscriber<T> {
+		/**
+		 * Receives subscription, no item is sent before it is requested with {@link Subscription#request(long)}.
+		 *
+		 * @param subscription new subscription
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Receives next item.
+		 *
+		 * @param item item
+		 */
+		void onNext(T item);
+
+		/**
+		 * Receives failure of the subscription, no more signals follow.
+		 *
+		 * @param throwable failure
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Receives completion of the subscription, no more signals follow.
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * Link between publisher and subscriber, see {@code Flow.Subscription}.
+	 */
+	interface Subscription {
+		/**
+		 * Adds {@code n} items to the demand of the subscriber, non-positive {@code n} fails the subscription.
+		 *
+		 * @param n number of items
+		 */
+		void request(long n);
+
+		/**
+		 * Stops the subscription, signals may still arrive for a while.
+		 */
+		void cancel();
+	}
+}
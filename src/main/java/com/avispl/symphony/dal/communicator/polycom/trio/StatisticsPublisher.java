@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.monitor.Statistics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes statistics sections of a single device to {@link StatisticsFlow} subscribers as they are refreshed by the monitoring sweep. <br>
+ * Publishing never blocks the sweep: items are delivered to every subscriber on a shared pool of daemon threads, serially and only as far as the subscriber
+ * requested. A subscriber which falls behind is not queued a backlog: it keeps the latest undelivered update of every section only, so its next items are
+ * the current values, whatever its pace.
+ *
+ * @since 1.0.2
+ */
+class StatisticsPublisher {
+
+	private static final Log logger = LogFactory.getLog(StatisticsPublisher.class);
+
+	private static final ExecutorService executor;
+
+	static {
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+			Thread thread = new Thread(r, "PolycomTrio publisher " + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private final List<SectionSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Reports whether anyone subscribed, so updates need to be built at all.
+	 *
+	 * @return {@code true} if there are subscribers
+	 */
+	boolean hasSubscribers() {
+		return !subscriptions.isEmpty();
+	}
+
+	/**
+	 * Adds subscriber.
+	 *
+	 * @param subscriber subscriber
+	 * @param sections names of the sections the subscriber receives, {@code null} or empty for all sections
+	 */
+	void subscribe(StatisticsFlow.Subscriber<? super Statistics> subscriber, Set<String> sections) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber cannot be null");
+		}
+		SectionSubscription subscription = new SectionSubscription(subscriber, sections == null || sections.isEmpty() ? null : sections);
+		subscriptions.add(subscription);
+		subscription.schedule();
+	}
+
+	/**
+	 * Publishes refreshed section to subscribers of the section.
+	 *
+	 * @param section section name
+	 * @param update statistics of the section, which must not be modified afterwards
+	 */
+	void publish(String section, Statistics update) {
+		for (SectionSubscription subscription : subscriptions) {
+			subscription.offer(section, update);
+		}
+	}
+
+	/**
+	 * Completes all subscriptions, the publisher accepts new subscribers afterwards.
+	 */
+	void close() {
+		for (SectionSubscription subscription : subscriptions) {
+			subscription.complete();
+		}
+	}
+
+	/**
+	 * Subscription of a single subscriber, delivering updates with a serial drain loop.
+	 */
+	private final class SectionSubscription implements StatisticsFlow.Subscription, Runnable {
+		private final StatisticsFlow.Subscriber<? super Statistics> subscriber;
+		private final Set<String> sections;
+		// latest undelivered update of every section, in publishing order
+		private final Map<String, Statistics> pending = new LinkedHashMap<>();
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger workInProgress = new AtomicInteger();
+		private boolean subscribed;
+		private volatile boolean cancelled;
+		private volatile boolean completed;
+		private volatile Throwable failure;
+
+		SectionSubscription(StatisticsFlow.Subscriber<? super Statistics> subscriber, Set<String> sections) {
+			this.subscriber = subscriber;
+			this.sections = sections;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				failure = new IllegalArgumentException("Requested number of items must be positive, got " + n);
+			} else {
+				demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			subscriptions.remove(this);
+		}
+
+		void offer(String section, Statistics update) {
+			if (sections != null && !sections.contains(section)) {
+				return;
+			}
+			synchronized (pending) {
+				// section moves to the end, as its update is the most recent one
+				pending.remove(section);
+				pending.put(section, update);
+			}
+			schedule();
+		}
+
+		void complete() {
+			completed = true;
+			schedule();
+		}
+
+		void schedule() {
+			if (workInProgress.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				try {
+					drain();
+				} catch (RuntimeException | LinkageError e) {
+					// subscriber violated the contract by throwing, its subscription is over
+					logger.warn("Statistics subscriber " + subscriber + " failed, subscription is cancelled", e);
+					cancel();
+				}
+				missed = workInProgress.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			if (cancelled) {
+				return;
+			}
+			if (!subscribed) {
+				subscribed = true;
+				subscriber.onSubscribe(this);
+			}
+			while (!cancelled && failure == null && demand.get() > 0) {
+				Statistics next;
+				synchronized (pending) {
+					Iterator<Statistics> iterator = pending.values().iterator();
+					if (!iterator.hasNext()) {
+						break;
+					}
+					next = iterator.next();
+					iterator.remove();
+				}
+				demand.decrementAndGet();
+				subscriber.onNext(next);
+			}
+			if (cancelled) {
+				return;
+			}
+			Throwable error = failure;
+			if (error != null) {
+				cancel();
+				subscriber.onError(error);
+			} else if (completed) {
+				cancel();
+				subscriber.onComplete();
+			}
+		}
+	}
+}
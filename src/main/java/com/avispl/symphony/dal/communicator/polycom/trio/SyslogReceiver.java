@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded syslog receiver (UDP and TCP on the same port) turning log lines of the devices ({@code log.render.*}/{@code device.syslog.*} configured to
+ * send syslog to the adapter) into device events: registration loss and recovery, call setup and teardown, and reboot hints. <br>
+ * One receiver is shared by all adapter instances configured with the same port, and one thread serves it with a selector. Datagrams are received into a
+ * single direct buffer and classified right there by a byte-level case-insensitive keyword scan: messages are never copied or decoded into strings, and
+ * messages from senders which are not registered devices are dropped before being scanned. TCP streams are split into messages by line feed (non-transparent
+ * framing of RFC 6587); octet counting prefixes are harmless to the scan.
+ *
+ * @since 1.0.2
+ */
+class SyslogReceiver {
+
+	private static final Log logger = LogFactory.getLog(SyslogReceiver.class);
+
+	// syslog messages are limited to a single datagram, longer TCP lines are scanned in chunks of this size
+	static final int MAX_MESSAGE_SIZE = 8192;
+
+	/**
+	 * Device event recognized in a log line.
+	 */
+	enum Event {
+		REGISTRATION_LOST, REGISTERED, CALL_SETUP, CALL_TEARDOWN, REBOOT
+	}
+
+	/**
+	 * Receives events of the device.
+	 */
+	@FunctionalInterface
+	interface Listener {
+		/**
+		 * Handles event of the device, on the receiver thread.
+		 *
+		 * @param event recognized event
+		 * @param timestamp time the log line was received at
+		 */
+		void onEvent(Event event, long timestamp);
+	}
+
+	// keywords (lower case) and events they stand for, when several keywords start at the same position the first one wins
+	private static final byte[][] KEYWORDS;
+	private static final Event[] KEYWORD_EVENTS;
+
+	static {
+		Object[][] rules = {
+				{"unregistered", Event.REGISTRATION_LOST},
+				{"registration failed", Event.REGISTRATION_LOST},
+				{"registration lost", Event.REGISTRATION_LOST},
+				{"registered", Event.REGISTERED},
+				{"call connected", Event.CALL_SETUP},
+				{"call setup", Event.CALL_SETUP},
+				{"call established", Event.CALL_SETUP},
+				{"call ended", Event.CALL_TEARDOWN},
+				{"call disconnected", Event.CALL_TEARDOWN},
+				{"call terminated", Event.CALL_TEARDOWN},
+				{"rebooting", Event.REBOOT},
+				{"restarting", Event.REBOOT},
+				{"system boot", Event.REBOOT}
+		};
+		KEYWORDS = new byte[rules.length][];
+		KEYWORD_EVENTS = new Event[rules.length];
+		for (int i = 0; i < rules.length; i++) {
+			KEYWORDS[i] = ((String) rules[i][0]).getBytes(StandardCharsets.US_ASCII);
+			KEYWORD_EVENTS[i] = (Event) rules[i][1];
+		}
+	}
+
+	private static final Map<Integer, SyslogReceiver> receivers = new HashMap<>();
+
+	private final int port;
+	private final Map<InetAddress, Listener> listeners = new ConcurrentHashMap<>();
+	private final ByteBuffer datagram = ByteBuffer.allocateDirect(MAX_MESSAGE_SIZE);
+	private Selector selector;
+	private DatagramChannel udpChannel;
+	private ServerSocketChannel tcpChannel;
+	private Thread thread;
+	private int references;
+
+	private SyslogReceiver(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Registers device with the receiver on given port, starting the receiver if needed.
+	 *
+	 * @param port port to listen on (both UDP and TCP)
+	 * @param deviceAddress IP address log lines of the device are received from
+	 * @param listener listener of the device events
+	 * @return receiver the device was registered with
+	 * @throws IOException if receiver cannot be started
+	 */
+	static SyslogReceiver register(int port, String deviceAddress, Listener listener) throws IOException {
+		InetAddress address = InetAddress.getByName(deviceAddress);
+		synchronized (receivers) {
+			SyslogReceiver receiver = receivers.get(port);
+			if (receiver == null) {
+				receiver = new SyslogReceiver(port);
+				receiver.start();
+				receivers.put(port, receiver);
+			}
+			receiver.references++;
+			receiver.listeners.put(address, listener);
+			return receiver;
+		}
+	}
+
+	/**
+	 * Unregisters device from the receiver, stopping the receiver if no more devices use it. <br>
+	 * Registration is only removed if it is still the one of given listener, as another adapter instance for the same device may have registered since.
+	 *
+	 * @param deviceAddress IP address of the device
+	 * @param listener listener the device was registered with
+	 */
+	void unregister(String deviceAddress, Listener listener) {
+		synchronized (receivers) {
+			try {
+				listeners.remove(InetAddress.getByName(deviceAddress), listener);
+			} catch (IOException e) {
+				// address was resolved on register, an IP address literal is not resolved again
+			}
+			if (--references <= 0) {
+				receivers.remove(port);
+				stop();
+			}
+		}
+	}
+
+	/**
+	 * Finds event in the message.
+	 *
+	 * @param message buffer with the message between its position and limit, neither is changed
+	 * @return event of the leftmost keyword found in the message, or {@code null} if the message has no keyword
+	 */
+	static Event classify(ByteBuffer message) {
+		int limit = message.limit();
+		for (int i = message.position(); i < limit; i++) {
+			byte b = toLowerCase(message.get(i));
+			for (int k = 0; k < KEYWORDS.length; k++) {
+				byte[] keyword = KEYWORDS[k];
+				if (keyword[0] == b && i + keyword.length <= limit && matches(message, i, keyword)) {
+					return KEYWORD_EVENTS[k];
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean matches(ByteBuffer message, int offset, byte[] keyword) {
+		for (int j = 1; j < keyword.length; j++) {
+			if (toLowerCase(message.get(offset + j)) != keyword[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte toLowerCase(byte b) {
+		return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+	}
+
+	private void start() throws IOException {
+		selector = Selector.open();
+		try {
+			udpChannel = DatagramChannel.open();
+			udpChannel.bind(new InetSocketAddress(port));
+			udpChannel.configureBlocking(false);
+			udpChannel.register(selector, SelectionKey.OP_READ);
+			tcpChannel = ServerSocketChannel.open();
+			tcpChannel.bind(new InetSocketAddress(port));
+			tcpChannel.configureBlocking(false);
+			tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+		thread = new Thread(this::run, "PolycomTrio syslog receiver :" + port);
+		thread.setDaemon(true);
+		thread.start();
+		if (logger.isInfoEnabled()) {
+			logger.info("Syslog receiver started on port " + port);
+		}
+	}
+
+	private void stop() {
+		close();
+		if (logger.isInfoEnabled()) {
+			logger.info("Syslog receiver stopped on port " + port);
+		}
+	}
+
+	private void close() {
+		closeQuietly(udpChannel);
+		closeQuietly(tcpChannel);
+		try {
+			// TCP connections of the devices
+			for (SelectionKey key : new ArrayList<>(selector.keys())) {
+				closeQuietly(key.channel());
+			}
+		} catch (ClosedSelectorException | ConcurrentModificationException e) {
+			// receiver thread is closing them
+		}
+		try {
+			// closing the selector wakes the receiver thread up and makes it exit
+			selector.close();
+		} catch (IOException e) {
+			logger.debug("Unable to close syslog selector", e);
+		}
+	}
+
+	private void run() {
+		try {
+			while (selector.isOpen()) {
+				selector.select();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.channel() == udpChannel) {
+							receiveDatagrams();
+						} else if (key.isAcceptable()) {
+							accept();
+						} else if (key.isReadable()) {
+							readStream(key);
+						}
+					} catch (IOException e) {
+						if (key.channel() instanceof SocketChannel) {
+							key.cancel();
+							closeQuietly(key.channel());
+						} else if (logger.isDebugEnabled()) {
+							logger.debug("Syslog receiver on port " + port + " failed to receive", e);
+						}
+					}
+				}
+			}
+		} catch (ClosedSelectorException e) {
+			// receiver stopped
+		} catch (IOException | RuntimeException e) {
+			logger.error("Syslog receiver on port " + port + " failed", e);
+		}
+	}
+
+	private void receiveDatagrams() throws IOException {
+		SocketAddress sender;
+		while (true) {
+			datagram.clear();
+			sender = udpChannel.receive(datagram);
+			if (sender == null) {
+				return;
+			}
+			datagram.flip();
+			dispatch(((InetSocketAddress) sender).getAddress(), datagram);
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = tcpChannel.accept()) != null) {
+			InetAddress sender = ((InetSocketAddress) channel.getRemoteAddress()).getAddress();
+			if (!listeners.containsKey(sender)) {
+				// not a registered device
+				channel.close();
+				continue;
+			}
+			channel.configureBlocking(false);
+			channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(MAX_MESSAGE_SIZE));
+		}
+	}
+
+	private void readStream(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		ByteBuffer buffer = (ByteBuffer) key.attachment();
+		InetAddress sender = ((InetSocketAddress) channel.getRemoteAddress()).getAddress();
+		int read;
+		while ((read = channel.read(buffer)) > 0) {
+			buffer.flip();
+			int start = buffer.position();
+			for (int i = start; i < buffer.limit(); i++) {
+				if (buffer.get(i) == '\n') {
+					dispatchFrame(sender, buffer, start, i);
+					start = i + 1;
+				}
+			}
+			if (start == 0 && buffer.limit() == buffer.capacity()) {
+				// line longer than the buffer, scan what is there
+				dispatchFrame(sender, buffer, 0, buffer.limit());
+				start = buffer.limit();
+			}
+			buffer.position(start);
+			buffer.compact();
+		}
+		if (read < 0) {
+			key.cancel();
+			channel.close();
+		}
+	}
+
+	private void dispatchFrame(InetAddress sender, ByteBuffer buffer, int start, int end) {
+		int limit = buffer.limit();
+		buffer.limit(end).position(start);
+		dispatch(sender, buffer);
+		buffer.limit(limit);
+	}
+
+	private void dispatch(InetAddress sender, ByteBuffer message) {
+		Listener listener = listeners.get(sender);
+		if (listener == null) {
+			return;
+		}
+		Event event = classify(message);
+		if (event != null) {
+			try {
+				listener.onEvent(event, System.currentTimeMillis());
+			} catch (RuntimeException e) {
+				logger.warn("Unable to process syslog event " + event + " of device " + sender.getHostAddress(), e);
+			}
+		}
+	}
+
+	private static void closeQuietly(Channel channel) {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// nothing to do
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight HTTP listener receiving Polycom telephony notification events (configured on the device with {@code apps.telNotification.*} parameters). <br>
+ * One listener is shared by all adapter instances configured with the same port; events are routed to the {@link CallStateModel} of the device by the
+ * address of the connection they are received on, so a host cannot post events on behalf of another device. The {@code PhoneIP} element of the event is
+ * only cross-checked against that address. <br>
+ * Example of the event posted by the device:
+ *
+ * <pre>
+ * &lt;PolycomIPPhone&gt;
+ *   &lt;CallStateChangeEvent CallReference="0x13ca8228" CallState="Connected"&gt;
+ *     &lt;PhoneIP&gt;172.24.128.160&lt;/PhoneIP&gt;
+ *     &lt;CallLineInfo&gt;
+ *       &lt;CallInfo&gt;
+ *         &lt;CallType&gt;Outgoing&lt;/CallType&gt;
+ *         &lt;CalledPartyDirNum&gt;sip:3441@172.24.132.35&lt;/CalledPartyDirNum&gt;
+ *         &lt;CallingPartyDirNum&gt;sip:3440@172.24.132.35&lt;/CallingPartyDirNum&gt;
+ *       &lt;/CallInfo&gt;
+ *     &lt;/CallLineInfo&gt;
+ *   &lt;/CallStateChangeEvent&gt;
+ * &lt;/PolycomIPPhone&gt;
+ * </pre>
+ *
+ * @since 1.0.2
+ */
+class TelephonyNotificationListener {
+
+	private static final Log logger = LogFactory.getLog(TelephonyNotificationListener.class);
+
+	/** Path the devices are expected to post events to. */
+	static final String CONTEXT_PATH = "/telNotification";
+
+	// events are small, anything bigger is not a telephony notification
+	private static final int MAX_EVENT_SIZE = 16 * 1024;
+
+	private static final Pattern PHONE_IP = Pattern.compile("<PhoneIP>\\s*([^<\\s]+)\\s*</PhoneIP>");
+	private static final Pattern CALL_REFERENCE_ATTRIBUTE = Pattern.compile("CallReference=\"([^\"]*)\"");
+	private static final Pattern CALL_STATE_ATTRIBUTE = Pattern.compile("CallState=\"([^\"]*)\"");
+	private static final Pattern CALL_TYPE = Pattern.compile("<CallType>\\s*([^<]*?)\\s*</CallType>");
+	private static final Pattern CALLED_PARTY = Pattern.compile("<CalledPartyDirNum>\\s*([^<]*?)\\s*</CalledPartyDirNum>");
+	private static final Pattern CALLING_PARTY = Pattern.compile("<CallingPartyDirNum>\\s*([^<]*?)\\s*</CallingPartyDirNum>");
+
+	private static final Map<Integer, TelephonyNotificationListener> listeners = new HashMap<>();
+
+	private final int port;
+	private final Map<String, CallStateModel> models = new ConcurrentHashMap<>();
+	private HttpServer server;
+	private ExecutorService executor;
+	private int references;
+
+	private TelephonyNotificationListener(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Registers call state model of the device with the listener on given port, starting the listener if needed.
+	 *
+	 * @param port port to listen on
+	 * @param deviceAddress IP address of the device the events are received from
+	 * @param model call state model to update with events from the device
+	 * @return listener the model was registered with
+	 * @throws IOException if listener cannot be started
+	 */
+	static TelephonyNotificationListener register(int port, String deviceAddress, CallStateModel model) throws IOException {
+		synchronized (listeners) {
+			TelephonyNotificationListener listener = listeners.get(port);
+			if (listener == null) {
+				listener = new TelephonyNotificationListener(port);
+				listener.start();
+				listeners.put(port, listener);
+			}
+			listener.references++;
+			listener.models.put(deviceAddress, model);
+			return listener;
+		}
+	}
+
+	/**
+	 * Unregisters device from the listener, stopping the listener if no more devices use it. <br>
+	 * Registration is only removed if it is still the one of given model, as another adapter instance for the same device may have registered since.
+	 *
+	 * @param deviceAddress IP address of the device
+	 * @param model call state model the device was registered with
+	 */
+	void unregister(String deviceAddress, CallStateModel model) {
+		synchronized (listeners) {
+			models.remove(deviceAddress, model);
+			if (--references <= 0) {
+				listeners.remove(port);
+				stop();
+			}
+		}
+	}
+
+	private void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		// events are tiny and handled in microseconds, one thread is enough for the whole fleet
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "PolycomTrio telNotification listener :" + port);
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext(CONTEXT_PATH, this::handle);
+		server.start();
+		if (logger.isInfoEnabled()) {
+			logger.info("Telephony notification listener started on port " + port);
+		}
+	}
+
+	private void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+		if (logger.isInfoEnabled()) {
+			logger.info("Telephony notification listener stopped on port " + port);
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+				String event = readBody(exchange.getRequestBody());
+				if (event != null) {
+					processEvent(event, exchange.getRemoteAddress().getAddress().getHostAddress(), System.currentTimeMillis());
+				}
+			}
+			exchange.sendResponseHeaders(200, -1);
+		} catch (Exception e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to process telephony notification from " + exchange.getRemoteAddress(), e);
+			}
+			exchange.sendResponseHeaders(400, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Parses telephony notification event and applies it to the call state model of the device which sent it.
+	 *
+	 * @param event event payload
+	 * @param senderAddress address the event was received from
+	 * @param timestamp time the event was received at
+	 * @return {@code true} if the event was applied to a registered device, {@code false} otherwise
+	 */
+	boolean processEvent(String event, String senderAddress, long timestamp) {
+		CallStateModel model = models.get(senderAddress);
+		if (model == null) {
+			return false;
+		}
+		String phoneIp = find(PHONE_IP, event);
+		if (phoneIp != null && !phoneIp.equals(senderAddress)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Telephony notification from " + senderAddress + " is ignored, it reports PhoneIP " + phoneIp);
+			}
+			return false;
+		}
+
+		String callType = find(CALL_TYPE, event);
+		String remoteParty;
+		if (event.contains("<IncomingCallEvent") || "Incoming".equalsIgnoreCase(callType)) {
+			remoteParty = find(CALLING_PARTY, event);
+		} else {
+			remoteParty = find(CALLED_PARTY, event);
+		}
+
+		if (event.contains("<CallStateChangeEvent")) {
+			model.onEvent(find(CALL_REFERENCE_ATTRIBUTE, event), find(CALL_STATE_ATTRIBUTE, event), remoteParty, timestamp);
+		} else if (event.contains("<IncomingCallEvent")) {
+			model.onEvent(null, "Offering", remoteParty, timestamp);
+		} else if (event.contains("<OutgoingCallEvent")) {
+			model.onEvent(null, "Dialing", remoteParty, timestamp);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private static String find(Pattern pattern, String event) {
+		Matcher matcher = pattern.matcher(event);
+		return matcher.find() ? matcher.group(1) : null;
+	}
+
+	private static String readBody(InputStream in) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+		byte[] buffer = new byte[1024];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			if (body.size() + read > MAX_EVENT_SIZE) {
+				return null;
+			}
+			body.write(buffer, 0, read);
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
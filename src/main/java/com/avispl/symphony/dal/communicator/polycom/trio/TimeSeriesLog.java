@@ -0,0 +1,620 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only on-disk log of the numeric samples of a device (jitter, packet loss, bitrates, frame rates, packet counters), kept for analysis after the
+ * adapter moved on. <br>
+ * Samples are appended to memory-mapped segment files, named after the time of their first sample; a segment is rolled over once the next record does not
+ * fit its size, and every segment decodes on its own. Each poll is one record, compressed against the previous record of the segment the way Gorilla
+ * compresses time series: the timestamp as a delta of deltas, and every value as the XOR with the previous value of its series, with the leading and trailing
+ * zeros of the XOR left out. Series are defined by name in the record they first appear in. Records are byte aligned and their length is written last, so
+ * a record torn by a crash reads as the end of the segment. <br>
+ * Samples are appended on a dedicated daemon thread, so polls never wait for disk; samples arriving while {@value #QUEUE_CAPACITY} others are waiting are
+ * dropped. A segment which cannot be written stops the log. {@link Reader} decodes the segments.
+ *
+ * @since 1.0.2
+ */
+class TimeSeriesLog implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(TimeSeriesLog.class);
+
+	// "TSLG"
+	static final int MAGIC = 0x54534C47;
+	static final int VERSION = 1;
+	static final String SEGMENT_SUFFIX = ".tsl";
+	static final int MIN_SEGMENT_SIZE = 64 * 1024;
+	static final int QUEUE_CAPACITY = 16;
+	private static final int HEADER_SIZE = 5;
+	private static final long CLOSE_TIMEOUT = 5000L;
+
+	/**
+	 * Decoded sample value.
+	 */
+	static final class Point {
+		final long timestamp;
+		final double value;
+
+		Point(long timestamp, double value) {
+			this.timestamp = timestamp;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Receives decoded records.
+	 */
+	@FunctionalInterface
+	interface Visitor {
+		/**
+		 * Receives record.
+		 *
+		 * @param timestamp time of the record
+		 * @param values values of the record by series name
+		 */
+		void visit(long timestamp, Map<String, Double> values);
+	}
+
+	private final Path directory;
+	private final int segmentSize;
+	private final ThreadPoolExecutor executor;
+	private final AtomicLong dropped = new AtomicLong();
+
+	// state of the current segment, confined to the writer thread
+	private FileChannel channel;
+	private MappedByteBuffer segment;
+	private final Encoder encoder = new Encoder();
+	private boolean failed;
+
+	/**
+	 * TimeSeriesLog constructor
+	 *
+	 * @param directory directory of the segment files, created if it does not exist
+	 * @param segmentSize max size of a segment file, in bytes, at least {@value #MIN_SEGMENT_SIZE}
+	 * @param name name of the writer thread
+	 * @throws IOException if directory cannot be created
+	 */
+	TimeSeriesLog(Path directory, int segmentSize, String name) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = Math.max(segmentSize, MIN_SEGMENT_SIZE);
+		executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+			Thread thread = new Thread(r, name);
+			thread.setDaemon(true);
+			return thread;
+		}, (r, e) -> dropped.incrementAndGet());
+	}
+
+	/**
+	 * Queues sample for appending.
+	 *
+	 * @param timestamp time of the sample, not earlier than the previous one
+	 * @param values values by series name, owned by the log afterwards
+	 */
+	void append(long timestamp, Map<String, Double> values) {
+		executor.execute(() -> write(timestamp, values));
+	}
+
+	/**
+	 * Retrieves number of samples which were not appended, because the writer thread fell behind or the log failed.
+	 *
+	 * @return number of dropped samples
+	 */
+	long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Appends queued samples and closes the current segment.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		closeSegment();
+	}
+
+	/**
+	 * Appends sample on the caller's thread, which must be the only one writing. {@link #append(long, Map)} calls it on the writer thread.
+	 *
+	 * @param timestamp time of the sample, not earlier than the previous one
+	 * @param values values by series name
+	 */
+	void write(long timestamp, Map<String, Double> values) {
+		if (failed) {
+			dropped.incrementAndGet();
+			return;
+		}
+		try {
+			if (segment == null) {
+				openSegment(timestamp);
+			}
+			byte[] record = encoder.encode(timestamp, values);
+			if (segment.remaining() < varIntSize(record.length) + record.length) {
+				// record was encoded against the segment it does not fit, it is encoded again as the first record of the next one
+				closeSegment();
+				openSegment(timestamp);
+				record = encoder.encode(timestamp, values);
+				if (segment.remaining() < varIntSize(record.length) + record.length) {
+					throw new IOException("Record of " + record.length + " bytes does not fit a segment of " + segmentSize + " bytes");
+				}
+			}
+
+			// length goes last, so a torn record has no length and ends the segment
+			int position = segment.position();
+			int lengthSize = varIntSize(record.length);
+			segment.position(position + lengthSize);
+			segment.put(record);
+			int end = segment.position();
+			int length = record.length;
+			for (int i = 0; i < lengthSize; i++, length >>>= 7) {
+				segment.put(position + i, (byte) (i < lengthSize - 1 ? (length & 0x7F) | 0x80 : length));
+			}
+			segment.position(end);
+		} catch (IOException | RuntimeException e) {
+			// segment is left as it is, records written so far stay readable up to the last complete one
+			logger.warn("Unable to append to time series log " + directory + ", log is stopped", e);
+			failed = true;
+			dropped.incrementAndGet();
+			closeSegment();
+		}
+	}
+
+	private void openSegment(long timestamp) throws IOException {
+		Path file = directory.resolve(String.format("%019d", timestamp) + SEGMENT_SUFFIX);
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		segment.putInt(MAGIC);
+		segment.put((byte) VERSION);
+		encoder.reset();
+	}
+
+	private void closeSegment() {
+		if (channel == null) {
+			return;
+		}
+		try {
+			segment.force();
+			// unused tail of the mapping is cut off, where supported with the file still mapped
+			channel.truncate(segment.position());
+		} catch (IOException | RuntimeException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to trim time series segment in " + directory, e);
+			}
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to close time series segment in " + directory, e);
+			}
+		}
+		channel = null;
+		segment = null;
+	}
+
+	private static int varIntSize(int value) {
+		int size = 1;
+		while ((value >>>= 7) != 0) {
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Compression state of a segment: series defined so far, previous timestamp and delta, previous value and XOR window of every series.
+	 */
+	private static class State {
+		final List<String> series = new ArrayList<>();
+		long[] values = new long[16];
+		int[] leading = new int[16];
+		int[] trailing = new int[16];
+		int records;
+		long timestamp;
+		long delta;
+
+		void reset() {
+			series.clear();
+			records = 0;
+			timestamp = 0;
+			delta = 0;
+		}
+
+		int define(String name) {
+			int id = series.size();
+			series.add(name);
+			if (id == values.length) {
+				values = Arrays.copyOf(values, id * 2);
+				leading = Arrays.copyOf(leading, id * 2);
+				trailing = Arrays.copyOf(trailing, id * 2);
+			}
+			values[id] = 0;
+			// no XOR window yet
+			trailing[id] = -1;
+			return id;
+		}
+	}
+
+	/**
+	 * Encoder of the records of a segment.
+	 */
+	private static final class Encoder extends State {
+		private final Map<String, Integer> ids = new HashMap<>();
+		private final BitWriter bits = new BitWriter();
+		private final List<byte[]> definitions = new ArrayList<>();
+
+		@Override
+		void reset() {
+			super.reset();
+			ids.clear();
+		}
+
+		/**
+		 * Encodes record, updating the state as if the record was appended to the segment.
+		 *
+		 * @param timestamp time of the record
+		 * @param sample values of the record by series name
+		 * @return encoded record
+		 */
+		byte[] encode(long timestamp, Map<String, Double> sample) {
+			definitions.clear();
+			int definitionsSize = 0;
+			for (String name : sample.keySet()) {
+				if (!ids.containsKey(name)) {
+					ids.put(name, define(name));
+					byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+					definitions.add(bytes);
+					definitionsSize += varIntSize(bytes.length) + bytes.length;
+				}
+			}
+
+			bits.reset();
+			if (records == 0) {
+				bits.write(timestamp, 64);
+			} else {
+				long delta = timestamp - this.timestamp;
+				writeDeltaOfDelta(delta - this.delta);
+				this.delta = delta;
+			}
+			this.timestamp = timestamp;
+			records++;
+
+			for (int id = 0; id < series.size(); id++) {
+				Double value = sample.get(series.get(id));
+				if (value == null) {
+					bits.write(0, 1);
+				} else {
+					bits.write(1, 1);
+					writeValue(id, Double.doubleToLongBits(value));
+				}
+			}
+
+			byte[] record = new byte[varIntSize(definitions.size()) + definitionsSize + bits.size()];
+			ByteBuffer buffer = ByteBuffer.wrap(record);
+			putVarInt(buffer, definitions.size());
+			for (byte[] name : definitions) {
+				putVarInt(buffer, name.length);
+				buffer.put(name);
+			}
+			bits.copyTo(buffer);
+			return record;
+		}
+
+		private void writeDeltaOfDelta(long dod) {
+			if (dod == 0) {
+				bits.write(0, 1);
+			} else if (dod >= -64 && dod < 64) {
+				bits.write(0b10, 2);
+				bits.write(dod, 7);
+			} else if (dod >= -256 && dod < 256) {
+				bits.write(0b110, 3);
+				bits.write(dod, 9);
+			} else if (dod >= -2048 && dod < 2048) {
+				bits.write(0b1110, 4);
+				bits.write(dod, 12);
+			} else {
+				bits.write(0b1111, 4);
+				bits.write(dod, 64);
+			}
+		}
+
+		private void writeValue(int id, long value) {
+			long xor = value ^ values[id];
+			values[id] = value;
+			if (xor == 0) {
+				bits.write(0, 1);
+				return;
+			}
+			bits.write(1, 1);
+			int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+			int trailingZeros = Long.numberOfTrailingZeros(xor);
+			if (trailing[id] >= 0 && leadingZeros >= leading[id] && trailingZeros >= trailing[id]) {
+				// meaningful bits fit the window of the previous value
+				bits.write(0, 1);
+				bits.write(xor >>> trailing[id], 64 - leading[id] - trailing[id]);
+			} else {
+				int meaningful = 64 - leadingZeros - trailingZeros;
+				bits.write(1, 1);
+				bits.write(leadingZeros, 5);
+				bits.write(meaningful - 1, 6);
+				bits.write(xor >>> trailingZeros, meaningful);
+				leading[id] = leadingZeros;
+				trailing[id] = trailingZeros;
+			}
+		}
+	}
+
+	private static void putVarInt(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static int getVarInt(ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Writer of bits, most significant first, into a growing byte array.
+	 */
+	private static final class BitWriter {
+		private byte[] bytes = new byte[256];
+		private int bitPosition;
+
+		void reset() {
+			Arrays.fill(bytes, 0, size(), (byte) 0);
+			bitPosition = 0;
+		}
+
+		void write(long value, int count) {
+			if (bitPosition + count > bytes.length * 8) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, (bitPosition + count) / 8 + 1));
+			}
+			for (int i = count - 1; i >= 0; i--) {
+				if (((value >>> i) & 1) != 0) {
+					bytes[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+				}
+				bitPosition++;
+			}
+		}
+
+		int size() {
+			return (bitPosition + 7) >>> 3;
+		}
+
+		void copyTo(ByteBuffer buffer) {
+			buffer.put(bytes, 0, size());
+		}
+	}
+
+	/**
+	 * Reader of bits, most significant first.
+	 */
+	private static final class BitReader {
+		private final ByteBuffer buffer;
+		private final int start;
+		private final int limit;
+		private int bitPosition;
+
+		BitReader(ByteBuffer buffer, int start, int limit) {
+			this.buffer = buffer;
+			this.start = start;
+			this.limit = limit;
+		}
+
+		long read(int count) throws IOException {
+			if (bitPosition + count > (limit - start) * 8) {
+				throw new IOException("Record is truncated");
+			}
+			long value = 0;
+			for (int i = 0; i < count; i++) {
+				int bit = (buffer.get(start + (bitPosition >>> 3)) >>> (7 - (bitPosition & 7))) & 1;
+				value = (value << 1) | bit;
+				bitPosition++;
+			}
+			return value;
+		}
+
+		long readSigned(int count) throws IOException {
+			long value = read(count);
+			return count == 64 ? value : (value << (64 - count)) >> (64 - count);
+		}
+	}
+
+	/**
+	 * Reader of the segments of a log.
+	 */
+	static final class Reader {
+
+		private Reader() {
+		}
+
+		/**
+		 * Decodes records of the time range, in time order.
+		 *
+		 * @param directory directory of the segment files
+		 * @param from start of the time range, inclusive
+		 * @param to end of the time range, inclusive
+		 * @param visitor visitor of the records
+		 * @throws IOException if a segment cannot be read, or is malformed
+		 */
+		static void scan(Path directory, long from, long to, Visitor visitor) throws IOException {
+			List<Path> segments = new ArrayList<>();
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+				for (Path file : files) {
+					segments.add(file);
+				}
+			}
+			// names are zero padded start times, so they sort in time order
+			Collections.sort(segments);
+			for (int i = 0; i < segments.size(); i++) {
+				long start = segmentStart(segments.get(i));
+				if (start > to) {
+					break;
+				}
+				if (i + 1 < segments.size() && segmentStart(segments.get(i + 1)) <= from) {
+					// all records of the segment are before the next segment starts
+					continue;
+				}
+				scanSegment(segments.get(i), from, to, visitor);
+			}
+		}
+
+		/**
+		 * Decodes values of a series in the time range.
+		 *
+		 * @param directory directory of the segment files
+		 * @param series series name
+		 * @param from start of the time range, inclusive
+		 * @param to end of the time range, inclusive
+		 * @return values of the series, in time order
+		 * @throws IOException if a segment cannot be read, or is malformed
+		 */
+		static List<Point> read(Path directory, String series, long from, long to) throws IOException {
+			List<Point> points = new ArrayList<>();
+			scan(directory, from, to, (timestamp, values) -> {
+				Double value = values.get(series);
+				if (value != null) {
+					points.add(new Point(timestamp, value));
+				}
+			});
+			return points;
+		}
+
+		private static long segmentStart(Path file) {
+			String name = file.getFileName().toString();
+			return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+		}
+
+		private static void scanSegment(Path file, long from, long to, Visitor visitor) throws IOException {
+			MappedByteBuffer buffer;
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException(file + " is not a time series segment");
+			}
+			int version = buffer.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of time series segment " + file);
+			}
+
+			State state = new State();
+			try {
+				while (buffer.hasRemaining()) {
+					int length = getVarInt(buffer);
+					if (length == 0 || length > buffer.remaining()) {
+						// unused or torn tail of the segment
+						return;
+					}
+					int end = buffer.position() + length;
+					Map<String, Double> values = decode(state, buffer, end);
+					buffer.position(end);
+					if (state.timestamp > to) {
+						return;
+					}
+					if (state.timestamp >= from) {
+						visitor.visit(state.timestamp, values);
+					}
+				}
+			} catch (BufferUnderflowException e) {
+				// torn tail of the segment
+			}
+		}
+
+		private static Map<String, Double> decode(State state, ByteBuffer buffer, int end) throws IOException {
+			int definitions = getVarInt(buffer);
+			for (int i = 0; i < definitions; i++) {
+				byte[] name = new byte[getVarInt(buffer)];
+				buffer.get(name);
+				state.define(new String(name, StandardCharsets.UTF_8));
+			}
+
+			BitReader bits = new BitReader(buffer, buffer.position(), end);
+			if (state.records == 0) {
+				state.timestamp = bits.read(64);
+			} else {
+				long dod;
+				if (bits.read(1) == 0) {
+					dod = 0;
+				} else if (bits.read(1) == 0) {
+					dod = bits.readSigned(7);
+				} else if (bits.read(1) == 0) {
+					dod = bits.readSigned(9);
+				} else if (bits.read(1) == 0) {
+					dod = bits.readSigned(12);
+				} else {
+					dod = bits.readSigned(64);
+				}
+				state.delta += dod;
+				state.timestamp += state.delta;
+			}
+			state.records++;
+
+			Map<String, Double> values = new LinkedHashMap<>();
+			for (int id = 0; id < state.series.size(); id++) {
+				if (bits.read(1) == 0) {
+					continue;
+				}
+				if (bits.read(1) != 0) {
+					long xor;
+					if (bits.read(1) == 0) {
+						xor = bits.read(64 - state.leading[id] - state.trailing[id]) << state.trailing[id];
+					} else {
+						int leadingZeros = (int) bits.read(5);
+						int meaningful = (int) bits.read(6) + 1;
+						state.leading[id] = leadingZeros;
+						state.trailing[id] = 64 - leadingZeros - meaningful;
+						xor = bits.read(meaningful) << state.trailing[id];
+					}
+					state.values[id] ^= xor;
+				}
+				values.put(state.series.get(id), Double.longBitsToDouble(state.values[id]));
+			}
+			return values;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.AuthCache;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+/**
+ * Request factory of the blocking {@code RestTemplate} transport, applying the timeout of each request rather than the one fixed when the HTTP client was
+ * created. <br>
+ * The timeout is bound to the calling thread for the duration of a request with {@link #call(long, Deadline.Operation)}, and set as the connect, socket and
+ * connection pool timeouts of a context created for every request, so concurrent requests never see each other's timeouts. Contexts share one
+ * authentication cache, seeded with Basic authentication of the device if configured, so requests keep authenticating preemptively.
+ *
+ * @since 1.0.2
+ */
+class TimeoutRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+	private static final ThreadLocal<Long> currentTimeout = new ThreadLocal<>();
+
+	private final AuthCache authCache = new BasicAuthCache();
+
+	/**
+	 * TimeoutRequestFactory constructor
+	 *
+	 * @param httpClient HTTP client executing requests
+	 * @param basicAuthTarget device host to authenticate preemptively with Basic authentication, {@code null} if Basic authentication is not used
+	 */
+	TimeoutRequestFactory(HttpClient httpClient, HttpHost basicAuthTarget) {
+		super(httpClient);
+		if (basicAuthTarget != null) {
+			authCache.put(basicAuthTarget, new BasicScheme());
+		}
+	}
+
+	/**
+	 * Executes operation with requests it sends through a {@code TimeoutRequestFactory} timing out after {@code timeout} milliseconds.
+	 *
+	 * @param timeout request timeout, in milliseconds, {@code 0} or less for the default timeout of the HTTP client
+	 * @param operation operation sending requests
+	 * @param <T> result type
+	 * @return result of the operation
+	 * @throws Exception if the operation fails
+	 */
+	static <T> T call(long timeout, Deadline.Operation<T> operation) throws Exception {
+		Long previous = currentTimeout.get();
+		if (timeout > 0) {
+			currentTimeout.set(timeout);
+		} else {
+			currentTimeout.remove();
+		}
+		try {
+			return operation.execute();
+		} finally {
+			if (previous != null) {
+				currentTimeout.set(previous);
+			} else {
+				currentTimeout.remove();
+			}
+		}
+	}
+
+	@Override
+	protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+		HttpClientContext context = HttpClientContext.create();
+		context.setAuthCache(authCache);
+		Long requestTimeout = currentTimeout.get();
+		if (requestTimeout != null) {
+			int millis = (int) Math.min(requestTimeout, Integer.MAX_VALUE);
+			RequestConfig config = createRequestConfig(getHttpClient());
+			context.setRequestConfig((config != null ? RequestConfig.copy(config) : RequestConfig.custom())
+					.setConnectTimeout(millis)
+					.setSocketTimeout(millis)
+					.setConnectionRequestTimeout(millis)
+					.build());
+		}
+		return context;
+	}
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transport recording every exchange with the device to a local file, for replaying real device traffic with {@code ReplayServer} (a test fixture). <br>
+ * Each exchange is recorded with its time, method, URI, HTTP status, latency and response body as received from the device (or the error response of a
+ * failed request): the delegate is asked for the raw body, which the recorder converts to the requested type itself. Request bodies are not recorded. Records are written to a gzip stream flushed after every record, so a recording is
+ * readable up to its last record even if the adapter is stopped abruptly. Exchanges which failed without an HTTP status (e.g. timeouts) are recorded with
+ * status {@code 0}.
+ *
+ * @since 1.0.2
+ */
+class TrafficRecorder implements TrioTransport {
+
+	private static final Log logger = LogFactory.getLog(TrafficRecorder.class);
+
+	// "TREC"
+	private static final int MAGIC = 0x54524543;
+	private static final int VERSION = 2;
+	// version 1 recorded re-serialized responses, with URIs limited to 64 KB
+	private static final int VERSION_MODIFIED_UTF = 1;
+	private static final byte GET = 0;
+	private static final byte POST = 1;
+	private static final byte[] NO_BODY = new byte[0];
+
+	/**
+	 * Recorded exchange.
+	 */
+	static final class Exchange {
+		final long timestamp;
+		final String method;
+		final String uri;
+		final int status;
+		final int latency;
+		final byte[] body;
+
+		Exchange(long timestamp, String method, String uri, int status, int latency, byte[] body) {
+			this.timestamp = timestamp;
+			this.method = method;
+			this.uri = uri;
+			this.status = status;
+			this.latency = latency;
+			this.body = body;
+		}
+	}
+
+	private final TrioTransport delegate;
+	private final ObjectMapper objectMapper;
+	private final Path file;
+	private DataOutputStream out;
+
+	private TrafficRecorder(TrioTransport delegate, ObjectMapper objectMapper, Path file, DataOutputStream out) {
+		this.delegate = delegate;
+		this.objectMapper = objectMapper;
+		this.file = file;
+		this.out = out;
+	}
+
+	/**
+	 * Creates recording file and starts recording exchanges of the transport.
+	 *
+	 * @param delegate transport executing the requests
+	 * @param objectMapper mapper converting recorded responses to the requested types
+	 * @param file recording file, replaced if it exists
+	 * @return recording transport
+	 * @throws IOException if recording file cannot be created
+	 */
+	static TrafficRecorder open(TrioTransport delegate, ObjectMapper objectMapper, Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), true)));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.flush();
+		return new TrafficRecorder(delegate, objectMapper, file, out);
+	}
+
+	/**
+	 * Reads all exchanges of a recording.
+	 *
+	 * @param file recording file
+	 * @return recorded exchanges, in recording order
+	 * @throws IOException if the file cannot be read or is not a recording
+	 */
+	static List<Exchange> read(Path file) throws IOException {
+		List<Exchange> exchanges = new ArrayList<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a traffic recording");
+			}
+			int version = in.readInt();
+			if (version != VERSION && version != VERSION_MODIFIED_UTF) {
+				throw new IOException("Unsupported version " + version + " of traffic recording " + file);
+			}
+			while (true) {
+				long timestamp;
+				try {
+					timestamp = in.readLong();
+				} catch (EOFException e) {
+					break;
+				}
+				String method = in.readByte() == POST ? "POST" : "GET";
+				String uri = version == VERSION_MODIFIED_UTF ? in.readUTF() : readString(in);
+				int status = in.readUnsignedShort();
+				int latency = in.readInt();
+				byte[] body = new byte[in.readInt()];
+				in.readFully(body);
+				exchanges.add(new Exchange(timestamp, method, uri, status, latency, body));
+			}
+		} catch (EOFException e) {
+			// recording cut in the middle of a record, e.g. the adapter was stopped abruptly
+		}
+		return exchanges;
+	}
+
+	@Override
+	public <T> T get(String uri, Type responseType, long timeout) throws Exception {
+		long start = System.nanoTime();
+		byte[] response;
+		try {
+			response = delegate.get(uri, byte[].class, timeout);
+		} catch (Exception e) {
+			recordFailure(GET, uri, start, e);
+			throw e;
+		}
+		write(GET, uri, 200, start, response != null ? response : NO_BODY);
+		return convert(response, responseType);
+	}
+
+	@Override
+	public <T> T post(String uri, Object request, Type responseType, long timeout) throws Exception {
+		long start = System.nanoTime();
+		byte[] response;
+		try {
+			response = delegate.post(uri, request, byte[].class, timeout);
+		} catch (Exception e) {
+			recordFailure(POST, uri, start, e);
+			throw e;
+		}
+		write(POST, uri, 200, start, response != null ? response : NO_BODY);
+		return convert(response, responseType);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Request is posted by the delegate as a byte array, and the status is read from the recorded response.
+	 */
+	@Override
+	public String postCommand(String uri, byte[] body, long timeout) throws Exception {
+		byte[] response = post(uri, body, byte[].class, timeout);
+		return CommandEncoder.readStatus(response != null ? new String(response, StandardCharsets.UTF_8) : null);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Requests are executed by the delegate, so pipelining is kept. Every response is recorded with the latency of the whole batch.
+	 */
+	@Override
+	public Map<String, Object> getAll(Map<String, Type> requests, long timeout, Map<String, Exception> failures) throws InterruptedException {
+		long start = System.nanoTime();
+		Map<String, Type> rawRequests = new LinkedHashMap<>(requests.size() * 2);
+		for (String uri : requests.keySet()) {
+			rawRequests.put(uri, byte[].class);
+		}
+		Map<String, Exception> batchFailures = new LinkedHashMap<>();
+		Map<String, Object> rawResponses = delegate.getAll(rawRequests, timeout, batchFailures);
+
+		Map<String, Object> responses = new LinkedHashMap<>(rawResponses.size() * 2);
+		for (Map.Entry<String, Object> response : rawResponses.entrySet()) {
+			byte[] body = (byte[]) response.getValue();
+			write(GET, response.getKey(), 200, start, body != null ? body : NO_BODY);
+			try {
+				responses.put(response.getKey(), convert(body, requests.get(response.getKey())));
+			} catch (IOException e) {
+				failures.put(response.getKey(), e);
+			}
+		}
+		for (Map.Entry<String, Exception> failure : batchFailures.entrySet()) {
+			recordFailure(GET, failure.getKey(), start, failure.getValue());
+		}
+		failures.putAll(batchFailures);
+		return responses;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			synchronized (this) {
+				if (out != null) {
+					out.close();
+					out = null;
+				}
+			}
+		} finally {
+			delegate.close();
+		}
+	}
+
+	private void recordFailure(byte method, String uri, long start, Exception e) {
+		if (e instanceof CommandFailureException) {
+			CommandFailureException failure = (CommandFailureException) e;
+			String response = failure.getResponse();
+			write(method, uri, failure.getStatusCode(), start, response != null ? response.getBytes(StandardCharsets.UTF_8) : NO_BODY);
+		} else {
+			write(method, uri, 0, start, NO_BODY);
+		}
+	}
+
+	/**
+	 * Converts recorded response body to the requested type.
+	 *
+	 * @param body response body, may be {@code null}
+	 * @param responseType type to convert response body to
+	 * @param <T> response type
+	 * @return converted response body, {@code null} if there is no body or it is not needed
+	 * @throws IOException if the body cannot be converted
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T convert(byte[] body, Type responseType) throws IOException {
+		if (responseType == byte[].class) {
+			return (T) body;
+		}
+		if (responseType == null || responseType == Void.class || body == null || body.length == 0) {
+			return null;
+		}
+		if (responseType == String.class) {
+			return (T) new String(body, StandardCharsets.UTF_8);
+		}
+		return objectMapper.readValue(body, objectMapper.getTypeFactory().constructType(responseType));
+	}
+
+	private synchronized void write(byte method, String uri, int status, long start, byte[] body) {
+		if (out == null) {
+			return;
+		}
+		long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		try {
+			out.writeLong(System.currentTimeMillis() - latency);
+			out.writeByte(method);
+			writeString(out, uri);
+			out.writeShort(status);
+			out.writeInt((int) latency);
+			out.writeInt(body.length);
+			out.write(body);
+			out.flush();
+		} catch (IOException e) {
+			// the exchange itself succeeded, a broken recording must not fail it
+			logger.warn("Unable to write traffic recording " + file + ", recording is stopped", e);
+			try {
+				out.close();
+			} catch (IOException ignored) {
+				// nothing to do
+			}
+			out = null;
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = bytes.length;
+		while ((length & ~0x7F) != 0) {
+			out.writeByte((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		out.writeByte(length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = 0;
+		for (int shift = 0; ; shift += 7) {
+			if (shift > 28) {
+				throw new IOException("Malformed string length");
+			}
+			byte b = in.readByte();
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+		}
+		if (length < 0) {
+			throw new IOException("Malformed string length " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transport used by {@link PolycomTrio} to execute REST API calls (e.g. {@code api/v1/mgmt/device/info}) on the device. <br>
+ * The default transport delegates to the blocking {@code RestTemplate} based implementation of {@code RestCommunicator}; alternative implementations may
+ * share I/O threads between devices.
+ *
+ * @since 1.0.2
+ */
+interface TrioTransport extends Closeable {
+
+	/**
+	 * Executes GET request.
+	 *
+	 * @param uri request URI, relative to the device base URL (e.g. {@code api/v1/mgmt/device/info})
+	 * @param responseType type to convert response body to, {@code byte[]} for the response body as received
+	 * @param timeout request timeout, in milliseconds, {@code 0} for the transport default
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	<T> T get(String uri, Type responseType, long timeout) throws Exception;
+
+	/**
+	 * Executes POST request.
+	 *
+	 * @param uri request URI, relative to the device base URL (e.g. {@code api/v1/callctrl/dial})
+	 * @param request request body, converted to JSON unless it is a {@code byte[]} (sent as is), may be {@code null}
+	 * @param responseType type to convert response body to, {@code byte[]} for the response body as received
+	 * @param timeout request timeout, in milliseconds, {@code 0} for the transport default
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	<T> T post(String uri, Object request, Type responseType, long timeout) throws Exception;
+
+	/**
+	 * Executes POST request of a control command with a body already encoded to JSON (see {@link CommandEncoder}), and reads the {@code Status} of the
+	 * response. <br>
+	 * Default implementation posts the body as a byte array and reads the status from the response text.
+	 *
+	 * @param uri request URI (e.g. {@code api/v1/callctrl/mute})
+	 * @param body JSON encoded request body
+	 * @param timeout request timeout, in milliseconds, {@code 0} for the transport default
+	 * @return response status, empty if the response has none
+	 * @throws Exception if any communication error occurs
+	 */
+	default String postCommand(String uri, byte[] body, long timeout) throws Exception {
+		String response = post(uri, body, String.class, timeout);
+		return CommandEncoder.readStatus(response);
+	}
+
+	/**
+	 * Executes GET request with the default timeout.
+	 *
+	 * @param uri request URI
+	 * @param responseType type to convert response body to
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	default <T> T get(String uri, Type responseType) throws Exception {
+		return get(uri, responseType, 0);
+	}
+
+	/**
+	 * Executes POST request with the default timeout.
+	 *
+	 * @param uri request URI
+	 * @param request request body, converted to JSON, may be {@code null}
+	 * @param responseType type to convert response body to
+	 * @param <T> response type
+	 * @return converted response body
+	 * @throws Exception if any communication error occurs
+	 */
+	default <T> T post(String uri, Object request, Type responseType) throws Exception {
+		return post(uri, request, responseType, 0);
+	}
+
+	/**
+	 * Executes GET requests of independent URIs. A failed request does not fail the others: it is left out of the responses, and its failure is added to
+	 * {@code failures}. <br>
+	 * Default implementation executes requests one after another, each with the time left of the batch timeout; implementations supporting HTTP/1.1
+	 * pipelining write all requests before reading the responses.
+	 *
+	 * @param requests response types of request URIs, in request order
+	 * @param timeout timeout of the whole batch, in milliseconds, {@code 0} for the transport default
+	 * @param failures to add failures of the requests to, by request URI
+	 * @return converted response bodies of the successful requests by request URI
+	 * @throws InterruptedException if interrupted while executing the requests
+	 */
+	default Map<String, Object> getAll(Map<String, Type> requests, long timeout, Map<String, Exception> failures) throws InterruptedException {
+		Map<String, Object> responses = new LinkedHashMap<>(requests.size() * 2);
+		long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		for (Map.Entry<String, Type> request : requests.entrySet()) {
+			long requestTimeout = timeout;
+			if (timeout > 0) {
+				requestTimeout = TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime());
+				if (requestTimeout <= 0) {
+					failures.put(request.getKey(), new TimeoutException("Batch timeout passed, " + request.getKey() + " is discarded"));
+					continue;
+				}
+			}
+			try {
+				responses.put(request.getKey(), get(request.getKey(), request.getValue(), requestTimeout));
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				failures.put(request.getKey(), e);
+			}
+		}
+		return responses;
+	}
+}
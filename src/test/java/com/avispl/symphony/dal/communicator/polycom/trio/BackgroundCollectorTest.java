@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BackgroundCollector}.
+ */
+public class BackgroundCollectorTest {
+
+	/**
+	 * Every sweep must publish a new snapshot, and a failed sweep must publish its failure.
+	 */
+	@Test
+	public void testRefresh() {
+		AtomicInteger sweeps = new AtomicInteger();
+		BackgroundCollector collector = new BackgroundCollector("test", () -> {
+			if (sweeps.incrementAndGet() == 2) {
+				throw new IOException("Device is down");
+			}
+			return Collections.singletonList(new ExtendedStatistics());
+		}, () -> Collections.singletonMap("DeviceInfo", 1000L), 60000L);
+		assertNull("Snapshot is published before the first sweep", collector.latest());
+
+		collector.refresh();
+		BackgroundCollector.Snapshot first = collector.latest();
+		assertNotNull("Snapshot is not published", first);
+		assertNull("Successful sweep reports failure", first.failure);
+		assertEquals("Statistics are not published", 1, first.statistics.size());
+		assertEquals("Section timestamps are not published", Long.valueOf(1000L), first.sectionTimestamps.get("DeviceInfo"));
+
+		collector.refresh();
+		BackgroundCollector.Snapshot second = collector.latest();
+		assertNotSame("Failed sweep does not publish snapshot", first, second);
+		assertTrue("Failure is not published", second.failure instanceof IOException);
+		assertNull("Failed sweep publishes statistics", second.statistics);
+	}
+
+	/**
+	 * First read must wait for the first sweep of the collector thread, and the thread must stop sweeping once stopped.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@Test
+	public void testStartStop() throws InterruptedException {
+		AtomicInteger sweeps = new AtomicInteger();
+		BackgroundCollector collector = new BackgroundCollector("test", () -> {
+			sweeps.incrementAndGet();
+			Thread.sleep(50L);
+			return Collections.singletonList(new ExtendedStatistics());
+		}, Collections::emptyMap, 10L);
+		collector.start();
+		try {
+			BackgroundCollector.Snapshot snapshot = collector.await(5000L);
+			assertNotNull("First sweep is not awaited", snapshot);
+			assertNotNull("First sweep fails", snapshot.statistics);
+		} finally {
+			collector.stop();
+		}
+
+		Thread.sleep(100L);
+		int count = sweeps.get();
+		Thread.sleep(200L);
+		assertEquals("Collector keeps sweeping after stop", count, sweeps.get());
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CallQualityTracker}.
+ */
+public class CallQualityTrackerTest {
+	private static final String REF = "0xb4e5dfa0/0:Voice";
+
+	/**
+	 * Loss burst late in the call must be reported for the interval it happened in, not diluted by the whole call.
+	 */
+	@Test
+	public void testIntervalPacketLoss() {
+		CallQualityTracker tracker = new CallQualityTracker(CallQualityTracker.DEFAULT_RING_SIZE);
+
+		CallQualityTracker.StreamSamples samples = tracker.update(REF, stream(100000, 0, 1000000, 1000000, "1"), 1000L);
+		assertEquals("First interval loss is wrong", 0f, samples.intervalPacketLossPercent, 0.001f);
+		assertEquals("Bit rate must not be available on first sample", -1, samples.bitRateRx);
+
+		// 1000 packets expected, 100 lost during the last 10 seconds
+		samples = tracker.update(REF, stream(101000, 100, 1080000, 1040000, "5"), 11000L);
+		assertEquals("Interval loss is wrong", 10f, samples.intervalPacketLossPercent, 0.001f);
+		assertEquals("Bit rate rx is wrong", 64, samples.bitRateRx);
+		assertEquals("Bit rate tx is wrong", 32, samples.bitRateTx);
+		assertEquals("Max loss is wrong", 10f, samples.packetLoss.max(), 0.001f);
+		assertEquals("Avg loss is wrong", 5f, samples.packetLoss.avg(), 0.001f);
+		assertEquals("Max jitter is wrong", 5f, samples.jitters.max(), 0.001f);
+	}
+
+	/**
+	 * Counters going backwards must restart the calculation instead of reporting negative values.
+	 */
+	@Test
+	public void testCounterReset() {
+		CallQualityTracker tracker = new CallQualityTracker(CallQualityTracker.DEFAULT_RING_SIZE);
+		tracker.update(REF, stream(5000, 50, 100000, 100000, "1"), 1000L);
+
+		CallQualityTracker.StreamSamples samples = tracker.update(REF, stream(200, 2, 4000, 4000, "1"), 2000L);
+		assertEquals("Interval expected packets after reset is wrong", 200, samples.intervalPacketsExpected);
+		assertEquals("Interval loss after reset is wrong", 1f, samples.intervalPacketLossPercent, 0.001f);
+	}
+
+	/**
+	 * Ring must only keep the configured number of samples and recalculate extremes once they are evicted.
+	 */
+	@Test
+	public void testSampleRing() {
+		CallQualityTracker.SampleRing ring = new CallQualityTracker.SampleRing(3);
+		ring.add(9f);
+		ring.add(1f);
+		ring.add(2f);
+		assertEquals("Max is wrong", 9f, ring.max(), 0f);
+		ring.add(3f);
+		assertEquals("Size is wrong", 3, ring.size());
+		assertEquals("Max after eviction is wrong", 3f, ring.max(), 0f);
+		assertEquals("Min is wrong", 1f, ring.min(), 0f);
+		assertEquals("Avg is wrong", 2f, ring.avg(), 0.001f);
+	}
+
+	/**
+	 * Streams which are not reported during a poll must be forgotten.
+	 */
+	@Test
+	public void testFinishedStreamsAreDropped() {
+		CallQualityTracker tracker = new CallQualityTracker(CallQualityTracker.DEFAULT_RING_SIZE);
+		tracker.beginPoll();
+		tracker.update(REF, stream(100, 0, 100, 100, "0"), 1000L);
+		tracker.endPoll();
+		assertNotNull("Stream is dropped while reported", tracker.get(REF));
+
+		tracker.beginPoll();
+		tracker.endPoll();
+		assertNull("Finished stream is not dropped", tracker.get(REF));
+	}
+
+	private static Map<String, ?> stream(long expected, long lost, long octetsReceived, long octetsSent, String jitter) {
+		Map<String, String> stream = new HashMap<>();
+		stream.put("PacketsExpected", String.valueOf(expected));
+		stream.put("PacketsLost", String.valueOf(lost));
+		stream.put("OctetsReceived", String.valueOf(octetsReceived));
+		stream.put("OctetsSent", String.valueOf(octetsSent));
+		stream.put("Jitter", jitter);
+		return stream;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CallStateModel}.
+ */
+public class CallStateModelTest {
+
+	/**
+	 * Every change of the state must be a new version reported to listeners, while updates which do not change the state must not.
+	 */
+	@Test
+	public void testTransitions() {
+		CallStateModel model = new CallStateModel();
+		List<Object[]> transitions = new ArrayList<>();
+		model.addListener((version, previous, current) -> transitions.add(new Object[] { version, previous, current }));
+
+		model.onDial("1234", 1000L);
+		assertEquals("Dial is not a transition", 1, transitions.size());
+		assertEquals("Dial does not change version", 1L, model.getVersion());
+		assertNull("Idle state is not reported as previous", transitions.get(0)[1]);
+		assertEquals("Dialed number is not reported", "1234", ((Map<?, ?>) transitions.get(0)[2]).get(CallStateModel.REMOTE_PARTY_NUMBER));
+		assertFalse("Model is fresh without call handle", model.isFresh(60000L, 1000L));
+
+		model.reconcile(callStatus("0x1", "Connected"), 2000L);
+		model.reconcile(callStatus("0x1", "Connected"), 3000L);
+		assertEquals("Unchanged state is a transition", 2, transitions.size());
+		assertEquals("Reconciliation does not change version", 2L, transitions.get(1)[0]);
+		assertEquals("Call handle is not reconciled", "0x1", model.getCallHandle());
+
+		model.onHangup("0x2", 4000L);
+		assertEquals("Hangup of another call is a transition", 2, transitions.size());
+		model.onHangup(null, 5000L);
+		assertEquals("Hangup of the current call is not a transition", 3, transitions.size());
+		assertNull("Model is not idle after hangup", model.toCallStatusData());
+		assertTrue("Model is not fresh after hangup", model.isFresh(60000L, 5000L));
+	}
+
+	/**
+	 * A callStatus response must not override a transition made while its request was in flight.
+	 */
+	@Test
+	public void testStaleResponse() {
+		CallStateModel model = new CallStateModel();
+		model.reconcile(callStatus("0x1", "Connected"), 1000L);
+
+		long version = model.getVersion();
+		model.onEvent("0x1", "Disconnected", null, 1500L);
+		assertFalse("Stale response is applied", model.reconcile(callStatus("0x1", "Connected"), 2000L, version));
+		assertNull("Stale response overrides newer transition", model.toCallStatusData());
+
+		version = model.getVersion();
+		assertTrue("Current response is not applied", model.reconcile(callStatus("0x3", "Connected"), 3000L, version));
+		assertEquals("Current response is not reconciled", "0x3", model.getCallHandle());
+	}
+
+	private static Map<String, Object> callStatus(String callHandle, String callState) {
+		Map<String, Object> data = new HashMap<>();
+		data.put(CallStateModel.CALL_HANDLE, callHandle);
+		data.put(CallStateModel.CALL_STATE, callState);
+		return data;
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CapabilityMatrix}.
+ */
+public class CapabilityMatrixTest {
+
+	/**
+	 * Unsupported URI must be skipped until the firmware changes, and URIs with minimum version must be gated by version.
+	 */
+	@Test
+	public void testProbes() {
+		CapabilityMatrix matrix = new CapabilityMatrix();
+		matrix.addMinimumVersion("api/v1/mgmt/media/sessionStats", 5, 8);
+
+		assertFalse("Gated URI is supported with unknown firmware", matrix.isSupported("api/v1/mgmt/media/sessionStats", null));
+		assertFalse("Gated URI is supported with older firmware", matrix.isSupported("api/v1/mgmt/media/sessionStats", "5.7.2.1234"));
+		assertTrue("Gated URI is not supported with newer firmware", matrix.isSupported("api/v1/mgmt/media/sessionStats", "6.0.0.1"));
+		assertTrue("Not probed URI is not supported", matrix.isSupported("api/v1/mgmt/transferType/get", "5.4.1.100"));
+
+		assertTrue("New probe result is not reported as a change", matrix.record("api/v1/mgmt/transferType/get", "5.4.1.100", false));
+		assertFalse("Same probe result is reported as a change", matrix.record("api/v1/mgmt/transferType/get", "5.4.1.100", false));
+		assertFalse("Unsupported URI is supported", matrix.isSupported("api/v1/mgmt/transferType/get", "5.4.1.100"));
+
+		CapabilityMatrix restored = new CapabilityMatrix();
+		Map<String, String> state = matrix.toState();
+		restored.restore(state);
+		assertFalse("Unsupported URI is supported after restore", restored.isSupported("api/v1/mgmt/transferType/get", "5.4.1.100"));
+
+		assertTrue("Unsupported URI is skipped after firmware upgrade", matrix.isSupported("api/v1/mgmt/transferType/get", "5.9.0.100"));
+	}
+}
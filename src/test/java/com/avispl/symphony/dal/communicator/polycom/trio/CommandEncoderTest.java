@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CommandEncoder}.
+ */
+public class CommandEncoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Encoded bodies must be the same JSON as bodies serialized by Jackson, whatever characters the arguments contain.
+	 */
+	@Test
+	public void testBodies() throws IOException {
+		assertEquals("Wrong mute body", message(Collections.singletonMap("state", "1")), objectMapper.readTree(CommandEncoder.MUTE));
+		assertEquals("Wrong unmute body", message(Collections.singletonMap("state", "0")), objectMapper.readTree(CommandEncoder.UNMUTE));
+
+		String dest = "sip:\"Café\" \\ 会议室 📞\t\u0001\uD800";
+		Map<String, String> dial = new HashMap<>();
+		dial.put("Dest", dest);
+		dial.put("Line", "1");
+		dial.put("Type", "SIP");
+		byte[] body = CommandEncoder.dial(dest, "1", "SIP");
+		assertEquals("Wrong dial body", message(dial), objectMapper.readTree(body));
+		assertEquals("Dial body is not exactly sized", body.length, new String(body, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8).length);
+
+		dial.remove("Type");
+		assertEquals("Wrong dial body without type", message(dial), objectMapper.readTree(CommandEncoder.dial(dest, "1", null)));
+		assertEquals("Wrong endCall body", message(Collections.singletonMap("Ref", "0xb53e57c0")),
+				objectMapper.readTree(CommandEncoder.endCall("0xb53e57c0")));
+	}
+
+	/**
+	 * Status must be read whether it is a string or a number and wherever it is in the response, and be empty if the response has none.
+	 */
+	@Test
+	public void testReadStatus() throws IOException {
+		assertEquals("Wrong string status", "2000", CommandEncoder.readStatus("{\"data\":{\"Status\":\"1\",\"List\":[{}]},\"Status\":\"2000\"}"));
+		assertEquals("Wrong number status", "4007", CommandEncoder.readStatus("{\"Status\":4007}"));
+		assertEquals("Missing status is not empty", "", CommandEncoder.readStatus("{\"data\":{}}"));
+		assertEquals("Missing body is not empty", "", CommandEncoder.readStatus((String) null));
+
+		JsonBodyDecoder decoder = new JsonBodyDecoder(objectMapper);
+		byte[] response = "{\"data\":[1,2],\"Status\":\"2000\"}".getBytes(StandardCharsets.UTF_8);
+		decoder.write(response, 0, response.length);
+		assertEquals("Wrong status of streamed response", "2000", decoder.decodeStatus());
+	}
+
+	private JsonNode message(Map<String, String> data) {
+		return objectMapper.valueToTree(Collections.singletonMap("data", data));
+	}
+}
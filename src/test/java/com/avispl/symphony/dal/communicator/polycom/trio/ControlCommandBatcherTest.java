@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ControlCommandBatcher}.
+ */
+public class ControlCommandBatcherTest {
+
+	/**
+	 * Last command of a property must win, and Restart must be dropped when Reboot is pending.
+	 */
+	@Test
+	public void testCollapse() {
+		ControlCommandBatcher batcher = new ControlCommandBatcher();
+		batcher.addSupersedingRule("RestartDevice", "RebootDevice");
+
+		List<ControllableProperty> collapsed = batcher.collapse(Arrays.asList(command("Mute", "1"), command("RestartDevice", ""), command("Mute", "0"),
+				command("RebootDevice", ""), command("Mute", "1")));
+
+		assertEquals("Wrong number of commands", 2, collapsed.size());
+		assertEquals("Reboot is not dispatched first", "RebootDevice", collapsed.get(0).getProperty());
+		assertEquals("Last mute command is not dispatched", "1", collapsed.get(1).getValue());
+		assertEquals("Wrong number of saved calls", 3, batcher.getSavedCalls());
+
+		batcher.collapse(Arrays.asList(command("RestartDevice", ""), command("Mute", "0")));
+		assertEquals("Saved calls are counted for batch without duplicates", 3, batcher.getSavedCalls());
+	}
+
+	private static ControllableProperty command(String property, String value) {
+		ControllableProperty command = new ControllableProperty();
+		command.setProperty(property);
+		command.setValue(value);
+		return command;
+	}
+}
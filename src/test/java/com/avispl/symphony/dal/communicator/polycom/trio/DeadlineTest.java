@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link Deadline}.
+ */
+public class DeadlineTest {
+
+	/**
+	 * Nested operations must only shorten the deadline, and ending an operation must restore the enclosing deadline.
+	 */
+	@Test
+	public void testNestedOperations() throws Exception {
+		assertNull("Deadline is set outside of operation", Deadline.current());
+		Deadline.run(60000L, () -> {
+			Deadline outerDeadline = Deadline.current();
+			assertNotNull("Deadline is not set", outerDeadline);
+			assertFalse("Deadline is expired", outerDeadline.isExpired());
+
+			Deadline.run(120000L, () -> assertSame("Nested operation extends deadline", outerDeadline, Deadline.current()));
+			long remaining = Deadline.call(1000L, () -> Deadline.current().remaining());
+			assertTrue("Nested operation does not shorten deadline", remaining <= 1000L);
+			Deadline.run(0L, () -> assertSame("Operation without budget drops enclosing deadline", outerDeadline, Deadline.current()));
+			assertSame("Enclosing deadline is not restored", outerDeadline, Deadline.current());
+		});
+		assertNull("Deadline is not cleared", Deadline.current());
+
+		Deadline.run(1L, () -> {
+			Thread.sleep(5L);
+			assertTrue("Deadline is not expired", Deadline.current().isExpired());
+		});
+	}
+
+	/**
+	 * Deadline must be cleared when the operation fails.
+	 */
+	@Test
+	public void testFailedOperation() {
+		try {
+			Deadline.run(60000L, () -> {
+				throw new IllegalStateException("failed");
+			});
+			fail("Failure is not propagated");
+		} catch (Exception e) {
+			assertTrue("Wrong failure", e instanceof IllegalStateException);
+		}
+		assertNull("Deadline is not cleared after failure", Deadline.current());
+	}
+}
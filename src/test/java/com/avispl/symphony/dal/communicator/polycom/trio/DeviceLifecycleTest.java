@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DeviceLifecycle}.
+ */
+public class DeviceLifecycleTest {
+
+	/**
+	 * Rebooting device must be probed with growing delays, and must only be running again once it reports a lower uptime.
+	 */
+	@Test
+	public void testReboot() {
+		DeviceLifecycle lifecycle = new DeviceLifecycle(1000L, 4000L, 600000L);
+		lifecycle.recordUptime(3600L);
+		lifecycle.beginReboot(true, 0L);
+		assertEquals("Device is not rebooting", DeviceLifecycle.State.REBOOTING, lifecycle.getState());
+		assertFalse("Probe is due before the initial delay", lifecycle.isProbeDue(500L));
+		assertTrue("Probe is not due after the initial delay", lifecycle.isProbeDue(1000L));
+
+		assertFalse("Device which has not gone down yet is ready", lifecycle.probeSucceeded(3601L, 1000L));
+		assertFalse("Probe is due before the backoff delay", lifecycle.isProbeDue(1500L));
+		assertTrue("Probe is not due after the backoff delay", lifecycle.isProbeDue(2000L));
+		assertFalse("Device which is down is ready", lifecycle.probeFailed(2000L));
+		assertFalse("Backoff delay is not doubled", lifecycle.isProbeDue(3500L));
+		assertTrue("Probe is not due after the doubled backoff delay", lifecycle.isProbeDue(4000L));
+		assertFalse("Device which is down is ready", lifecycle.probeFailed(4000L));
+		assertFalse("Device which is down is ready", lifecycle.probeFailed(8000L));
+		assertTrue("Backoff delay is not capped", lifecycle.isProbeDue(12000L));
+
+		assertTrue("Device with lower uptime is not ready", lifecycle.probeSucceeded(20L, 12000L));
+		assertEquals("Device is not running", DeviceLifecycle.State.RUNNING, lifecycle.getState());
+		assertFalse("Probe is due for running device", lifecycle.isProbeDue(60000L));
+	}
+
+	/**
+	 * Suspected reboot must not stop monitoring, it must only be taken once to be confirmed, and uptime going backwards must be reported.
+	 */
+	@Test
+	public void testSuspectedReboot() {
+		DeviceLifecycle lifecycle = new DeviceLifecycle(1000L, 4000L, 600000L);
+		assertFalse("First uptime is reported as a reboot", lifecycle.recordUptime(3600L));
+		lifecycle.suspectReboot();
+		assertEquals("Suspected reboot stops monitoring", DeviceLifecycle.State.RUNNING, lifecycle.getState());
+		assertTrue("Suspected reboot is not taken", lifecycle.takeSuspectedReboot());
+		assertFalse("Suspected reboot is taken twice", lifecycle.takeSuspectedReboot());
+
+		assertFalse("Growing uptime is reported as a reboot", lifecycle.recordUptime(3700L));
+		assertTrue("Uptime going backwards is not reported as a reboot", lifecycle.recordUptime(30L));
+
+		lifecycle.suspectReboot();
+		lifecycle.beginReboot(true, 0L);
+		assertFalse("Suspected reboot is taken while rebooting", lifecycle.takeSuspectedReboot());
+	}
+
+	/**
+	 * Restart keeps the uptime, so restarting device must be running again once it answers after it was seen down.
+	 */
+	@Test
+	public void testRestart() {
+		DeviceLifecycle lifecycle = new DeviceLifecycle(1000L, 4000L, 600000L);
+		lifecycle.recordUptime(3600L);
+		lifecycle.beginReboot(false, 0L);
+		assertFalse("Device which has not gone down yet is ready", lifecycle.probeSucceeded(3601L, 1000L));
+		assertFalse("Device which is down is ready", lifecycle.probeFailed(2000L));
+		assertTrue("Device which answers after it was down is not ready", lifecycle.probeSucceeded(3700L, 4000L));
+	}
+
+	/**
+	 * Device which does not come back within the max reboot duration must be considered running again.
+	 */
+	@Test
+	public void testMaxRebootDuration() {
+		DeviceLifecycle lifecycle = new DeviceLifecycle(1000L, 4000L, 10000L);
+		lifecycle.beginReboot(true, 0L);
+		assertFalse("Device is running before max reboot duration", lifecycle.probeFailed(9000L));
+		assertTrue("Device is not running after max reboot duration", lifecycle.probeFailed(10000L));
+		assertEquals("Device is not running", DeviceLifecycle.State.RUNNING, lifecycle.getState());
+	}
+
+	/**
+	 * Uptime must be parsed from the format reported by the device.
+	 */
+	@Test
+	public void testParseUptime() {
+		assertEquals("Uptime is not parsed", 79329L, DeviceLifecycle.parseUptime("0 Day 22:02:09"));
+		assertEquals("Uptime with days is not parsed", 2 * 86400L + 34 * 60L + 33L, DeviceLifecycle.parseUptime("2 days 0:34:33"));
+		assertEquals("Invalid uptime is parsed", -1L, DeviceLifecycle.parseUptime("unknown"));
+		assertEquals("Missing uptime is parsed", -1L, DeviceLifecycle.parseUptime(null));
+	}
+}
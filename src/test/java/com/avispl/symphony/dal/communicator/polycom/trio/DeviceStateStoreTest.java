@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DeviceStateStore}.
+ */
+public class DeviceStateStoreTest {
+	private static final String DEVICE = "10.0.0.21";
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("trio-state");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	/**
+	 * Last written value of every entry must survive reopening the store.
+	 */
+	@Test
+	public void testReopen() throws IOException {
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			store.put("profile", Collections.singletonMap("firmwareVersion", "5.8.0.1234"), 1000L);
+			store.put("profile", Collections.singletonMap("firmwareVersion", "7.1.0.5678"), 2000L);
+			store.put("config", Collections.singletonMap("video.callRate", "2048"), 3000L);
+		}
+
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			DeviceStateStore.Entry profile = store.get("profile");
+			assertNotNull("Profile is not restored", profile);
+			assertEquals("Last firmware version is not restored", "7.1.0.5678", profile.values.get("firmwareVersion"));
+			assertEquals("Timestamp is not restored", 2000L, profile.timestamp);
+			assertEquals("Config is not restored", "2048", store.get("config").values.get("video.callRate"));
+		}
+	}
+
+	/**
+	 * Keys and values over 64 KB of UTF-8 must survive reopening the store.
+	 */
+	@Test
+	public void testLargeValue() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() < 70000) {
+			builder.append("会议室");
+		}
+		String large = builder.toString();
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			store.put("section.RunningConfig", Collections.singletonMap("RunningConfig#" + large, large), 1000L);
+		}
+
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			assertEquals("Large value is not restored", large, store.get("section.RunningConfig").values.get("RunningConfig#" + large));
+		}
+	}
+
+	/**
+	 * Torn record at the end of the file must be dropped without losing the records before it.
+	 */
+	@Test
+	public void testTornRecord() throws IOException {
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			store.put("profile", Collections.singletonMap("firmwareVersion", "5.8.0.1234"), 1000L);
+		}
+		Path file;
+		try (Stream<Path> files = Files.list(directory)) {
+			file = files.findFirst().get();
+		}
+		Files.write(file, new byte[] { 0, 0, 0, 50, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			assertEquals("Good record is lost", "5.8.0.1234", store.get("profile").values.get("firmwareVersion"));
+			store.put("config", Collections.singletonMap("video.callRate", "1024"), 2000L);
+		}
+
+		try (DeviceStateStore store = DeviceStateStore.open(directory.toString(), DEVICE)) {
+			assertEquals("Record appended after truncation is lost", "1024", store.get("config").values.get("video.callRate"));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link JsonBodyDecoder}.
+ */
+public class JsonBodyDecoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * Body split at arbitrary points (including inside multi-byte characters) must be decoded as a whole, even though the fed array is overwritten after
+	 * every write.
+	 */
+	@Test
+	public void testSplitBody() throws IOException {
+		byte[] body = "{\"Status\":\"2000\",\"data\":{\"RemotePartyName\":\"Café 42\",\"DurationInSeconds\":308,\"Streams\":[1,2.5,true,null]}}"
+				.getBytes(StandardCharsets.UTF_8);
+		JsonBodyDecoder decoder = new JsonBodyDecoder(objectMapper);
+		byte[] buffer = new byte[3];
+		for (int offset = 0; offset < body.length; offset += buffer.length) {
+			int length = Math.min(buffer.length, body.length - offset);
+			System.arraycopy(body, offset, buffer, 0, length);
+			decoder.write(buffer, 0, length);
+			Arrays.fill(buffer, (byte) '#');
+		}
+
+		JsonNode node = decoder.decode(objectMapper.constructType(JsonNode.class));
+
+		assertEquals("Wrong status", "2000", node.get("Status").asText());
+		assertEquals("Multi-byte character is broken", "Café 42", node.at("/data/RemotePartyName").asText());
+		assertEquals("Wrong number", 308, node.at("/data/DurationInSeconds").asInt());
+		assertEquals("Wrong array", 4, node.at("/data/Streams").size());
+	}
+
+	/**
+	 * Empty body must be decoded as {@code null}, malformed body must be reported on decode.
+	 */
+	@Test
+	public void testEmptyAndMalformedBody() throws IOException {
+		assertNull("Empty body is not null", new JsonBodyDecoder(objectMapper).decode(objectMapper.constructType(JsonNode.class)));
+
+		JsonBodyDecoder decoder = new JsonBodyDecoder(objectMapper);
+		byte[] body = "<html>Forbidden</html>".getBytes(StandardCharsets.UTF_8);
+		decoder.write(body, 0, body.length);
+		try {
+			decoder.decode(objectMapper.constructType(JsonNode.class));
+			fail("Malformed body is not reported");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
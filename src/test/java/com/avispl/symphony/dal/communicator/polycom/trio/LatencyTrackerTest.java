@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LatencyTracker}.
+ */
+public class LatencyTrackerTest {
+
+	/**
+	 * Timeout must stay configured until enough latencies are known, then follow the percentile within bounds.
+	 */
+	@Test
+	public void testAdaptiveTimeout() {
+		LatencyTracker tracker = new LatencyTracker(200L);
+		for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+			tracker.record("/api/v1/mgmt/device/info", 100L);
+		}
+		assertEquals("Timeout adapts before enough latencies are known", 30000L, tracker.timeout("/api/v1/mgmt/device/info", 30000L));
+
+		tracker.record("/api/v1/mgmt/device/info", 500L);
+		assertEquals("Wrong percentile", 500L, tracker.percentile("/api/v1/mgmt/device/info", LatencyTracker.PERCENTILE));
+		assertEquals("Wrong adaptive timeout", 1500L, tracker.timeout("/api/v1/mgmt/device/info", 30000L));
+		assertEquals("Adaptive timeout exceeds configured timeout", 1000L, tracker.timeout("/api/v1/mgmt/device/info", 1000L));
+		assertEquals("Timeout of unknown URI is not configured timeout", 30000L, tracker.timeout("/api/v1/mgmt/network/stats", 30000L));
+
+		for (int i = 0; i < LatencyTracker.WINDOW_SIZE; i++) {
+			tracker.record("/api/v1/mgmt/device/info", 10L);
+		}
+		assertEquals("Adaptive timeout is below lower bound", 200L, tracker.timeout("/api/v1/mgmt/device/info", 30000L));
+
+		// requests timing out on a degrading link are recorded at their timeout
+		for (int i = 0; i < LatencyTracker.WINDOW_SIZE / 10; i++) {
+			tracker.record("/api/v1/mgmt/device/info", tracker.timeout("/api/v1/mgmt/device/info", 30000L));
+		}
+		assertTrue("Adaptive timeout does not grow after timeouts", tracker.timeout("/api/v1/mgmt/device/info", 30000L) > 200L);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MediaSessionIndex}.
+ */
+public class MediaSessionIndexTest {
+
+	/**
+	 * Every session must be found by its reference, with its first Voice and Video streams.
+	 */
+	@Test
+	public void testIndex() {
+		Map<String, ?> video = stream("1:Video");
+		List<Map<String, ?>> mediaSessions = new ArrayList<>();
+		mediaSessions.add(session("0x1", stream("0:Voice"), video, stream("2:Video")));
+		mediaSessions.add(session("0x2", stream("0:Voice")));
+		mediaSessions.add(session("0x3"));
+
+		MediaSessionIndex index = new MediaSessionIndex(mediaSessions);
+		assertEquals("Wrong number of sessions", 3, index.sessions().size());
+
+		MediaSessionIndex.Session connected = index.get("0x1");
+		assertEquals("Wrong audio stream", "0:Voice", connected.audioStream.get("Category"));
+		assertSame("Video stream is not the first one", video, connected.videoStream);
+
+		MediaSessionIndex.Session held = index.get("0x2");
+		assertNotNull("Audio stream of held session is missing", held.audioStream);
+		assertNull("Video stream of audio only session is reported", held.videoStream);
+		assertFalse("Session without streams reports streams", index.get("0x3").hasStreams);
+		assertNull("Unknown session is found", index.get("0x4"));
+		assertNull("Session is found for null reference", index.get(null));
+	}
+
+	/**
+	 * Rows must be indexed by the key, the first row winning.
+	 */
+	@Test
+	public void testIndexBy() {
+		Map<String, Object> line1 = new HashMap<>();
+		line1.put("LineNumber", "1");
+		Map<String, Object> line2 = new HashMap<>();
+		line2.put("LineNumber", "2");
+		Map<String, Object> duplicate = new HashMap<>();
+		duplicate.put("LineNumber", "1");
+
+		Map<String, Map<String, ?>> index = MediaSessionIndex.indexBy(Arrays.<Map<String, ?>>asList(line1, line2, duplicate, new HashMap<>()), "LineNumber");
+		assertEquals("Wrong number of rows", 2, index.size());
+		assertSame("First row does not win", line1, index.get("1"));
+		assertSame("Row is not indexed", line2, index.get("2"));
+	}
+
+	private static Map<String, ?> session(String ref, Map<?, ?>... streams) {
+		Map<String, Object> session = new HashMap<>();
+		session.put("Ref", ref);
+		session.put("Streams", Arrays.asList(streams));
+		return session;
+	}
+
+	private static Map<String, ?> stream(String category) {
+		Map<String, Object> stream = new HashMap<>();
+		stream.put("Category", category);
+		return stream;
+	}
+}
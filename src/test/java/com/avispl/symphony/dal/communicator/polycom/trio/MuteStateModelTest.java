@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.control.call.MuteStatus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MuteStateModel}.
+ */
+public class MuteStateModelTest {
+
+	/**
+	 * Written state must be reported while fresh and within the same call only.
+	 */
+	@Test
+	public void testFreshness() {
+		MuteStateModel model = new MuteStateModel();
+		assertNull("Unknown state is reported", model.get("0x1", 60000L, 1000L));
+
+		model.update(MuteStatus.Muted, "0x1", 1000L);
+		assertEquals("Written state is not reported", MuteStatus.Muted, model.get("0x1", 60000L, 30000L));
+		assertNull("Stale state is reported", model.get("0x1", 60000L, 61000L));
+		assertNull("State of another call is reported", model.get("0x2", 60000L, 30000L));
+		assertNull("State of a finished call is reported", model.get(null, 60000L, 30000L));
+
+		model.update(MuteStatus.Unmuted, "0x1", 40000L);
+		assertEquals("Last written state is not reported", MuteStatus.Unmuted, model.get("0x1", 60000L, 50000L));
+
+		model.invalidate();
+		assertNull("Invalidated state is reported", model.get("0x1", 60000L, 50000L));
+	}
+}
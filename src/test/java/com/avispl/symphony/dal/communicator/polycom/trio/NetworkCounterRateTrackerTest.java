@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link NetworkCounterRateTracker}.
+ */
+public class NetworkCounterRateTrackerTest {
+
+	/**
+	 * Rate must be calculated from the difference between two consecutive values.
+	 */
+	@Test
+	public void testRate() {
+		NetworkCounterRateTracker tracker = new NetworkCounterRateTracker(0);
+		assertTrue("Rate must not be available for the first value", Double.isNaN(tracker.updateReceivedPackets(1000, 10000L)));
+		assertEquals("Rate is wrong", 150d, tracker.updateReceivedPackets(4000, 30000L), 0.001d);
+	}
+
+	/**
+	 * 32-bit counter wrap must be accounted for instead of being reported as a negative rate, once uptime proves the device did not reboot.
+	 */
+	@Test
+	public void testWrap() {
+		NetworkCounterRateTracker tracker = new NetworkCounterRateTracker(NetworkCounterRateTracker.COUNTER_32_RANGE);
+		tracker.recordUptime(1000);
+		tracker.updateReceivedPackets(0xFFFF_FF00L, 0L);
+		tracker.recordUptime(1001);
+		assertEquals("Rate after wrap is wrong", 0x200, tracker.updateReceivedPackets(0x100L, 1000L), 0.001d);
+		assertEquals("Wrap is not detected", 1, tracker.getReceivedPackets().getWraps());
+	}
+
+	/**
+	 * Counter reset (e.g. reboot) must start a new baseline without reporting a rate.
+	 */
+	@Test
+	public void testReset() {
+		NetworkCounterRateTracker tracker = new NetworkCounterRateTracker(0);
+		tracker.updateReceivedPackets(50000, 0L);
+		assertTrue("Rate must not be available after reset", Double.isNaN(tracker.updateReceivedPackets(10, 1000L)));
+		assertEquals("Reset is not detected", 1, tracker.getReceivedPackets().getResets());
+		assertEquals("Rate after reset is wrong", 90d, tracker.updateReceivedPackets(100, 2000L), 0.001d);
+	}
+
+	/**
+	 * Reboot must be detected from uptime going backwards, even if the 32-bit counter was in the upper half of its range before the reboot.
+	 */
+	@Test
+	public void testRebootFromUpperHalf() {
+		NetworkCounterRateTracker tracker = new NetworkCounterRateTracker(NetworkCounterRateTracker.COUNTER_32_RANGE);
+		tracker.recordUptime(86400);
+		tracker.updateReceivedPackets(0x9000_0000L, 0L);
+		tracker.recordUptime(30);
+		assertTrue("Rate must not be available after reboot", Double.isNaN(tracker.updateReceivedPackets(100, 1000L)));
+		assertEquals("Reboot is counted as wrap", 0, tracker.getReceivedPackets().getWraps());
+		assertEquals("Reboot is not counted as reset", 1, tracker.getReceivedPackets().getResets());
+		tracker.recordUptime(31);
+		assertEquals("Rate after reboot is wrong", 100d, tracker.updateReceivedPackets(200, 2000L), 0.001d);
+	}
+
+	/**
+	 * Counter going backwards must not be treated as a wrap if uptime is not available, or the counters are not known to be 32-bit.
+	 */
+	@Test
+	public void testNoWrapWithoutProof() {
+		NetworkCounterRateTracker unknownUptime = new NetworkCounterRateTracker(NetworkCounterRateTracker.COUNTER_32_RANGE);
+		unknownUptime.updateReceivedPackets(0xFFFF_FF00L, 0L);
+		assertTrue("Wrap is assumed without uptime", Double.isNaN(unknownUptime.updateReceivedPackets(0x100L, 1000L)));
+		assertEquals("Wrap is counted without uptime", 0, unknownUptime.getReceivedPackets().getWraps());
+
+		NetworkCounterRateTracker notWrapping = new NetworkCounterRateTracker(0);
+		notWrapping.recordUptime(1000);
+		notWrapping.updateReceivedPackets(0xFFFF_FF00L, 0L);
+		notWrapping.recordUptime(1001);
+		assertTrue("Wrap is assumed for counter not known to be 32-bit", Double.isNaN(notWrapping.updateReceivedPackets(0x100L, 1000L)));
+		assertEquals("Counter not known to be 32-bit is not reset", 1, notWrapping.getReceivedPackets().getResets());
+	}
+
+	/**
+	 * Invalid counter values must be rejected.
+	 */
+	@Test
+	public void testParseCounter() {
+		assertEquals("Counter is parsed incorrectly", 12345L, NetworkCounterRateTracker.parseCounter("12345"));
+		assertEquals("Empty counter is accepted", -1L, NetworkCounterRateTracker.parseCounter(""));
+		assertEquals("Invalid counter is accepted", -1L, NetworkCounterRateTracker.parseCounter("12a"));
+		assertEquals("Missing counter is accepted", -1L, NetworkCounterRateTracker.parseCounter(null));
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link NioEventLoop}.
+ */
+public class NioEventLoopTest {
+
+	private static final int HANDLER_COUNT = 8;
+
+	/**
+	 * Handlers registering channels while checked for timeouts, as a timed out connection reconnecting does, must not keep other handlers from being checked
+	 * in the same round.
+	 */
+	@Test
+	public void testRegisterWhileCheckingTimeouts() throws Exception {
+		NioEventLoop loop = NioEventLoop.acquire();
+		List<Pipe> pipes = new ArrayList<>();
+		try {
+			List<ReconnectingHandler> handlers = new ArrayList<>(HANDLER_COUNT);
+			for (int i = 0; i < HANDLER_COUNT; i++) {
+				handlers.add(new ReconnectingHandler(loop, pipes));
+			}
+			CountDownLatch registered = new CountDownLatch(1);
+			loop.execute(() -> {
+				try {
+					for (ReconnectingHandler handler : handlers) {
+						handler.open();
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+				registered.countDown();
+			});
+			assertTrue("Channels are not registered", registered.await(5, TimeUnit.SECONDS));
+
+			for (ReconnectingHandler handler : handlers) {
+				assertTrue("Handler is not checked for timeouts", handler.checked.await(5, TimeUnit.SECONDS));
+			}
+			long firstCheck = handlers.get(0).firstCheck;
+			for (ReconnectingHandler handler : handlers) {
+				assertEquals("Handlers are not all checked in the same round", firstCheck, handler.firstCheck);
+			}
+		} finally {
+			NioEventLoop.release();
+			for (Pipe pipe : pipes) {
+				pipe.sink().close();
+				pipe.source().close();
+			}
+		}
+	}
+
+	/**
+	 * Handler registering a new channel the first time it is checked for timeouts.
+	 */
+	private static class ReconnectingHandler implements NioEventLoop.Handler {
+		private final NioEventLoop loop;
+		private final List<Pipe> pipes;
+		private final CountDownLatch checked = new CountDownLatch(1);
+		private volatile long firstCheck;
+
+		ReconnectingHandler(NioEventLoop loop, List<Pipe> pipes) {
+			this.loop = loop;
+			this.pipes = pipes;
+		}
+
+		void open() throws IOException {
+			Pipe pipe = Pipe.open();
+			synchronized (pipes) {
+				pipes.add(pipe);
+			}
+			pipe.source().configureBlocking(false);
+			loop.register(pipe.source(), SelectionKey.OP_READ, this);
+		}
+
+		@Override
+		public void handle(SelectionKey key) {
+		}
+
+		@Override
+		public void checkTimeouts(long now) {
+			if (checked.getCount() == 0) {
+				return;
+			}
+			firstCheck = now;
+			checked.countDown();
+			try {
+				open();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link NioHttpTransport}, against a local plain HTTP server.
+ */
+public class NioHttpTransportTest {
+
+	private HttpServer server;
+	private NioHttpTransport transport;
+	private final Set<InetSocketAddress> clients = ConcurrentHashMap.newKeySet();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/api/v1/mgmt/device/info", exchange -> {
+			clients.add(exchange.getRemoteAddress());
+			respond(exchange, 200, "{\"Status\":\"2000\",\"data\":{\"Model\":\"Trio 8800\",\"Authorization\":\""
+					+ exchange.getRequestHeaders().getFirst("Authorization") + "\"}}", false);
+		});
+		server.createContext("/api/v1/callctrl/mute", exchange -> {
+			clients.add(exchange.getRemoteAddress());
+			respond(exchange, 200, "{\"Status\":\"2000\",\"data\":" + read(exchange.getRequestBody()) + "}", true);
+		});
+		server.createContext("/api/v1/mgmt/network/stats", exchange -> {
+			clients.add(exchange.getRemoteAddress());
+			respond(exchange, 200, "{\"Status\":\"2000\",\"data\":{\"RxPackets\":\"1234\"}}", true);
+		});
+		server.createContext("/api/v1/mgmt/missing", exchange -> respond(exchange, 404, "{\"Status\":\"4004\"}", false));
+		server.start();
+
+		transport = new NioHttpTransport(InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), false, "", "Polycom", "456",
+				5000, new ObjectMapper());
+	}
+
+	@After
+	public void tearDown() {
+		transport.close();
+		server.stop(0);
+	}
+
+	/**
+	 * GET response must be decoded, credentials must be sent and the connection must be reused between requests.
+	 */
+	@Test
+	public void testGet() throws Exception {
+		JsonNode first = transport.get("api/v1/mgmt/device/info", JsonNode.class);
+		JsonNode second = transport.get("api/v1/mgmt/device/info", JsonNode.class);
+
+		assertEquals("Response is not decoded", "Trio 8800", first.at("/data/Model").asText());
+		assertEquals("Credentials are not sent", "Basic UG9seWNvbTo0NTY=", first.at("/data/Authorization").asText());
+		assertEquals("Second response is not decoded", "2000", second.get("Status").asText());
+		assertEquals("Keep-alive connection is not reused", 1, clients.size());
+	}
+
+	/**
+	 * POST body must be encoded and chunked response must be decoded.
+	 */
+	@Test
+	public void testPostChunked() throws Exception {
+		JsonNode response = transport.post("api/v1/callctrl/mute", Collections.singletonMap("state", "1"), JsonNode.class);
+
+		assertEquals("Request body is not sent", "1", response.at("/data/state").asText());
+	}
+
+	/**
+	 * Response requested as {@code byte[]} must be the body as received, and a {@code byte[]} request body must be sent as is.
+	 */
+	@Test
+	public void testRawBody() throws Exception {
+		byte[] request = "{\"state\": \"1\"}".getBytes(StandardCharsets.UTF_8);
+		byte[] response = transport.post("api/v1/callctrl/mute", request, byte[].class);
+
+		assertEquals("Raw body is not received as is", "{\"Status\":\"2000\",\"data\":{\"state\": \"1\"}}", new String(response, StandardCharsets.UTF_8));
+		byte[] pipelined = (byte[]) transport.getAll(Collections.singletonMap("api/v1/mgmt/network/stats", byte[].class), 0, new LinkedHashMap<>())
+				.get("api/v1/mgmt/network/stats");
+		assertEquals("Raw pipelined body is not received as is", "{\"Status\":\"2000\",\"data\":{\"RxPackets\":\"1234\"}}",
+				new String(pipelined, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Error status must fail the request without breaking the connection.
+	 */
+	@Test
+	public void testErrorStatus() throws Exception {
+		try {
+			transport.get("api/v1/mgmt/missing", JsonNode.class);
+			fail("Error status is not reported");
+		} catch (CommandFailureException e) {
+			assertEquals("Wrong status code", 404, e.getStatusCode());
+		}
+		assertNotNull("Connection is broken after error status", transport.get("api/v1/mgmt/device/info", JsonNode.class));
+	}
+
+	/**
+	 * Pipelined responses must be matched to their requests and all requests must be sent on one connection.
+	 */
+	@Test
+	public void testGetAllPipelined() throws Exception {
+		Map<String, Type> requests = new LinkedHashMap<>();
+		requests.put("api/v1/mgmt/device/info", JsonNode.class);
+		requests.put("api/v1/mgmt/network/stats", JsonNode.class);
+		requests.put("api/v1/mgmt/device/info?second", JsonNode.class);
+
+		Map<String, Exception> failures = new LinkedHashMap<>();
+		Map<String, Object> responses = transport.getAll(requests, 0, failures);
+
+		assertTrue("Requests failed: " + failures, failures.isEmpty());
+		assertEquals("Wrong number of responses", 3, responses.size());
+		assertEquals("First response is mismatched", "Trio 8800", ((JsonNode) responses.get("api/v1/mgmt/device/info")).at("/data/Model").asText());
+		assertEquals("Second response is mismatched", "1234", ((JsonNode) responses.get("api/v1/mgmt/network/stats")).at("/data/RxPackets").asText());
+		assertEquals("Third response is mismatched", "Trio 8800", ((JsonNode) responses.get("api/v1/mgmt/device/info?second")).at("/data/Model").asText());
+		assertEquals("Pipelined requests are not sent on one connection", 1, clients.size());
+	}
+
+	/**
+	 * Error status of a pipelined request must be reported for that request only, keeping the other responses and the connection usable.
+	 */
+	@Test
+	public void testGetAllPipelinedError() throws Exception {
+		Map<String, Type> requests = new LinkedHashMap<>();
+		requests.put("api/v1/mgmt/missing", JsonNode.class);
+		requests.put("api/v1/mgmt/device/info", JsonNode.class);
+		Map<String, Exception> failures = new LinkedHashMap<>();
+		Map<String, Object> responses = transport.getAll(requests, 0, failures);
+
+		assertEquals("Wrong failed requests", Collections.singleton("api/v1/mgmt/missing"), failures.keySet());
+		assertEquals("Wrong status code", 404, ((CommandFailureException) failures.get("api/v1/mgmt/missing")).getStatusCode());
+		assertEquals("Response of successful request is dropped", "Trio 8800",
+				((JsonNode) responses.get("api/v1/mgmt/device/info")).at("/data/Model").asText());
+		assertNotNull("Connection is broken after error status", transport.get("api/v1/mgmt/device/info", JsonNode.class));
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body, boolean chunked) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, chunked ? 0 : bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int count;
+		while ((count = in.read(buffer)) > 0) {
+			bytes.write(buffer, 0, count);
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.api.dal.dto.monitor.Statistics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests of the monitoring sweep of {@link PolycomTrio}, against a local plain HTTP server answering as an idle device.
+ */
+public class PolycomTrioSweepTest {
+
+	private static final String DEVICE_INFO = "api/v1/mgmt/device/info";
+	private static final String NETWORK_STATS = "api/v1/mgmt/network/stats";
+	private static final String RUNNING_CONFIG = "api/v1/mgmt/device/runningConfig";
+	private static final String STATUS = "api/v1/mgmt/pollForStatus";
+	private static final String TRANSFER_TYPE = "api/v1/mgmt/transferType/get";
+	private static final String LINE_INFO = "api/v1/mgmt/lineInfo";
+	private static final String CALL_STATUS = "api/v1/webCallControl/callStatus";
+	private static final String SESSION_STATS = "api/v1/mgmt/media/sessionStats";
+	private static final String COMMUNICATION_INFO = "api/v1/mgmt/media/communicationInfo";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private PolycomTrio trio;
+	private final Map<String, String> responses = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+	// URI -> number of requests answered with 500 before the response is served
+	private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+	// URI -> delay of the response, in milliseconds
+	private final Map<String, Long> delays = new ConcurrentHashMap<>();
+
+	@Before
+	public void setUp() throws Exception {
+		responses.put(DEVICE_INFO, "{\"data\":{\"ModelNumber\":\"Trio 8800\",\"FirmwareRelease\":\"5.9.1.1234\",\"UpTimeSinceLastReboot\":\"0 Day 1:00:00\"},"
+				+ "\"Status\":\"2000\"}");
+		responses.put(NETWORK_STATS, "{\"data\":{\"RxPackets\":\"1000\",\"TxPackets\":\"2000\",\"UpTime\":\"0 Day 1:00:00\"},\"Status\":\"2000\"}");
+		responses.put(RUNNING_CONFIG, "{\"data\":{\"Network\":{\"IPAddress\":\"10.0.0.21\",\"IPv6Address\":\"::\",\"IPv6Gateway\":\"::\","
+				+ "\"IPv6LinkAddress\":\"::\",\"IPv6ULAAddress\":\"::\"}},\"Status\":\"2000\"}");
+		responses.put(STATUS, "{\"data\":{\"State\":\"Idle\"},\"Status\":\"2000\"}");
+		responses.put(TRANSFER_TYPE, "{\"data\":{\"Type\":\"Blind\"},\"Status\":\"2000\"}");
+		responses.put(LINE_INFO, "{\"data\":[{\"LineNumber\":\"1\",\"RegistrationStatus\":\"Registered\",\"ProxyAddress\":\"10.0.0.1\","
+				+ "\"SIPAddress\":\"1000@10.0.0.1\"}],\"Status\":\"2000\"}");
+		responses.put(CALL_STATUS, "{\"Status\":\"4007\"}");
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		// a slow response must not hold up responses on other connections
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+
+		trio = new PolycomTrio();
+		trio.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+		trio.setProtocol("http");
+		trio.setPort(server.getAddress().getPort());
+		trio.setLogin("Polycom");
+		trio.setPassword("456");
+		trio.setReachabilityTimeout(0);
+	}
+
+	@After
+	public void tearDown() {
+		trio.destroy();
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Request of a pipelined sweep which failed must be retrieved again on its own, while responses of the other requests are used.
+	 */
+	@Test
+	public void testPipelinedSweepFailedRequest() throws Exception {
+		trio.setHttpTransport("nio");
+		trio.setPipelinedSweep(true);
+		trio.init();
+		failures.put(TRANSFER_TYPE, new AtomicInteger(1));
+
+		List<Statistics> statistics = trio.getMultipleStatistics();
+
+		assertNotNull("Statistics are not retrieved", ((ExtendedStatistics) statistics.get(1)).getStatistics());
+		assertEquals("Failed request is not retrieved on its own", 2, requests(TRANSFER_TYPE));
+		assertEquals("Pipelined response is not used", 1, requests(DEVICE_INFO));
+		assertEquals("Pipelined response is not used", 1, requests(LINE_INFO));
+	}
+
+	/**
+	 * Request of the default transport must time out after its adaptive timeout, not the configured timeout of the HTTP client.
+	 */
+	@Test
+	public void testAdaptiveTimeout() throws Exception {
+		trio.setAdaptiveTimeouts(true);
+		trio.setTimeout(10000);
+		trio.init();
+		for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+			trio.getMultipleStatistics();
+		}
+
+		delays.put(STATUS, 5000L);
+		long start = System.currentTimeMillis();
+		try {
+			trio.getMultipleStatistics();
+			fail("Slow request does not time out");
+		} catch (Exception e) {
+			assertTrue("Slow request is not bounded by its adaptive timeout", System.currentTimeMillis() - start < 4000L);
+		}
+	}
+
+	/**
+	 * Sweep over the poll budget must report the sections retrieved so far, and the rest with their last retrieved values, marked stale, rather than fail.
+	 */
+	@Test
+	public void testPollBudgetExceeded() throws Exception {
+		pollBudgetExceeded();
+	}
+
+	/**
+	 * Sweep over the poll budget must be cut short by the {@code nio} transport as well.
+	 */
+	@Test
+	public void testPollBudgetExceededNio() throws Exception {
+		trio.setHttpTransport("nio");
+		pollBudgetExceeded();
+	}
+
+	/**
+	 * Pipelined sweep of the default transport, which sends its requests one after another, must not take the poll budget for every request.
+	 */
+	@Test
+	public void testPollBudgetExceededPipelined() throws Exception {
+		trio.setPipelinedSweep(true);
+		pollBudgetExceeded();
+	}
+
+	/**
+	 * Sweep over the poll budget must not fail even if the stale sections were never retrieved.
+	 */
+	@Test
+	public void testPollBudgetExceededFirstSweep() throws Exception {
+		pollBudgetExceededFirstSweep();
+	}
+
+	/**
+	 * Sweep over the poll budget must not fail even if the stale sections were never retrieved, with the {@code nio} transport as well.
+	 */
+	@Test
+	public void testPollBudgetExceededFirstSweepNio() throws Exception {
+		trio.setHttpTransport("nio");
+		pollBudgetExceededFirstSweep();
+	}
+
+	private void pollBudgetExceeded() throws Exception {
+		trio.setPollBudget(1000L);
+		trio.init();
+		trio.getMultipleStatistics();
+
+		responses.put(DEVICE_INFO, responses.get(DEVICE_INFO).replace("1:00:00", "1:00:30"));
+		responses.put(STATUS, "{\"data\":{\"State\":\"Busy\"},\"Status\":\"2000\"}");
+		delays.put(STATUS, 2000L);
+		long start = System.currentTimeMillis();
+		Map<String, String> properties = ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics();
+
+		assertTrue("Sweep is not bounded by the poll budget", System.currentTimeMillis() - start < 1900L);
+		String staleSections = properties.get("PollStatus#StaleSections");
+		assertNotNull("Sections are not marked stale", staleSections);
+		assertTrue("Slow section is not marked stale", staleSections.contains("DeviceStatus"));
+		assertTrue("Section after the slow one is not marked stale", staleSections.contains("TransferType"));
+		assertFalse("Section retrieved within the budget is marked stale", staleSections.contains("DeviceInfo"));
+		assertEquals("Section retrieved within the budget is not reported", "0 day(s) 1 hour(s) 00 minute(s) 30 second(s)", properties.get("DeviceInfo#Uptime"));
+		assertEquals("Stale section is not reported with its last value", "Idle", properties.get("DeviceStatus#State"));
+		assertEquals("Stale section is not reported with its last value", "Blind", properties.get("Transfer#Type"));
+	}
+
+	private void pollBudgetExceededFirstSweep() throws Exception {
+		trio.setPollBudget(1000L);
+		trio.init();
+		delays.put(STATUS, 2000L);
+
+		Map<String, String> properties = ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics();
+
+		assertTrue("Slow section is not marked stale", properties.get("PollStatus#StaleSections").contains("DeviceStatus"));
+		assertNull("Section which was never retrieved is reported", properties.get("DeviceStatus#State"));
+		assertNotNull("Section retrieved within the budget is not reported", properties.get("DeviceInfo#Uptime"));
+	}
+
+	/**
+	 * Adapter restarted with a state store must resume with the rarely changing sections restored from it, without a static sections refresh interval set.
+	 */
+	@Test
+	public void testStateStoreWarmStart() throws Exception {
+		String directory = folder.getRoot().getPath();
+		trio.setStateStoreDirectory(directory);
+		trio.init();
+		trio.getMultipleStatistics();
+		trio.destroy();
+		assertEquals("Running config is not retrieved on the first start", 1, requests(RUNNING_CONFIG));
+
+		trio = new PolycomTrio();
+		trio.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+		trio.setProtocol("http");
+		trio.setPort(server.getAddress().getPort());
+		trio.setReachabilityTimeout(0);
+		trio.setStateStoreDirectory(directory);
+		trio.init();
+		Map<String, String> properties = ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics();
+
+		assertEquals("Restored running config is not used", 1, requests(RUNNING_CONFIG));
+		assertEquals("Restored running config is not reported", "10.0.0.21", properties.get("RunningConfigNetwork#IPAddress"));
+	}
+
+	/**
+	 * Every simultaneous call must be joined to its media session, not only the call tracked by the call state model.
+	 */
+	@Test
+	public void testSimultaneousCalls() throws Exception {
+		responses.put(CALL_STATUS, "{\"data\":[{\"CallHandle\":\"0x1\",\"CallState\":\"OnHold\",\"LineId\":\"1\",\"RemotePartyNumber\":\"2000\"},"
+				+ "{\"CallHandle\":\"0x2\",\"CallState\":\"Connected\",\"LineId\":\"1\",\"RemotePartyNumber\":\"3000\"}],\"Status\":\"2000\"}");
+		responses.put(SESSION_STATS, "{\"data\":[" + session("0x1") + "," + session("0x2") + "],\"Status\":\"2000\"}");
+		responses.put(COMMUNICATION_INFO, "{\"data\":{\"CommunicationType\":\"Audio\",\"PhoneMuteState\":\"False\"},\"Status\":\"2000\"}");
+		trio.init();
+
+		List<Statistics> statistics = trio.getMultipleStatistics();
+
+		Map<String, String> properties = ((ExtendedStatistics) statistics.get(1)).getStatistics();
+		assertEquals("Held call is not joined to its session", "OnHold", properties.get("MediaSession_0x1#CallState"));
+		assertEquals("Wrong remote party of held call", "2000", properties.get("MediaSession_0x1#RemotePartyNumber"));
+		assertEquals("Connected call is not joined to its session", "Connected", properties.get("MediaSession_0x2#CallState"));
+		assertEquals("Wrong remote party of connected call", "3000", properties.get("MediaSession_0x2#RemotePartyNumber"));
+	}
+
+	private static String session(String ref) {
+		return "{\"Ref\":\"" + ref + "\",\"Streams\":[{\"Ref\":\"" + ref + "a\",\"Category\":\"0:Voice\",\"RxCodec\":\"3:G.722.1\",\"Jitter\":\"0\","
+				+ "\"PacketsExpected\":\"100\",\"PacketsReceived\":\"100\",\"PacketsLost\":\"0\",\"OctetsReceived\":\"8000\",\"OctetsSent\":\"8000\"}]}";
+	}
+
+	/**
+	 * Reboot reported in syslog must only get the device probed: a device which answers the probe must keep being polled, and only a device which does not
+	 * answer must be considered rebooting.
+	 */
+	@Test
+	public void testSyslogReboot() throws Exception {
+		int syslogPort;
+		try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			syslogPort = socket.getLocalPort();
+		}
+		trio.setSyslogPort(syslogPort);
+		trio.init();
+		trio.getMultipleStatistics();
+
+		assertTrue("Device answering the probe is not polled", pollAfterSyslogReboot(syslogPort, "Restarting provisioning"));
+		assertNull("Device answering the probe is rebooting", lifecycleState());
+
+		// device is down
+		failures.put(DEVICE_INFO, new AtomicInteger(Integer.MAX_VALUE));
+		assertFalse("Device not answering the probe is polled", pollAfterSyslogReboot(syslogPort, "Rebooting on request"));
+		assertEquals("Device not answering the probe is not rebooting", "Rebooting", lifecycleState());
+	}
+
+	/**
+	 * Statistics reported while the device is rebooting must be the ones of the last complete sweep, even with reused containers and a failed sweep since.
+	 */
+	@Test
+	public void testRebootingReusedContainers() throws Exception {
+		int syslogPort;
+		try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			syslogPort = socket.getLocalPort();
+		}
+		trio.setSyslogPort(syslogPort);
+		trio.setReuseStatisticsContainers(true);
+		trio.init();
+		trio.getMultipleStatistics();
+
+		// device is down
+		failures.put(DEVICE_INFO, new AtomicInteger(Integer.MAX_VALUE));
+		try {
+			trio.getMultipleStatistics();
+			fail("Sweep of device which is down does not fail");
+		} catch (Exception e) {
+			// containers of this sweep are left partially filled
+		}
+		assertFalse("Device not answering the probe is polled", pollAfterSyslogReboot(syslogPort, "Rebooting on request"));
+
+		Map<String, String> statistics = ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics();
+		assertEquals("Device is not rebooting", "Rebooting", statistics.get("Lifecycle#State"));
+		assertEquals("Statistics of the last complete sweep are not reported", "10.0.0.21", statistics.get("RunningConfigNetwork#IPAddress"));
+	}
+
+	/**
+	 * Recorded traffic of the default transport must hold response bodies as sent by the device.
+	 */
+	@Test
+	public void testTrafficRecording() throws Exception {
+		trafficRecording();
+	}
+
+	/**
+	 * Recorded traffic of the NIO transport must hold response bodies as sent by the device.
+	 */
+	@Test
+	public void testTrafficRecordingNio() throws Exception {
+		trio.setHttpTransport("nio");
+		trafficRecording();
+	}
+
+	private void trafficRecording() throws Exception {
+		Path directory = folder.newFolder("recordings").toPath();
+		// formatted as the device formats it, not as Jackson would write it back
+		responses.put(LINE_INFO, "{\"Status\": \"2000\", \"data\": [{\"SIPAddress\": \"1000@10.0.0.1\", \"LineNumber\": \"1\", "
+				+ "\"RegistrationStatus\": \"Registered\", \"ProxyAddress\": \"10.0.0.1\", \"Extension\": \"x\"}]}");
+		trio.setTrafficRecordingDirectory(directory.toString());
+		trio.init();
+		Map<String, String> statistics = ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics();
+		trio.destroy();
+
+		assertEquals("Recorded responses are not converted", "10.0.0.21", statistics.get("RunningConfigNetwork#IPAddress"));
+		Path recording;
+		try (Stream<Path> files = Files.list(directory)) {
+			recording = files.findFirst().orElseThrow(() -> new AssertionError("Traffic is not recorded"));
+		}
+		int recorded = 0;
+		for (TrafficRecorder.Exchange exchange : TrafficRecorder.read(recording)) {
+			if (exchange.status == 200 && responses.containsKey(exchange.uri)) {
+				assertEquals("Body of " + exchange.uri + " is not recorded as received", responses.get(exchange.uri),
+						new String(exchange.body, StandardCharsets.UTF_8));
+				recorded++;
+			}
+		}
+		assertTrue("Responses are not recorded", recorded > 0);
+	}
+
+	/**
+	 * Syslog alone must not make call state be answered from memory beyond the few seconds an untracked call state is trusted for.
+	 */
+	@Test
+	public void testSyslogCallState() throws Exception {
+		int syslogPort;
+		try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			syslogPort = socket.getLocalPort();
+		}
+		trio.setSyslogPort(syslogPort);
+		trio.init();
+		trio.getMultipleStatistics();
+		int callStatusRequests = requests(CALL_STATUS);
+		assertTrue("Call status is not requested", callStatusRequests > 0);
+
+		Thread.sleep(3500L);
+		trio.getMultipleStatistics();
+		assertEquals("Call state is answered from memory with syslog only", callStatusRequests + 1, requests(CALL_STATUS));
+	}
+
+	/**
+	 * Sends reboot log line of the device, and polls until the device is probed.
+	 *
+	 * @return {@code true} if the device was polled after the probe, {@code false} if it is rebooting
+	 */
+	private boolean pollAfterSyslogReboot(int syslogPort, String message) throws Exception {
+		byte[] line = ("<131>0112102201|app1 |3|00|" + message).getBytes(StandardCharsets.US_ASCII);
+		try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			socket.send(new DatagramPacket(line, line.length, InetAddress.getLoopbackAddress(), syslogPort));
+		}
+		long deadline = System.currentTimeMillis() + 5000L;
+		while (System.currentTimeMillis() < deadline) {
+			int deviceInfoRequests = requests(DEVICE_INFO);
+			int statusRequests = requests(STATUS);
+			try {
+				trio.getMultipleStatistics();
+			} catch (Exception e) {
+				// polled before the log line was received, and the device is down
+				Thread.sleep(50L);
+				continue;
+			}
+			if (requests(DEVICE_INFO) - deviceInfoRequests == 1 && requests(STATUS) == statusRequests) {
+				// probed, not polled
+				return false;
+			}
+			if (requests(DEVICE_INFO) - deviceInfoRequests == 2) {
+				// probed, then polled
+				return true;
+			}
+			Thread.sleep(50L);
+		}
+		fail("Device is not probed after syslog reboot");
+		return false;
+	}
+
+	private String lifecycleState() throws Exception {
+		return ((ExtendedStatistics) trio.getMultipleStatistics().get(1)).getStatistics().get("Lifecycle#State");
+	}
+
+	private int requests(String uri) {
+		AtomicInteger count = requests.get(uri);
+		return count != null ? count.get() : 0;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String uri = exchange.getRequestURI().getPath().substring(1);
+		requests.computeIfAbsent(uri, key -> new AtomicInteger()).incrementAndGet();
+		Long delay = delays.get(uri);
+		if (delay != null) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		String body = responses.get(uri);
+		AtomicInteger failing = failures.get(uri);
+		int status = 200;
+		if (body == null) {
+			status = 404;
+			body = "{\"Status\":\"4004\"}";
+		} else if (failing != null && failing.getAndDecrement() > 0) {
+			status = 500;
+			body = "{\"Status\":\"5000\"}";
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ReachabilityProbe}.
+ */
+public class ReachabilityProbeTest {
+
+	/**
+	 * Listening device must be reachable, and the result must be reused while fresh.
+	 */
+	@Test
+	public void testReachable() throws Exception {
+		ReachabilityProbe probe;
+		try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			probe = ReachabilityProbe.register("127.0.0.1", server.getLocalPort(), 500, 60000L);
+			try {
+				assertTrue("Listening device is not reachable", probe.isReachable());
+			} finally {
+				probe.unregister();
+			}
+		}
+		// result is cached even though the device stopped listening
+		assertTrue("Cached result is not reused", probe.isReachable());
+	}
+
+	/**
+	 * Device which refuses the connection is up, so it must be reachable.
+	 */
+	@Test
+	public void testRefused() throws Exception {
+		boolean icmpAvailable = ReachabilityProbe.icmpAvailable;
+		ReachabilityProbe.icmpAvailable = false;
+		int port;
+		try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			port = server.getLocalPort();
+		}
+		ReachabilityProbe probe = ReachabilityProbe.register("127.0.0.1", port, 500, 60000L);
+		try {
+			assertTrue("Device refusing the connection is not reachable", probe.isReachable());
+		} finally {
+			probe.unregister();
+			ReachabilityProbe.icmpAvailable = icmpAvailable;
+		}
+	}
+
+	/**
+	 * Device which does not answer must not be reachable, within the probe timeouts.
+	 */
+	@Test
+	public void testNotReachable() throws Exception {
+		boolean icmpAvailable = ReachabilityProbe.icmpAvailable;
+		// loopback always answers ICMP echo
+		ReachabilityProbe.icmpAvailable = false;
+		List<Socket> clients = new ArrayList<>();
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			// fill accept queue, so connection requests are dropped like by a device which is down
+			try {
+				for (int i = 0; i < 8; i++) {
+					Socket client = new Socket();
+					clients.add(client);
+					client.connect(server.getLocalSocketAddress(), 200);
+				}
+			} catch (SocketTimeoutException e) {
+				// queue is full
+			}
+
+			ReachabilityProbe probe = ReachabilityProbe.register("127.0.0.1", server.getLocalPort(), 300, 60000L);
+			try {
+				long start = System.currentTimeMillis();
+				assertFalse("Device which does not answer is reachable", probe.isReachable());
+				assertTrue("Probe takes longer than its timeouts", System.currentTimeMillis() - start < 2 * 300 + 500);
+			} finally {
+				probe.unregister();
+			}
+		} finally {
+			for (Socket client : clients) {
+				client.close();
+			}
+			ReachabilityProbe.icmpAvailable = icmpAvailable;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP server playing the part of a device, answering requests with exchanges recorded by {@link TrafficRecorder}. <br>
+ * Requests are matched by method and URI: every request gets the next recorded response of its method and URI (cycling once all of them were served),
+ * with the recorded status and body, after the recorded latency divided by the speed factor. URIs which were not recorded are answered with
+ * {@code 404 Not Found}, and exchanges which failed without an HTTP status (e.g. timeouts) with {@code 504 Gateway Timeout}. Bodies are served as the device
+ * sent them, except for recordings of the first format version, which hold responses re-serialized from the adapter's DTOs. <br>
+ * The adapter replays a recording when configured with {@code http} protocol, the host and the port of the server. The server is a test fixture, it is
+ * not shipped with the adapter; it also runs standalone from the test classpath with {@code ReplayServer <recording file> <port> [speed]}.
+ *
+ * @since 1.0.2
+ */
+class ReplayServer implements Closeable {
+
+	private static final int THREADS = 8;
+
+	/**
+	 * Recorded responses of a method and URI, served in turn.
+	 */
+	private static final class Responses {
+		final List<TrafficRecorder.Exchange> exchanges = new ArrayList<>();
+		final AtomicInteger next = new AtomicInteger();
+
+		TrafficRecorder.Exchange next() {
+			return exchanges.get(Math.floorMod(next.getAndIncrement(), exchanges.size()));
+		}
+	}
+
+	private final Map<String, Responses> responses = new HashMap<>();
+	private final double speed;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * ReplayServer constructor
+	 *
+	 * @param exchanges recorded exchanges
+	 * @param port port to listen on, {@code 0} for any free port
+	 * @param speed speed factor, e.g. {@code 1} for the original latencies, {@code 10} for latencies 10 times shorter, {@code 0} for no latency at all
+	 * @throws IOException if the server cannot listen on the port
+	 */
+	ReplayServer(List<TrafficRecorder.Exchange> exchanges, int port, double speed) throws IOException {
+		for (TrafficRecorder.Exchange exchange : exchanges) {
+			responses.computeIfAbsent(exchange.method + " " + exchange.uri, key -> new Responses()).exchanges.add(exchange);
+		}
+		this.speed = speed;
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		AtomicInteger count = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(THREADS, r -> {
+			Thread thread = new Thread(r, "PolycomTrio replay " + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+	}
+
+	/**
+	 * Starts serving requests.
+	 */
+	void start() {
+		server.start();
+	}
+
+	/**
+	 * Retrieves the port the server listens on.
+	 *
+	 * @return port
+	 */
+	int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange httpExchange) throws IOException {
+		try (InputStream requestBody = httpExchange.getRequestBody()) {
+			// request body is not matched, but must be consumed for the connection to be reused
+			byte[] buffer = new byte[4096];
+			while (requestBody.read(buffer) >= 0) {
+				// skip
+			}
+		}
+
+		String uri = httpExchange.getRequestURI().toString();
+		if (uri.startsWith("/")) {
+			uri = uri.substring(1);
+		}
+		Responses recorded = responses.get(httpExchange.getRequestMethod() + " " + uri);
+		if (recorded == null) {
+			httpExchange.sendResponseHeaders(404, -1);
+			httpExchange.close();
+			return;
+		}
+
+		TrafficRecorder.Exchange exchange = recorded.next();
+		if (speed > 0) {
+			try {
+				Thread.sleep((long) (exchange.latency / speed));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				httpExchange.close();
+				return;
+			}
+		}
+		int status = exchange.status != 0 ? exchange.status : 504;
+		if (exchange.body.length > 0) {
+			httpExchange.getResponseHeaders().set("Content-Type", "application/json");
+		}
+		httpExchange.sendResponseHeaders(status, exchange.body.length > 0 ? exchange.body.length : -1);
+		if (exchange.body.length > 0) {
+			try (OutputStream responseBody = httpExchange.getResponseBody()) {
+				responseBody.write(exchange.body);
+			}
+		}
+		httpExchange.close();
+	}
+
+	/**
+	 * Serves a recording until the process is stopped.
+	 *
+	 * @param args recording file, port and, optionally, speed factor (1 by default)
+	 * @throws Exception if the recording cannot be read, or the server cannot be started
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: ReplayServer <recording file> <port> [speed]");
+			System.exit(1);
+		}
+		List<TrafficRecorder.Exchange> exchanges = TrafficRecorder.read(Paths.get(args[0]));
+		ReplayServer replayServer = new ReplayServer(exchanges, Integer.parseInt(args[1]), args.length > 2 ? Double.parseDouble(args[2]) : 1);
+		replayServer.start();
+		System.out.println("Replaying " + exchanges.size() + " exchanges of " + args[0] + " on port " + replayServer.getPort());
+		Thread.currentThread().join();
+	}
+}
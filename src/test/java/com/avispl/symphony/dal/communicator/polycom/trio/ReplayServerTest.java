@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ReplayServer}.
+ */
+public class ReplayServerTest {
+
+	/**
+	 * Recorded responses of a URI must be served in turn, with the latency scaled by the speed factor.
+	 *
+	 * @throws IOException if a request fails
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		ReplayServer server = new ReplayServer(Arrays.asList(
+				new TrafficRecorder.Exchange(0L, "GET", "api/v1/mgmt/device/info", 200, 400, "{\"n\":1}".getBytes(StandardCharsets.UTF_8)),
+				new TrafficRecorder.Exchange(1L, "GET", "api/v1/mgmt/device/info", 200, 400, "{\"n\":2}".getBytes(StandardCharsets.UTF_8)),
+				new TrafficRecorder.Exchange(2L, "POST", "api/v1/callctrl/dial", 400, 0, "{\"Status\":\"4000\"}".getBytes(StandardCharsets.UTF_8))), 0, 4);
+		server.start();
+		try {
+			String base = "http://127.0.0.1:" + server.getPort() + "/";
+			long start = System.nanoTime();
+			assertEquals("First recorded response is not served", "{\"n\":1}", request(base + "api/v1/mgmt/device/info", "GET", 200));
+			long elapsed = (System.nanoTime() - start) / 1000000L;
+			assertTrue("Latency is not replayed", elapsed >= 100L);
+			assertTrue("Latency is not scaled by speed", elapsed < 400L);
+			assertEquals("Second recorded response is not served", "{\"n\":2}", request(base + "api/v1/mgmt/device/info", "GET", 200));
+			assertEquals("Recorded responses are not cycled", "{\"n\":1}", request(base + "api/v1/mgmt/device/info", "GET", 200));
+			assertEquals("Recorded failure is not served", "{\"Status\":\"4000\"}", request(base + "api/v1/callctrl/dial", "POST", 400));
+			request(base + "api/v1/mgmt/network/stats", "GET", 404);
+		} finally {
+			server.close();
+		}
+	}
+
+	private static String request(String url, String method, int expectedStatus) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod(method);
+		if ("POST".equals(method)) {
+			connection.setDoOutput(true);
+			connection.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals("Unexpected status of " + url, expectedStatus, connection.getResponseCode());
+		InputStream in = expectedStatus < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if (in != null) {
+			byte[] buffer = new byte[256];
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				body.write(buffer, 0, read);
+			}
+			in.close();
+		}
+		return body.toString("UTF-8");
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SnmpNetworkCollector}, against a local SNMP agent answering GETBULK requests.
+ */
+public class SnmpNetworkCollectorTest {
+
+	private Snmp agent;
+	private int agentPort;
+	private final AtomicInteger requests = new AtomicInteger();
+	// ifIndex 1 is loopback, 2 and 3 are ethernet ports
+	private final long[] inUcast = {5000, 1000, 100};
+	private volatile long uptime = 93784L * 100;
+
+	@Before
+	public void setUp() throws Exception {
+		DefaultUdpTransportMapping transport = new DefaultUdpTransportMapping(new UdpAddress("127.0.0.1/0"));
+		agent = new Snmp(transport);
+		agent.addCommandResponder(this::respond);
+		agent.listen();
+		agentPort = transport.getListenAddress().getPort();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		agent.close();
+	}
+
+	/**
+	 * Counters of all non-loopback interfaces must be summed, and uptime reported in {@code network/stats} format, with one request.
+	 */
+	@Test
+	public void testCollect() throws Exception {
+		SnmpNetworkCollector collector = SnmpNetworkCollector.register("127.0.0.1", agentPort, "public", 1000L);
+		try {
+			Map<String, String> properties = collector.collect().get(5, TimeUnit.SECONDS);
+			assertEquals("Wrong received packets", "1110", properties.get(SnmpNetworkCollector.RECEIVED_PACKETS));
+			assertEquals("Wrong transmitted packets", "2220", properties.get(SnmpNetworkCollector.TRANSMITTED_PACKETS));
+			assertEquals("Wrong uptime", "1 day 2:03:04", properties.get(SnmpNetworkCollector.UPTIME));
+			assertEquals("Wrong number of requests", 1, requests.get());
+		} finally {
+			collector.unregister();
+		}
+	}
+
+	/**
+	 * Counter32 of an interface wrapping around must be unwrapped on its own, so the total keeps growing, unless the device restarted.
+	 */
+	@Test
+	public void testInterfaceCounterWrap() throws Exception {
+		SnmpNetworkCollector collector = SnmpNetworkCollector.register("127.0.0.1", agentPort, "public", 1000L);
+		try {
+			inUcast[1] = 0xFFFF_FF00L;
+			long received = Long.parseLong(collector.collect().get(5, TimeUnit.SECONDS).get(SnmpNetworkCollector.RECEIVED_PACKETS));
+			assertEquals("Wrong received packets", 0xFFFF_FF00L + 10 + 100, received);
+
+			// second port wraps, 0x200 packets later
+			inUcast[1] = 0x100L;
+			uptime += 3000;
+			long wrapped = Long.parseLong(collector.collect().get(5, TimeUnit.SECONDS).get(SnmpNetworkCollector.RECEIVED_PACKETS));
+			assertEquals("Interface counter wrap is not unwrapped", received + 0x200L, wrapped);
+
+			// device restarted, counters start again
+			inUcast[1] = 0x10L;
+			uptime = 500;
+			long restarted = Long.parseLong(collector.collect().get(5, TimeUnit.SECONDS).get(SnmpNetworkCollector.RECEIVED_PACKETS));
+			assertEquals("Counters of restarted device are unwrapped", 0x10L + 10 + 100, restarted);
+		} finally {
+			collector.unregister();
+		}
+	}
+
+	/**
+	 * Device which does not answer SNMP must not be asked again right away.
+	 */
+	@Test
+	public void testBackoff() throws Exception {
+		SnmpNetworkCollector collector = SnmpNetworkCollector.register("127.0.0.1", agentPort, "private", 100L);
+		try {
+			assertFalse("Device is backed off before any request", collector.isBackedOff(System.currentTimeMillis()));
+			try {
+				collector.collect().get(5, TimeUnit.SECONDS);
+				fail("Request with wrong community is answered");
+			} catch (ExecutionException e) {
+				// timed out
+			}
+			assertTrue("Device which does not answer is not backed off", collector.isBackedOff(System.currentTimeMillis()));
+			assertFalse("Device is backed off for too long", collector.isBackedOff(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+		} finally {
+			collector.unregister();
+		}
+	}
+
+	private void respond(CommandResponderEvent<?> event) {
+		PDU request = event.getPDU();
+		if (request == null || request.getType() != PDU.GETBULK || !"public".equals(new String(event.getSecurityName()))) {
+			return;
+		}
+		requests.incrementAndGet();
+		PDU response = new PDU();
+		response.setType(PDU.RESPONSE);
+		response.setRequestID(request.getRequestID());
+		response.add(new VariableBinding(new OID(SnmpNetworkCollector.SYS_UP_TIME).append(0), new TimeTicks(uptime)));
+		int[] types = {24, 6, 6};
+		long[] inNUcast = {5000, 10, 0};
+		long[] outUcast = {5000, 2000, 200};
+		long[] outNUcast = {5000, 20, 0};
+		for (int i = 0; i < types.length; i++) {
+			response.add(new VariableBinding(new OID(SnmpNetworkCollector.IF_TYPE).append(i + 1), new Integer32(types[i])));
+			response.add(new VariableBinding(new OID(SnmpNetworkCollector.IF_IN_UCAST_PKTS).append(i + 1), new Counter32(inUcast[i])));
+			response.add(new VariableBinding(new OID(SnmpNetworkCollector.IF_IN_NUCAST_PKTS).append(i + 1), new Counter32(inNUcast[i])));
+			response.add(new VariableBinding(new OID(SnmpNetworkCollector.IF_OUT_UCAST_PKTS).append(i + 1), new Counter32(outUcast[i])));
+			response.add(new VariableBinding(new OID(SnmpNetworkCollector.IF_OUT_NUCAST_PKTS).append(i + 1), new Counter32(outNUcast[i])));
+		}
+		// next row is past the table
+		response.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.4.1"), new Integer32(1500)));
+		try {
+			event.getMessageDispatcher().returnResponsePdu(event.getMessageProcessingModel(), event.getSecurityModel(), event.getSecurityName(),
+					event.getSecurityLevel(), response, event.getMaxSizeResponsePDU(), event.getStateReference(), new StatusInformation());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		event.setProcessed(true);
+	}
+}
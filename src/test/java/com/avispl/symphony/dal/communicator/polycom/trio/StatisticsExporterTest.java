@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StatisticsExporter}.
+ */
+public class StatisticsExporterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Exported file must decode to typed values, with names and enumeration values defined once.
+	 */
+	@Test
+	public void testFileExport() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("export").resolve("trio.tstx");
+		StatisticsExporter exporter = StatisticsExporter.open(file.toString(), "10.0.0.1", Arrays.asList("DeviceInfo#Uptime", "NetworkInfo#ReceivedPackets"));
+
+		Map<String, String> statistics = new HashMap<>();
+		statistics.put("NetworkInfo#ReceivedPackets", "123456789012");
+		statistics.put("CallQuality#Jitter", "-3");
+		statistics.put("NetworkInfo#ReceiveRate(pps)", "12.5");
+		statistics.put("CallQuality#MOS", "4.1234567");
+		statistics.put("DeviceStatus#State", "Idle");
+		statistics.put("DeviceInfo#FirmwareVersion", "5.9.1.1234");
+		statistics.put("RunningConfigProvisioning#Server", "0123");
+		exporter.export(1000L, statistics);
+		statistics.put("DeviceStatus#State", "InCall");
+		exporter.export(2000L, statistics);
+		statistics.put("DeviceStatus#State", "Idle");
+		exporter.export(3000L, statistics);
+		exporter.close();
+
+		byte[] bytes = Files.readAllBytes(file);
+		try (StatisticsExporter.Reader reader = new StatisticsExporter.Reader(Files.newInputStream(file))) {
+			assertEquals("Wrong host", "10.0.0.1", reader.getHost());
+			StatisticsExporter.Sample sample = reader.next();
+			assertEquals("Wrong timestamp", 1000L, sample.timestamp);
+			assertEquals("Wrong number of values", 7, sample.values.size());
+			assertEquals("Wrong int", 123456789012L, sample.values.get("NetworkInfo#ReceivedPackets"));
+			assertEquals("Wrong negative int", -3L, sample.values.get("CallQuality#Jitter"));
+			assertEquals("Wrong float", 12.5f, sample.values.get("NetworkInfo#ReceiveRate(pps)"));
+			assertEquals("Wrong double", 4.1234567, sample.values.get("CallQuality#MOS"));
+			assertEquals("Wrong enum", "Idle", sample.values.get("DeviceStatus#State"));
+			assertEquals("Version is not kept as text", "5.9.1.1234", sample.values.get("DeviceInfo#FirmwareVersion"));
+			assertEquals("Leading zeros are not kept", "0123", sample.values.get("RunningConfigProvisioning#Server"));
+			assertEquals("Mapping names are not first in dictionary", "DeviceInfo#Uptime", reader.getDictionary().get(0));
+
+			assertEquals("Wrong enum of second sample", "InCall", reader.next().values.get("DeviceStatus#State"));
+			assertEquals("Wrong enum of third sample", "Idle", reader.next().values.get("DeviceStatus#State"));
+			assertNull("Stream does not end", reader.next());
+		}
+		assertEquals("Names are written more than once", 1, occurrences(bytes, "CallQuality#Jitter"));
+		assertEquals("Enumeration values are written more than once", 1, occurrences(bytes, "InCall"));
+		assertEquals("Samples are dropped", 0, exporter.getDropped());
+	}
+
+	/**
+	 * Strings over 64 KB of UTF-8 must be exported whole, as names, enumeration values and plain strings.
+	 */
+	@Test
+	public void testLargeStrings() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("trio.tstx");
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() < 70000) {
+			builder.append("会议室");
+		}
+		String large = builder.toString();
+		StatisticsExporter exporter = StatisticsExporter.open(file.toString(), "10.0.0.1", Arrays.asList("DeviceInfo#Uptime"));
+		Map<String, String> statistics = new HashMap<>();
+		statistics.put("Diagnostics#" + large, "1");
+		statistics.put("DeviceStatus#State", large);
+		exporter.export(1000L, statistics);
+		exporter.close();
+
+		try (StatisticsExporter.Reader reader = new StatisticsExporter.Reader(Files.newInputStream(file))) {
+			StatisticsExporter.Sample sample = reader.next();
+			assertEquals("Wrong large name", 1L, sample.values.get("Diagnostics#" + large));
+			assertEquals("Wrong large enum", large, sample.values.get("DeviceStatus#State"));
+			assertNull("Stream does not end", reader.next());
+		}
+		assertEquals("Samples are dropped", 0, exporter.getDropped());
+	}
+
+	/**
+	 * Samples must be sent to a socket, connected on the first sample.
+	 */
+	@Test
+	public void testSocketExport() throws Exception {
+		try (ServerSocket server = new ServerSocket(0)) {
+			StatisticsExporter exporter = StatisticsExporter.open("tcp://127.0.0.1:" + server.getLocalPort(), "trio", Arrays.asList("DeviceInfo#Uptime"));
+			Map<String, String> statistics = new HashMap<>();
+			statistics.put("DeviceInfo#Uptime", "42");
+			exporter.export(1000L, statistics);
+
+			server.setSoTimeout(5000);
+			try (Socket socket = server.accept(); InputStream in = socket.getInputStream();
+				 StatisticsExporter.Reader reader = new StatisticsExporter.Reader(in)) {
+				StatisticsExporter.Sample sample = reader.next();
+				assertEquals("Wrong timestamp", 1000L, sample.timestamp);
+				assertEquals("Wrong value", 42L, sample.values.get("DeviceInfo#Uptime"));
+				exporter.close();
+				assertNull("Stream is not closed", reader.next());
+			}
+		}
+	}
+
+	private static int occurrences(byte[] bytes, String text) {
+		byte[] pattern = text.getBytes();
+		int count = 0;
+		for (int i = 0; i + pattern.length <= bytes.length; i++) {
+			int j = 0;
+			while (j < pattern.length && bytes[i + j] == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.api.dal.dto.monitor.Statistics;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StatisticsPublisher}.
+ */
+public class StatisticsPublisherTest {
+
+	/**
+	 * Subscriber recording its signals.
+	 */
+	private static class RecordingSubscriber implements StatisticsFlow.Subscriber<Statistics> {
+		final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+		final List<Statistics> items = new CopyOnWriteArrayList<>();
+		volatile StatisticsFlow.Subscription subscription;
+
+		@Override
+		public void onSubscribe(StatisticsFlow.Subscription subscription) {
+			this.subscription = subscription;
+			signals.add("subscribe");
+		}
+
+		@Override
+		public void onNext(Statistics item) {
+			items.add(item);
+			signals.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			signals.add(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			signals.add("complete");
+		}
+
+		Object next() throws InterruptedException {
+			return signals.poll(5, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Updates must only be delivered as far as requested, with the latest update of every section kept while the subscriber has no demand.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for signals
+	 */
+	@Test
+	public void testDemand() throws InterruptedException {
+		StatisticsPublisher publisher = new StatisticsPublisher();
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber, null);
+		assertEquals("Subscription is not signalled first", "subscribe", subscriber.next());
+		assertTrue("Publisher has no subscribers", publisher.hasSubscribers());
+
+		Statistics deviceInfo = update("1");
+		Statistics networkInfo = update("2");
+		Statistics newerDeviceInfo = update("3");
+		publisher.publish("DeviceInfo", deviceInfo);
+		publisher.publish("NetworkInfo", networkInfo);
+		publisher.publish("DeviceInfo", newerDeviceInfo);
+		assertNull("Update is delivered without demand", subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+
+		subscriber.subscription.request(1);
+		assertSame("Oldest pending section is not delivered first", networkInfo, subscriber.next());
+		assertNull("More updates are delivered than requested", subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertSame("Latest update of the section is not delivered", newerDeviceInfo, subscriber.next());
+		assertEquals("Superseded update is delivered", 2, subscriber.items.size());
+
+		publisher.close();
+		assertEquals("Subscription is not completed", "complete", subscriber.next());
+		assertFalse("Completed subscription is kept", publisher.hasSubscribers());
+	}
+
+	/**
+	 * Subscriber must only receive sections it subscribed to, and a non-positive request must fail the subscription.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for signals
+	 */
+	@Test
+	public void testSectionsAndInvalidRequest() throws InterruptedException {
+		StatisticsPublisher publisher = new StatisticsPublisher();
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber, new HashSet<>(Collections.singletonList("CallQuality")));
+		assertEquals("Subscription is not signalled first", "subscribe", subscriber.next());
+		subscriber.subscription.request(10);
+
+		Statistics callQuality = update("1");
+		publisher.publish("DeviceInfo", update("2"));
+		publisher.publish("CallQuality", callQuality);
+		assertSame("Subscribed section is not delivered", callQuality, subscriber.next());
+		assertNull("Other section is delivered", subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+
+		subscriber.subscription.request(0);
+		assertTrue("Non-positive request does not fail subscription", subscriber.next() instanceof IllegalArgumentException);
+		assertFalse("Failed subscription is kept", publisher.hasSubscribers());
+	}
+
+	private static Statistics update(String value) {
+		ExtendedStatistics statistics = new ExtendedStatistics();
+		statistics.setStatistics(Collections.singletonMap("Value", value));
+		return statistics;
+	}
+}
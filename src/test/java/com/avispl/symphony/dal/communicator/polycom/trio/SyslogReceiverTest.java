@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SyslogReceiver}.
+ */
+public class SyslogReceiverTest {
+
+	/**
+	 * Keywords must be found regardless of case, leftmost keyword winning, without moving buffer position.
+	 */
+	@Test
+	public void testClassify() {
+		assertEquals("Registration loss is not recognized", SyslogReceiver.Event.REGISTRATION_LOST,
+				classify("<134>Jan 12 10:22:01 64167f0a1b2c 0112102201|sip  |4|00|Line 1 UNREGISTERED by registrar"));
+		assertEquals("Registration is not recognized", SyslogReceiver.Event.REGISTERED, classify("<134>0112102201|sip  |2|00|Line 1 registered"));
+		assertEquals("Call teardown is not recognized", SyslogReceiver.Event.CALL_TEARDOWN, classify("<134>0112102201|cmp  |2|00|Call Ended, ref 0x1"));
+		assertEquals("Reboot is not recognized", SyslogReceiver.Event.REBOOT, classify("<131>0112102201|app1 |3|00|Rebooting on request"));
+		assertNull("Event is found in unrelated line", classify("<134>0112102201|so   |2|00|Backlight level changed"));
+
+		ByteBuffer message = ByteBuffer.wrap("xx call connected".getBytes(StandardCharsets.US_ASCII));
+		message.position(2);
+		SyslogReceiver.classify(message);
+		assertEquals("Position is changed", 2, message.position());
+	}
+
+	/**
+	 * Log lines of the registered device must be received over UDP and TCP.
+	 */
+	@Test
+	public void testReceive() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		BlockingQueue<SyslogReceiver.Event> events = new LinkedBlockingQueue<>();
+		SyslogReceiver.Listener listener = (event, timestamp) -> events.add(event);
+		SyslogReceiver receiver = SyslogReceiver.register(port, "127.0.0.1", listener);
+		try {
+			try (DatagramSocket socket = new DatagramSocket()) {
+				byte[] line = "<134>0112102201|sip  |4|00|Registration failed: 408".getBytes(StandardCharsets.US_ASCII);
+				socket.send(new DatagramPacket(line, line.length, InetAddress.getLoopbackAddress(), port));
+			}
+			assertEquals("UDP event is not received", SyslogReceiver.Event.REGISTRATION_LOST, events.poll(5, TimeUnit.SECONDS));
+
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+				OutputStream out = socket.getOutputStream();
+				// second line is split across writes
+				out.write("<134>0112102201|cmp  |2|00|Call connected\n<134>0112102201|cmp  |2|00|Call ".getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+				Thread.sleep(100);
+				out.write("terminated\n".getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+				assertEquals("TCP event is not received", SyslogReceiver.Event.CALL_SETUP, events.poll(5, TimeUnit.SECONDS));
+				assertEquals("Split TCP line is not received", SyslogReceiver.Event.CALL_TEARDOWN, events.poll(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			receiver.unregister("127.0.0.1", listener);
+		}
+	}
+
+	/**
+	 * Unregistering must neither remove the registration of another listener for the same device, nor stop the receiver it still uses.
+	 */
+	@Test
+	public void testUnregisterOwnership() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		SyslogReceiver.Listener destroyed = (event, timestamp) -> fail("Unregistered listener receives events");
+		BlockingQueue<SyslogReceiver.Event> events = new LinkedBlockingQueue<>();
+		SyslogReceiver.Listener recreated = (event, timestamp) -> events.add(event);
+		SyslogReceiver receiver = SyslogReceiver.register(port, "127.0.0.1", destroyed);
+		SyslogReceiver.register(port, "127.0.0.1", recreated);
+		receiver.unregister("127.0.0.1", destroyed);
+		try {
+			try (DatagramSocket socket = new DatagramSocket()) {
+				byte[] line = "<134>0112102201|sip  |4|00|Registration failed: 408".getBytes(StandardCharsets.US_ASCII);
+				socket.send(new DatagramPacket(line, line.length, InetAddress.getLoopbackAddress(), port));
+			}
+			assertEquals("Registration of the recreated listener is removed", SyslogReceiver.Event.REGISTRATION_LOST, events.poll(5, TimeUnit.SECONDS));
+		} finally {
+			receiver.unregister("127.0.0.1", recreated);
+		}
+	}
+
+	private static SyslogReceiver.Event classify(String line) {
+		return SyslogReceiver.classify(ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII)));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TelephonyNotificationListener} and {@link CallStateModel}.
+ */
+public class TelephonyNotificationListenerTest {
+	private static final String PHONE_IP = "127.0.0.1";
+
+	private int port;
+	private CallStateModel model;
+	private TelephonyNotificationListener listener;
+
+	@Before
+	public void setUp() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		model = new CallStateModel();
+		listener = TelephonyNotificationListener.register(port, PHONE_IP, model);
+	}
+
+	@After
+	public void tearDown() {
+		listener.unregister(PHONE_IP, model);
+	}
+
+	/**
+	 * Connected and disconnected call state change events posted over HTTP must be reflected in the model.
+	 */
+	@Test
+	public void testCallStateChangeEvents() throws Exception {
+		post(callStateChangeEvent("Connected"));
+		Map<String, ?> data = model.toCallStatusData();
+		assertNotNull("Call state is not updated by connected event", data);
+		assertEquals("Call handle is wrong", "0x13ca8228", data.get(CallStateModel.CALL_HANDLE));
+		assertEquals("Call state is wrong", "Connected", data.get(CallStateModel.CALL_STATE));
+		assertEquals("Remote party is wrong", "sip:3441@172.24.132.35", data.get(CallStateModel.REMOTE_PARTY_NUMBER));
+
+		post(callStateChangeEvent("Disconnected"));
+		assertNull("Call state is not cleared by disconnected event", model.toCallStatusData());
+	}
+
+	/**
+	 * Events from devices which are not registered must be ignored.
+	 */
+	@Test
+	public void testUnknownDevice() {
+		String event = callStateChangeEvent("Connected").replace(PHONE_IP, "10.0.0.99");
+		assertFalse("Event from unknown device is applied", listener.processEvent(event, "10.0.0.99", System.currentTimeMillis()));
+		assertNull("Call state is updated by event from unknown device", model.toCallStatusData());
+	}
+
+	/**
+	 * Events must be routed by the sender address, so a host cannot post events for another device by its PhoneIP.
+	 */
+	@Test
+	public void testSpoofedPhoneIp() {
+		assertFalse("Event with PhoneIP of another device is applied", listener.processEvent(callStateChangeEvent("Connected"), "10.0.0.99",
+				System.currentTimeMillis()));
+		String event = callStateChangeEvent("Connected").replace(PHONE_IP, "10.0.0.99");
+		assertFalse("Event with PhoneIP not matching the sender is applied", listener.processEvent(event, PHONE_IP, System.currentTimeMillis()));
+		assertNull("Call state is updated by spoofed event", model.toCallStatusData());
+	}
+
+	/**
+	 * Unregistering must not remove the registration of another model for the same device.
+	 */
+	@Test
+	public void testUnregisterOwnership() throws Exception {
+		CallStateModel recreated = new CallStateModel();
+		TelephonyNotificationListener.register(port, PHONE_IP, recreated);
+		listener.unregister(PHONE_IP, model);
+		try {
+			assertTrue("Registration of the recreated model is removed", listener.processEvent(callStateChangeEvent("Connected"), PHONE_IP,
+					System.currentTimeMillis()));
+			assertNotNull("Recreated model is not updated", recreated.toCallStatusData());
+		} finally {
+			// registration released by tearDown
+			listener = TelephonyNotificationListener.register(port, PHONE_IP, model);
+			listener.unregister(PHONE_IP, recreated);
+		}
+	}
+
+	/**
+	 * Model must only be fresh within reconcile interval after callStatus response.
+	 */
+	@Test
+	public void testReconcileFreshness() {
+		assertFalse("Model is fresh before reconciliation", model.isFresh(60000L, 1000L));
+		model.reconcile(null, 1000L);
+		assertTrue("Model is not fresh after reconciliation", model.isFresh(60000L, 2000L));
+		assertFalse("Model is fresh after reconcile interval", model.isFresh(60000L, 61000L));
+	}
+
+	private void post(String event) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + TelephonyNotificationListener.CONTEXT_PATH).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(event.getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals("Listener response is wrong", 200, connection.getResponseCode());
+		connection.disconnect();
+	}
+
+	private static String callStateChangeEvent(String callState) {
+		// @formatter:off
+		return "<PolycomIPPhone>\n" +
+				"  <CallStateChangeEvent CallReference=\"0x13ca8228\" CallState=\"" + callState + "\">\n" +
+				"    <PhoneIP>" + PHONE_IP + "</PhoneIP>\n" +
+				"    <CallLineInfo>\n" +
+				"      <CallInfo>\n" +
+				"        <CallType>Outgoing</CallType>\n" +
+				"        <CalledPartyDirNum>sip:3441@172.24.132.35</CalledPartyDirNum>\n" +
+				"        <CallingPartyDirNum>sip:3440@172.24.132.35</CallingPartyDirNum>\n" +
+				"      </CallInfo>\n" +
+				"    </CallLineInfo>\n" +
+				"  </CallStateChangeEvent>\n" +
+				"</PolycomIPPhone>";
+		// @formatter:on
+	}
+}
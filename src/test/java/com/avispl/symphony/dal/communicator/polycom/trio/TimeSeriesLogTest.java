@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TimeSeriesLog}.
+ */
+public class TimeSeriesLogTest {
+
+	private static final int SAMPLES = 20000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Samples must decode to the exact values and timestamps, across segments, with series appearing and disappearing, and compress well.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path directory = folder.getRoot().toPath().resolve("trio");
+		TimeSeriesLog log = new TimeSeriesLog(directory, TimeSeriesLog.MIN_SEGMENT_SIZE, "test");
+		List<Long> timestamps = new ArrayList<>();
+		List<Map<String, Double>> samples = new ArrayList<>();
+		long timestamp = 1_600_000_000_000L;
+		long rawSize = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			// polls are 30 seconds apart, give or take a few milliseconds, with an occasional long gap
+			timestamp += 30000 + (i % 7) - 3 + (i % 1000 == 999 ? 3_600_000 : 0);
+			Map<String, Double> sample = new LinkedHashMap<>();
+			sample.put("NetworkInfo#ReceivedPackets", 1_000_000.0 + i * 150);
+			sample.put("NetworkInfo#ReceivedPacketsRate(pps)", 5.0);
+			if (i % 100 < 60) {
+				// in call
+				sample.put("Audio#JitterRx", (double) (i % 13));
+				sample.put("Audio#BitRateRx", 64.0);
+				sample.put("Video#FrameRateRx", i % 10 == 0 ? 15.0 : 30.0);
+				sample.put("CallQuality#AudioPacketLossAvg(%)", Math.round(i % 17 * 10) / 100.0);
+			}
+			rawSize += 8 + sample.size() * 8;
+			timestamps.add(timestamp);
+			samples.add(sample);
+			log.write(timestamp, sample);
+		}
+		log.close();
+
+		List<Path> segments;
+		try (Stream<Path> files = Files.list(directory)) {
+			segments = files.collect(Collectors.toList());
+		}
+		assertTrue("Segments are not rolled", segments.size() > 1);
+		long size = 0;
+		for (Path segment : segments) {
+			size += Files.size(segment);
+		}
+		assertTrue("Samples are not compressed, " + size + " of " + rawSize + " bytes", size < rawSize / 3);
+
+		List<Long> readTimestamps = new ArrayList<>();
+		List<Map<String, Double>> readSamples = new ArrayList<>();
+		TimeSeriesLog.Reader.scan(directory, Long.MIN_VALUE, Long.MAX_VALUE, (time, values) -> {
+			readTimestamps.add(time);
+			readSamples.add(values);
+		});
+		assertEquals("Wrong timestamps", timestamps, readTimestamps);
+		assertEquals("Wrong values", samples, readSamples);
+
+		long from = timestamps.get(12345);
+		long to = timestamps.get(12400);
+		List<TimeSeriesLog.Point> jitter = TimeSeriesLog.Reader.read(directory, "Audio#JitterRx", from, to);
+		assertEquals("Wrong number of points in range", 16, jitter.size());
+		assertEquals("Wrong first point in range", from, jitter.get(0).timestamp);
+		assertEquals("Wrong value in range", 12345 % 13, jitter.get(0).value, 0);
+	}
+
+	/**
+	 * Record torn by a crash must read as the end of the segment.
+	 */
+	@Test
+	public void testTornRecord() throws IOException {
+		Path directory = folder.getRoot().toPath();
+		TimeSeriesLog log = new TimeSeriesLog(directory, TimeSeriesLog.MIN_SEGMENT_SIZE, "test");
+		for (int i = 0; i < 3; i++) {
+			Map<String, Double> sample = new LinkedHashMap<>();
+			sample.put("Audio#JitterRx", i * 1.5);
+			log.write(1000L * (i + 1), sample);
+		}
+		log.close();
+
+		Path segment = directory.resolve(String.format("%019d", 1000L) + TimeSeriesLog.SEGMENT_SUFFIX);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+		List<TimeSeriesLog.Point> points = TimeSeriesLog.Reader.read(directory, "Audio#JitterRx", 0, Long.MAX_VALUE);
+		assertEquals("Records before the torn one are not read", 2, points.size());
+		assertEquals("Wrong value", 1.5, points.get(1).value, 0);
+	}
+}
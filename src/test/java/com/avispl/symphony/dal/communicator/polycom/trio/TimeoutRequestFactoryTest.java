@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TimeoutRequestFactory}.
+ */
+public class TimeoutRequestFactoryTest {
+
+	private static final long SLOW_RESPONSE_DELAY = 1000L;
+
+	private HttpServer server;
+	private ExecutorService executor;
+	private String baseUrl;
+	private final AtomicInteger unauthorized = new AtomicInteger();
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.start();
+		baseUrl = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort() + "/";
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Request must time out after the timeout it is sent with, not the default timeout of the HTTP client, which still applies to requests sent without one.
+	 */
+	@Test
+	public void testRequestTimeout() throws Exception {
+		try (CloseableHttpClient client = HttpClients.custom().setDefaultRequestConfig(RequestConfig.custom().setSocketTimeout(10000).build()).build()) {
+			RestTemplate restTemplate = new RestTemplate(new TimeoutRequestFactory(client, null));
+
+			long start = System.nanoTime();
+			try {
+				TimeoutRequestFactory.call(200L, () -> restTemplate.getForObject(baseUrl + "slow", String.class));
+				fail("Slow request does not time out");
+			} catch (ResourceAccessException e) {
+				assertTrue("Slow request does not fail with a read timeout", e.getCause() instanceof SocketTimeoutException);
+			}
+			assertTrue("Slow request is not bounded by its timeout", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW_RESPONSE_DELAY - 200L);
+
+			assertEquals("Fast request fails", "{}", TimeoutRequestFactory.call(200L, () -> restTemplate.getForObject(baseUrl + "fast", String.class)));
+			assertEquals("Request without timeout does not use the default", "{}", restTemplate.getForObject(baseUrl + "slow", String.class));
+		}
+	}
+
+	/**
+	 * Requests must authenticate preemptively with Basic authentication, with no challenge round trip.
+	 */
+	@Test
+	public void testPreemptiveBasicAuthentication() throws Exception {
+		CredentialsProvider credentials = new BasicCredentialsProvider();
+		credentials.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials("Polycom", "456"));
+		try (CloseableHttpClient client = HttpClients.custom().setDefaultCredentialsProvider(credentials).build()) {
+			HttpHost target = new HttpHost(InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort(), "http");
+			RestTemplate restTemplate = new RestTemplate(new TimeoutRequestFactory(client, target));
+
+			for (int i = 0; i < 3; i++) {
+				assertEquals("Authenticated request fails", "{}", TimeoutRequestFactory.call(1000L, () -> restTemplate.getForObject(baseUrl + "auth", String.class)));
+			}
+			assertEquals("Requests are challenged", 0, unauthorized.get());
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		int status = 200;
+		if (path.endsWith("slow")) {
+			try {
+				Thread.sleep(SLOW_RESPONSE_DELAY);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		} else if (path.endsWith("auth") && exchange.getRequestHeaders().getFirst("Authorization") == null) {
+			unauthorized.incrementAndGet();
+			exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"trio\"");
+			status = 401;
+		}
+		byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		} catch (IOException e) {
+			// client gave up on the slow response
+		}
+	}
+}
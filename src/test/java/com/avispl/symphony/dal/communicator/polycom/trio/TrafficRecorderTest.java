@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.communicator.polycom.trio;
+
+import com.avispl.symphony.api.dal.error.CommandFailureException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TrafficRecorder}.
+ */
+public class TrafficRecorderTest {
+
+	// formatted as the device formats it, not as Jackson would write it back
+	private static final String DEVICE_INFO = "{\n  \"Status\": \"2000\",\n  \"data\": {\"FirmwareRelease\": \"5.9.0\", \"UpTime\": 1.50}\n}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Successful and failed exchanges must be read back as they were recorded, with response bodies as received from the device.
+	 *
+	 * @throws Exception if recording fails
+	 */
+	@Test
+	public void testRecordAndRead() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		Path file = folder.getRoot().toPath().resolve("device.trio");
+		try (TrafficRecorder recorder = TrafficRecorder.open(new RawDevice(), objectMapper, file)) {
+			assertEquals("Response is not converted", objectMapper.readTree(DEVICE_INFO), recorder.get("api/v1/mgmt/device/info", JsonNode.class));
+			try {
+				recorder.post("api/v1/callctrl/dial", null, null);
+				fail("Failure is not passed through");
+			} catch (CommandFailureException e) {
+				// expected
+			}
+			assertEquals("Command status is not read", "2000", recorder.postCommand("api/v1/callctrl/endCall", CommandEncoder.endCall("0x1"), 0));
+		}
+
+		List<TrafficRecorder.Exchange> exchanges = TrafficRecorder.read(file);
+		assertEquals("Exchanges are not recorded", 3, exchanges.size());
+		TrafficRecorder.Exchange get = exchanges.get(0);
+		assertEquals("Method is not recorded", "GET", get.method);
+		assertEquals("URI is not recorded", "api/v1/mgmt/device/info", get.uri);
+		assertEquals("Status is not recorded", 200, get.status);
+		assertTrue("Latency is not recorded", get.latency >= 20);
+		assertEquals("Body is not recorded as received", DEVICE_INFO, new String(get.body, StandardCharsets.UTF_8));
+		TrafficRecorder.Exchange post = exchanges.get(1);
+		assertEquals("Method is not recorded", "POST", post.method);
+		assertEquals("Status of failure is not recorded", 400, post.status);
+		assertEquals("Body of failure is not recorded", "{\"Status\":\"4000\"}", new String(post.body, StandardCharsets.UTF_8));
+		TrafficRecorder.Exchange command = exchanges.get(2);
+		assertEquals("Body of command is not recorded as received", "{\"Status\":\"2000\",\"data\":{}}", new String(command.body, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Batch responses must be recorded as received and converted to the requested types, and URIs over 64 KB of UTF-8 must be recorded whole.
+	 *
+	 * @throws Exception if recording fails
+	 */
+	@Test
+	public void testGetAllAndLargeUri() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		StringBuilder builder = new StringBuilder("api/v1/mgmt/device/info?q=");
+		while (builder.length() < 70000) {
+			builder.append("会议室");
+		}
+		String largeUri = builder.toString();
+		Path file = folder.getRoot().toPath().resolve("device.trio");
+		try (TrafficRecorder recorder = TrafficRecorder.open(new RawDevice(), objectMapper, file)) {
+			Map<String, Type> requests = new LinkedHashMap<>();
+			requests.put(largeUri, JsonNode.class);
+			requests.put("api/v1/mgmt/missing", JsonNode.class);
+			Map<String, Exception> failures = new HashMap<>();
+			Map<String, Object> responses = recorder.getAll(requests, 1000L, failures);
+			assertEquals("Batch response is not converted", "5.9.0", ((JsonNode) responses.get(largeUri)).at("/data/FirmwareRelease").asText());
+			assertTrue("Batch failure is not passed through", failures.get("api/v1/mgmt/missing") instanceof CommandFailureException);
+		}
+
+		List<TrafficRecorder.Exchange> exchanges = TrafficRecorder.read(file);
+		assertEquals("Exchanges are not recorded", 2, exchanges.size());
+		assertEquals("Large URI is not recorded", largeUri, exchanges.get(0).uri);
+		assertEquals("Batch body is not recorded as received", DEVICE_INFO, new String(exchanges.get(0).body, StandardCharsets.UTF_8));
+		assertEquals("Status of batch failure is not recorded", 404, exchanges.get(1).status);
+	}
+
+	/**
+	 * Device answering with raw response bodies, as transports do when asked for {@code byte[]}.
+	 */
+	private static class RawDevice implements TrioTransport {
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T get(String uri, Type responseType, long timeout) throws Exception {
+			assertEquals("Raw body is not requested", byte[].class, responseType);
+			if (uri.endsWith("missing")) {
+				throw new CommandFailureException("127.0.0.1", uri, "{\"Status\":\"4004\"}", 404);
+			}
+			Thread.sleep(20L);
+			return (T) DEVICE_INFO.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T post(String uri, Object request, Type responseType, long timeout) {
+			assertEquals("Raw body is not requested", byte[].class, responseType);
+			if (uri.endsWith("dial")) {
+				throw new CommandFailureException("127.0.0.1", uri, "{\"Status\":\"4000\"}", 400);
+			}
+			assertTrue("Command body is not posted as is", request instanceof byte[]);
+			return (T) "{\"Status\":\"2000\",\"data\":{}}".getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+}